@@ -1,27 +1,147 @@
 // src/main/java/com/tickets/backend/config/CacheConfig.java
 package com.tickets.backend.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.support.AbstractCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Cachés de Spring acotadas y con expiración, configurables por caché:
+ *
+ *   app.cache.default=maximo=1000,ttl=10m
+ *   app.cache.usuariosActivos=maximo=1,ttl=10m,refresco=8m
+ *
+ * "maximo" es la cantidad de entradas (desalojo W-TinyLFU de Caffeine), "ttl" el tiempo tras
+ * la escritura y "refresco" la edad a partir de la cual un @Cacheable(sync = true) recalcula
+ * la entrada antes de que venza (0 = sin refresco). El recálculo corre en el pool
+ * "refrescoCacheExecutor" y, si falla, se reintenta tras "reintento". Cada caché publica en Micrometer
+ * aciertos, fallos, desalojos y tamaño (cache.gets, cache.evictions, cache.size...).
+ * Los desalojos explícitos se propagan a las demás instancias por {@link BusInvalidacionesCache}.
+ */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(CacheConfig.class);
+
+    private static final List<String> CACHES = List.of(
+        "usuariosActivos",
+        "usuariosInactivos",
+        "tecnicosActivos",
+        "tecnicosPorCategoria",
+        "supervisoresPorCategoria",
+        "usuariosActivosBusqueda",
+        "usuariosInactivosBusqueda"
+    );
+
+    /**
+     * Pool acotado para los refrescos anticipados. Si la cola se llena, la entrada se sigue
+     * sirviendo y el refresco se reintenta más tarde.
+     */
+    @Bean(name = "refrescoCacheExecutor")
+    public ThreadPoolTaskExecutor refrescoCacheExecutor(
+            @Value("${app.cache.refresco.workers:2}") int workers,
+            @Value("${app.cache.refresco.capacidad-cola:100}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("refresco-cache-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
     @Bean
-    public CacheManager cacheManager() {
-        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(
-            "usuariosActivos",
-            "usuariosInactivos", 
-            "tecnicosActivos",
-            "tecnicosPorCategoria",
-            "supervisoresPorCategoria",
-            "usuariosActivosBusqueda",
-            "usuariosInactivosBusqueda"
-        );
-        return cacheManager;
+    public CacheManager cacheManager(Environment environment, MeterRegistry meterRegistry,
+                                     BusInvalidacionesCache busInvalidaciones,
+                                     @Qualifier("refrescoCacheExecutor") Executor refrescoCacheExecutor) {
+        return new AbstractCacheManager() {
+            @Override
+            protected Collection<? extends org.springframework.cache.Cache> loadCaches() {
+                List<CacheLocal> caches = new ArrayList<>();
+                for (String nombre : CACHES) {
+                    caches.add(crearCache(nombre, environment, meterRegistry, busInvalidaciones, refrescoCacheExecutor));
+                }
+                return caches;
+            }
+
+            // Una caché no declarada se crea con la configuración por defecto (también acotada)
+            @Override
+            protected org.springframework.cache.Cache getMissingCache(String nombre) {
+                return crearCache(nombre, environment, meterRegistry, busInvalidaciones, refrescoCacheExecutor);
+            }
+        };
+    }
+
+    private static CacheLocal crearCache(String nombre, Environment environment, MeterRegistry meterRegistry,
+                                         BusInvalidacionesCache busInvalidaciones, Executor refrescoCacheExecutor) {
+        Especificacion especificacion = Especificacion.leer(
+            environment.getProperty("app.cache." + nombre, environment.getProperty("app.cache.default", "")));
+
+        Cache<Object, CacheLocal.Entrada> nativa = Caffeine.newBuilder()
+            .maximumSize(especificacion.maximo)
+            .expireAfterWrite(especificacion.ttl)
+            .recordStats()
+            .build();
+        CacheLocal cache = new CacheLocal(nombre, nativa, especificacion.refresco.toNanos(),
+            especificacion.reintento.toNanos(), refrescoCacheExecutor, busInvalidaciones);
+        busInvalidaciones.registrar(nombre, cache::desalojarRemoto);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, nativa, nombre);
+        FunctionCounter.builder("cache.refrescos", cache, CacheLocal::getRefrescos)
+            .tag("cache", nombre)
+            .description("Entradas recalculadas antes de vencer")
+            .register(meterRegistry);
+
+        logger.info("Caché {}: máximo {} entradas, ttl {}, refresco {}",
+            nombre, especificacion.maximo, especificacion.ttl, especificacion.refresco);
+        return cache;
+    }
+
+    private static final class Especificacion {
+        private long maximo = 1000;
+        private Duration ttl = Duration.ofMinutes(10);
+        private Duration refresco = Duration.ZERO;
+        private Duration reintento = Duration.ofSeconds(30);
+
+        static Especificacion leer(String texto) {
+            Especificacion especificacion = new Especificacion();
+            for (String parte : texto.split(",")) {
+                String[] claveValor = parte.trim().split("=", 2);
+                if (claveValor.length != 2) {
+                    continue;
+                }
+                String valor = claveValor[1].trim();
+                switch (claveValor[0].trim()) {
+                    case "maximo" -> especificacion.maximo = Long.parseLong(valor);
+                    case "ttl" -> especificacion.ttl = DurationStyle.detectAndParse(valor);
+                    case "refresco" -> especificacion.refresco = DurationStyle.detectAndParse(valor);
+                    case "reintento" -> especificacion.reintento = DurationStyle.detectAndParse(valor);
+                    default -> throw new IllegalArgumentException("Opción de caché desconocida: " + claveValor[0]);
+                }
+            }
+            return especificacion;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package com.tickets.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de Spring sobre Caffeine: tamaño acotado (W-TinyLFU), expiración tras escritura y
+ * refresco anticipado.
+ *
+ * El refresco anticipado aplica a los @Cacheable(sync = true): cuando una entrada supera su
+ * edad de refresco, la primera llamada que la lee programa el recálculo en el pool de refresco
+ * y todas (también esa) reciben el valor vigente, así la entrada no expira bajo carga y ninguna
+ * lectura paga la consulta. Si el recálculo falla se reintenta recién pasado el intervalo de
+ * reintento. El resultado solo reemplaza a la misma entrada que se refrescó: si entretanto se
+ * desalojó (o se recargó), se descarta.
+ *
+ * evict y clear desalojan de inmediato y otra vez al confirmar la transacción en curso, y se
+ * publican en el bus de invalidaciones para que las demás instancias descarten la misma
+ * entrada; {@link #desalojarRemoto(String)} aplica las que llegan.
+ */
+public class CacheLocal implements org.springframework.cache.Cache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheLocal.class);
+
+    private final String nombre;
+    private final Cache<Object, Entrada> cache;
+    private final long refrescoNanos;
+    private final long reintentoNanos;
+    private final Executor ejecutorRefresco;
+    private final BusInvalidacionesCache busInvalidaciones;
+    private final LongAdder refrescos = new LongAdder();
+
+    public CacheLocal(String nombre, Cache<Object, Entrada> cache, long refrescoNanos, long reintentoNanos,
+                      Executor ejecutorRefresco, BusInvalidacionesCache busInvalidaciones) {
+        this.nombre = nombre;
+        this.cache = cache;
+        this.refrescoNanos = refrescoNanos;
+        this.reintentoNanos = reintentoNanos;
+        this.ejecutorRefresco = ejecutorRefresco;
+        this.busInvalidaciones = busInvalidaciones;
+    }
+
+    @Override
+    public String getName() {
+        return nombre;
+    }
+
+    @Override
+    public Cache<Object, Entrada> getNativeCache() {
+        return cache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Entrada entrada = cache.getIfPresent(key);
+        return entrada != null ? new SimpleValueWrapper(entrada.valor) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Entrada entrada = cache.getIfPresent(key);
+        if (entrada == null) {
+            return null;
+        }
+        if (entrada.valor != null && type != null && !type.isInstance(entrada.valor)) {
+            throw new IllegalStateException("El valor en caché no es del tipo " + type.getName() + ": " + entrada.valor);
+        }
+        return (T) entrada.valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entrada entrada = cache.get(key, k -> new Entrada(cargar(k, valueLoader)));
+        if (refrescoNanos > 0 && entrada.debeRefrescarse(refrescoNanos)) {
+            programarRefresco(key, entrada, valueLoader);
+        }
+        return (T) entrada.valor;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        cache.put(key, new Entrada(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        cache.invalidate(key);
+        alConfirmar(() -> cache.invalidate(key));
+        busInvalidaciones.publicar(nombre, String.valueOf(key));
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+        alConfirmar(cache::invalidateAll);
+        busInvalidaciones.publicar(nombre, null);
+    }
+
+    /**
+     * Invalidación recibida de otra instancia: se aplica solo localmente.
+     * La clave llega como texto, así que se compara con String.valueOf de cada clave.
+     */
+    public void desalojarRemoto(String clave) {
+        if (clave == null) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(k -> clave.equals(String.valueOf(k)));
+        }
+    }
+
+    /**
+     * Entradas recalculadas por refresco anticipado
+     */
+    public long getRefrescos() {
+        return refrescos.sum();
+    }
+
+    /**
+     * Repite el desalojo al confirmar la transacción: una lectura concurrente pudo volver a
+     * cachear el valor anterior al cambio entre el desalojo y el commit
+     */
+    private static void alConfirmar(Runnable desalojo) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    desalojo.run();
+                }
+            });
+        }
+    }
+
+    private void programarRefresco(Object key, Entrada entrada, Callable<?> valueLoader) {
+        try {
+            ejecutorRefresco.execute(() -> refrescar(key, entrada, valueLoader));
+        } catch (RejectedExecutionException e) {
+            // Pool saturado: la entrada sigue vigente hasta su ttl; se reintenta más tarde
+            entrada.posponerRefresco(reintentoNanos);
+        }
+    }
+
+    private void refrescar(Object key, Entrada entrada, Callable<?> valueLoader) {
+        try {
+            Entrada nueva = new Entrada(valueLoader.call());
+            // Solo si la entrada sigue siendo la que se refrescó: un evict en curso gana
+            if (cache.asMap().replace(key, entrada, nueva)) {
+                refrescos.increment();
+            }
+        } catch (Exception e) {
+            entrada.posponerRefresco(reintentoNanos);
+            logger.warn("No se pudo refrescar la entrada {} de la caché {}: {}", key, nombre, e.getMessage());
+        }
+    }
+
+    private <T> T cargar(Object key, Callable<T> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    /**
+     * Valor guardado con su momento de carga; admite null como valor cacheado
+     */
+    static final class Entrada {
+        private static final long EN_CURSO = Long.MAX_VALUE;
+
+        private final Object valor;
+        private final long cargadaEn = System.nanoTime();
+        // Momento (nanoTime) desde el que se puede intentar el refresco; EN_CURSO mientras corre
+        private final AtomicLong refrescoDesde = new AtomicLong(cargadaEn);
+
+        private Entrada(Object valor) {
+            this.valor = valor;
+        }
+
+        // Solo la primera lectura que encuentra la entrada vencida (y fuera del intervalo de reintento) la refresca
+        private boolean debeRefrescarse(long refrescoNanos) {
+            long ahora = System.nanoTime();
+            if (ahora - cargadaEn < refrescoNanos) {
+                return false;
+            }
+            long desde = refrescoDesde.get();
+            return desde != EN_CURSO && ahora - desde >= 0 && refrescoDesde.compareAndSet(desde, EN_CURSO);
+        }
+
+        private void posponerRefresco(long reintentoNanos) {
+            refrescoDesde.set(System.nanoTime() + reintentoNanos);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.tickets.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class NotificacionesConfig {
+
+    /**
+     * Pool acotado para el envío de correos. Si la cola se llena, las notificaciones
+     * quedan PENDIENTES en la base de datos y las retoma el barrido periódico.
+     */
+    @Bean(name = "notificacionesExecutor")
+    public ThreadPoolTaskExecutor notificacionesExecutor(
+            @Value("${app.notificaciones.workers:2}") int workers,
+            @Value("${app.notificaciones.capacidad-cola:500}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("notificaciones-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+}
@@ -36,6 +36,9 @@ public class SecurityConfig {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private VersionSeguridadRegistry versionSeguridadRegistry;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -77,11 +80,12 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.POST, "/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/password/**").permitAll()
+                .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
 
         http.addFilterBefore(
-            new JwtAuthenticationFilter(tokenProvider, userDetailsService),
+            new JwtAuthenticationFilter(tokenProvider, userDetailsService, versionSeguridadRegistry),
             UsernamePasswordAuthenticationFilter.class
         );
 
@@ -0,0 +1,28 @@
+package com.tickets.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class TrabajosMasivosConfig {
+
+    /**
+     * Pool acotado para los trabajos masivos. Si la cola se llena, el trabajo queda
+     * PENDIENTE en la base de datos y lo retoma el barrido periódico.
+     */
+    @Bean(name = "trabajosMasivosExecutor")
+    public ThreadPoolTaskExecutor trabajosMasivosExecutor(
+            @Value("${app.trabajos.workers:1}") int workers,
+            @Value("${app.trabajos.capacidad-cola:50}") int capacidadCola) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(capacidadCola);
+        executor.setThreadNamePrefix("trabajos-masivos-");
+        // No se espera al apagar: el trabajo se retoma desde el último lote confirmado
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+}
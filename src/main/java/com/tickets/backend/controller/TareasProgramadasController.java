@@ -0,0 +1,30 @@
+package com.tickets.backend.controller;
+
+import com.tickets.backend.models.EjecucionTarea;
+import com.tickets.backend.service.CoordinadorTareasService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/tareas")
+@CrossOrigin(origins = "*")
+public class TareasProgramadasController {
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
+
+    /**
+     * Últimas ejecuciones de tareas programadas: instancia, token, duración y resultado
+     */
+    @GetMapping("/ejecuciones")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EjecucionTarea>> obtenerEjecuciones(
+            @RequestParam(required = false) String nombre,
+            @RequestParam(defaultValue = "50") int limite) {
+        return ResponseEntity.ok(coordinadorTareas.obtenerHistorial(nombre, limite));
+    }
+}
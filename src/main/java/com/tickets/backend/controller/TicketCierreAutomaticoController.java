@@ -1,5 +1,6 @@
 package com.tickets.backend.controller;
 
+import com.tickets.backend.dto.VistaPreviaCierreDto;
 import com.tickets.backend.service.TicketCierreAutomaticoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -75,6 +76,15 @@ public ResponseEntity<Map<String, Object>> ejecutarCierreProgramado() {
         }
     }
 
+    /**
+     * Vista previa del cierre automático: pendientes, próxima ejecución y candidatos más antiguos
+     */
+    @GetMapping("/vista-previa")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<VistaPreviaCierreDto> obtenerVistaPrevia() {
+        return ResponseEntity.ok(cierreAutomaticoService.obtenerVistaPrevia());
+    }
+
     /**
      * Actualiza la configuración del scheduler
      */
@@ -1,6 +1,8 @@
 package com.tickets.backend.controller;
 
 import com.tickets.backend.dto.ComentarioDto;
+import com.tickets.backend.dto.PaginaCursorDto;
+import com.tickets.backend.dto.TrabajoMasivoDto;
 import com.tickets.backend.dto.TicketDto;
 import com.tickets.backend.dto.TicketResponseDto;
 import com.tickets.backend.models.Categoria;
@@ -9,7 +11,15 @@ import com.tickets.backend.models.EstadoTicket;
 import com.tickets.backend.models.HistorialCambio;
 import com.tickets.backend.models.PrioridadTicket;
 import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.TrabajoMasivo;
+import com.tickets.backend.service.AnaliticaTicketsService;
+import com.tickets.backend.service.CoalescenciaSolicitudesService;
+import com.tickets.backend.service.ContadoresTicketsService;
+import com.tickets.backend.service.EstadisticasTecnicosService;
+import com.tickets.backend.service.NumeroTicketService;
+import com.tickets.backend.service.PanelUsuarioService;
 import com.tickets.backend.service.TicketService;
+import com.tickets.backend.service.TrabajosMasivosService;
 import jakarta.validation.Valid;
 
 import org.springframework.data.domain.Sort;
@@ -17,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -57,6 +68,20 @@ public class TicketController {
     private TicketRepository ticketRepository;
     @Autowired
     private CategoriaRepository categoriaRepository;
+    @Autowired
+    private ContadoresTicketsService contadoresTicketsService;
+    @Autowired
+    private AnaliticaTicketsService analiticaTicketsService;
+    @Autowired
+    private PanelUsuarioService panelUsuarioService;
+    @Autowired
+    private EstadisticasTecnicosService estadisticasTecnicosService;
+    @Autowired
+    private TrabajosMasivosService trabajosMasivosService;
+    @Autowired
+    private CoalescenciaSolicitudesService coalescenciaSolicitudes;
+    @Autowired
+    private NumeroTicketService numeroTicketService;
 
 
     @PostMapping
@@ -189,10 +214,8 @@ public class TicketController {
             Authentication authentication) {
         
         String email = authentication.getName();
-        Page<Ticket> tickets = ticketService.obtenerTicketsPorUsuario(email, pageable);
-        
-        // Convertir la página de tickets a una página de DTOs
-        Page<TicketResponseDto> ticketsDto = tickets.map(this::convertirAResponseDto);
+        // La consulta ya devuelve la página de DTOs
+        Page<TicketResponseDto> ticketsDto = ticketService.obtenerTicketsPorUsuario(email, pageable);
         
         return ResponseEntity.ok(ticketsDto);
     }
@@ -203,14 +226,43 @@ public class TicketController {
             Authentication authentication) {
         
         String email = authentication.getName();
-        Page<Ticket> tickets = ticketService.obtenerTicketsPorTecnico(email, pageable);
-        return ResponseEntity.ok(tickets.map(this::convertirAResponseDto));
+        return ResponseEntity.ok(ticketService.obtenerTicketsPorTecnico(email, pageable));
+    }
+
+    // Modo cursor (keyset) de mis-tickets: orden fijo por fecha de creación descendente
+    @GetMapping("/mis-tickets/cursor")
+    public ResponseEntity<PaginaCursorDto<TicketResponseDto>> obtenerMisTicketsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal,
+            Authentication authentication) {
+        
+        try {
+            return ResponseEntity.ok(ticketService.obtenerTicketsPorUsuarioCursor(
+                    authentication.getName(), cursor, size, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/mis-asignaciones/cursor")
+    public ResponseEntity<PaginaCursorDto<TicketResponseDto>> obtenerMisAsignacionesCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal,
+            Authentication authentication) {
+        
+        try {
+            return ResponseEntity.ok(ticketService.obtenerTicketsPorTecnicoCursor(
+                    authentication.getName(), cursor, size, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/sin-asignar")
     public ResponseEntity<Page<TicketResponseDto>> obtenerTicketsSinAsignar(Pageable pageable) {
-        Page<Ticket> tickets = ticketService.obtenerTicketsSinAsignar(pageable);
-        return ResponseEntity.ok(tickets.map(this::convertirAResponseDto));
+        return ResponseEntity.ok(ticketService.obtenerTicketsSinAsignar(pageable));
     }
 
     @GetMapping("/estado/{estado}")
@@ -218,8 +270,7 @@ public class TicketController {
             @PathVariable EstadoTicket estado,
             Pageable pageable) {
         
-        Page<Ticket> tickets = ticketService.obtenerTicketsPorEstado(estado, pageable);
-        return ResponseEntity.ok(tickets.map(this::convertirAResponseDto));
+        return ResponseEntity.ok(ticketService.obtenerTicketsPorEstado(estado, pageable));
     }
 
     @GetMapping("/buscar")
@@ -227,8 +278,7 @@ public class TicketController {
             @RequestParam String keyword,
             Pageable pageable) {
         
-        Page<Ticket> tickets = ticketService.buscarTickets(keyword, pageable);
-        return ResponseEntity.ok(tickets.map(this::convertirAResponseDto));
+        return ResponseEntity.ok(ticketService.buscarTickets(keyword, pageable));
     }
 
     @GetMapping("/{id}/comentarios")
@@ -246,20 +296,25 @@ public class TicketController {
         return ResponseEntity.ok(historial);
     }
 
+    // Los paneles abiertos a la vez comparten un solo cálculo (ver CoalescenciaSolicitudesService)
     @GetMapping("/estadisticas")
     public ResponseEntity<Map<String, Object>> obtenerEstadisticas() {
+        return ResponseEntity.ok(coalescenciaSolicitudes.obtener("estadisticas", "global", this::calcularEstadisticas));
+    }
+
+    private Map<String, Object> calcularEstadisticas() {
         Map<String, Object> estadisticas = new HashMap<>();
         
-        // Contar tickets por cada estado
-        Long nuevo = ticketRepository.countByEstado(EstadoTicket.NUEVO);
-        Long asignado = ticketRepository.countByEstado(EstadoTicket.ASIGNADO);
-        Long enProgreso = ticketRepository.countByEstado(EstadoTicket.EN_PROGRESO);
-        Long enEspera = ticketRepository.countByEstado(EstadoTicket.EN_ESPERA);
-        Long resuelto = ticketRepository.countByEstado(EstadoTicket.RESUELTO);
-        Long cerrado = ticketRepository.countByEstado(EstadoTicket.CERRADO);
+        // Contar tickets por cada estado (contadores en memoria, sin consultas COUNT)
+        long nuevo = contadoresTicketsService.contarPorEstado(EstadoTicket.NUEVO);
+        long asignado = contadoresTicketsService.contarPorEstado(EstadoTicket.ASIGNADO);
+        long enProgreso = contadoresTicketsService.contarPorEstado(EstadoTicket.EN_PROGRESO);
+        long enEspera = contadoresTicketsService.contarPorEstado(EstadoTicket.EN_ESPERA);
+        long resuelto = contadoresTicketsService.contarPorEstado(EstadoTicket.RESUELTO);
+        long cerrado = contadoresTicketsService.contarPorEstado(EstadoTicket.CERRADO);
         
         // Obtener conteo de tickets urgentes (con prioridad ALTA o CRITICA)
-        Long urgentes = ticketRepository.countByPrioridadIn(
+        long urgentes = contadoresTicketsService.contarPorPrioridades(
             Arrays.asList(PrioridadTicket.ALTA, PrioridadTicket.CRITICA));
         
         estadisticas.put("nuevo", nuevo);
@@ -270,63 +325,59 @@ public class TicketController {
         estadisticas.put("cerrado", cerrado);
         estadisticas.put("urgentes", urgentes);
         
-        return ResponseEntity.ok(estadisticas);
+        return estadisticas;
     }
     @GetMapping("/recientes")
     public ResponseEntity<List<TicketResponseDto>> obtenerTicketsRecientes() {
-        // Obtener los 5 tickets más recientes
-        PageRequest pageRequest = PageRequest.of(0, 5, Sort.by("fechaCreacion").descending());
-        Page<Ticket> ticketsPage = ticketRepository.findAll(pageRequest);
-        List<Ticket> tickets = ticketsPage.getContent();
-        
-        // Convertir a DTOs
-        List<TicketResponseDto> ticketsDto = tickets.stream()
-            .map(this::convertirAResponseDto)
-            .collect(Collectors.toList());
+        // Obtener los 5 tickets más recientes, ya proyectados a DTO
+        List<TicketResponseDto> ticketsDto = ticketService.obtenerTicketsRecientes(5);
         
         return ResponseEntity.ok(ticketsDto);
     }
 
     @GetMapping("/datos-mensuales")
     public ResponseEntity<List<Map<String, Object>>> obtenerDatosMensuales() {
+        return ResponseEntity.ok(coalescenciaSolicitudes.obtener("datos-mensuales", "global", this::calcularDatosMensuales));
+    }
+
+    private List<Map<String, Object>> calcularDatosMensuales() {
         List<Map<String, Object>> datos = new ArrayList<>();
         
         // Obtener últimos 6 meses
         LocalDate fechaActual = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM").withLocale(new Locale("es", "ES"));
         
-        for (int i = 5; i >= 0; i--) {
-            LocalDate fechaMes = fechaActual.minusMonths(i);
-            String nombreMes = fechaMes.format(formatter).toLowerCase();
-            
-            // Determinar inicio y fin del mes
-            YearMonth yearMonth = YearMonth.from(fechaMes);
-            LocalDateTime inicio = yearMonth.atDay(1).atStartOfDay();
-            LocalDateTime fin = yearMonth.atEndOfMonth().atTime(23, 59, 59);
-            
-            // Contar tickets creados en ese período
-            long cantidad = ticketRepository.countByFechaCreacionBetween(inicio, fin);
+        // Una sola lectura del resumen diario para los seis meses
+        YearMonth mesActual = YearMonth.from(fechaActual);
+        Map<YearMonth, Long> porMes = analiticaTicketsService.contarPorMes(mesActual.minusMonths(5), mesActual);
+        
+        porMes.forEach((yearMonth, cantidad) -> {
+            String nombreMes = yearMonth.atDay(1).format(formatter).toLowerCase();
             
             Map<String, Object> datoMes = new HashMap<>();
             datoMes.put("mes", nombreMes);
             datoMes.put("cantidad", cantidad);
             
             datos.add(datoMes);
-        }
+        });
         
-        return ResponseEntity.ok(datos);
+        return datos;
     }
 
     @GetMapping("/datos-categoria")
     public ResponseEntity<List<Map<String, Object>>> obtenerDatosPorCategoria() {
+        return ResponseEntity.ok(coalescenciaSolicitudes.obtener("datos-categoria", "global", this::calcularDatosPorCategoria));
+    }
+
+    private List<Map<String, Object>> calcularDatosPorCategoria() {
         List<Map<String, Object>> datos = new ArrayList<>();
         
         // Obtener categorías activas
         List<Categoria> categorias = categoriaRepository.findByActivoTrue();
         
         for (Categoria categoria : categorias) {
-            // Contar tickets para esta categoría
-            long cantidad = ticketRepository.countByCategoria(categoria);
+            // Contar tickets para esta categoría (contadores en memoria)
+            long cantidad = contadoresTicketsService.contarPorCategoria(categoria.getId());
             
             // Solo incluir categorías con tickets
             if (cantidad > 0) {
@@ -338,8 +389,26 @@ public class TicketController {
             }
         }
         
-        return ResponseEntity.ok(datos);
+        return datos;
+    }
+    /**
+     * Volumen de tickets creados por día, semana o mes en cualquier rango, opcionalmente
+     * separado por categoría, prioridad, estado o técnico
+     */
+    @GetMapping("/analitica")
+    public ResponseEntity<List<Map<String, Object>>> obtenerAnalitica(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "MES") AnaliticaTicketsService.Intervalo intervalo,
+            @RequestParam(required = false) AnaliticaTicketsService.Dimension agruparPor) {
+        
+        if (hasta.isBefore(desde)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        return ResponseEntity.ok(analiticaTicketsService.consultar(desde, hasta, intervalo, agruparPor));
     }
+
     @GetMapping("/administracion/todos")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Page<TicketResponseDto>> obtenerTodosTicketsAdmin(
@@ -364,27 +433,56 @@ public class TicketController {
         Pageable pageable = PageRequest.of(page, size, sorting);
         
         // Usar el servicio para obtener todos los tickets con filtros
-        Page<Ticket> tickets = ticketService.obtenerTodosTicketsConFiltros(
+        Page<TicketResponseDto> tickets = ticketService.obtenerTodosTicketsConFiltros(
             estado, prioridad, categoriaId, tecnicoId, usuarioId, 
             fechaDesde, fechaHasta, busqueda, pageable);
         
-        return ResponseEntity.ok(tickets.map(this::convertirAResponseDto));
+        return ResponseEntity.ok(tickets);
 
     }
 
+    // Modo cursor (keyset) del listado de administración: no calcula el total salvo que se pida
+    @GetMapping("/administracion/todos/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PaginaCursorDto<TicketResponseDto>> obtenerTodosTicketsAdminCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean incluirTotal,
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) String prioridad,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(required = false) Long tecnicoId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) String fechaDesde,
+            @RequestParam(required = false) String fechaHasta,
+            @RequestParam(required = false) String busqueda) {
+        
+        try {
+            return ResponseEntity.ok(ticketService.obtenerTodosTicketsConFiltrosCursor(
+                estado, prioridad, categoriaId, tecnicoId, usuarioId,
+                fechaDesde, fechaHasta, busqueda, cursor, size, incluirTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/administracion/estadisticas")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> obtenerEstadisticasAdmin() {
+        return ResponseEntity.ok(coalescenciaSolicitudes.obtener("administracion-estadisticas", "ADMIN", this::calcularEstadisticasAdmin));
+    }
+
+    private Map<String, Object> calcularEstadisticasAdmin() {
         Map<String, Object> estadisticas = new HashMap<>();
         
         // Total de tickets
-        long total = ticketRepository.count();
+        long total = contadoresTicketsService.contarTotal();
         
         // Contar tickets por estado
-        long abiertos = ticketRepository.countByEstado(EstadoTicket.NUEVO);
-        long asignados = ticketRepository.countByEstado(EstadoTicket.ASIGNADO);
-        long resueltos = ticketRepository.countByEstado(EstadoTicket.RESUELTO);
-        long cerrados = ticketRepository.countByEstado(EstadoTicket.CERRADO);
+        long abiertos = contadoresTicketsService.contarPorEstado(EstadoTicket.NUEVO);
+        long asignados = contadoresTicketsService.contarPorEstado(EstadoTicket.ASIGNADO);
+        long resueltos = contadoresTicketsService.contarPorEstado(EstadoTicket.RESUELTO);
+        long cerrados = contadoresTicketsService.contarPorEstado(EstadoTicket.CERRADO);
         
         estadisticas.put("total", total);
         estadisticas.put("abiertos", abiertos);
@@ -395,22 +493,29 @@ public class TicketController {
         // Estadísticas por prioridad
         Map<String, Long> porPrioridad = new HashMap<>();
         for (PrioridadTicket prioridad : PrioridadTicket.values()) {
-            porPrioridad.put(prioridad.name(), ticketRepository.countByPrioridad(prioridad));
+            porPrioridad.put(prioridad.name(), contadoresTicketsService.contarPorPrioridad(prioridad));
         }
         estadisticas.put("porPrioridad", porPrioridad);
         
-        // Estadísticas por técnico
-        Map<String, Long> porTecnico = new HashMap<>();
-        // Implementar lógica para obtener tickets por técnico
+        // Estadísticas por técnico (tickets abiertos, desde memoria)
+        estadisticas.put("porTecnico", estadisticasTecnicosService.contarAbiertosPorTecnico());
         
-        estadisticas.put("porTecnico", porTecnico);
-        
-        return ResponseEntity.ok(estadisticas);
+        return estadisticas;
+    }
+
+    /**
+     * Ranking de técnicos en una sola llamada: carga por estado, resoluciones recientes,
+     * tiempo promedio de resolución y valoración promedio
+     */
+    @GetMapping("/administracion/tecnicos/ranking")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> obtenerRankingTecnicos() {
+        return ResponseEntity.ok(estadisticasTecnicosService.obtenerRanking());
     }
 
     @PostMapping("/administracion/asignar-masivo")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> asignarTicketsMasivo(@RequestBody Map<String, Object> payload, Authentication authentication) {
+    public ResponseEntity<TrabajoMasivoDto> asignarTicketsMasivo(@RequestBody Map<String, Object> payload, Authentication authentication) {
         try {
             // Obtener la lista de IDs de tickets y convertirla adecuadamente
             List<Object> ticketIdsObj = (List<Object>) payload.get("ticketIds");
@@ -440,9 +545,10 @@ public class TicketController {
         String email = authentication.getName();
         
         try {
-            ticketService.asignarTicketsMasivo(ticketIds, tecnicoId, email);
-            return ResponseEntity.ok().build();
-        } catch (AccessDeniedException e) {
+            // Se procesa en segundo plano; el avance se consulta en /api/jobs/{id}
+            TrabajoMasivo trabajo = trabajosMasivosService.crearAsignacion(ticketIds, tecnicoId, email);
+            return ResponseEntity.accepted().body(trabajosMasivosService.obtener(trabajo.getId()).orElse(null));
+        } catch (java.nio.file.AccessDeniedException e) {
             // Devolver un error 403 Forbidden
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
         }
@@ -454,7 +560,7 @@ public class TicketController {
     }
     @PostMapping("/administracion/cambiar-estado-masivo")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> cambiarEstadoMasivo(@RequestBody Map<String, Object> payload, Authentication authentication) {
+    public ResponseEntity<TrabajoMasivoDto> cambiarEstadoMasivo(@RequestBody Map<String, Object> payload, Authentication authentication) {
         // Convertir IDs de tickets de Integer a Long
         List<Object> ticketIdsObj = (List<Object>) payload.get("ticketIds");
         List<Long> ticketIds = ticketIdsObj.stream()
@@ -473,9 +579,14 @@ public class TicketController {
         String email = authentication.getName();
         
         EstadoTicket estado = EstadoTicket.valueOf(nuevoEstado);
-        ticketService.cambiarEstadoMasivo(ticketIds, estado, email);
         
-        return ResponseEntity.ok().build();
+        try {
+            // Se procesa en segundo plano; el avance se consulta en /api/jobs/{id}
+            TrabajoMasivo trabajo = trabajosMasivosService.crearCambioEstado(ticketIds, estado, email);
+            return ResponseEntity.accepted().body(trabajosMasivosService.obtener(trabajo.getId()).orElse(null));
+        } catch (java.nio.file.AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(null);
+        }
     }
     @GetMapping("/ultimo-correlativo")
     public ResponseEntity<Map<String, Integer>> obtenerUltimoCorrelativo() {
@@ -495,7 +606,7 @@ public class TicketController {
         logger.info("POST /api/tickets/resetear-correlativo - Reseteando correlativo");
         
         try {
-            ticketService.resetearCorrelativo();
+            numeroTicketService.resetear();
             
             Map<String, Boolean> respuesta = new HashMap<>();
             respuesta.put("success", true);
@@ -512,100 +623,29 @@ public class TicketController {
         }
     }
 
+    /**
+     * Panel del usuario en una sola llamada: estadísticas, datos mensuales y datos por categoría
+     */
+    @GetMapping("/mi-panel")
+    public ResponseEntity<Map<String, Object>> obtenerPanelUsuario(Authentication authentication) {
+        return ResponseEntity.ok(panelUsuarioService.obtenerPanel(authentication.getName()));
+    }
+
     @GetMapping("/mis-estadisticas")
 public ResponseEntity<Map<String, Object>> obtenerEstadisticasUsuario(Authentication authentication) {
-    String email = authentication.getName();
-    Map<String, Object> estadisticas = new HashMap<>();
-    
-    // Obtener tickets del usuario
-    List<Ticket> tickets = ticketRepository.findByUsuarioCreadorEmail(email);
-    
-    // Contar por estado
-    long misTickets = tickets.size();
-    long pendientes = tickets.stream()
-        .filter(t -> t.getEstado() == EstadoTicket.NUEVO || t.getEstado() == EstadoTicket.ASIGNADO)
-        .count();
-    long enProgreso = tickets.stream()
-        .filter(t -> t.getEstado() == EstadoTicket.EN_PROGRESO)
-        .count();
-    long resueltos = tickets.stream()
-        .filter(t -> t.getEstado() == EstadoTicket.RESUELTO)
-        .count();
-    
-    estadisticas.put("misTickets", misTickets);
-    estadisticas.put("pendientes", pendientes);
-    estadisticas.put("enProgreso", enProgreso);
-    estadisticas.put("resueltos", resueltos);
-    
-    return ResponseEntity.ok(estadisticas);
+    return ResponseEntity.ok(panelUsuarioService.obtenerEstadisticas(authentication.getName()));
 }
 
 // Datos mensuales para usuarios normales (solo sus propios tickets)
 @GetMapping("/mis-datos-mensuales")
 public ResponseEntity<List<Map<String, Object>>> obtenerDatosMensualesUsuario(Authentication authentication) {
-    String email = authentication.getName();
-    List<Map<String, Object>> datos = new ArrayList<>();
-    
-    // Obtener tickets del usuario
-    List<Ticket> tickets = ticketRepository.findByUsuarioCreadorEmail(email);
-    
-    // Obtener últimos 6 meses
-    LocalDate fechaActual = LocalDate.now();
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM").withLocale(new Locale("es", "ES"));
-    
-    for (int i = 5; i >= 0; i--) {
-        LocalDate fechaMes = fechaActual.minusMonths(i);
-        String nombreMes = fechaMes.format(formatter).toLowerCase();
-        
-        // Determinar inicio y fin del mes
-        YearMonth yearMonth = YearMonth.from(fechaMes);
-        LocalDateTime inicio = yearMonth.atDay(1).atStartOfDay();
-        LocalDateTime fin = yearMonth.atEndOfMonth().atTime(23, 59, 59);
-        
-        // Contar tickets creados en ese período
-        long cantidad = tickets.stream()
-            .filter(t -> t.getFechaCreacion().isAfter(inicio) && t.getFechaCreacion().isBefore(fin))
-            .count();
-        
-        Map<String, Object> datoMes = new HashMap<>();
-        datoMes.put("mes", nombreMes);
-        datoMes.put("cantidad", cantidad);
-        
-        datos.add(datoMes);
-    }
-    
-    return ResponseEntity.ok(datos);
+    return ResponseEntity.ok(panelUsuarioService.obtenerDatosMensuales(authentication.getName()));
 }
 
 // Datos por categoría para usuarios normales (solo sus propios tickets)
 @GetMapping("/mis-datos-categoria")
 public ResponseEntity<List<Map<String, Object>>> obtenerDatosPorCategoriaUsuario(Authentication authentication) {
-    String email = authentication.getName();
-    List<Map<String, Object>> datos = new ArrayList<>();
-    
-    // Obtener tickets del usuario
-    List<Ticket> tickets = ticketRepository.findByUsuarioCreadorEmail(email);
-    
-    // Agrupar por categoría
-    Map<String, Long> categoriasCount = new HashMap<>();
-    
-    for (Ticket ticket : tickets) {
-        if (ticket.getCategoria() != null) {
-            String categoriaNombre = ticket.getCategoria().getNombre();
-            Long count = categoriasCount.getOrDefault(categoriaNombre, 0L);
-            categoriasCount.put(categoriaNombre, count + 1);
-        }
-    }
-    
-    // Convertir a lista de mapas
-    for (Map.Entry<String, Long> entry : categoriasCount.entrySet()) {
-        Map<String, Object> datoCategoria = new HashMap<>();
-        datoCategoria.put("categoria", entry.getKey());
-        datoCategoria.put("cantidad", entry.getValue());
-        datos.add(datoCategoria);
-    }
-    
-    return ResponseEntity.ok(datos);
+    return ResponseEntity.ok(panelUsuarioService.obtenerDatosCategoria(authentication.getName()));
 }
 
 @GetMapping("/asignados-por-supervisor")
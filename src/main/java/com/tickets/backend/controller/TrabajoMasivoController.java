@@ -0,0 +1,28 @@
+package com.tickets.backend.controller;
+
+import com.tickets.backend.dto.TrabajoMasivoDto;
+import com.tickets.backend.service.TrabajosMasivosService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/jobs")
+@CrossOrigin(origins = "*")
+public class TrabajoMasivoController {
+
+    @Autowired
+    private TrabajosMasivosService trabajosMasivosService;
+
+    /**
+     * Avance de un trabajo masivo: procesados, fallos por ticket y velocidad
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<TrabajoMasivoDto> obtenerTrabajo(@PathVariable Long id) {
+        return trabajosMasivosService.obtener(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
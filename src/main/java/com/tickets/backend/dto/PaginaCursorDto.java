@@ -0,0 +1,22 @@
+package com.tickets.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Página de resultados en modo cursor (keyset): en lugar de número de página se
+ * entrega un cursor opaco para pedir la siguiente. El total solo se informa si se pide.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaCursorDto<T> {
+
+    private List<T> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+    private Long total;
+}
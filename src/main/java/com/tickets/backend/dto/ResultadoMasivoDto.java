@@ -0,0 +1,49 @@
+package com.tickets.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una operación masiva sobre tickets: totales y el detalle por ID.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoMasivoDto {
+
+    public static final String ACTUALIZADO = "ACTUALIZADO";
+    public static final String SIN_CAMBIOS = "SIN_CAMBIOS";
+    public static final String NO_ENCONTRADO = "NO_ENCONTRADO";
+    public static final String RECHAZADO = "RECHAZADO";
+    public static final String ERROR = "ERROR";
+
+    private int total;
+    private int actualizados;
+    private int sinCambios;
+    private int fallidos;
+    private List<ResultadoItem> resultados = new ArrayList<>();
+
+    public void agregar(ResultadoItem item) {
+        resultados.add(item);
+        total++;
+        if (ACTUALIZADO.equals(item.getResultado())) {
+            actualizados++;
+        } else if (SIN_CAMBIOS.equals(item.getResultado())) {
+            sinCambios++;
+        } else {
+            fallidos++;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ResultadoItem {
+        private Long ticketId;
+        private String resultado;
+        private String mensaje;
+    }
+}
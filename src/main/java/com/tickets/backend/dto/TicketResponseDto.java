@@ -46,4 +46,47 @@ public class TicketResponseDto {
     private LocalDateTime fechaActualizacion;
     private LocalDateTime fechaResolucion;
     private LocalDateTime fechaCierre;
+
+    /**
+     * Constructor usado por las consultas de proyección (SELECT new ...) de TicketRepository.
+     * Arma los nombres completos igual que TicketController.convertirAResponseDto.
+     */
+    public TicketResponseDto(Long id, String numeroTicket, String titulo, String descripcion,
+                             EstadoTicket estado, PrioridadTicket prioridad,
+                             Long categoriaId, String categoriaNombre,
+                             Long subcategoriaId, String subcategoriaNombre,
+                             Long usuarioCreadorId, String usuarioNombre, String usuarioApellido,
+                             Long tecnicoAsignadoId, String tecnicoNombre, String tecnicoApellido,
+                             LocalDateTime fechaCreacion, LocalDateTime fechaActualizacion,
+                             LocalDateTime fechaResolucion, LocalDateTime fechaCierre) {
+        this.id = id;
+        this.numeroTicket = numeroTicket;
+        this.titulo = titulo;
+        this.descripcion = descripcion;
+        this.estado = estado;
+        this.prioridad = prioridad;
+        this.categoriaId = categoriaId;
+        this.categoriaNombre = categoriaNombre;
+        this.subcategoriaId = subcategoriaId;
+        this.subcategoriaNombre = subcategoriaNombre;
+
+        if (usuarioCreadorId != null) {
+            this.usuarioCreadorId = usuarioCreadorId;
+            this.usuarioCreadorNombre = usuarioNombre + " " + usuarioApellido;
+            this.usuarioNombre = usuarioNombre;
+            this.usuarioApellido = usuarioApellido;
+        }
+
+        if (tecnicoAsignadoId != null) {
+            this.tecnicoAsignadoId = tecnicoAsignadoId;
+            this.tecnicoAsignadoNombre = tecnicoNombre + " " + tecnicoApellido;
+            this.tecnicoAsignadoNombreFirstOnly = tecnicoNombre;
+            this.tecnicoAsignadoApellido = tecnicoApellido;
+        }
+
+        this.fechaCreacion = fechaCreacion;
+        this.fechaActualizacion = fechaActualizacion;
+        this.fechaResolucion = fechaResolucion;
+        this.fechaCierre = fechaCierre;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.tickets.backend.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estado y avance de un trabajo masivo
+ */
+@Data
+@NoArgsConstructor
+public class TrabajoMasivoDto {
+
+    private Long id;
+    private String tipo;
+    private String estado;
+    private int total;
+    private int procesados;
+    private int actualizados;
+    private int sinCambios;
+    private int fallidos;
+    private int lotesCompletados;
+    private int totalLotes;
+    private double porcentaje;
+    // Tickets procesados por segundo desde el inicio
+    private Double ticketsPorSegundo;
+    // Intentos que terminaron en error y se reintentaron
+    private int intentos;
+    private String error;
+    private LocalDateTime fechaCreacion;
+    private LocalDateTime fechaInicio;
+    private LocalDateTime fechaFin;
+    private List<ResultadoMasivoDto.ResultadoItem> fallos = new ArrayList<>();
+}
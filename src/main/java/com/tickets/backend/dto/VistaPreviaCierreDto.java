@@ -0,0 +1,39 @@
+package com.tickets.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vista previa del cierre automático: configuración vigente, próxima ejecución,
+ * cantidad de tickets pendientes y una muestra de los candidatos más antiguos
+ */
+@Data
+@NoArgsConstructor
+public class VistaPreviaCierreDto {
+
+    private boolean habilitado;
+    private int diasParaCierre;
+    private String frecuencia;
+    private String descripcionFrecuencia;
+    private String expresionCron;
+    private LocalDateTime proximaEjecucion;
+    private LocalDateTime fechaLimite;
+    private long pendientes;
+    private List<CandidatoCierre> muestra = new ArrayList<>();
+    private LocalDateTime generadoEn;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CandidatoCierre {
+        private Long ticketId;
+        private String numeroTicket;
+        private String titulo;
+        private LocalDateTime fechaResolucion;
+    }
+}
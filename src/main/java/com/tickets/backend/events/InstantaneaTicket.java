@@ -0,0 +1,41 @@
+package com.tickets.backend.events;
+
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Ticket;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copia inmutable de los campos de un ticket que alimentan estadísticas y cachés.
+ * Se toma antes y después de cada modificación para publicar el cambio.
+ */
+@Getter
+@AllArgsConstructor
+public class InstantaneaTicket {
+
+    private final Long ticketId;
+    private final EstadoTicket estado;
+    private final PrioridadTicket prioridad;
+    private final Long categoriaId;
+    private final Long tecnicoId;
+    private final Long usuarioCreadorId;
+    private final LocalDateTime fechaCreacion;
+    private final LocalDateTime fechaResolucion;
+    private final Integer valoracion;
+
+    public static InstantaneaTicket de(Ticket ticket) {
+        return new InstantaneaTicket(
+                ticket.getId(),
+                ticket.getEstado(),
+                ticket.getPrioridad(),
+                ticket.getCategoria() != null ? ticket.getCategoria().getId() : null,
+                ticket.getTecnicoAsignado() != null ? ticket.getTecnicoAsignado().getId() : null,
+                ticket.getUsuarioCreador() != null ? ticket.getUsuarioCreador().getId() : null,
+                ticket.getFechaCreacion(),
+                ticket.getFechaResolucion(),
+                ticket.getValoracion());
+    }
+}
@@ -0,0 +1,21 @@
+package com.tickets.backend.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Un ticket fue creado o modificado. Se publica dentro de la transacción del cambio;
+ * los listeners lo procesan después del commit (@TransactionalEventListener).
+ */
+@Getter
+@AllArgsConstructor
+public class TicketModificadoEvent {
+
+    // null cuando el ticket es nuevo
+    private final InstantaneaTicket anterior;
+    private final InstantaneaTicket actual;
+
+    public boolean esAlta() {
+        return anterior == null;
+    }
+}
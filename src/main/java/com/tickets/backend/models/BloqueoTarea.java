@@ -0,0 +1,40 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Concesión (lease) de una tarea programada entre las instancias de la aplicación.
+ * Solo el propietario con la concesión vigente ejecuta la tarea; el token sube con cada
+ * adquisición y permite descartar a un propietario anterior que perdió la concesión.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "bloqueos_tareas")
+public class BloqueoTarea {
+
+    @Id
+    @Column(name = "nombre", length = 100)
+    private String nombre;
+
+    @Column(name = "propietario", length = 200)
+    private String propietario;
+
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+
+    @Column(name = "fecha_adquisicion")
+    private LocalDateTime fechaAdquisicion;
+
+    @Column(name = "fecha_renovacion")
+    private LocalDateTime fechaRenovacion;
+}
@@ -0,0 +1,33 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Contador persistente para la numeración correlativa de tickets.
+ * Cada instancia de la aplicación reserva bloques de números sobre esta fila.
+ */
+@Entity
+@Table(name = "contador_tickets")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContadorTicket {
+
+    @Id
+    @Column(name = "nombre", length = 50)
+    private String nombre;
+
+    // Último número reservado por alguna instancia (no necesariamente usado)
+    @Column(name = "ultimo_valor", nullable = false)
+    private Long ultimoValor;
+
+    // Se incrementa en cada reseteo del correlativo
+    @Column(name = "generacion", nullable = false)
+    private Long generacion;
+}
@@ -0,0 +1,50 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Historial de ejecuciones de tareas programadas coordinadas entre instancias
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ejecuciones_tareas", indexes = {
+    @Index(name = "idx_ejecuciones_tareas_nombre", columnList = "nombre, id")
+})
+public class EjecucionTarea {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "nombre", nullable = false, length = 100)
+    private String nombre;
+
+    @Column(name = "propietario", length = 200)
+    private String propietario;
+
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    @Column(name = "fecha_inicio", nullable = false)
+    private LocalDateTime fechaInicio;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+
+    @Column(name = "duracion_ms")
+    private Long duracionMs;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resultado", length = 20)
+    private ResultadoEjecucionTarea resultado;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+}
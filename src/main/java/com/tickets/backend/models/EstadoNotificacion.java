@@ -0,0 +1,9 @@
+package com.tickets.backend.models;
+
+public enum EstadoNotificacion {
+    PENDIENTE,
+    EN_PROCESO,
+    ENVIADA,
+    // Agotó los reintentos; queda para revisión manual
+    FALLIDA
+}
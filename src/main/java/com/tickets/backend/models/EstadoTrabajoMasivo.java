@@ -0,0 +1,9 @@
+package com.tickets.backend.models;
+
+public enum EstadoTrabajoMasivo {
+    PENDIENTE,
+    EN_PROCESO,
+    COMPLETADO,
+    // Error que impidió continuar (no los fallos de tickets individuales)
+    FALLIDO
+}
@@ -0,0 +1,35 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ticket de un trabajo masivo que no se pudo procesar
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trabajos_masivos_fallos", indexes = {
+    @Index(name = "idx_trabajos_fallos_trabajo", columnList = "trabajo_id")
+})
+public class FalloTrabajoMasivo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "trabajo_id", nullable = false)
+    private Long trabajoId;
+
+    @Column(name = "ticket_id", nullable = false)
+    private Long ticketId;
+
+    @Column(name = "resultado", nullable = false, length = 20)
+    private String resultado;
+
+    @Column(name = "mensaje", length = 500)
+    private String mensaje;
+}
@@ -0,0 +1,39 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de cambios para invalidar cachés en todas las instancias.
+ * Cada instancia lee las filas con id mayor a la última que procesó (marca de agua).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "invalidaciones_cache", indexes = {
+    @Index(name = "idx_invalidaciones_cache_fecha", columnList = "fecha")
+})
+public class InvalidacionCache {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cache", nullable = false, length = 100)
+    private String cache;
+
+    // null = todas las entradas de la caché
+    @Column(name = "clave", length = 500)
+    private String clave;
+
+    @Column(name = "origen", length = 200)
+    private String origen;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDateTime fecha;
+}
@@ -0,0 +1,8 @@
+package com.tickets.backend.models;
+
+public enum ResultadoEjecucionTarea {
+    EXITOSA,
+    FALLIDA,
+    // La concesión venció durante la ejecución (otra instancia pudo tomarla)
+    CONCESION_PERDIDA
+}
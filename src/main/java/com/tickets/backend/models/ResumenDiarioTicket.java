@@ -0,0 +1,50 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado diario de tickets: cantidad de tickets creados en una fecha, según su
+ * categoría, prioridad, estado y técnico actuales. Se mantiene con cada cambio de
+ * ticket y se recalcula cada noche para los días recientes.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "resumen_diario_tickets", indexes = {
+    @Index(name = "idx_resumen_diario_fecha", columnList = "fecha")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_resumen_diario_clave",
+            columnNames = {"fecha", "categoria_id", "prioridad", "estado", "tecnico_id"})
+})
+public class ResumenDiarioTicket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "fecha", nullable = false)
+    private LocalDate fecha;
+
+    @Column(name = "categoria_id")
+    private Long categoriaId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "prioridad", length = 20)
+    private PrioridadTicket prioridad;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", length = 20)
+    private EstadoTicket estado;
+
+    @Column(name = "tecnico_id")
+    private Long tecnicoId;
+
+    @Column(name = "cantidad", nullable = false)
+    private long cantidad;
+}
@@ -21,12 +21,12 @@ public class SupervisorTecnico {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "supervisor_id", nullable = false)
     @JsonIgnoreProperties({"password", "tickets", "historialCambios"})
     private Usuario supervisor;   // FALTABA ESTE ATRIBUTO
     
-    @ManyToOne   // FALTABA ESTA ANOTACIÓN
+    @ManyToOne(fetch = FetchType.LAZY)   // FALTABA ESTA ANOTACIÓN
     @JoinColumn(name = "tecnico_id", nullable = false)
     @JsonIgnoreProperties({"password", "tickets", "historialCambios"})
     private Usuario tecnico;
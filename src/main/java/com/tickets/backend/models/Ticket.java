@@ -15,8 +15,43 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "tickets")
+@Table(name = "tickets", indexes = {
+    // Soportan la paginación por cursor (fecha_creacion DESC, id DESC)
+    @Index(name = "idx_tickets_fecha_creacion_id", columnList = "fecha_creacion, id"),
+    @Index(name = "idx_tickets_creador_fecha_id", columnList = "usuario_creador_id, fecha_creacion, id"),
+    @Index(name = "idx_tickets_tecnico_fecha_id", columnList = "tecnico_asignado_id, fecha_creacion, id"),
+    // Conteo y muestra de candidatos al cierre automático (estado = RESUELTO AND fecha_resolucion < límite)
+    @Index(name = "idx_tickets_estado_resolucion", columnList = "estado, fecha_resolucion")
+})
+// Las relaciones son LAZY; cada caso de uso carga lo que necesita con uno de estos grafos
+@NamedEntityGraphs({
+    @NamedEntityGraph(name = Ticket.GRAFO_DETALLE, attributeNodes = {
+        @NamedAttributeNode("categoria"),
+        @NamedAttributeNode("subcategoria"),
+        @NamedAttributeNode("usuarioCreador"),
+        @NamedAttributeNode("tecnicoAsignado"),
+        @NamedAttributeNode("sla")
+    }),
+    @NamedEntityGraph(name = Ticket.GRAFO_FILA, attributeNodes = {
+        @NamedAttributeNode("categoria"),
+        @NamedAttributeNode("subcategoria"),
+        @NamedAttributeNode("usuarioCreador"),
+        @NamedAttributeNode("tecnicoAsignado")
+    }),
+    @NamedEntityGraph(name = Ticket.GRAFO_NOTIFICACION, attributeNodes = {
+        @NamedAttributeNode("categoria"),
+        @NamedAttributeNode("usuarioCreador"),
+        @NamedAttributeNode("tecnicoAsignado")
+    })
+})
 public class Ticket {
+
+    // Detalle del ticket y respuesta de las operaciones individuales (convertirAResponseDto)
+    public static final String GRAFO_DETALLE = "Ticket.detalle";
+    // Filas de listados que se construyen desde la entidad
+    public static final String GRAFO_FILA = "Ticket.fila";
+    // Envío de correos: categoría, creador y técnico
+    public static final String GRAFO_NOTIFICACION = "Ticket.notificacion";
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,19 +69,19 @@ public class Ticket {
     @Enumerated(EnumType.STRING)
     private PrioridadTicket prioridad;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "categoria_id")
     private Categoria categoria;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "subcategoria_id")
     private Subcategoria subcategoria;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "usuario_creador_id")
     private Usuario usuarioCreador;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tecnico_asignado_id")
     private Usuario tecnicoAsignado;
     
@@ -81,7 +116,7 @@ public class Ticket {
     )
     private Set<Etiqueta> etiquetas = new HashSet<>();
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sla_id")
     private SLA sla;
     
@@ -0,0 +1,9 @@
+package com.tickets.backend.models;
+
+public enum TipoNotificacion {
+    TICKET_CREADO,
+    TICKET_ASIGNADO,
+    TICKET_EN_PROGRESO,
+    TICKET_RESUELTO,
+    CIERRE_AUTOMATICO
+}
@@ -0,0 +1,6 @@
+package com.tickets.backend.models;
+
+public enum TipoTrabajoMasivo {
+    ASIGNACION,
+    CAMBIO_ESTADO
+}
@@ -0,0 +1,101 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Operación masiva de administración que se ejecuta en segundo plano por lotes.
+ * procesados es el punto de control (posición en la lista de IDs sin repetir): tras un
+ * reinicio se retoma desde ahí, con el tamaño de lote vigente.
+ * token sube cada vez que un worker lo toma o se libera: las escrituras del worker
+ * llevan su token y dejan de aplicar si el trabajo pasó a otro.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trabajos_masivos", indexes = {
+    @Index(name = "idx_trabajos_masivos_estado", columnList = "estado, fecha_actualizacion")
+})
+public class TrabajoMasivo {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "tipo", nullable = false, length = 30)
+    private TipoTrabajoMasivo tipo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false, length = 20)
+    private EstadoTrabajoMasivo estado;
+
+    // Administrador que lo solicitó
+    @Column(name = "usuario_email", nullable = false)
+    private String usuarioEmail;
+
+    // Parámetros según el tipo
+    @Column(name = "tecnico_id")
+    private Long tecnicoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "nuevo_estado", length = 20)
+    private EstadoTicket nuevoEstado;
+
+    // IDs de tickets separados por coma, en el orden recibido
+    @Column(name = "ticket_ids", columnDefinition = "TEXT", nullable = false)
+    private String ticketIds;
+
+    @Column(name = "total", nullable = false)
+    private int total;
+
+    @Column(name = "total_lotes", nullable = false)
+    private int totalLotes;
+
+    @Column(name = "lotes_completados", nullable = false)
+    private int lotesCompletados;
+
+    @Column(name = "procesados", nullable = false)
+    private int procesados;
+
+    @Column(name = "actualizados", nullable = false)
+    private int actualizados;
+
+    @Column(name = "sin_cambios", nullable = false)
+    private int sinCambios;
+
+    @Column(name = "fallidos", nullable = false)
+    private int fallidos;
+
+    // Worker (instancia) que lo está procesando
+    @Column(name = "propietario", length = 200)
+    private String propietario;
+
+    @Column(name = "token", nullable = false)
+    private long token;
+
+    // Intentos que terminaron en error; al llegar al máximo queda FALLIDO
+    @Column(name = "intentos", nullable = false)
+    private int intentos;
+
+    @Column(name = "error", length = 1000)
+    private String error;
+
+    @Column(name = "fecha_creacion", nullable = false)
+    private LocalDateTime fechaCreacion;
+
+    @Column(name = "fecha_inicio")
+    private LocalDateTime fechaInicio;
+
+    // Se actualiza con cada lote y con el heartbeat del worker; sirve para detectar trabajos abandonados
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+
+    @Column(name = "fecha_fin")
+    private LocalDateTime fechaFin;
+}
@@ -0,0 +1,29 @@
+package com.tickets.backend.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Versión de seguridad por usuario. Se incrementa cuando cambian sus roles, permisos
+ * o estado; los JWT emitidos con una versión anterior dejan de ser válidos.
+ * Solo tienen fila los usuarios cuya seguridad cambió alguna vez (versión 0 por defecto).
+ */
+@Entity
+@Table(name = "versiones_seguridad")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionSeguridad {
+
+    @Id
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+}
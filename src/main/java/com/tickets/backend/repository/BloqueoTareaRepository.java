@@ -0,0 +1,62 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.BloqueoTarea;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface BloqueoTareaRepository extends JpaRepository<BloqueoTarea, String> {
+
+    /**
+     * Toma la concesión si está vencida. Devuelve 0 si otra instancia la tiene vigente.
+     * Vencimiento y fechas con el reloj de la base de datos, común a todas las instancias.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueoTarea b SET b.propietario = :propietario, b.token = b.token + 1, " +
+           "b.expiraEn = local datetime + :segundos second, b.fechaAdquisicion = local datetime, " +
+           "b.fechaRenovacion = local datetime " +
+           "WHERE b.nombre = :nombre AND b.expiraEn < local datetime")
+    int adquirir(@Param("nombre") String nombre,
+                 @Param("propietario") String propietario,
+                 @Param("segundos") long segundos);
+
+    // Heartbeat: extiende la concesión solo si sigue siendo del mismo propietario y token
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueoTarea b SET b.expiraEn = local datetime + :segundos second, " +
+           "b.fechaRenovacion = local datetime " +
+           "WHERE b.nombre = :nombre AND b.propietario = :propietario AND b.token = :token " +
+           "AND b.expiraEn >= local datetime")
+    int renovar(@Param("nombre") String nombre,
+                @Param("propietario") String propietario,
+                @Param("token") long token,
+                @Param("segundos") long segundos);
+
+    /**
+     * Comprueba la concesión dentro de la transacción que protege y bloquea su fila hasta
+     * el commit: mientras tanto ninguna instancia puede tomarla. Devuelve 0 si ya no es vigente.
+     */
+    @Modifying
+    @Query("UPDATE BloqueoTarea b SET b.fechaRenovacion = local datetime " +
+           "WHERE b.nombre = :nombre AND b.token = :token AND b.expiraEn >= local datetime")
+    int validar(@Param("nombre") String nombre,
+                @Param("token") long token);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueoTarea b SET b.expiraEn = local datetime " +
+           "WHERE b.nombre = :nombre AND b.propietario = :propietario AND b.token = :token")
+    int liberar(@Param("nombre") String nombre,
+                @Param("propietario") String propietario,
+                @Param("token") long token);
+
+    @Query("SELECT b.token FROM BloqueoTarea b WHERE b.nombre = :nombre AND b.propietario = :propietario")
+    Optional<Long> findToken(@Param("nombre") String nombre, @Param("propietario") String propietario);
+}
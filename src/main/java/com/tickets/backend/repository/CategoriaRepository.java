@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Categoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,6 +15,7 @@ public interface CategoriaRepository extends JpaRepository<Categoria, Long> {
     
     Optional<Categoria> findByNombre(String nombre);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Categoria> findByActivoTrue();
     
     boolean existsByNombre(String nombre);
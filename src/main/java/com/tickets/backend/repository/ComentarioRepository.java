@@ -1,6 +1,7 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Comentario;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -11,10 +12,14 @@ public interface ComentarioRepository extends JpaRepository<Comentario, Long> {
     
     List<Comentario> findByTicketId(Long ticketId);
     
+    // El autor se serializa con cada comentario: se trae en la misma consulta. LOAD y no FETCH:
+    // con FETCH los roles del autor (EAGER) quedarían LAZY y fallaría la serialización
+    @EntityGraph(attributePaths = "usuario", type = EntityGraph.EntityGraphType.LOAD)
     List<Comentario> findByTicketIdOrderByFechaCreacionDesc(Long ticketId);
     
     List<Comentario> findByUsuarioId(Long usuarioId);
     
+    @EntityGraph(attributePaths = "usuario", type = EntityGraph.EntityGraphType.LOAD)
     List<Comentario> findByTicketIdAndEsPrivadoFalse(Long ticketId);
     
     void deleteByTicketId(Long ticketId);
@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Comuna;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,9 +23,11 @@ public interface ComunaRepository extends JpaRepository<Comuna, Long> {
     List<Comuna> findByRegionId(Long regionId);
     
     // Listar todas las comunas activas de una región
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Comuna> findByRegionIdAndActivoTrue(Long regionId);
     
     // Listar todas las comunas activas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Comuna> findByActivoTrue();
     
     // Verificar si existe una comuna con el mismo nombre en la misma región
@@ -0,0 +1,25 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.ContadorTicket;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ContadorTicketRepository extends JpaRepository<ContadorTicket, String> {
+
+    /**
+     * Obtiene el contador bloqueando la fila hasta el fin de la transacción
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ContadorTicket c WHERE c.nombre = :nombre")
+    Optional<ContadorTicket> findByNombreParaActualizar(@Param("nombre") String nombre);
+
+    @Query("SELECT c.generacion FROM ContadorTicket c WHERE c.nombre = :nombre")
+    Optional<Long> findGeneracion(@Param("nombre") String nombre);
+}
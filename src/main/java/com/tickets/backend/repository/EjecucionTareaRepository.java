@@ -0,0 +1,16 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.EjecucionTarea;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EjecucionTareaRepository extends JpaRepository<EjecucionTarea, Long> {
+
+    List<EjecucionTarea> findByNombreOrderByIdDesc(String nombre, Pageable pageable);
+
+    List<EjecucionTarea> findAllByOrderByIdDesc(Pageable pageable);
+}
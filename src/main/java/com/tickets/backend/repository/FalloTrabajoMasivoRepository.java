@@ -0,0 +1,14 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.FalloTrabajoMasivo;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FalloTrabajoMasivoRepository extends JpaRepository<FalloTrabajoMasivo, Long> {
+
+    List<FalloTrabajoMasivo> findByTrabajoIdOrderByIdAsc(Long trabajoId, Pageable pageable);
+}
@@ -1,6 +1,7 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.HistorialCambio;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -8,10 +9,13 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface HistorialCambioRepository extends JpaRepository<HistorialCambio, Long> {
+public interface HistorialCambioRepository extends JpaRepository<HistorialCambio, Long>, HistorialCambioRepositoryCustom {
     
     List<HistorialCambio> findByTicketId(Long ticketId);
     
+    // El usuario de cada cambio se serializa en la respuesta: se trae en la misma consulta
+    // (LOAD conserva la carga EAGER de sus roles)
+    @EntityGraph(attributePaths = "usuario", type = EntityGraph.EntityGraphType.LOAD)
     List<HistorialCambio> findByTicketIdOrderByFechaCambioDesc(Long ticketId);
     
     List<HistorialCambio> findByUsuarioId(Long usuarioId);
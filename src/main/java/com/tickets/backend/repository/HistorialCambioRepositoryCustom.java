@@ -0,0 +1,14 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.HistorialCambio;
+
+import java.util.List;
+
+/**
+ * Inserción masiva del historial. HistorialCambio usa IDENTITY, por lo que Hibernate
+ * no puede agrupar sus INSERT; esta variante los envía en lotes JDBC.
+ */
+public interface HistorialCambioRepositoryCustom {
+
+    void insertarLote(List<HistorialCambio> historial);
+}
@@ -0,0 +1,44 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.HistorialCambio;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+class HistorialCambioRepositoryImpl implements HistorialCambioRepositoryCustom {
+
+    private static final String INSERTAR =
+            "INSERT INTO historial_cambios (ticket_id, usuario_id, campo_modificado, valor_anterior, " +
+            "valor_nuevo, fecha_cambio, automatico) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:20}")
+    private int tamanoLote;
+
+    @Override
+    public void insertarLote(List<HistorialCambio> historial) {
+        if (historial.isEmpty()) {
+            return;
+        }
+        // Usa la conexión de la transacción JPA en curso
+        jdbcTemplate.batchUpdate(INSERTAR, historial, Math.max(tamanoLote, 1), (ps, cambio) -> {
+            ps.setLong(1, cambio.getTicket().getId());
+            if (cambio.getUsuario() != null) {
+                ps.setLong(2, cambio.getUsuario().getId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setString(3, cambio.getCampoModificado());
+            ps.setString(4, cambio.getValorAnterior());
+            ps.setString(5, cambio.getValorNuevo());
+            ps.setTimestamp(6, cambio.getFechaCambio() != null ? Timestamp.valueOf(cambio.getFechaCambio()) : null);
+            ps.setBoolean(7, cambio.isAutomatico());
+        });
+    }
+}
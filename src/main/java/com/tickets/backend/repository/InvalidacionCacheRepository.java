@@ -0,0 +1,30 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.InvalidacionCache;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InvalidacionCacheRepository extends JpaRepository<InvalidacionCache, Long> {
+
+    List<InvalidacionCache> findByIdGreaterThanOrderByIdAsc(Long id, Pageable limite);
+
+    List<InvalidacionCache> findByIdIn(Collection<Long> ids);
+
+    @Query("SELECT COALESCE(MAX(i.id), 0) FROM InvalidacionCache i")
+    long findMaxId();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM InvalidacionCache i WHERE i.fecha < :limite")
+    int borrarAnteriores(@Param("limite") LocalDateTime limite);
+}
@@ -0,0 +1,46 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.EstadoNotificacion;
+import com.tickets.backend.models.NotificacionPendiente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificacionPendienteRepository extends JpaRepository<NotificacionPendiente, Long> {
+
+    // IDs listos para enviar, los más antiguos primero
+    @Query("SELECT n.id FROM NotificacionPendiente n WHERE n.estado = :estado AND n.proximoIntento <= :ahora ORDER BY n.id")
+    List<Long> findIdsListos(@Param("estado") EstadoNotificacion estado, @Param("ahora") LocalDateTime ahora, Pageable pageable);
+
+    /**
+     * Toma la notificación para un worker. Devuelve 0 si otro worker (u otra instancia) ya la tomó.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificacionPendiente n SET n.estado = :enProceso, n.fechaBloqueo = :ahora " +
+           "WHERE n.id = :id AND n.estado = :pendiente")
+    int tomar(@Param("id") Long id,
+              @Param("pendiente") EstadoNotificacion pendiente,
+              @Param("enProceso") EstadoNotificacion enProceso,
+              @Param("ahora") LocalDateTime ahora);
+
+    // Devuelve a PENDIENTE las notificaciones de workers que murieron a mitad del envío
+    @Modifying
+    @Transactional
+    @Query("UPDATE NotificacionPendiente n SET n.estado = :pendiente " +
+           "WHERE n.estado = :enProceso AND n.fechaBloqueo < :limite")
+    int liberarAbandonadas(@Param("pendiente") EstadoNotificacion pendiente,
+                           @Param("enProceso") EstadoNotificacion enProceso,
+                           @Param("limite") LocalDateTime limite);
+
+    @Query("SELECT n.estado, COUNT(n) FROM NotificacionPendiente n GROUP BY n.estado")
+    List<Object[]> contarPorEstado();
+}
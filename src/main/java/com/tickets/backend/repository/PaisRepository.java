@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Pais;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +20,7 @@ public interface PaisRepository extends JpaRepository<Pais, Long> {
     Optional<Pais> findByCodigo(String codigo);
     
     // Listar todos los países activos
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Pais> findByActivoTrue();
     
     // Verificar si existe un país con el mismo nombre (para validaciones)
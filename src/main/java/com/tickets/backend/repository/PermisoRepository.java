@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Permiso;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,5 +13,6 @@ import java.util.Optional;
 @Repository
 public interface PermisoRepository extends JpaRepository<Permiso, Long> {
     Optional<Permiso> findByNombre(String nombre);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Permiso> findByModulo(String modulo);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Region;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,9 +23,11 @@ public interface RegionRepository extends JpaRepository<Region, Long> {
     List<Region> findByPaisId(Long paisId);
     
     // Listar todas las regiones activas de un país
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Region> findByPaisIdAndActivoTrue(Long paisId);
     
     // Listar todas las regiones activas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Region> findByActivoTrue();
     
     // Verificar si existe una región con el mismo nombre en el mismo país
@@ -0,0 +1,21 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.ResumenDiarioTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ResumenDiarioTicketRepository extends JpaRepository<ResumenDiarioTicket, Long>, ResumenDiarioTicketRepositoryCustom {
+
+    List<ResumenDiarioTicket> findByFechaBetween(LocalDate desde, LocalDate hasta);
+
+    @Modifying
+    @Query("DELETE FROM ResumenDiarioTicket r WHERE r.fecha >= :desde")
+    int borrarDesde(@Param("desde") LocalDate desde);
+}
@@ -0,0 +1,35 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.ResumenDiarioTicket;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrituras del resumen diario que deben coordinarse entre transacciones concurrentes.
+ * Van por JDBC en lote: un recuento escribe todas sus filas en una sola ida a la base,
+ * y una clave duplicada no deja la transacción JPA marcada para rollback.
+ */
+public interface ResumenDiarioTicketRepositoryCustom {
+
+    /**
+     * Bloquea las filas existentes de [desde, hasta] hasta el fin de la transacción y devuelve cuántas son
+     */
+    int bloquearFechas(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Fija la cantidad de filas ya bloqueadas, por id
+     */
+    void fijarCantidades(Map<Long, Long> cantidadPorId);
+
+    /**
+     * Inserta filas nuevas; si otra transacción insertó la misma clave lanza DuplicateKeyException
+     */
+    void insertar(List<ResumenDiarioTicket> filas);
+
+    /**
+     * Bloqueo exclusivo de toda la tabla hasta el fin de la transacción (recálculo)
+     */
+    void bloquearTabla();
+}
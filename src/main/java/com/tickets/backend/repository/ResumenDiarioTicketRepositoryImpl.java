@@ -0,0 +1,65 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.ResumenDiarioTicket;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+class ResumenDiarioTicketRepositoryImpl implements ResumenDiarioTicketRepositoryCustom {
+
+    private static final String INSERTAR =
+            "INSERT INTO resumen_diario_tickets (fecha, categoria_id, prioridad, estado, tecnico_id, cantidad) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int[] TIPOS_INSERTAR =
+            {Types.DATE, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.BIGINT, Types.BIGINT};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int bloquearFechas(LocalDate desde, LocalDate hasta) {
+        // Usa la conexión de la transacción JPA en curso
+        return jdbcTemplate.update("UPDATE resumen_diario_tickets SET cantidad = cantidad WHERE fecha BETWEEN ? AND ?",
+                Date.valueOf(desde), Date.valueOf(hasta));
+    }
+
+    @Override
+    public void fijarCantidades(Map<Long, Long> cantidadPorId) {
+        if (cantidadPorId.isEmpty()) {
+            return;
+        }
+        List<Object[]> parametros = new ArrayList<>();
+        cantidadPorId.forEach((id, cantidad) -> parametros.add(new Object[]{cantidad, id}));
+        jdbcTemplate.batchUpdate("UPDATE resumen_diario_tickets SET cantidad = ? WHERE id = ?", parametros);
+    }
+
+    @Override
+    public void insertar(List<ResumenDiarioTicket> filas) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        List<Object[]> parametros = new ArrayList<>();
+        for (ResumenDiarioTicket fila : filas) {
+            parametros.add(new Object[]{Date.valueOf(fila.getFecha()), fila.getCategoriaId(),
+                    nombre(fila.getPrioridad()), nombre(fila.getEstado()), fila.getTecnicoId(), fila.getCantidad()});
+        }
+        jdbcTemplate.batchUpdate(INSERTAR, parametros, TIPOS_INSERTAR);
+    }
+
+    @Override
+    public void bloquearTabla() {
+        jdbcTemplate.query("SELECT TOP 0 id FROM resumen_diario_tickets WITH (TABLOCKX, HOLDLOCK)", rs -> {
+        });
+    }
+
+    private static String nombre(Enum<?> valor) {
+        return valor != null ? valor.name() : null;
+    }
+}
@@ -2,7 +2,10 @@ package com.tickets.backend.repository;
 
 import com.tickets.backend.models.PrioridadTicket;
 import com.tickets.backend.models.SLA;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,8 +16,10 @@ public interface SLARepository extends JpaRepository<SLA, Long> {
     
     Optional<SLA> findByNombre(String nombre);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<SLA> findByPrioridadAndActivoTrue(PrioridadTicket prioridad);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<SLA> findByActivoTrue();
     
     boolean existsByNombre(String nombre);
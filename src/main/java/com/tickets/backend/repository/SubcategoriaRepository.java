@@ -1,7 +1,10 @@
 package com.tickets.backend.repository;
 
 import com.tickets.backend.models.Subcategoria;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +13,10 @@ import java.util.Optional;
 @Repository
 public interface SubcategoriaRepository extends JpaRepository<Subcategoria, Long> {
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Subcategoria> findByCategoriaId(Long categoriaId);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Subcategoria> findByCategoriaIdAndActivoTrue(Long categoriaId);
     
     Optional<Subcategoria> findByNombreAndCategoriaId(String nombre, Long categoriaId);
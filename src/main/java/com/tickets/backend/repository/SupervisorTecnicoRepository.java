@@ -2,6 +2,7 @@ package com.tickets.backend.repository;
 
 import com.tickets.backend.models.SupervisorTecnico;
 import com.tickets.backend.models.Usuario;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,11 +14,13 @@ import java.util.Optional;
 @Repository
 public interface SupervisorTecnicoRepository extends JpaRepository<SupervisorTecnico, Long> {
     
-    // Encontrar técnicos de un supervisor
+    // Encontrar técnicos de un supervisor (LOAD conserva la carga EAGER de los roles del usuario)
+    @EntityGraph(attributePaths = "tecnico", type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT st FROM SupervisorTecnico st WHERE st.supervisor.id = :supervisorId AND st.activo = true")
     List<SupervisorTecnico> findTecnicosBySupervisor(@Param("supervisorId") Long supervisorId);
     
-    // Encontrar supervisores de un técnico
+    // Encontrar supervisores de un técnico (se devuelven los supervisores fuera de la transacción)
+    @EntityGraph(attributePaths = "supervisor", type = EntityGraph.EntityGraphType.LOAD)
     @Query("SELECT st FROM SupervisorTecnico st WHERE st.tecnico.id = :tecnicoId AND st.activo = true")
     List<SupervisorTecnico> findSupervisoresByTecnico(@Param("tecnicoId") Long tecnicoId);
     
@@ -1,23 +1,32 @@
 package com.tickets.backend.repository;
 
+import com.tickets.backend.dto.TicketResponseDto;
 import com.tickets.backend.models.Categoria;
 import com.tickets.backend.models.EstadoTicket;
 import com.tickets.backend.models.PrioridadTicket;
 import com.tickets.backend.models.Ticket;
 import com.tickets.backend.models.Usuario;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket>,
+        TicketRepositoryCustom {
     List<Ticket> findByUsuarioCreador_Id(Long id);
     
     Page<Ticket> findByEstado(EstadoTicket estado, Pageable pageable);
@@ -42,6 +51,14 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE LOWER(CAST(t.titulo AS string)) LIKE LOWER(CONCAT('%', :keyword, '%')) OR LOWER(CAST(t.descripcion AS string)) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     Page<Ticket> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    // Ticket con las relaciones que usa convertirAResponseDto (detalle y operaciones individuales)
+    @EntityGraph(Ticket.GRAFO_DETALLE)
+    Optional<Ticket> findDetalleById(Long id);
+
+    // Ticket con las relaciones que se usan al renderizar los correos
+    @EntityGraph(Ticket.GRAFO_NOTIFICACION)
+    Optional<Ticket> findParaNotificacionById(Long id);
+
     @Query("SELECT COUNT(t) FROM Ticket t WHERE t.estado = :estado")
     Long countByEstado(@Param("estado") EstadoTicket estado);
     
@@ -83,43 +100,6 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
 
 
 
-// En TicketRepository.java - Cambiar los parámetros de fechaDesde y fechaHasta
-@Query(value = "SELECT * FROM tickets t WHERE " +
-       "(:estado IS NULL OR t.estado = :estado) AND " +
-       "(:prioridad IS NULL OR t.prioridad = :prioridad) AND " +
-       "(:categoriaId IS NULL OR t.categoria_id = :categoriaId) AND " +
-       "(:tecnicoId IS NULL OR t.tecnico_asignado_id = :tecnicoId) AND " +
-       "(:usuarioId IS NULL OR t.usuario_creador_id = :usuarioId) AND " +
-       "(:fechaDesde IS NULL OR t.fecha_creacion >= :fechaDesde) AND " +
-       "(:fechaHasta IS NULL OR t.fecha_creacion <= :fechaHasta) AND " +
-       "(:busqueda IS NULL OR " +
-       "LOWER(CAST(t.titulo AS VARCHAR(MAX))) LIKE LOWER('%' + :busqueda + '%') OR " +
-       "LOWER(CAST(t.descripcion AS VARCHAR(MAX))) LIKE LOWER('%' + :busqueda + '%') OR " +
-       "LOWER(t.numero_ticket) LIKE LOWER('%' + :busqueda + '%'))",  // Sin ORDER BY aquí
-       nativeQuery = true,
-       countQuery = "SELECT COUNT(*) FROM tickets t WHERE " +
-       "(:estado IS NULL OR t.estado = :estado) AND " +
-       "(:prioridad IS NULL OR t.prioridad = :prioridad) AND " +
-       "(:categoriaId IS NULL OR t.categoria_id = :categoriaId) AND " +
-       "(:tecnicoId IS NULL OR t.tecnico_asignado_id = :tecnicoId) AND " +
-       "(:usuarioId IS NULL OR t.usuario_creador_id = :usuarioId) AND " +
-       "(:fechaDesde IS NULL OR t.fecha_creacion >= :fechaDesde) AND " +
-       "(:fechaHasta IS NULL OR t.fecha_creacion <= :fechaHasta) AND " +
-       "(:busqueda IS NULL OR " +
-       "LOWER(CAST(t.titulo AS VARCHAR(MAX))) LIKE LOWER('%' + :busqueda + '%') OR " +
-       "LOWER(CAST(t.descripcion AS VARCHAR(MAX))) LIKE LOWER('%' + :busqueda + '%') OR " +
-       "LOWER(t.numero_ticket) LIKE LOWER('%' + :busqueda + '%'))")
-Page<Ticket> buscarConFiltros(
-    @Param("estado") String estado,
-    @Param("prioridad") String prioridad,
-    @Param("categoriaId") Long categoriaId,
-    @Param("tecnicoId") Long tecnicoId,
-    @Param("usuarioId") Long usuarioId,
-    @Param("fechaDesde") LocalDateTime fechaDesde,  // CAMBIAR DE String A LocalDateTime
-    @Param("fechaHasta") LocalDateTime fechaHasta,  // CAMBIAR DE String A LocalDateTime
-    @Param("busqueda") String busqueda,
-    Pageable pageable
-);
 List<Ticket> findByUsuarioCreadorEmail(String email);
 Long countByCategoriaAndEstado(Categoria categoria, EstadoTicket estado);
 Long countByTecnicoAsignado(Usuario tecnico);
@@ -134,11 +114,36 @@ List<Ticket> findTicketsResueltosParaCierre(
 default List<Ticket> findTicketsResueltosParaCierre(LocalDateTime fechaLimite) {
     return findByEstadoAndFechaResolucionLessThan(EstadoTicket.RESUELTO, fechaLimite);
 }
+// Vista previa del cierre automático: conteo por índice (estado, fecha_resolucion) y muestra de los más antiguos
+@Query("SELECT COUNT(t) FROM Ticket t WHERE t.estado = :estado AND t.fechaResolucion < :fechaLimite")
+long countResueltosParaCierre(@Param("estado") EstadoTicket estado,
+                              @Param("fechaLimite") LocalDateTime fechaLimite);
+
+@Query("SELECT t.id, t.numeroTicket, t.titulo, t.fechaResolucion FROM Ticket t " +
+       "WHERE t.estado = :estado AND t.fechaResolucion < :fechaLimite ORDER BY t.fechaResolucion, t.id")
+List<Object[]> findCandidatosCierre(@Param("estado") EstadoTicket estado,
+                                    @Param("fechaLimite") LocalDateTime fechaLimite,
+                                    Pageable limite);
+
+// Cierre automático por lotes: IDs candidatos en orden de id (keyset), sin cargar entidades
+@Query("SELECT t.id FROM Ticket t WHERE t.estado = :estado AND t.fechaResolucion < :fechaLimite " +
+       "AND t.id > :desdeId ORDER BY t.id")
+List<Long> findIdsResueltosParaCierreDesde(@Param("estado") EstadoTicket estado,
+                                           @Param("fechaLimite") LocalDateTime fechaLimite,
+                                           @Param("desdeId") Long desdeId,
+                                           Pageable limite);
+
+@Query("SELECT t.id FROM Ticket t WHERE t.estado = :estado AND t.id > :desdeId ORDER BY t.id")
+List<Long> findIdsPorEstadoDesde(@Param("estado") EstadoTicket estado,
+                                 @Param("desdeId") Long desdeId,
+                                 Pageable limite);
+
 // Método para obtener tickets sin asignar por categoría específica
 @Query("SELECT t FROM Ticket t WHERE t.tecnicoAsignado IS NULL AND t.estado = 'NUEVO' AND t.categoria.id = :categoriaId ORDER BY t.prioridad DESC, t.fechaCreacion ASC")
 Page<Ticket> findTicketsSinAsignarPorCategoria(@Param("categoriaId") Long categoriaId, Pageable pageable);
 
 // Método para obtener tickets asignados a un técnico con estados específicos
+@EntityGraph(Ticket.GRAFO_FILA)
 @Query("SELECT t FROM Ticket t WHERE t.tecnicoAsignado = :tecnico AND t.estado IN :estados ORDER BY t.prioridad DESC, t.fechaCreacion ASC")
 Page<Ticket> findByTecnicoAsignadoAndEstadoIn(@Param("tecnico") Usuario tecnico, @Param("estados") List<EstadoTicket> estados, Pageable pageable);
 
@@ -152,4 +157,134 @@ Page<Ticket> findTicketsAsignadosPorSupervisor(@Param("tecnico") Usuario tecnico
 @Query("SELECT COUNT(t) FROM Ticket t WHERE t.tecnicoAsignado IS NULL AND t.estado = 'NUEVO' AND t.categoria.id = :categoriaId")
 Long countTicketsSinAsignarPorCategoria(@Param("categoriaId") Long categoriaId);
 
+// ===== LISTADOS PROYECTADOS A TicketResponseDto =====
+// Una sola sentencia con joins por página: no se materializan Usuario (roles/permisos EAGER),
+// Categoria ni Subcategoria solo para copiar sus nombres.
+
+String SELECT_RESPONSE_DTO = "SELECT new com.tickets.backend.dto.TicketResponseDto(" +
+       "t.id, t.numeroTicket, t.titulo, t.descripcion, t.estado, t.prioridad, " +
+       "c.id, c.nombre, s.id, s.nombre, " +
+       "uc.id, uc.nombre, uc.apellido, " +
+       "ta.id, ta.nombre, ta.apellido, " +
+       "t.fechaCreacion, t.fechaActualizacion, t.fechaResolucion, t.fechaCierre) " +
+       "FROM Ticket t " +
+       "LEFT JOIN t.categoria c " +
+       "LEFT JOIN t.subcategoria s " +
+       "LEFT JOIN t.usuarioCreador uc " +
+       "LEFT JOIN t.tecnicoAsignado ta ";
+
+@Query(value = SELECT_RESPONSE_DTO + "WHERE uc.email = :email",
+       countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.usuarioCreador.email = :email")
+Page<TicketResponseDto> findResumenPorUsuarioCreadorEmail(@Param("email") String email, Pageable pageable);
+
+@Query(value = SELECT_RESPONSE_DTO + "WHERE ta.email = :email",
+       countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.tecnicoAsignado.email = :email")
+Page<TicketResponseDto> findResumenPorTecnicoAsignadoEmail(@Param("email") String email, Pageable pageable);
+
+@Query(value = SELECT_RESPONSE_DTO + "WHERE t.tecnicoAsignado IS NULL",
+       countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.tecnicoAsignado IS NULL")
+Page<TicketResponseDto> findResumenSinAsignar(Pageable pageable);
+
+@Query(value = SELECT_RESPONSE_DTO + "WHERE t.estado = :estado",
+       countQuery = "SELECT COUNT(t) FROM Ticket t WHERE t.estado = :estado")
+Page<TicketResponseDto> findResumenPorEstado(@Param("estado") EstadoTicket estado, Pageable pageable);
+
+@Query(value = SELECT_RESPONSE_DTO,
+       countQuery = "SELECT COUNT(t) FROM Ticket t")
+Page<TicketResponseDto> findResumen(Pageable pageable);
+
+// ===== PAGINACIÓN POR CURSOR (KEYSET) =====
+// Los listados por cursor van por buscarResumen con TicketSpecifications.anteriorA: la primera
+// página no lleva condición de cursor y las siguientes solo la comparación (fecha, id).
+
+// Conteos opcionales del modo cursor
+long countByUsuarioCreadorEmail(String email);
+
+long countByTecnicoAsignadoEmail(String email);
+
+// Texto indexable de los tickets, por lotes en orden de id (reconstrucción del índice de búsqueda)
+@Query("SELECT t.id, t.numeroTicket, t.titulo, t.descripcion FROM Ticket t WHERE t.id > :desdeId ORDER BY t.id")
+List<Object[]> findTextoBusquedaDesde(@Param("desdeId") Long desdeId, Pageable limite);
+
+@Query("SELECT t.id, t.numeroTicket, t.titulo, t.descripcion FROM Ticket t WHERE t.id IN :ids")
+List<Object[]> findTextoBusquedaPorIds(@Param("ids") Collection<Long> ids);
+
+// Siembra y reconciliación de los contadores en memoria: un único GROUP BY
+@Query("SELECT t.estado, t.prioridad, t.categoria.id, COUNT(t) FROM Ticket t " +
+       "GROUP BY t.estado, t.prioridad, t.categoria.id")
+List<Object[]> contarPorEstadoPrioridadCategoria();
+
+// Agregado diario para la tabla resumen_diario_tickets (recálculo nocturno)
+@Query("SELECT CAST(t.fechaCreacion AS LocalDate), c.id, t.prioridad, t.estado, ta.id, COUNT(t) " +
+       "FROM Ticket t LEFT JOIN t.categoria c LEFT JOIN t.tecnicoAsignado ta " +
+       "WHERE t.fechaCreacion >= :desde " +
+       "GROUP BY CAST(t.fechaCreacion AS LocalDate), c.id, t.prioridad, t.estado, ta.id")
+List<Object[]> agregarPorDiaDesde(@Param("desde") LocalDateTime desde);
+
+// Agregado diario de los tickets creados en [desde, hasta) (recuento tras cada cambio)
+@Query("SELECT CAST(t.fechaCreacion AS LocalDate), c.id, t.prioridad, t.estado, ta.id, COUNT(t) " +
+       "FROM Ticket t LEFT JOIN t.categoria c LEFT JOIN t.tecnicoAsignado ta " +
+       "WHERE t.fechaCreacion >= :desde AND t.fechaCreacion < :hasta " +
+       "GROUP BY CAST(t.fechaCreacion AS LocalDate), c.id, t.prioridad, t.estado, ta.id")
+List<Object[]> agregarPorDiaEntre(@Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta);
+
+// Panel del usuario: estado × categoría × mes de sus tickets en un solo GROUP BY
+@Query("SELECT uc.id, t.estado, c.nombre, YEAR(t.fechaCreacion), MONTH(t.fechaCreacion), COUNT(t) " +
+       "FROM Ticket t JOIN t.usuarioCreador uc LEFT JOIN t.categoria c " +
+       "WHERE uc.email = :email " +
+       "GROUP BY uc.id, t.estado, c.nombre, YEAR(t.fechaCreacion), MONTH(t.fechaCreacion)")
+List<Object[]> agregarPanelUsuario(@Param("email") String email);
+
+// Estadísticas por técnico: tickets asignados por estado, con el nombre del técnico
+@Query("SELECT ta.id, ta.nombre, ta.apellido, t.estado, COUNT(t) " +
+       "FROM Ticket t JOIN t.tecnicoAsignado ta " +
+       "GROUP BY ta.id, ta.nombre, ta.apellido, t.estado")
+List<Object[]> contarPorTecnicoYEstado();
+
+// Resoluciones recientes por técnico para los promedios de tiempo y valoración
+@Query("SELECT t.id, ta.id, t.fechaCreacion, t.fechaResolucion, t.valoracion " +
+       "FROM Ticket t JOIN t.tecnicoAsignado ta " +
+       "WHERE t.fechaResolucion >= :desde")
+List<Object[]> findResolucionesDesde(@Param("desde") LocalDateTime desde);
+
+// Operaciones masivas: estado previo de un lote (para historial y eventos) sin cargar entidades.
+// Bloquea las filas del lote hasta el fin de la transacción (UPDLOCK en SQL Server): nadie cambia
+// el ticket entre esta lectura y el UPDATE del lote, así el historial y los eventos no mienten.
+// Solo se bloquea el alias t; categorías y usuarios unidos se leen sin bloqueo.
+@QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_LOCK_MODE + ".t", value = "PESSIMISTIC_WRITE"))
+@Query("SELECT t.id, t.estado, t.prioridad, c.id, ta.id, ta.nombre, ta.apellido, uc.id, " +
+       "t.fechaCreacion, t.fechaResolucion, t.valoracion " +
+       "FROM Ticket t LEFT JOIN t.categoria c LEFT JOIN t.tecnicoAsignado ta LEFT JOIN t.usuarioCreador uc " +
+       "WHERE t.id IN :ids")
+List<Object[]> findEstadoMasivoPorIds(@Param("ids") Collection<Long> ids);
+
+// Asignación masiva de un lote en un solo UPDATE; los NUEVO pasan a ASIGNADO
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("UPDATE Ticket t SET t.tecnicoAsignado = :tecnico, t.fechaActualizacion = :ahora, " +
+       "t.estado = CASE WHEN t.estado = com.tickets.backend.models.EstadoTicket.NUEVO " +
+       "THEN com.tickets.backend.models.EstadoTicket.ASIGNADO ELSE t.estado END " +
+       "WHERE t.id IN :ids")
+int asignarEnBloque(@Param("ids") Collection<Long> ids, @Param("tecnico") Usuario tecnico,
+                    @Param("ahora") LocalDateTime ahora);
+
+// Cambio masivo de estado: solo cambian los tickets cuyo estado actual es un origen permitido
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("UPDATE Ticket t SET t.estado = :destino, t.fechaActualizacion = :ahora " +
+       "WHERE t.id IN :ids AND t.estado IN :origenes")
+int cambiarEstadoEnBloque(@Param("ids") Collection<Long> ids, @Param("origenes") Collection<EstadoTicket> origenes,
+                          @Param("destino") EstadoTicket destino, @Param("ahora") LocalDateTime ahora);
+
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("UPDATE Ticket t SET t.estado = :destino, t.fechaActualizacion = :ahora, t.fechaResolucion = :ahora " +
+       "WHERE t.id IN :ids AND t.estado IN :origenes")
+int resolverEnBloque(@Param("ids") Collection<Long> ids, @Param("origenes") Collection<EstadoTicket> origenes,
+                     @Param("destino") EstadoTicket destino, @Param("ahora") LocalDateTime ahora);
+
+@Modifying(flushAutomatically = true, clearAutomatically = true)
+@Query("UPDATE Ticket t SET t.estado = :destino, t.fechaActualizacion = :ahora, " +
+       "t.fechaResolucion = COALESCE(t.fechaResolucion, :ahora), t.fechaCierre = :ahora " +
+       "WHERE t.id IN :ids AND t.estado IN :origenes")
+int cerrarEnBloque(@Param("ids") Collection<Long> ids, @Param("origenes") Collection<EstadoTicket> origenes,
+                   @Param("destino") EstadoTicket destino, @Param("ahora") LocalDateTime ahora);
+
 }
@@ -0,0 +1,20 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.dto.TicketResponseDto;
+import com.tickets.backend.models.Ticket;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Consultas de tickets con filtros dinámicos (Specification) proyectadas a TicketResponseDto
+ */
+public interface TicketRepositoryCustom {
+
+    Page<TicketResponseDto> buscarResumen(Specification<Ticket> filtro, Pageable pageable);
+
+    List<TicketResponseDto> buscarResumen(Specification<Ticket> filtro, Sort orden, int limite);
+}
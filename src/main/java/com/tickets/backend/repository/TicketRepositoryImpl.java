@@ -0,0 +1,95 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.dto.TicketResponseDto;
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.Subcategoria;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.Usuario;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Implementación de TicketRepositoryCustom con Criteria API.
+ * Spring Data la combina con TicketRepository por el sufijo Impl.
+ */
+public class TicketRepositoryImpl implements TicketRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<TicketResponseDto> buscarResumen(Specification<Ticket> filtro, Pageable pageable) {
+        TypedQuery<TicketResponseDto> query = crearConsultaResumen(filtro, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        // El COUNT se omite cuando la página ya permite deducir el total
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> contar(filtro));
+    }
+
+    @Override
+    public List<TicketResponseDto> buscarResumen(Specification<Ticket> filtro, Sort orden, int limite) {
+        return crearConsultaResumen(filtro, orden)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private TypedQuery<TicketResponseDto> crearConsultaResumen(Specification<Ticket> filtro, Sort orden) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TicketResponseDto> query = cb.createQuery(TicketResponseDto.class);
+        Root<Ticket> t = query.from(Ticket.class);
+
+        Join<Ticket, Categoria> c = t.join("categoria", JoinType.LEFT);
+        Join<Ticket, Subcategoria> s = t.join("subcategoria", JoinType.LEFT);
+        Join<Ticket, Usuario> uc = t.join("usuarioCreador", JoinType.LEFT);
+        Join<Ticket, Usuario> ta = t.join("tecnicoAsignado", JoinType.LEFT);
+
+        // Mismo orden de argumentos que el constructor de proyección de TicketResponseDto
+        query.select(cb.construct(TicketResponseDto.class,
+                t.get("id"), t.get("numeroTicket"), t.get("titulo"), t.get("descripcion"),
+                t.get("estado"), t.get("prioridad"),
+                c.get("id"), c.get("nombre"), s.get("id"), s.get("nombre"),
+                uc.get("id"), uc.get("nombre"), uc.get("apellido"),
+                ta.get("id"), ta.get("nombre"), ta.get("apellido"),
+                t.get("fechaCreacion"), t.get("fechaActualizacion"),
+                t.get("fechaResolucion"), t.get("fechaCierre")));
+
+        Predicate predicado = filtro != null ? filtro.toPredicate(t, query, cb) : null;
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        if (orden != null && orden.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(orden, t, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long contar(Specification<Ticket> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Ticket> t = query.from(Ticket.class);
+        query.select(cb.count(t));
+
+        Predicate predicado = filtro != null ? filtro.toPredicate(t, query, cb) : null;
+        if (predicado != null) {
+            query.where(predicado);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,144 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Ticket;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Filtros dinámicos de tickets.
+ *
+ * Cada método devuelve null cuando el filtro no viene informado, de modo que la consulta
+ * final solo lleva los predicados usados y SQL Server arma un plan por combinación
+ * (en lugar de un único plan genérico con "(:x IS NULL OR col = :x)").
+ */
+public final class TicketSpecifications {
+
+    private TicketSpecifications() {
+    }
+
+    /**
+     * Combina los filtros del listado de administración; los nulos se omiten
+     */
+    public static Specification<Ticket> conFiltros(EstadoTicket estado, PrioridadTicket prioridad,
+                                                   Long categoriaId, Long tecnicoId, Long usuarioId,
+                                                   LocalDateTime fechaDesde, LocalDateTime fechaHasta,
+                                                   List<String> terminos) {
+        List<Specification<Ticket>> filtros = new ArrayList<>();
+        agregar(filtros, conEstado(estado));
+        agregar(filtros, conPrioridad(prioridad));
+        agregar(filtros, deCategoria(categoriaId));
+        agregar(filtros, asignadoA(tecnicoId));
+        agregar(filtros, creadoPor(usuarioId));
+        agregar(filtros, creadoDesde(fechaDesde));
+        agregar(filtros, creadoHasta(fechaHasta));
+        agregar(filtros, conTerminos(terminos));
+        return Specification.allOf(filtros);
+    }
+
+    public static Specification<Ticket> conEstado(EstadoTicket estado) {
+        return estado == null ? null : (root, query, cb) -> cb.equal(root.get("estado"), estado);
+    }
+
+    public static Specification<Ticket> conPrioridad(PrioridadTicket prioridad) {
+        return prioridad == null ? null : (root, query, cb) -> cb.equal(root.get("prioridad"), prioridad);
+    }
+
+    public static Specification<Ticket> deCategoria(Long categoriaId) {
+        return categoriaId == null ? null : (root, query, cb) -> cb.equal(root.get("categoria").get("id"), categoriaId);
+    }
+
+    public static Specification<Ticket> asignadoA(Long tecnicoId) {
+        return tecnicoId == null ? null : (root, query, cb) -> cb.equal(root.get("tecnicoAsignado").get("id"), tecnicoId);
+    }
+
+    public static Specification<Ticket> creadoPor(Long usuarioId) {
+        return usuarioId == null ? null : (root, query, cb) -> cb.equal(root.get("usuarioCreador").get("id"), usuarioId);
+    }
+
+    public static Specification<Ticket> creadoPorEmail(String email) {
+        return (root, query, cb) -> cb.equal(unido(root, "usuarioCreador").get("email"), email);
+    }
+
+    public static Specification<Ticket> asignadoAEmail(String email) {
+        return (root, query, cb) -> cb.equal(unido(root, "tecnicoAsignado").get("email"), email);
+    }
+
+    public static Specification<Ticket> creadoDesde(LocalDateTime fechaDesde) {
+        return fechaDesde == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.<LocalDateTime>get("fechaCreacion"), fechaDesde);
+    }
+
+    public static Specification<Ticket> creadoHasta(LocalDateTime fechaHasta) {
+        return fechaHasta == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.<LocalDateTime>get("fechaCreacion"), fechaHasta);
+    }
+
+    /**
+     * Búsqueda por texto en título, descripción y número de ticket: cada término debe aparecer
+     * en alguno de los tres. Es la semántica del índice de búsqueda en memoria; los términos
+     * llegan ya separados y sin palabras vacías (BusquedaTicketsService.terminosConsulta).
+     */
+    public static Specification<Ticket> conTerminos(List<String> terminos) {
+        if (terminos == null || terminos.isEmpty()) {
+            return null;
+        }
+        List<Specification<Ticket>> filtros = new ArrayList<>();
+        for (String termino : terminos) {
+            String patron = "%" + termino + "%";
+            filtros.add((root, query, cb) -> cb.or(
+                    cb.like(cb.lower(root.<String>get("titulo")), patron),
+                    cb.like(cb.lower(root.get("descripcion").as(String.class)), patron),
+                    cb.like(cb.lower(root.<String>get("numeroTicket")), patron)));
+        }
+        return Specification.allOf(filtros);
+    }
+
+    /**
+     * Restringe a un conjunto de IDs (p. ej. los resultados del índice de búsqueda)
+     */
+    public static Specification<Ticket> conIds(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    /**
+     * Posición de cursor: tickets anteriores a (fechaCreacion, id) en orden descendente
+     */
+    public static Specification<Ticket> anteriorA(LocalDateTime fechaCreacion, Long id) {
+        if (fechaCreacion == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("fechaCreacion"), fechaCreacion),
+                cb.and(cb.equal(root.<LocalDateTime>get("fechaCreacion"), fechaCreacion), cb.lessThan(root.<Long>get("id"), id)));
+    }
+
+    /**
+     * Join ya armado por la consulta (buscarResumen une usuarios para la proyección); si no hay,
+     * uno nuevo. Así el filtro no suma otro join a la misma tabla.
+     */
+    private static From<Ticket, ?> unido(From<?, Ticket> root, String atributo) {
+        for (Join<Ticket, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals(atributo)) {
+                return join;
+            }
+        }
+        return root.join(atributo);
+    }
+
+    private static void agregar(List<Specification<Ticket>> filtros, Specification<Ticket> filtro) {
+        if (filtro != null) {
+            filtros.add(filtro);
+        }
+    }
+}
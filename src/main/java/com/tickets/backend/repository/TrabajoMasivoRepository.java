@@ -0,0 +1,101 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.EstadoTrabajoMasivo;
+import com.tickets.backend.models.TrabajoMasivo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Las fechas de avance y heartbeat usan el reloj de la base de datos (local datetime), así
+ * la detección de trabajos abandonados no depende del reloj de cada instancia.
+ */
+@Repository
+public interface TrabajoMasivoRepository extends JpaRepository<TrabajoMasivo, Long> {
+
+    @Query("SELECT t.id FROM TrabajoMasivo t WHERE t.estado = :estado ORDER BY t.id")
+    List<Long> findIdsPorEstado(@Param("estado") EstadoTrabajoMasivo estado);
+
+    /**
+     * Toma el trabajo para un worker y sube su token. Devuelve 0 si otro worker (u otra instancia) ya lo tomó.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoMasivo t SET t.estado = :enProceso, t.propietario = :propietario, t.token = t.token + 1, " +
+           "t.fechaActualizacion = local datetime " +
+           "WHERE t.id = :id AND t.estado = :pendiente")
+    int tomar(@Param("id") Long id,
+              @Param("propietario") String propietario,
+              @Param("pendiente") EstadoTrabajoMasivo pendiente,
+              @Param("enProceso") EstadoTrabajoMasivo enProceso);
+
+    @Query("SELECT t.token FROM TrabajoMasivo t WHERE t.id = :id AND t.propietario = :propietario AND t.estado = :enProceso")
+    Optional<Long> findToken(@Param("id") Long id,
+                             @Param("propietario") String propietario,
+                             @Param("enProceso") EstadoTrabajoMasivo enProceso);
+
+    /**
+     * Heartbeat del worker. Devuelve 0 si el trabajo ya no le pertenece.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoMasivo t SET t.fechaActualizacion = local datetime " +
+           "WHERE t.id = :id AND t.token = :token AND t.estado = :enProceso")
+    int renovar(@Param("id") Long id,
+                @Param("token") long token,
+                @Param("enProceso") EstadoTrabajoMasivo enProceso);
+
+    /**
+     * Punto de control de un lote; se ejecuta en la transacción del lote, que se revierte si devuelve 0
+     */
+    @Modifying
+    @Query("UPDATE TrabajoMasivo t SET t.procesados = :procesados, t.actualizados = :actualizados, " +
+           "t.sinCambios = :sinCambios, t.fallidos = :fallidos, t.lotesCompletados = :lotesCompletados, " +
+           "t.totalLotes = :totalLotes, t.fechaInicio = :fechaInicio, t.fechaActualizacion = local datetime " +
+           "WHERE t.id = :id AND t.token = :token AND t.estado = :enProceso")
+    int registrarAvance(@Param("id") Long id,
+                        @Param("token") long token,
+                        @Param("enProceso") EstadoTrabajoMasivo enProceso,
+                        @Param("procesados") int procesados,
+                        @Param("actualizados") int actualizados,
+                        @Param("sinCambios") int sinCambios,
+                        @Param("fallidos") int fallidos,
+                        @Param("lotesCompletados") int lotesCompletados,
+                        @Param("totalLotes") int totalLotes,
+                        @Param("fechaInicio") LocalDateTime fechaInicio);
+
+    /**
+     * Cierra el trabajo (COMPLETADO, FALLIDO o de vuelta a PENDIENTE para reintentar) si sigue siendo del worker
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoMasivo t SET t.estado = :estado, t.propietario = NULL, t.token = t.token + 1, " +
+           "t.intentos = :intentos, t.error = :error, t.fechaFin = :fechaFin, t.fechaActualizacion = local datetime " +
+           "WHERE t.id = :id AND t.token = :token AND t.estado = :enProceso")
+    int terminar(@Param("id") Long id,
+                 @Param("token") long token,
+                 @Param("enProceso") EstadoTrabajoMasivo enProceso,
+                 @Param("estado") EstadoTrabajoMasivo estado,
+                 @Param("intentos") int intentos,
+                 @Param("error") String error,
+                 @Param("fechaFin") LocalDateTime fechaFin);
+
+    /**
+     * Devuelve a PENDIENTE los trabajos sin heartbeat (el worker o la instancia se detuvo).
+     * Sube el token para que el worker anterior, si sigue vivo, no pueda escribir más.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE TrabajoMasivo t SET t.estado = :pendiente, t.propietario = NULL, t.token = t.token + 1 " +
+           "WHERE t.estado = :enProceso AND t.fechaActualizacion < local datetime - :segundos second")
+    int liberarAbandonados(@Param("pendiente") EstadoTrabajoMasivo pendiente,
+                           @Param("enProceso") EstadoTrabajoMasivo enProceso,
+                           @Param("segundos") long segundos);
+}
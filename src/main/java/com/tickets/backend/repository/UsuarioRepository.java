@@ -4,6 +4,7 @@ package com.tickets.backend.repository;
 import com.tickets.backend.models.Empresa;
 import com.tickets.backend.models.Usuario;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -11,7 +12,11 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -35,6 +40,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpec
     List<Usuario> findByActivoTrue();
 
     List<Usuario> findByRolesNombreAndActivoTrue(String rolNombre);
+
+    Optional<Usuario> findFirstByRolesNombreOrderByIdAsc(String rolNombre);
     
     List<Usuario> findByRolesNombreAndEspecialidadAndActivoTrue(String rolNombre, String especialidad);
     
@@ -46,29 +53,47 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpec
 
     List<Usuario> findByActivoFalse();
 
-    // OPTIMIZADO: Paginación con fetch joins para evitar N+1
-    @Query("SELECT DISTINCT u FROM Usuario u " +
-           "LEFT JOIN FETCH u.empresa e " +
-           "LEFT JOIN FETCH u.sucursal s " +
-           "LEFT JOIN FETCH u.categoria c " +
-           "LEFT JOIN FETCH u.roles r " +
-           "WHERE u.activo = true")
-    Page<Usuario> findByActivoTrueOptimized(Pageable pageable);
+    // OPTIMIZADO: Paginación en dos fases (IDs paginados + fetch de relaciones) para evitar N+1
+    // sin que Hibernate pagine en memoria (HHH90003004)
+    default Page<Usuario> findByActivoTrueOptimized(Pageable pageable) {
+        return cargarPaginaConRelaciones(findIdsByActivo(true, pageable));
+    }
     
-    @Query("SELECT DISTINCT u FROM Usuario u " +
-           "LEFT JOIN FETCH u.empresa e " +
-           "LEFT JOIN FETCH u.sucursal s " +
-           "LEFT JOIN FETCH u.categoria c " +
-           "LEFT JOIN FETCH u.roles r " +
-           "WHERE u.activo = false")
-    Page<Usuario> findByActivoFalseOptimized(Pageable pageable);
+    default Page<Usuario> findByActivoFalseOptimized(Pageable pageable) {
+        return cargarPaginaConRelaciones(findIdsByActivo(false, pageable));
+    }
 
-    // CORREGIDO: Método principal con fetch joins para SQL Server
-    @Query("SELECT DISTINCT u FROM Usuario u " +
-           "LEFT JOIN FETCH u.empresa e " +
-           "LEFT JOIN FETCH u.sucursal s " +
-           "LEFT JOIN FETCH u.categoria c " +
-           "LEFT JOIN FETCH u.roles r " +
+    // CORREGIDO: Método principal en dos fases para SQL Server
+    default Page<Usuario> buscarUsuariosOptimizado(Boolean activo, String search, Long empresaId, Long rolId,
+                                                   Pageable pageable) {
+        return cargarPaginaConRelaciones(buscarIdsUsuarios(activo, search, empresaId, rolId, pageable));
+    }
+
+    // CORREGIDO: Método simple en dos fases para SQL Server
+    default Page<Usuario> buscarUsuariosSimpleOptimizado(Boolean activo, String search, Pageable pageable) {
+        return cargarPaginaConRelaciones(buscarIdsUsuariosSimple(activo, search, pageable));
+    }
+
+    // OPTIMIZADO: Para obtener todos los usuarios en dos fases
+    default Page<Usuario> findAllOptimized(Pageable pageable) {
+        return cargarPaginaConRelaciones(findIdsPagina(pageable));
+    }
+
+    // ===== PAGINACIÓN EN DOS FASES =====
+    // Fase 1: se pagina solo sobre IDs (con los filtros y un COUNT real, sin JOIN FETCH).
+    // Fase 2: se cargan las relaciones únicamente de esos IDs y se respeta el orden de la fase 1.
+
+    @Query(value = "SELECT u.id FROM Usuario u",
+           countQuery = "SELECT COUNT(u) FROM Usuario u")
+    Page<Long> findIdsPagina(Pageable pageable);
+
+    @Query(value = "SELECT u.id FROM Usuario u WHERE u.activo = :activo",
+           countQuery = "SELECT COUNT(u) FROM Usuario u WHERE u.activo = :activo")
+    Page<Long> findIdsByActivo(@Param("activo") boolean activo, Pageable pageable);
+
+    // El filtro por rol usa EXISTS para no duplicar filas (y no necesitar DISTINCT)
+    @Query(value = "SELECT u.id FROM Usuario u " +
+           "LEFT JOIN u.empresa e " +
            "WHERE (:activo IS NULL OR u.activo = :activo) " +
            "AND (:search IS NULL OR :search = '' OR " +
            "     LOWER(u.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -77,36 +102,75 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpec
            "     (u.especialidad IS NOT NULL AND LOWER(u.especialidad) LIKE LOWER(CONCAT('%', :search, '%'))) OR " +
            "     (e.nombre IS NOT NULL AND LOWER(e.nombre) LIKE LOWER(CONCAT('%', :search, '%')))) " +
            "AND (:empresaId IS NULL OR e.id = :empresaId) " +
-           "AND (:rolId IS NULL OR r.id = :rolId)")
-    Page<Usuario> buscarUsuariosOptimizado(@Param("activo") Boolean activo,
-                                          @Param("search") String search,
-                                          @Param("empresaId") Long empresaId,
-                                          @Param("rolId") Long rolId,
-                                          Pageable pageable);
+           "AND (:rolId IS NULL OR EXISTS (SELECT 1 FROM Usuario u2 JOIN u2.roles r WHERE u2 = u AND r.id = :rolId))",
+           countQuery = "SELECT COUNT(u) FROM Usuario u " +
+           "LEFT JOIN u.empresa e " +
+           "WHERE (:activo IS NULL OR u.activo = :activo) " +
+           "AND (:search IS NULL OR :search = '' OR " +
+           "     LOWER(u.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     LOWER(u.apellido) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     (u.especialidad IS NOT NULL AND LOWER(u.especialidad) LIKE LOWER(CONCAT('%', :search, '%'))) OR " +
+           "     (e.nombre IS NOT NULL AND LOWER(e.nombre) LIKE LOWER(CONCAT('%', :search, '%')))) " +
+           "AND (:empresaId IS NULL OR e.id = :empresaId) " +
+           "AND (:rolId IS NULL OR EXISTS (SELECT 1 FROM Usuario u2 JOIN u2.roles r WHERE u2 = u AND r.id = :rolId))")
+    Page<Long> buscarIdsUsuarios(@Param("activo") Boolean activo,
+                                 @Param("search") String search,
+                                 @Param("empresaId") Long empresaId,
+                                 @Param("rolId") Long rolId,
+                                 Pageable pageable);
 
-    // CORREGIDO: Método simple con fetch joins para SQL Server
-    @Query("SELECT DISTINCT u FROM Usuario u " +
-           "LEFT JOIN FETCH u.empresa e " +
-           "LEFT JOIN FETCH u.sucursal s " +
-           "LEFT JOIN FETCH u.categoria c " +
-           "LEFT JOIN FETCH u.roles r " +
+    @Query(value = "SELECT u.id FROM Usuario u " +
+           "LEFT JOIN u.empresa e " +
+           "WHERE (:activo IS NULL OR u.activo = :activo) " +
+           "AND (:search IS NULL OR :search = '' OR " +
+           "     LOWER(u.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     LOWER(u.apellido) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "     (e.nombre IS NOT NULL AND LOWER(e.nombre) LIKE LOWER(CONCAT('%', :search, '%'))))",
+           countQuery = "SELECT COUNT(u) FROM Usuario u " +
+           "LEFT JOIN u.empresa e " +
            "WHERE (:activo IS NULL OR u.activo = :activo) " +
            "AND (:search IS NULL OR :search = '' OR " +
            "     LOWER(u.nombre) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "     LOWER(u.apellido) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "     LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "     (e.nombre IS NOT NULL AND LOWER(e.nombre) LIKE LOWER(CONCAT('%', :search, '%'))))")
-    Page<Usuario> buscarUsuariosSimpleOptimizado(@Param("activo") Boolean activo,
-                                                @Param("search") String search,
-                                                Pageable pageable);
+    Page<Long> buscarIdsUsuariosSimple(@Param("activo") Boolean activo,
+                                       @Param("search") String search,
+                                       Pageable pageable);
 
-    // OPTIMIZADO: Para obtener todos los usuarios con fetch joins
     @Query("SELECT DISTINCT u FROM Usuario u " +
            "LEFT JOIN FETCH u.empresa e " +
            "LEFT JOIN FETCH u.sucursal s " +
            "LEFT JOIN FETCH u.categoria c " +
-           "LEFT JOIN FETCH u.roles r")
-    Page<Usuario> findAllOptimized(Pageable pageable);
+           "LEFT JOIN FETCH u.roles r " +
+           "WHERE u.id IN :ids")
+    List<Usuario> findByIdInConRelaciones(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Carga las relaciones de los usuarios de una página de IDs, conservando su orden
+     */
+    default Page<Usuario> cargarPaginaConRelaciones(Page<Long> paginaIds) {
+        if (paginaIds.isEmpty()) {
+            return new PageImpl<>(List.of(), paginaIds.getPageable(), paginaIds.getTotalElements());
+        }
+
+        Map<Long, Usuario> porId = new HashMap<>();
+        for (Usuario usuario : findByIdInConRelaciones(paginaIds.getContent())) {
+            porId.put(usuario.getId(), usuario);
+        }
+
+        List<Usuario> ordenados = new ArrayList<>(paginaIds.getNumberOfElements());
+        for (Long id : paginaIds.getContent()) {
+            Usuario usuario = porId.get(id);
+            if (usuario != null) {
+                ordenados.add(usuario);
+            }
+        }
+
+        return new PageImpl<>(ordenados, paginaIds.getPageable(), paginaIds.getTotalElements());
+    }
 
     // OPTIMIZADO: Para obtener usuario por ID con todas las relaciones
     @Query("SELECT u FROM Usuario u " +
@@ -167,4 +231,8 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long>, JpaSpec
            "WHERE r.nombre = :rolNombre AND u.categoria.id = :categoriaId AND u.activo = true")
     List<Usuario> findByRolesNombreAndCategoriaIdAndActivoTrueOptimized(@Param("rolNombre") String rolNombre, 
                                                                        @Param("categoriaId") Long categoriaId);
+
+    // Solo id y nombre, sin cargar las relaciones del usuario
+    @Query("SELECT u.id, u.nombre, u.apellido FROM Usuario u WHERE u.id IN :ids")
+    List<Object[]> findNombresPorIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.VersionSeguridad;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface VersionSeguridadRepository extends JpaRepository<VersionSeguridad, String>, VersionSeguridadRepositoryCustom {
+
+    // Emails de los usuarios que tienen un rol; usado al cambiar los permisos del rol
+    @Query("SELECT u.email FROM Usuario u JOIN u.roles r WHERE r.id = :rolId")
+    List<String> findEmailsPorRol(@Param("rolId") Long rolId);
+}
@@ -0,0 +1,13 @@
+package com.tickets.backend.repository;
+
+/**
+ * Incremento atómico de la versión de seguridad. Va por JDBC: una clave duplicada se
+ * reintenta sin dejar la transacción JPA marcada para rollback.
+ */
+public interface VersionSeguridadRepositoryCustom {
+
+    /**
+     * Suma 1 a la versión del usuario (creando la fila en 1 si no existe) y devuelve la nueva
+     */
+    long incrementar(String email);
+}
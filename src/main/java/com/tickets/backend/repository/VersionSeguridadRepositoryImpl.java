@@ -0,0 +1,30 @@
+package com.tickets.backend.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class VersionSeguridadRepositoryImpl implements VersionSeguridadRepositoryCustom {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public long incrementar(String email) {
+        // Usa la conexión de la transacción JPA en curso; el UPDATE deja la fila bloqueada
+        if (sumar(email) == 0) {
+            try {
+                jdbcTemplate.update("INSERT INTO versiones_seguridad (email, version) VALUES (?, 1)", email);
+                return 1;
+            } catch (DuplicateKeyException e) {
+                // Otra transacción la insertó al mismo tiempo: el UPDATE espera a que confirme
+                sumar(email);
+            }
+        }
+        return jdbcTemplate.queryForObject("SELECT version FROM versiones_seguridad WHERE email = ?", Long.class, email);
+    }
+
+    private int sumar(String email) {
+        return jdbcTemplate.update("UPDATE versiones_seguridad SET version = version + 1 WHERE email = ?", email);
+    }
+}
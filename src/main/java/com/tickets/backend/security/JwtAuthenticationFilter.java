@@ -12,15 +12,19 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final VersionSeguridadRegistry versionSeguridadRegistry;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService,
+                                   VersionSeguridadRegistry versionSeguridadRegistry) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.versionSeguridadRegistry = versionSeguridadRegistry;
     }
 
     @Override
@@ -41,44 +45,46 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             String jwt = getJwtFromRequest(request);
-            
-            
-            if (jwt != null) {
-                
-            }
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUserEmailFromJWT(jwt);
-                
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                
-                
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                
-            } else {
-                
-                
-                // Más detalles sobre por qué falló
-                if (jwt != null) {
-                    
-                    boolean isValid = tokenProvider.validateToken(jwt);
-                    
+            // Una sola verificación por request (o ninguna si el token ya está en caché)
+            Optional<JwtPrincipal> principal = StringUtils.hasText(jwt)
+                    ? tokenProvider.verificarToken(jwt)
+                    : Optional.empty();
+
+            if (principal.isPresent()) {
+                UsernamePasswordAuthenticationToken authentication = construirAutenticacion(principal.get());
+
+                if (authentication != null) {
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
         } catch (Exception ex) {
-            
-            ex.printStackTrace();
+            logger.error("No se pudo establecer la autenticación del usuario", ex);
         }
 
-        System.out.println("======================\n");
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Construye la autenticación solo con los claims del token, sin consultar la base de datos.
+     * Devuelve null si el token fue revocado (cambió la versión de seguridad del usuario).
+     */
+    private UsernamePasswordAuthenticationToken construirAutenticacion(JwtPrincipal principal) {
+        if (!versionSeguridadRegistry.esVigente(principal.getEmail(), principal.getVersionSeguridad())) {
+            logger.debug("JWT revocado para " + principal.getEmail());
+            return null;
+        }
+
+        if (principal.tieneAutoridades()) {
+            return new UsernamePasswordAuthenticationToken(principal.getEmail(), null, principal.getAutoridades());
+        }
+
+        // Tokens emitidos antes de incluir autoridades: se cargan desde la base de datos
+        UserDetails userDetails = userDetailsService.loadUserByUsername(principal.getEmail());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         
@@ -0,0 +1,50 @@
+package com.tickets.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Date;
+
+/**
+ * Resultado de verificar un JWT: los datos del token ya validados (firma y expiración).
+ * Es inmutable para poder compartirlo desde la caché de tokens verificados.
+ */
+public final class JwtPrincipal {
+
+    private final String email;
+    private final Date expiracion;
+    // null si el token fue emitido antes de incluir autoridades
+    private final Collection<GrantedAuthority> autoridades;
+    private final long versionSeguridad;
+
+    public JwtPrincipal(String email, Date expiracion, Collection<GrantedAuthority> autoridades, long versionSeguridad) {
+        this.email = email;
+        this.expiracion = expiracion;
+        this.autoridades = autoridades;
+        this.versionSeguridad = versionSeguridad;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Date getExpiracion() {
+        return expiracion;
+    }
+
+    public Collection<GrantedAuthority> getAutoridades() {
+        return autoridades;
+    }
+
+    public long getVersionSeguridad() {
+        return versionSeguridad;
+    }
+
+    public boolean tieneAutoridades() {
+        return autoridades != null;
+    }
+
+    public boolean estaExpirado(long ahoraMs) {
+        return expiracion != null && expiracion.getTime() <= ahoraMs;
+    }
+}
@@ -2,71 +2,178 @@ package com.tickets.backend.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    // Claims propios: autoridades (roles + permisos) y versión de seguridad del usuario
+    private static final String CLAIM_AUTORIDADES = "auth";
+    private static final String CLAIM_VERSION_SEGURIDAD = "sv";
+
+    @Autowired
+    private VersionSeguridadRegistry versionSeguridadRegistry;
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
 
+    @Value("${app.jwt.cache.max-tokens:10000}")
+    private int maxTokensEnCache;
+
+    // Se construyen una sola vez: la clave HMAC y el parser son inmutables y thread-safe
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Tokens ya verificados, por hash SHA-256 del token; cada entrada vence con el exp del token
+    private final ConcurrentHashMap<String, JwtPrincipal> tokensVerificados = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationInMs);
 
+        List<String> autoridades = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
+                .claim(CLAIM_AUTORIDADES, autoridades)
+                .claim(CLAIM_VERSION_SEGURIDAD, versionSeguridadRegistry.obtenerVersion(userPrincipal.getUsername()))
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUserEmailFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifica el token una sola vez y devuelve sus datos.
+     * Los tokens ya verificados se sirven desde memoria hasta su expiración.
+     */
+    public Optional<JwtPrincipal> verificarToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long ahora = System.currentTimeMillis();
+        String hash = hashToken(token);
+
+        JwtPrincipal enCache = tokensVerificados.get(hash);
+        if (enCache != null) {
+            if (!enCache.estaExpirado(ahora)) {
+                return Optional.of(enCache);
+            }
+            tokensVerificados.remove(hash);
+            logger.error("JWT expirado");
+            return Optional.empty();
+        }
+
+        JwtPrincipal principal = parsear(token);
+        if (principal == null) {
+            return Optional.empty();
+        }
+
+        guardarEnCache(hash, principal, ahora);
+        return Optional.of(principal);
+    }
 
-        return claims.getSubject();
+    public String getUserEmailFromJWT(String token) {
+        return verificarToken(token)
+                .map(JwtPrincipal::getEmail)
+                .orElseThrow(() -> new MalformedJwtException("JWT invalido"));
     }
 
     public boolean validateToken(String authToken) {
+        return verificarToken(authToken).isPresent();
+    }
+
+    private JwtPrincipal parsear(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Number version = claims.get(CLAIM_VERSION_SEGURIDAD, Number.class);
+            return new JwtPrincipal(
+                    claims.getSubject(),
+                    claims.getExpiration(),
+                    leerAutoridades(claims),
+                    version != null ? version.longValue() : 0L);
         } catch (MalformedJwtException ex) {
             logger.error("JWT invalido");
         } catch (ExpiredJwtException ex) {
             logger.error("JWT expirado");
         } catch (UnsupportedJwtException ex) {
             logger.error("JWT no soportado");
+        } catch (SignatureException ex) {
+            logger.error("Firma del JWT invalida");
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
-    
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+
+    private Collection<GrantedAuthority> leerAutoridades(Claims claims) {
+        Object valor = claims.get(CLAIM_AUTORIDADES);
+        if (!(valor instanceof Collection<?> nombres)) {
+            return null;
+        }
+        return nombres.stream()
+                .map(nombre -> (GrantedAuthority) new SimpleGrantedAuthority(nombre.toString()))
+                .toList();
+    }
+
+    private void guardarEnCache(String hash, JwtPrincipal principal, long ahora) {
+        if (tokensVerificados.size() >= maxTokensEnCache) {
+            // Primero se descartan los vencidos; si no alcanza, se vacía la caché completa
+            tokensVerificados.values().removeIf(p -> p.estaExpirado(ahora));
+            if (tokensVerificados.size() >= maxTokensEnCache) {
+                tokensVerificados.clear();
+            }
+        }
+        tokensVerificados.put(hash, principal);
+    }
+
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 está disponible en toda JVM
+            throw new IllegalStateException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.tickets.backend.security;
+
+import com.tickets.backend.models.VersionSeguridad;
+import com.tickets.backend.repository.VersionSeguridadRepository;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tabla en memoria de versiones de seguridad por usuario (email -> versión).
+ *
+ * El JWT lleva la versión vigente al momento de emitirse. Cuando cambian los roles,
+ * permisos o el estado de un usuario se incrementa su versión y sus tokens anteriores
+ * dejan de aceptarse, sin tener que consultar la base de datos en cada request.
+ *
+ * Cada incremento se publica en {@link BusInvalidacionesCache} al confirmarse, así las demás
+ * instancias lo aplican en el próximo sondeo del bus (segundos). La recarga completa periódica
+ * queda solo como respaldo por si se perdió una publicación.
+ */
+@Component
+public class VersionSeguridadRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionSeguridadRegistry.class);
+
+    private static final String CACHE_VERSIONES = "versiones-seguridad";
+
+    @Autowired
+    private VersionSeguridadRepository versionRepository;
+
+    @Autowired
+    private BusInvalidacionesCache busInvalidaciones;
+
+    @Value("${app.jwt.espera-reintento-carga-ms:5000}")
+    private long esperaReintentoCargaMs;
+
+    private final Map<String, Long> versiones = new ConcurrentHashMap<>();
+
+    private volatile boolean cargado = false;
+
+    // Mientras la base de datos no responde, la carga inicial no se reintenta antes de este momento
+    private volatile long proximoIntentoCarga = 0;
+
+    /**
+     * Aplica los incrementos hechos en otras instancias ("versión:email"; null = recargar todo)
+     */
+    @PostConstruct
+    public void registrarInvalidaciones() {
+        busInvalidaciones.registrar(CACHE_VERSIONES, clave -> {
+            if (clave == null) {
+                recargar();
+                return;
+            }
+            int separador = clave.indexOf(':');
+            versiones.merge(clave.substring(separador + 1), Long.parseLong(clave.substring(0, separador)), Math::max);
+        });
+    }
+
+    /**
+     * Versión actual del usuario (0 si nunca cambió)
+     */
+    public long obtenerVersion(String email) {
+        asegurarCargado();
+        return versiones.getOrDefault(email, 0L);
+    }
+
+    /**
+     * Indica si un token emitido con la versión dada sigue vigente
+     */
+    public boolean esVigente(String email, long versionToken) {
+        return versionToken >= obtenerVersion(email);
+    }
+
+    /**
+     * Invalida los tokens emitidos hasta ahora para el usuario
+     */
+    @Transactional
+    public void incrementarVersion(String email) {
+        if (email == null) {
+            return;
+        }
+        // Incremento atómico en la base de datos: dos cambios concurrentes no pierden ninguno
+        long nuevaVersion = versionRepository.incrementar(email);
+        alConfirmar(() -> versiones.merge(email, nuevaVersion, Math::max));
+        busInvalidaciones.publicar(CACHE_VERSIONES, nuevaVersion + ":" + email);
+        logger.info("Versión de seguridad de {} incrementada a {}", email, nuevaVersion);
+    }
+
+    @Transactional
+    public void incrementarVersion(Collection<String> emails) {
+        emails.forEach(this::incrementarVersion);
+    }
+
+    /**
+     * Invalida los tokens de todos los usuarios que tienen el rol
+     */
+    @Transactional
+    public void incrementarVersionPorRol(Long rolId) {
+        incrementarVersion(versionRepository.findEmailsPorRol(rolId));
+    }
+
+    /**
+     * Respaldo del bus: recoge los cambios de otras instancias cuya publicación se perdió
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.intervalo-recarga-versiones-ms:900000}",
+               initialDelayString = "${app.jwt.intervalo-recarga-versiones-ms:900000}")
+    public void recargar() {
+        try {
+            for (VersionSeguridad registro : versionRepository.findAll()) {
+                versiones.merge(registro.getEmail(), registro.getVersion(), Math::max);
+            }
+            cargado = true;
+        } catch (Exception e) {
+            logger.error("Error al recargar versiones de seguridad: {}", e.getMessage());
+        }
+    }
+
+    private void asegurarCargado() {
+        if (cargado || System.currentTimeMillis() < proximoIntentoCarga) {
+            return;
+        }
+        synchronized (this) {
+            if (cargado || System.currentTimeMillis() < proximoIntentoCarga) {
+                return;
+            }
+            recargar();
+            if (!cargado) {
+                // Sin base de datos: las requests usan lo conocido hasta el próximo intento
+                proximoIntentoCarga = System.currentTimeMillis() + esperaReintentoCargaMs;
+            }
+        }
+    }
+
+    private void alConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+}
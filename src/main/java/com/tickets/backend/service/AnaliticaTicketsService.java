@@ -0,0 +1,377 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.ResumenDiarioTicket;
+import com.tickets.backend.repository.ResumenDiarioTicketRepository;
+import com.tickets.backend.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Analítica de volumen de tickets sobre la tabla resumen_diario_tickets.
+ *
+ * Después del commit de cada transacción se recuentan desde la tabla de tickets los días
+ * que sus cambios tocaron, con un solo GROUP BY y las filas de esos días bloqueadas mientras
+ * se cuenta. Un recuento es idempotente: dos transacciones sobre la misma fila, o un recuento
+ * que coincide con el recálculo nocturno, dejan el valor correcto sin importar el orden.
+ * El recálculo nocturno reconstruye los días recientes con la tabla bloqueada. Las consultas
+ * leen solo el rango pedido y agrupan por día, semana o mes en memoria.
+ */
+@Service
+public class AnaliticaTicketsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliticaTicketsService.class);
+
+    private static final LocalDateTime INICIO_HISTORICO = LocalDateTime.of(1900, 1, 1, 0, 0);
+
+    private static final int INTENTOS_RECUENTO = 3;
+
+    // Días tocados separados por más que esto se recuentan en rangos distintos
+    private static final int HUECO_MAXIMO_DIAS = 7;
+
+    public enum Intervalo { DIA, SEMANA, MES }
+
+    public enum Dimension { CATEGORIA, PRIORIDAD, ESTADO, TECNICO }
+
+    @Autowired
+    private ResumenDiarioTicketRepository resumenRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
+
+    @Value("${app.analitica.dias-recalculo:35}")
+    private int diasRecalculo;
+
+    private final TransactionTemplate transaccion;
+
+    public AnaliticaTicketsService(PlatformTransactionManager transactionManager) {
+        // Transacción propia: el listener corre después del commit de la transacción del cambio
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Cantidad de tickets creados por período en [desde, hasta], opcionalmente separada por una dimensión.
+     * Cada elemento trae "periodo" (fecha de inicio del período), "cantidad" y, si se agrupa, "grupo".
+     */
+    public List<Map<String, Object>> consultar(LocalDate desde, LocalDate hasta, Intervalo intervalo,
+                                               Dimension dimension) {
+        // periodo -> grupo -> cantidad, ordenado por período
+        Map<LocalDate, Map<String, Long>> acumulado = new TreeMap<>();
+        for (ResumenDiarioTicket fila : resumenRepository.findByFechaBetween(desde, hasta)) {
+            if (fila.getCantidad() == 0) {
+                continue;
+            }
+            LocalDate periodo = inicioPeriodo(fila.getFecha(), intervalo);
+            String grupo = dimension != null ? valorDimension(fila, dimension) : null;
+            acumulado.computeIfAbsent(periodo, k -> new HashMap<>())
+                    .merge(grupo, fila.getCantidad(), Long::sum);
+        }
+
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        acumulado.forEach((periodo, grupos) -> grupos.forEach((grupo, cantidad) -> {
+            Map<String, Object> dato = new HashMap<>();
+            dato.put("periodo", periodo.toString());
+            if (dimension != null) {
+                dato.put("grupo", grupo);
+            }
+            dato.put("cantidad", cantidad);
+            resultado.add(dato);
+        }));
+        return resultado;
+    }
+
+    /**
+     * Tickets creados por mes en el rango de meses indicado (meses sin tickets con 0)
+     */
+    public Map<YearMonth, Long> contarPorMes(YearMonth desde, YearMonth hasta) {
+        Map<YearMonth, Long> porMes = new TreeMap<>();
+        for (YearMonth mes = desde; !mes.isAfter(hasta); mes = mes.plusMonths(1)) {
+            porMes.put(mes, 0L);
+        }
+        for (ResumenDiarioTicket fila : resumenRepository.findByFechaBetween(desde.atDay(1), hasta.atEndOfMonth())) {
+            porMes.merge(YearMonth.from(fila.getFecha()), fila.getCantidad(), Long::sum);
+        }
+        return porMes;
+    }
+
+    /**
+     * Anota las filas que toca el cambio; se recuentan una vez por transacción, después del commit
+     */
+    @EventListener
+    public void alModificarTicket(TicketModificadoEvent evento) {
+        InstantaneaTicket actual = evento.getActual();
+        InstantaneaTicket anterior = evento.getAnterior();
+        if (actual.getFechaCreacion() == null || (anterior != null && mismaFila(anterior, actual))) {
+            return;
+        }
+        Set<ClaveResumen> claves = new TreeSet<>();
+        claves.add(ClaveResumen.de(actual));
+        if (anterior != null && anterior.getFechaCreacion() != null) {
+            claves.add(ClaveResumen.de(anterior));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recontar(claves);
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<ClaveResumen> pendientes = (Set<ClaveResumen>) TransactionSynchronizationManager.getResource(this);
+        if (pendientes == null) {
+            Set<ClaveResumen> nuevas = new TreeSet<>();
+            TransactionSynchronizationManager.bindResource(this, nuevas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recontar(nuevas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(AnaliticaTicketsService.this);
+                }
+            });
+            pendientes = nuevas;
+        }
+        pendientes.addAll(claves);
+    }
+
+    /**
+     * Reconstruye el resumen de los últimos días desde la tabla de tickets
+     */
+    @Scheduled(cron = "${app.analitica.cron-recalculo:0 30 2 * * *}")
+    public void recalcularDiasRecientes() {
+        // Una sola instancia borra y reconstruye; las demás leen el resultado
+        coordinadorTareas.ejecutarComoLider("recalculo-analitica",
+                concesion -> recalcular(LocalDate.now().minusDays(diasRecalculo).atStartOfDay(), concesion));
+    }
+
+    /**
+     * Si la tabla está vacía (primer arranque) se calcula todo el histórico
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        if (resumenRepository.count() == 0) {
+            coordinadorTareas.ejecutarComoLider("recalculo-analitica", concesion -> {
+                // Otra instancia pudo terminar el cálculo mientras esta esperaba
+                if (resumenRepository.count() == 0) {
+                    recalcular(INICIO_HISTORICO, concesion);
+                }
+            });
+        }
+    }
+
+    private void recalcular(LocalDateTime desde, CoordinadorTareasService.Concesion concesion) {
+        long inicio = System.currentTimeMillis();
+        try {
+            Integer filas = transaccion.execute(status -> {
+                // Si otra instancia tomó la concesión, no se borra nada
+                concesion.verificar();
+                // Los recuentos por cambio esperan a que termine (o este espera a los que están en curso)
+                resumenRepository.bloquearTabla();
+                resumenRepository.borrarDesde(desde.toLocalDate());
+
+                List<ResumenDiarioTicket> nuevas = new ArrayList<>();
+                for (Object[] fila : ticketRepository.agregarPorDiaDesde(desde)) {
+                    nuevas.add(new ResumenDiarioTicket(null, (LocalDate) fila[0], (Long) fila[1],
+                            (PrioridadTicket) fila[2], (EstadoTicket) fila[3], (Long) fila[4],
+                            ((Number) fila[5]).longValue()));
+                }
+                resumenRepository.saveAll(nuevas);
+                return nuevas.size();
+            });
+            logger.info("Resumen diario de tickets recalculado desde {}: {} filas en {} ms",
+                    desde.toLocalDate(), filas, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            logger.error("Error al recalcular el resumen diario de tickets: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recuenta los días tocados por la transacción: por cada rango de días, un bloqueo de sus filas,
+     * un GROUP BY sobre los tickets y las escrituras en lote. Las filas se bloquean antes de contar:
+     * el último en contar ve todos los cambios confirmados. Si otra transacción crea la misma fila
+     * a la vez (o la base elige esta como víctima de un bloqueo cruzado) se repite el recuento.
+     */
+    private void recontar(Set<ClaveResumen> claves) {
+        TreeSet<LocalDate> fechas = new TreeSet<>();
+        claves.forEach(clave -> fechas.add(clave.fecha()));
+        for (int intento = 1; ; intento++) {
+            try {
+                transaccion.executeWithoutResult(status -> {
+                    for (List<LocalDate> rango : rangos(fechas)) {
+                        recontarRango(rango.get(0), rango.get(rango.size() - 1), new HashSet<>(rango));
+                    }
+                });
+                return;
+            } catch (DuplicateKeyException | PessimisticLockingFailureException e) {
+                if (intento >= INTENTOS_RECUENTO) {
+                    logger.warn("No se pudo actualizar el resumen diario ({} días): {}", fechas.size(), e.getMessage());
+                    return;
+                }
+                logger.debug("Recuento del resumen diario en conflicto, reintento {}: {}", intento, e.getMessage());
+            } catch (RuntimeException e) {
+                // El recálculo nocturno corrige la diferencia
+                logger.warn("No se pudo actualizar el resumen diario ({} días): {}", fechas.size(), e.getMessage());
+                return;
+            }
+        }
+    }
+
+    private void recontarRango(LocalDate desde, LocalDate hasta, Set<LocalDate> fechas) {
+        // Filas nuevas confirmadas entre el bloqueo y la lectura quedan sin bloquear: se vuelve a bloquear
+        List<ResumenDiarioTicket> existentes;
+        int bloqueadas;
+        do {
+            bloqueadas = resumenRepository.bloquearFechas(desde, hasta);
+            existentes = resumenRepository.findByFechaBetween(desde, hasta);
+        } while (existentes.size() != bloqueadas);
+
+        Map<ClaveResumen, Long> cantidades = new TreeMap<>();
+        for (Object[] fila : ticketRepository.agregarPorDiaEntre(desde.atStartOfDay(),
+                hasta.plusDays(1).atStartOfDay())) {
+            ClaveResumen clave = new ClaveResumen((LocalDate) fila[0], (Long) fila[1], (PrioridadTicket) fila[2],
+                    (EstadoTicket) fila[3], (Long) fila[4]);
+            if (fechas.contains(clave.fecha())) {
+                cantidades.put(clave, ((Number) fila[5]).longValue());
+            }
+        }
+
+        // Filas existentes de los días tocados: la cantidad contada, o 0 si ya no hay tickets
+        Map<Long, Long> cambios = new TreeMap<>();
+        for (ResumenDiarioTicket fila : existentes) {
+            if (fechas.contains(fila.getFecha())) {
+                Long cantidad = cantidades.remove(ClaveResumen.de(fila));
+                long nueva = cantidad != null ? cantidad : 0;
+                if (nueva != fila.getCantidad()) {
+                    cambios.put(fila.getId(), nueva);
+                }
+            }
+        }
+        resumenRepository.fijarCantidades(cambios);
+
+        // Combinaciones que aún no tienen fila
+        List<ResumenDiarioTicket> nuevas = new ArrayList<>();
+        cantidades.forEach((clave, cantidad) -> nuevas.add(new ResumenDiarioTicket(null, clave.fecha(),
+                clave.categoriaId(), clave.prioridad(), clave.estado(), clave.tecnicoId(), cantidad)));
+        resumenRepository.insertar(nuevas);
+    }
+
+    /**
+     * Agrupa fechas ordenadas en rangos; un hueco de más de HUECO_MAXIMO_DIAS abre otro rango
+     * para no contar los días intermedios
+     */
+    private static List<List<LocalDate>> rangos(TreeSet<LocalDate> fechas) {
+        List<List<LocalDate>> rangos = new ArrayList<>();
+        List<LocalDate> actual = null;
+        for (LocalDate fecha : fechas) {
+            if (actual == null || fecha.isAfter(actual.get(actual.size() - 1).plusDays(HUECO_MAXIMO_DIAS))) {
+                actual = new ArrayList<>();
+                rangos.add(actual);
+            }
+            actual.add(fecha);
+        }
+        return rangos;
+    }
+
+    private static boolean mismaFila(InstantaneaTicket a, InstantaneaTicket b) {
+        return Objects.equals(a.getFechaCreacion(), b.getFechaCreacion())
+                && Objects.equals(a.getCategoriaId(), b.getCategoriaId())
+                && a.getPrioridad() == b.getPrioridad()
+                && a.getEstado() == b.getEstado()
+                && Objects.equals(a.getTecnicoId(), b.getTecnicoId());
+    }
+
+    /**
+     * Combinación de una fila del resumen diario
+     */
+    private record ClaveResumen(LocalDate fecha, Long categoriaId, PrioridadTicket prioridad, EstadoTicket estado,
+                                Long tecnicoId) implements Comparable<ClaveResumen> {
+
+        private static final Comparator<ClaveResumen> ORDEN = Comparator.comparing(ClaveResumen::fecha)
+                .thenComparing(ClaveResumen::categoriaId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ClaveResumen::prioridad, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ClaveResumen::estado, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ClaveResumen::tecnicoId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        static ClaveResumen de(InstantaneaTicket ticket) {
+            return new ClaveResumen(ticket.getFechaCreacion().toLocalDate(), ticket.getCategoriaId(),
+                    ticket.getPrioridad(), ticket.getEstado(), ticket.getTecnicoId());
+        }
+
+        static ClaveResumen de(ResumenDiarioTicket fila) {
+            return new ClaveResumen(fila.getFecha(), fila.getCategoriaId(), fila.getPrioridad(), fila.getEstado(),
+                    fila.getTecnicoId());
+        }
+
+        @Override
+        public int compareTo(ClaveResumen otra) {
+            return ORDEN.compare(this, otra);
+        }
+    }
+
+    private static LocalDate inicioPeriodo(LocalDate fecha, Intervalo intervalo) {
+        switch (intervalo) {
+            case SEMANA:
+                return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES:
+                return fecha.withDayOfMonth(1);
+            default:
+                return fecha;
+        }
+    }
+
+    private static String valorDimension(ResumenDiarioTicket fila, Dimension dimension) {
+        Object valor;
+        switch (dimension) {
+            case CATEGORIA:
+                valor = fila.getCategoriaId();
+                break;
+            case PRIORIDAD:
+                valor = fila.getPrioridad();
+                break;
+            case ESTADO:
+                valor = fila.getEstado();
+                break;
+            default:
+                valor = fila.getTecnicoId();
+                break;
+        }
+        return valor != null ? valor.toString() : null;
+    }
+}
@@ -0,0 +1,202 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.InvalidacionCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Propaga las invalidaciones de caché a todas las instancias.
+ *
+ * Quien invalida localmente publica (caché, clave) en el transporte después de confirmar su
+ * transacción, en una transacción propia: si la publicación falla el cambio ya está confirmado
+ * y la caché de las demás instancias vence por TTL. Cada instancia sondea
+ * periódicamente las invalidaciones con id mayor a su marca de agua y aplica las de otras
+ * instancias con el manejador registrado para esa caché. Un id que falta entre dos leídos
+ * puede ser una transacción aún no confirmada: se reintenta un tiempo antes de descartarlo.
+ */
+@Service
+public class BusInvalidacionesCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusInvalidacionesCache.class);
+
+    @Autowired
+    private TransporteInvalidacionesCache transporte;
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
+
+    @Value("${app.invalidaciones.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${app.invalidaciones.espera-huecos-ms:60000}")
+    private long esperaHuecosMs;
+
+    @Value("${app.invalidaciones.max-huecos:100}")
+    private int maxHuecos;
+
+    @Value("${app.invalidaciones.horas-retencion:24}")
+    private int horasRetencion;
+
+    // clave null = invalidar toda la caché
+    private final Map<String, Consumer<String>> manejadores = new ConcurrentHashMap<>();
+
+    // id faltante -> momento en que se detectó
+    private final Map<Long, Long> huecos = new HashMap<>();
+
+    private long marca = -1;
+
+    private final Counter publicadas;
+    private final Counter aplicadas;
+    private final DistributionSummary retraso;
+
+    private final TransactionTemplate transaccionPropia;
+
+    public BusInvalidacionesCache(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
+        this.transaccionPropia = new TransactionTemplate(transactionManager);
+        this.transaccionPropia.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.publicadas = meterRegistry.counter("cache.invalidaciones.publicadas");
+        this.aplicadas = meterRegistry.counter("cache.invalidaciones.aplicadas");
+        this.retraso = DistributionSummary.builder("cache.invalidaciones.retraso")
+                .baseUnit("milliseconds")
+                .description("Tiempo entre la publicación y la aplicación en otra instancia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Manejador que aplica en esta instancia las invalidaciones de otras para una caché.
+     * Debe invalidar solo localmente (sin volver a publicar).
+     */
+    public void registrar(String cache, Consumer<String> manejador) {
+        manejadores.put(cache, manejador);
+    }
+
+    /**
+     * Anuncia a las demás instancias que se invalidó una clave (o toda la caché si clave es null).
+     * Con una transacción en curso se publica al confirmarla (nada si se revierte): así las demás
+     * instancias no recargan el valor anterior y un fallo al publicar no revierte al llamador.
+     */
+    public void publicar(String cache, String clave) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviar(cache, clave);
+                }
+            });
+        } else {
+            enviar(cache, clave);
+        }
+    }
+
+    private void enviar(String cache, String clave) {
+        try {
+            transaccionPropia.executeWithoutResult(status -> transporte.publicar(new InvalidacionCache(null, cache, clave,
+                    coordinadorTareas.getInstancia(), LocalDateTime.now())));
+            publicadas.increment();
+        } catch (RuntimeException e) {
+            // Las demás instancias se ponen al día cuando expira su caché
+            logger.warn("No se pudo publicar la invalidación de {} ({}): {}", cache, clave, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.invalidaciones.intervalo-ms:2000}")
+    public synchronized void sondear() {
+        try {
+            if (marca < 0) {
+                // Al arrancar las cachés están vacías: solo interesan los cambios desde ahora
+                marca = transporte.marcaActual();
+                return;
+            }
+
+            revisarHuecos();
+
+            List<InvalidacionCache> lote;
+            do {
+                lote = transporte.leerDesde(marca, tamanoLote);
+                for (InvalidacionCache invalidacion : lote) {
+                    registrarHuecos(marca, invalidacion.getId());
+                    aplicar(invalidacion);
+                    marca = invalidacion.getId();
+                }
+            } while (lote.size() == tamanoLote);
+        } catch (RuntimeException e) {
+            logger.warn("Error al leer invalidaciones de caché: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Borra las invalidaciones que ya leyeron todas las instancias
+     */
+    @Scheduled(cron = "${app.invalidaciones.cron-limpieza:0 15 3 * * *}")
+    public void limpiar() {
+        coordinadorTareas.ejecutarComoLider("limpieza-invalidaciones-cache", () -> {
+            int borradas = transporte.borrarAnteriores(LocalDateTime.now().minusHours(horasRetencion));
+            logger.info("Invalidaciones de caché borradas: {}", borradas);
+        });
+    }
+
+    private void revisarHuecos() {
+        if (huecos.isEmpty()) {
+            return;
+        }
+        for (InvalidacionCache invalidacion : transporte.leerIds(huecos.keySet())) {
+            huecos.remove(invalidacion.getId());
+            aplicar(invalidacion);
+        }
+        long limite = System.currentTimeMillis() - esperaHuecosMs;
+        // Ids que nunca aparecieron: transacciones revertidas o saltos de IDENTITY
+        huecos.values().removeIf(detectado -> detectado < limite);
+    }
+
+    private void registrarHuecos(long anterior, long actual) {
+        long faltantes = actual - anterior - 1;
+        if (faltantes <= 0 || faltantes > maxHuecos) {
+            // Un salto grande es un salto de IDENTITY (reinicio del servidor), no transacciones en curso
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        for (long id = anterior + 1; id < actual; id++) {
+            huecos.put(id, ahora);
+        }
+    }
+
+    private void aplicar(InvalidacionCache invalidacion) {
+        if (coordinadorTareas.getInstancia().equals(invalidacion.getOrigen())) {
+            // Ya se aplicó localmente al publicarla
+            return;
+        }
+        Consumer<String> manejador = manejadores.get(invalidacion.getCache());
+        if (manejador == null) {
+            logger.debug("Invalidación sin manejador en esta instancia: {}", invalidacion.getCache());
+            return;
+        }
+        try {
+            manejador.accept(invalidacion.getClave());
+            aplicadas.increment();
+            retraso.record(Math.max(0, Duration.between(invalidacion.getFecha(), LocalDateTime.now()).toMillis()));
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo aplicar la invalidación de {} ({}): {}",
+                    invalidacion.getCache(), invalidacion.getClave(), e.getMessage());
+        }
+    }
+}
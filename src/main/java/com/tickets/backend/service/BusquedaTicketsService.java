@@ -0,0 +1,417 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.TicketSpecifications;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para la búsqueda de tickets por texto.
+ *
+ * Indexa título, descripción y número de ticket normalizados (minúsculas, sin tildes,
+ * sin palabras vacías del español). Cada término de la consulta debe aparecer como parte de
+ * alguna palabra del ticket, así "123" encuentra "TK-000123": es la misma semántica que
+ * {@link TicketSpecifications#conTerminos} aplica con LIKE cuando el índice no está disponible.
+ * Las palabras que empiezan con el término salen de un rango del vocabulario ordenado; las que
+ * lo contienen en medio, de un índice de bigramas y trigramas de las palabras.
+ * Se mantiene con cada alta o edición de ticket (después del commit), también las hechas en
+ * otras instancias, que llegan por el bus de invalidaciones; y se reconstruye periódicamente
+ * desde la base de datos.
+ */
+@Service
+public class BusquedaTicketsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaTicketsService.class);
+
+    private static final int PESO_NUMERO = 5;
+    private static final int PESO_TITULO = 3;
+    private static final int PESO_DESCRIPCION = 1;
+    private static final int LARGO_MINIMO_TERMINO = 2;
+    private static final int LARGO_NGRAMA = 3;
+    private static final int LOTE_RECONSTRUCCION = 1000;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern NO_ALFANUMERICO = Pattern.compile("[^a-z0-9]+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // Canal del bus por el que se avisa a las demás instancias qué ticket reindexar
+    private static final String INDICE_BUSQUEDA = "indice-busqueda-tickets";
+
+    private static final Set<String> PALABRAS_VACIAS = Set.of(
+            "de", "la", "el", "en", "y", "a", "los", "las", "del", "se", "por", "un", "una", "unos",
+            "unas", "con", "no", "para", "es", "al", "lo", "que", "su", "sus", "mi", "mis", "o", "u",
+            "le", "les", "me", "ya", "muy", "pero", "como", "mas", "este", "esta", "esto", "ese", "esa");
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private BusInvalidacionesCache busInvalidaciones;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // término -> (ticketId -> peso)
+    private NavigableMap<String, Map<Long, Integer>> terminos = new TreeMap<>();
+    // ticketId -> términos indexados, para poder reemplazarlos al editar
+    private Map<Long, Set<String>> terminosPorTicket = new HashMap<>();
+    // bigrama o trigrama -> términos del vocabulario que lo contienen
+    private Map<String, Set<String>> terminosPorNgrama = new HashMap<>();
+
+    private volatile boolean listo = false;
+
+    // Tickets modificados mientras corre una reconstrucción; se reindexan al terminar
+    private volatile Set<Long> modificadosDuranteReconstruccion;
+
+    @PostConstruct
+    public void registrarInvalidaciones() {
+        busInvalidaciones.registrar(INDICE_BUSQUEDA, clave -> {
+            if (clave == null) {
+                reconstruir();
+            } else {
+                reindexar(Long.valueOf(clave));
+            }
+        });
+    }
+
+    /**
+     * Términos útiles de una consulta, en minúsculas y con sus tildes (el LIKE en base de datos
+     * los compara así); el índice los normaliza. Vacío si la consulta solo tiene palabras
+     * vacías o de una letra.
+     */
+    public static List<String> terminosConsulta(String texto) {
+        Set<String> terminos = new LinkedHashSet<>();
+        if (texto == null || texto.isBlank()) {
+            return new ArrayList<>(terminos);
+        }
+        for (String palabra : SEPARADORES.split(texto.toLowerCase(Locale.ROOT))) {
+            if (!tokenizar(palabra).isEmpty()) {
+                terminos.add(palabra);
+            }
+        }
+        return new ArrayList<>(terminos);
+    }
+
+    /**
+     * Busca tickets por texto y devuelve sus IDs ordenados por relevancia.
+     * Vacío si el índice aún no está listo o la consulta no tiene términos útiles;
+     * en ese caso el llamador debe usar la búsqueda en base de datos.
+     */
+    public Optional<List<Long>> buscar(String texto) {
+        if (!listo || texto == null) {
+            return Optional.empty();
+        }
+        List<String> terminosTexto = terminosConsulta(texto);
+        if (terminosTexto.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<String> consulta = new LinkedHashSet<>();
+        for (String termino : terminosTexto) {
+            consulta.add(NO_ALFANUMERICO.matcher(normalizar(termino)).replaceAll(""));
+        }
+
+        Map<Long, Integer> puntajes = null;
+        lock.readLock().lock();
+        try {
+            for (String termino : consulta) {
+                Map<Long, Integer> coincidencias = buscarContenido(termino);
+                // Todos los términos deben coincidir
+                if (puntajes == null) {
+                    puntajes = coincidencias;
+                } else {
+                    puntajes.keySet().retainAll(coincidencias.keySet());
+                    puntajes.replaceAll((id, puntaje) -> puntaje + coincidencias.get(id));
+                }
+                if (puntajes.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(puntajes.keySet());
+        Map<Long, Integer> resultado = puntajes;
+        // Más relevantes primero; a igual puntaje, los más nuevos
+        ids.sort(Comparator.comparing((Long id) -> resultado.get(id)).reversed()
+                .thenComparing(Comparator.reverseOrder()));
+        return Optional.of(ids);
+    }
+
+    /**
+     * Actualiza el índice con el ticket después del commit de la transacción actual y avisa
+     * a las demás instancias para que lo reindexen desde la base de datos
+     */
+    public void programarIndexacion(Ticket ticket) {
+        Long id = ticket.getId();
+        String numero = ticket.getNumeroTicket();
+        String titulo = ticket.getTitulo();
+        String descripcion = ticket.getDescripcion();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    indexar(id, numero, titulo, descripcion);
+                }
+            });
+        } else {
+            indexar(id, numero, titulo, descripcion);
+        }
+        busInvalidaciones.publicar(INDICE_BUSQUEDA, String.valueOf(id));
+    }
+
+    /**
+     * Reindexa un ticket modificado en otra instancia, leyéndolo de la base de datos
+     */
+    void reindexar(Long id) {
+        List<Object[]> filas = ticketRepository.findTextoBusquedaPorIds(List.of(id));
+        if (filas.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                quitar(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        Object[] fila = filas.get(0);
+        indexar((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3]);
+    }
+
+    /**
+     * Reconstruye el índice completo desde la base de datos, en lotes por id.
+     * Las búsquedas siguen usando el índice anterior hasta que el nuevo esté completo.
+     */
+    @Scheduled(initialDelayString = "${app.busqueda.retraso-inicial-ms:10000}",
+               fixedDelayString = "${app.busqueda.intervalo-reconstruccion-ms:21600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        modificadosDuranteReconstruccion = ConcurrentHashMap.newKeySet();
+        try {
+            NavigableMap<String, Map<Long, Integer>> nuevosTerminos = new TreeMap<>();
+            Map<Long, Set<String>> nuevosPorTicket = new HashMap<>();
+            Map<String, Set<String>> nuevosPorNgrama = new HashMap<>();
+
+            long ultimoId = 0L;
+            List<Object[]> lote;
+            do {
+                lote = ticketRepository.findTextoBusquedaDesde(ultimoId, PageRequest.of(0, LOTE_RECONSTRUCCION));
+                for (Object[] fila : lote) {
+                    Long id = (Long) fila[0];
+                    agregar(nuevosTerminos, nuevosPorTicket, nuevosPorNgrama, id,
+                            calcularTerminos((String) fila[1], (String) fila[2], (String) fila[3]));
+                    ultimoId = id;
+                }
+            } while (lote.size() == LOTE_RECONSTRUCCION);
+
+            lock.writeLock().lock();
+            try {
+                terminos = nuevosTerminos;
+                terminosPorTicket = nuevosPorTicket;
+                terminosPorNgrama = nuevosPorNgrama;
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Set<Long> pendientes = modificadosDuranteReconstruccion;
+            modificadosDuranteReconstruccion = null;
+            if (!pendientes.isEmpty()) {
+                for (Object[] fila : ticketRepository.findTextoBusquedaPorIds(pendientes)) {
+                    indexar((Long) fila[0], (String) fila[1], (String) fila[2], (String) fila[3]);
+                }
+            }
+
+            listo = true;
+            logger.info("Índice de búsqueda reconstruido: {} tickets, {} términos en {} ms",
+                    nuevosPorTicket.size(), nuevosTerminos.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            modificadosDuranteReconstruccion = null;
+            logger.error("Error al reconstruir el índice de búsqueda: {}", e.getMessage());
+        }
+    }
+
+    void indexar(Long id, String numero, String titulo, String descripcion) {
+        Map<String, Integer> nuevos = calcularTerminos(numero, titulo, descripcion);
+
+        lock.writeLock().lock();
+        try {
+            quitar(id);
+            agregar(terminos, terminosPorTicket, terminosPorNgrama, id, nuevos);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Set<Long> pendientes = modificadosDuranteReconstruccion;
+        if (pendientes != null) {
+            pendientes.add(id);
+        }
+    }
+
+    /**
+     * Tickets con alguna palabra que contiene el término. Las que empiezan con él son un rango del
+     * vocabulario; las que lo contienen en medio salen de intersecar las listas de sus trigramas,
+     * sin recorrer todo el vocabulario.
+     */
+    private Map<Long, Integer> buscarContenido(String termino) {
+        Map<Long, Integer> coincidencias = new HashMap<>();
+        // La palabra exacta vale el triple y el prefijo el doble que el resto
+        for (Map.Entry<String, Map<Long, Integer>> entrada
+                : terminos.subMap(termino, termino + Character.MAX_VALUE).entrySet()) {
+            int factor = entrada.getKey().equals(termino) ? 3 : 2;
+            entrada.getValue().forEach((id, peso) -> coincidencias.merge(id, peso * factor, Math::max));
+        }
+        for (String palabra : contienenEnMedio(termino)) {
+            terminos.get(palabra).forEach((id, peso) -> coincidencias.merge(id, peso, Math::max));
+        }
+        return coincidencias;
+    }
+
+    /**
+     * Términos del vocabulario que contienen al término sin empezar con él. Un término de dos o
+     * tres letras es su propio n-grama; uno más largo se busca por sus trigramas.
+     */
+    private List<String> contienenEnMedio(String termino) {
+        List<Set<String>> listas = new ArrayList<>();
+        for (String ngrama : termino.length() <= LARGO_NGRAMA ? Set.of(termino) : ngramas(termino, LARGO_NGRAMA)) {
+            Set<String> lista = terminosPorNgrama.get(ngrama);
+            if (lista == null) {
+                return List.of();
+            }
+            listas.add(lista);
+        }
+        // Se recorre la lista más corta y se descarta lo que falta en las demás
+        listas.sort(Comparator.comparingInt(Set::size));
+        List<String> resultado = new ArrayList<>();
+        for (String palabra : listas.get(0)) {
+            boolean enTodas = true;
+            for (int i = 1; i < listas.size() && enTodas; i++) {
+                enTodas = listas.get(i).contains(palabra);
+            }
+            // Los trigramas pueden estar en otro orden: se confirma la subcadena
+            if (enTodas && !palabra.startsWith(termino) && palabra.contains(termino)) {
+                resultado.add(palabra);
+            }
+        }
+        return resultado;
+    }
+
+    private void quitar(Long id) {
+        Set<String> anteriores = terminosPorTicket.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String termino : anteriores) {
+            Map<Long, Integer> tickets = terminos.get(termino);
+            if (tickets != null) {
+                tickets.remove(id);
+                if (tickets.isEmpty()) {
+                    terminos.remove(termino);
+                    quitarNgramas(terminosPorNgrama, termino);
+                }
+            }
+        }
+    }
+
+    private static void agregar(NavigableMap<String, Map<Long, Integer>> indice, Map<Long, Set<String>> porTicket,
+                                Map<String, Set<String>> porNgrama, Long id, Map<String, Integer> nuevos) {
+        for (Map.Entry<String, Integer> termino : nuevos.entrySet()) {
+            indice.computeIfAbsent(termino.getKey(), k -> {
+                // Término nuevo en el vocabulario
+                for (String ngrama : ngramasIndexados(k)) {
+                    porNgrama.computeIfAbsent(ngrama, n -> new HashSet<>()).add(k);
+                }
+                return new HashMap<>();
+            }).put(id, termino.getValue());
+        }
+        porTicket.put(id, new HashSet<>(nuevos.keySet()));
+    }
+
+    private static void quitarNgramas(Map<String, Set<String>> porNgrama, String termino) {
+        for (String ngrama : ngramasIndexados(termino)) {
+            Set<String> lista = porNgrama.get(ngrama);
+            if (lista != null) {
+                lista.remove(termino);
+                if (lista.isEmpty()) {
+                    porNgrama.remove(ngrama);
+                }
+            }
+        }
+    }
+
+    // Bigramas (para consultas de dos letras) y trigramas de un término del vocabulario
+    private static Set<String> ngramasIndexados(String termino) {
+        Set<String> resultado = ngramas(termino, LARGO_MINIMO_TERMINO);
+        resultado.addAll(ngramas(termino, LARGO_NGRAMA));
+        return resultado;
+    }
+
+    private static Set<String> ngramas(String termino, int largo) {
+        Set<String> resultado = new HashSet<>();
+        for (int i = 0; i + largo <= termino.length(); i++) {
+            resultado.add(termino.substring(i, i + largo));
+        }
+        return resultado;
+    }
+
+    /**
+     * Términos de un ticket con su peso (si un término aparece en varios campos vale el mayor)
+     */
+    private static Map<String, Integer> calcularTerminos(String numero, String titulo, String descripcion) {
+        Map<String, Integer> resultado = new HashMap<>();
+        for (String termino : tokenizar(descripcion)) {
+            resultado.merge(termino, PESO_DESCRIPCION, Math::max);
+        }
+        for (String termino : tokenizar(titulo)) {
+            resultado.merge(termino, PESO_TITULO, Math::max);
+        }
+        for (String termino : tokenizar(numero)) {
+            resultado.merge(termino, PESO_NUMERO, Math::max);
+        }
+        return resultado;
+    }
+
+    static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return tokens;
+        }
+        for (String token : NO_ALFANUMERICO.split(normalizar(texto))) {
+            if (token.length() >= LARGO_MINIMO_TERMINO && !PALABRAS_VACIAS.contains(token)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalizar(String texto) {
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT);
+    }
+}
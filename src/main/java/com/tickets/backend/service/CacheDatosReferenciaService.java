@@ -0,0 +1,98 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.Permiso;
+import com.tickets.backend.models.Rol;
+import com.tickets.backend.models.Subcategoria;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Desalojo explícito de la caché de segundo nivel de los datos de referencia.
+ *
+ * Hibernate actualiza las regiones de las entidades que modifica, pero los servicios de
+ * mantenimiento desalojan al confirmar la entidad, las colecciones que la contienen y los
+ * resultados de consultas, de modo que un borrado en lote o una relación cambiada desde el
+ * otro lado no deje datos viejos hasta que expire la región. Las demás instancias reciben
+ * el desalojo por {@link BusInvalidacionesCache}.
+ */
+@Service
+public class CacheDatosReferenciaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheDatosReferenciaService.class);
+
+    // Colecciones cacheadas que dependen de cada entidad
+    private static final Map<Class<?>, List<String>> COLECCIONES = Map.of(
+            Categoria.class, List.of(Categoria.class.getName() + ".subcategorias"),
+            Subcategoria.class, List.of(Categoria.class.getName() + ".subcategorias"),
+            Rol.class, List.of(Rol.class.getName() + ".permisos"),
+            Permiso.class, List.of(Rol.class.getName() + ".permisos"));
+
+    private static final String CACHE_REFERENCIA = "datos-referencia";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BusInvalidacionesCache busInvalidaciones;
+
+    @PostConstruct
+    public void registrarInvalidaciones() {
+        busInvalidaciones.registrar(CACHE_REFERENCIA, this::desalojarRemoto);
+    }
+
+    /**
+     * Desaloja las entidades indicadas al confirmar la transacción actual (o de inmediato si no hay una)
+     */
+    public void desalojarAlConfirmar(Class<?>... entidades) {
+        // El bus publica al confirmar: las demás instancias no recargan el valor anterior
+        for (Class<?> entidad : entidades) {
+            busInvalidaciones.publicar(CACHE_REFERENCIA, entidad.getName());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    desalojar(entidades);
+                }
+            });
+        } else {
+            desalojar(entidades);
+        }
+    }
+
+    public void desalojar(Class<?>... entidades) {
+        try {
+            Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+            for (Class<?> entidad : entidades) {
+                cache.evictEntityData(entidad);
+                for (String coleccion : COLECCIONES.getOrDefault(entidad, List.of())) {
+                    cache.evictCollectionData(coleccion);
+                }
+            }
+            cache.evictDefaultQueryRegion();
+        } catch (RuntimeException e) {
+            // Las regiones expiran solas (ehcache.xml)
+            logger.warn("No se pudo desalojar la caché de segundo nivel: {}", e.getMessage());
+        }
+    }
+
+    private void desalojarRemoto(String entidad) {
+        try {
+            desalojar(Class.forName(entidad));
+        } catch (ClassNotFoundException e) {
+            logger.warn("Entidad desconocida en invalidación de caché: {}", entidad);
+        }
+    }
+}
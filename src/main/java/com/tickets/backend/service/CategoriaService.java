@@ -18,6 +18,9 @@ public class CategoriaService {
     @Autowired
     private CategoriaRepository categoriaRepository;
 
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
+
     @Autowired
     private SubcategoriaRepository subcategoriaRepository;
 
@@ -36,6 +39,7 @@ public class CategoriaService {
 
     @Transactional
     public Categoria crearCategoria(CategoriaDto categoriaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         if (categoriaRepository.existsByNombre(categoriaDto.getNombre())) {
             throw new RuntimeException("Ya existe una categoría con este nombre");
         }
@@ -50,6 +54,7 @@ public class CategoriaService {
 
     @Transactional
     public Categoria actualizarCategoria(Long id, CategoriaDto categoriaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         Categoria categoria = categoriaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
 
@@ -67,6 +72,7 @@ public class CategoriaService {
 
     @Transactional
     public void cambiarEstadoCategoria(Long id, boolean activo) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         Categoria categoria = categoriaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
         
@@ -85,6 +91,7 @@ public class CategoriaService {
 
     @Transactional
     public void eliminarCategoria(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         // Verificar si existen tickets asociados a esta categoría antes de eliminar
         
         if (!categoriaRepository.existsById(id)) {
@@ -115,6 +122,7 @@ public class CategoriaService {
     
     @Transactional
     public Subcategoria crearSubcategoria(Long categoriaId, SubcategoriaDto subcategoriaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         Categoria categoria = categoriaRepository.findById(categoriaId)
                 .orElseThrow(() -> new RuntimeException("Categoría no encontrada"));
         
@@ -137,6 +145,7 @@ public class CategoriaService {
     
     @Transactional
     public Subcategoria actualizarSubcategoria(Long id, SubcategoriaDto subcategoriaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         Subcategoria subcategoria = subcategoriaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subcategoría no encontrada"));
         
@@ -155,6 +164,7 @@ public class CategoriaService {
     
     @Transactional
     public void cambiarEstadoSubcategoria(Long id, boolean activo) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         Subcategoria subcategoria = subcategoriaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Subcategoría no encontrada"));
         
@@ -164,6 +174,7 @@ public class CategoriaService {
     
     @Transactional
     public void eliminarSubcategoria(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Categoria.class, Subcategoria.class);
         // Verificar si existen tickets asociados a esta subcategoría antes de eliminar
         
         if (!subcategoriaRepository.existsById(id)) {
@@ -1,37 +1,41 @@
 package com.tickets.backend.service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 
-import com.tickets.backend.models.EstadoTicket;
-import com.tickets.backend.models.HistorialCambio;
-import com.tickets.backend.models.Ticket;
 import com.tickets.backend.models.Usuario;
-import com.tickets.backend.repository.TicketRepository;
 import com.tickets.backend.repository.UsuarioRepository;
 
 @Service
 public class CierreTareasService {
     
-    @Autowired
-    private TicketRepository ticketRepository;
-    
     @Autowired
     private ConfiguracionSistemaService configuracionService;
     
     @Autowired
     private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TicketCierreAutomaticoService cierreAutomaticoService;
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
     
   
     
     // Ejecutar diariamente a una hora específica
+    // Usa la misma concesión que el cierre configurable: nunca corren los dos a la vez
     @Scheduled(cron = "0 0 1 * * ?") // Ejemplo: 1:00 AM todos los días
     public void cerrarTicketsResueltos() {
+        coordinadorTareas.ejecutarComoLider(TicketCierreAutomaticoService.TAREA_CIERRE,
+                concesion -> cerrarTicketsResueltos(concesion));
+    }
+
+    private void cerrarTicketsResueltos(CoordinadorTareasService.Concesion concesion) {
         // Verificar si el cierre automático está habilitado
         boolean cierreAutomaticoHabilitado = configuracionService.obtenerValorBooleano("CIERRE_AUTOMATICO_HABILITADO", true);
         
@@ -45,41 +49,8 @@ public class CierreTareasService {
         // Calcular fecha límite
         LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasEspera);
         
-        // Buscar tickets resueltos con fecha de resolución anterior a la fecha límite
-        List<Ticket> ticketsParaCerrar = ticketRepository.findByEstadoAndFechaResolucionLessThan(
-            EstadoTicket.RESUELTO, fechaLimite);
-        
-        // Obtener usuario sistema para registrar cambios automáticos
-        Usuario usuarioSistema = obtenerUsuarioSistema();
-        
-        // Cerrar cada ticket
-        for (Ticket ticket : ticketsParaCerrar) {
-            ticket.setEstado(EstadoTicket.CERRADO);
-            ticket.setFechaCierre(LocalDateTime.now());
-            ticket.setFechaActualizacion(LocalDateTime.now());
-            
-            // Crear el historial de cambio
-            HistorialCambio cambio = crearHistorialCambio(ticket, usuarioSistema, "estado", 
-                EstadoTicket.RESUELTO.toString(), EstadoTicket.CERRADO.toString());
-            
-            // Guardar ticket
-            ticketRepository.save(ticket);
-            
-            // Opcionalmente, enviar notificación
-            //emailService.enviarNotificacionCierreAutomatico(ticket);
-        }
-    }
-    
-    private HistorialCambio crearHistorialCambio(Ticket ticket, Usuario usuario, String campo, String valorAnterior, String valorNuevo) {
-        HistorialCambio cambio = new HistorialCambio();
-        cambio.setTicket(ticket);
-        cambio.setUsuario(usuario);
-        cambio.setCampoModificado(campo);
-        cambio.setValorAnterior(valorAnterior);
-        cambio.setValorNuevo(valorNuevo);
-        cambio.setFechaCambio(LocalDateTime.now());
-        
-        return cambio;
+        // Cerrar por lotes los tickets resueltos antes de la fecha límite (con historial)
+        cierreAutomaticoService.cerrarPorLotes(fechaLimite, obtenerUsuarioSistema(), concesion);
     }
     
     /**
@@ -0,0 +1,155 @@
+package com.tickets.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa solicitudes idénticas y concurrentes (single-flight).
+ *
+ * La primera solicitud de una clave (endpoint + ámbito del llamador + parámetros) hace el
+ * cálculo; las que llegan mientras tanto esperan ese mismo resultado en vez de repetir las
+ * consultas. El resultado se conserva unos milisegundos más (ttl-ms) para absorber la ráfaga
+ * de pestañas que cargan el panel a la vez. Los resultados se comparten: no deben modificarse.
+ * Quien espera lo hace hasta espera-max-ms; si el cálculo ajeno no termina antes, hace el suyo.
+ */
+@Service
+public class CoalescenciaSolicitudesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoalescenciaSolicitudesService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.coalescencia.ttl-ms:2000}")
+    private long ttlMs;
+
+    @Value("${app.coalescencia.espera-max-ms:10000}")
+    private long esperaMaxMs;
+
+    private final Map<String, Vuelo> vuelos = new ConcurrentHashMap<>();
+
+    /**
+     * Devuelve el resultado en curso o reciente para la clave, o lo calcula con calculo
+     *
+     * @param endpoint nombre del endpoint (etiqueta de las métricas)
+     * @param ambito a quién pertenece el resultado: un rol, un usuario o "global"
+     * @param parametros parámetros de la solicitud que cambian el resultado
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T obtener(String endpoint, String ambito, Supplier<T> calculo, Object... parametros) {
+        String clave = crearClave(endpoint, ambito, parametros);
+        long ahora = System.currentTimeMillis();
+
+        Vuelo[] creado = new Vuelo[1];
+        Vuelo vuelo = vuelos.compute(clave, (k, actual) -> {
+            if (actual != null && !actual.vencido(ahora)) {
+                return actual;
+            }
+            creado[0] = new Vuelo();
+            return creado[0];
+        });
+
+        if (vuelo != creado[0]) {
+            return (T) esperar(endpoint, vuelo, calculo);
+        }
+
+        meterRegistry.counter("tickets.coalescencia.solicitudes", "endpoint", endpoint, "resultado", "calculada")
+                .increment();
+        T resultado = null;
+        Throwable error = null;
+        try {
+            resultado = calculo.get();
+            return resultado;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            // Siempre se completa: con cualquier error (también Error) los que esperan no quedan colgados
+            if (error == null) {
+                vuelo.completar(resultado, System.currentTimeMillis() + ttlMs);
+                if (ttlMs <= 0) {
+                    vuelos.remove(clave, vuelo);
+                }
+            } else {
+                // Los que esperaban reciben el mismo error; la siguiente solicitud reintenta
+                vuelos.remove(clave, vuelo);
+                vuelo.futuro.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * Descarta los resultados vencidos que nadie volvió a pedir
+     */
+    @Scheduled(fixedDelayString = "${app.coalescencia.intervalo-limpieza-ms:60000}")
+    public void limpiar() {
+        long ahora = System.currentTimeMillis();
+        int antes = vuelos.size();
+        vuelos.values().removeIf(vuelo -> vuelo.vencido(ahora));
+        logger.debug("Resultados agrupados descartados: {}", antes - vuelos.size());
+    }
+
+    private Object esperar(String endpoint, Vuelo vuelo, Supplier<?> calculo) {
+        try {
+            Object resultado = vuelo.futuro.get(esperaMaxMs, TimeUnit.MILLISECONDS);
+            meterRegistry.counter("tickets.coalescencia.solicitudes", "endpoint", endpoint, "resultado", "coalescida")
+                    .increment();
+            return resultado;
+        } catch (TimeoutException e) {
+            // El cálculo en curso tarda demasiado: se calcula aparte en lugar de seguir esperando
+            meterRegistry.counter("tickets.coalescencia.solicitudes", "endpoint", endpoint, "resultado", "espera-vencida")
+                    .increment();
+            logger.warn("Espera de {} ms vencida para {}: se calcula sin agrupar", esperaMaxMs, endpoint);
+            return calculo.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el resultado de " + endpoint, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static String crearClave(String endpoint, String ambito, Object... parametros) {
+        StringBuilder clave = new StringBuilder(endpoint).append('|').append(ambito);
+        for (Object parametro : parametros) {
+            clave.append('|').append(parametro);
+        }
+        return clave.toString();
+    }
+
+    /**
+     * Cálculo en curso o terminado; vence ttl-ms después de completarse
+     */
+    private static final class Vuelo {
+        private final CompletableFuture<Object> futuro = new CompletableFuture<>();
+        private volatile long venceEn = Long.MAX_VALUE;
+
+        private void completar(Object resultado, long venceEn) {
+            this.venceEn = venceEn;
+            futuro.complete(resultado);
+        }
+
+        private boolean vencido(long ahora) {
+            return ahora >= venceEn;
+        }
+    }
+}
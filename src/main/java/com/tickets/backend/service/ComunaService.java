@@ -19,6 +19,9 @@ public class ComunaService {
     
     @Autowired
     private ComunaRepository comunaRepository;
+
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
     
     @Autowired
     private RegionRepository regionRepository;
@@ -52,6 +55,7 @@ public class ComunaService {
     // Crear una nueva comuna
     @Transactional
     public Comuna crearComuna(ComunaDto comunaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Comuna.class);
         // Verificar si la región existe
         Region region = regionRepository.findById(comunaDto.getRegionId())
                 .orElseThrow(() -> new EntityNotFoundException("Región no encontrada con ID: " + comunaDto.getRegionId()));
@@ -81,6 +85,7 @@ public class ComunaService {
     // Actualizar una comuna existente
     @Transactional
     public Comuna actualizarComuna(Long id, ComunaDto comunaDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Comuna.class);
         Comuna comuna = obtenerComunaPorId(id);
         
         // Verificar si la región existe (si se está cambiando)
@@ -115,6 +120,7 @@ public class ComunaService {
     // Eliminar una comuna (desactivar)
     @Transactional
     public void desactivarComuna(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Comuna.class);
         Comuna comuna = obtenerComunaPorId(id);
         comuna.setActivo(false);
         comunaRepository.save(comuna);
@@ -123,6 +129,7 @@ public class ComunaService {
     // Activar una comuna
     @Transactional
     public void activarComuna(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Comuna.class);
         Comuna comuna = obtenerComunaPorId(id);
         comuna.setActivo(true);
         comunaRepository.save(comuna);
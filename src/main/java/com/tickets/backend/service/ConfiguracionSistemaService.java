@@ -2,13 +2,21 @@ package com.tickets.backend.service;
 
 import com.tickets.backend.models.ConfiguracionSistema;
 import com.tickets.backend.repository.ConfiguracionSistemaRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -18,8 +26,29 @@ import org.slf4j.LoggerFactory;
 public class ConfiguracionSistemaService {
     private static final Logger logger = LoggerFactory.getLogger(ConfiguracionSistemaService.class);
 
+    private static final String CACHE_CONFIGURACION = "configuracion-sistema";
+
     @Autowired
     private ConfiguracionSistemaRepository configuracionRepository;
+
+    @Autowired
+    private BusInvalidacionesCache busInvalidaciones;
+    
+    /**
+     * Copia inmutable de todas las configuraciones. Se reemplaza completa (nunca se modifica)
+     * después de cada escritura, así las lecturas no consultan la base de datos.
+     */
+    private volatile Snapshot snapshot;
+    
+    private final AtomicLong versiones = new AtomicLong();
+
+    /**
+     * Un cambio hecho en otra instancia recarga el snapshot sin esperar la recarga periódica
+     */
+    @PostConstruct
+    public void registrarInvalidaciones() {
+        busInvalidaciones.registrar(CACHE_CONFIGURACION, clave -> recargar());
+    }
     
     /**
      * Obtener todas las configuraciones
@@ -36,26 +65,24 @@ public class ConfiguracionSistemaService {
     }
     
     /**
-     * Obtener configuración por clave
+     * Obtener configuración por clave (desde el snapshot en memoria).
+     * Se devuelve una copia para que el llamador pueda modificarla y guardarla.
      */
     public Optional<ConfiguracionSistema> obtenerPorClave(String clave) {
-        logger.info("Buscando configuración por clave: {}", clave);
-        
-        Optional<ConfiguracionSistema> configuracion = configuracionRepository.findByClave(clave);
+        Entrada entrada = obtenerSnapshot().entradas.get(clave);
         
-        if (configuracion.isPresent()) {
-            logger.info("Configuración encontrada - Clave: {}, Valor: {}", 
-                    clave, configuracion.get().getValor());
-        } else {
-            logger.warn("No se encontró configuración para la clave: {}", clave);
+        if (entrada == null) {
+            logger.debug("No se encontró configuración para la clave: {}", clave);
+            return Optional.empty();
         }
         
-        return configuracion;
+        return Optional.of(copiar(entrada.configuracion));
     }
     
     @Transactional
     public void eliminar(Long id) {
         configuracionRepository.deleteById(id);
+        programarRecarga();
     }
     
     /**
@@ -64,39 +91,38 @@ public class ConfiguracionSistemaService {
     @Transactional
     public void eliminarPorClave(String clave) {
         configuracionRepository.deleteByClave(clave);
+        programarRecarga();
     }
     
     /**
      * Obtener valor de una configuración con valor por defecto si no existe
      */
     public String obtenerValor(String clave, String valorPorDefecto) {
-        return configuracionRepository.findByClave(clave)
-                .map(ConfiguracionSistema::getValor)
-                .orElse(valorPorDefecto);
+        Entrada entrada = obtenerSnapshot().entradas.get(clave);
+        return entrada != null ? entrada.configuracion.getValor() : valorPorDefecto;
     }
     
     /**
      * Obtener valor numérico de una configuración con valor por defecto
      */
     public int obtenerValorNumerico(String clave, int valorPorDefecto) {
-        return configuracionRepository.findByClave(clave)
-                .map(config -> {
-                    try {
-                        return Integer.parseInt(config.getValor());
-                    } catch (NumberFormatException e) {
-                        return valorPorDefecto;
-                    }
-                })
-                .orElse(valorPorDefecto);
+        Entrada entrada = obtenerSnapshot().entradas.get(clave);
+        return entrada != null && entrada.numero != null ? entrada.numero : valorPorDefecto;
     }
     
     /**
      * Obtener valor booleano de una configuración con valor por defecto
      */
     public boolean obtenerValorBooleano(String clave, boolean valorPorDefecto) {
-        return configuracionRepository.findByClave(clave)
-                .map(config -> Boolean.parseBoolean(config.getValor()))
-                .orElse(valorPorDefecto);
+        Entrada entrada = obtenerSnapshot().entradas.get(clave);
+        return entrada != null ? entrada.booleano : valorPorDefecto;
+    }
+    
+    /**
+     * Versión del snapshot actual; cambia cada vez que se recargan las configuraciones
+     */
+    public long obtenerVersion() {
+        return obtenerSnapshot().version;
     }
     
     /**
@@ -105,9 +131,11 @@ public class ConfiguracionSistemaService {
      */
     public List<ConfiguracionSistema> obtenerPorTipo(String tipo) {
         // Simplificación: buscar todas las configuraciones cuya clave comience con el tipo
-        return configuracionRepository.findAll().stream()
+        return obtenerSnapshot().entradas.values().stream()
+                .map(entrada -> entrada.configuracion)
                 .filter(config -> config.getClave().startsWith(tipo.toUpperCase() + "_") || 
                                   config.getClave().contains("_" + tipo.toUpperCase() + "_"))
+                .map(this::copiar)
                 .collect(Collectors.toList());
     }
 
@@ -118,7 +146,12 @@ public class ConfiguracionSistemaService {
         List<ConfiguracionSistema> configuraciones = new ArrayList<>();
         
         // Primero buscamos las existentes
-        List<ConfiguracionSistema> existentes = configuracionRepository.findByClaveIn(claves);
+        Map<String, Entrada> entradas = obtenerSnapshot().entradas;
+        List<ConfiguracionSistema> existentes = claves.stream()
+                .map(entradas::get)
+                .filter(entrada -> entrada != null)
+                .map(entrada -> copiar(entrada.configuracion))
+                .collect(Collectors.toList());
         configuraciones.addAll(existentes);
         
         // Obtenemos las claves que ya encontramos
@@ -204,7 +237,9 @@ public class ConfiguracionSistemaService {
      * Guardar una configuración
      */
     public ConfiguracionSistema guardar(ConfiguracionSistema configuracion) {
-        return configuracionRepository.save(configuracion);
+        ConfiguracionSistema guardada = configuracionRepository.save(configuracion);
+        programarRecarga();
+        return guardada;
     }
 
     /**
@@ -240,6 +275,7 @@ public class ConfiguracionSistemaService {
             }
         }
         
+        programarRecarga();
         return resultado;
     }
 
@@ -269,7 +305,127 @@ public class ConfiguracionSistemaService {
         
         configuracion = configuracionRepository.save(configuracion);
         logger.info("Configuración guardada con éxito - ID: {}", configuracion.getId());
+        programarRecarga();
         
         return configuracion;
     }
-}
\ No newline at end of file
+
+    /**
+     * Recarga periódica para recoger cambios hechos por otras instancias. Si nada cambió se
+     * conserva el snapshot y su versión, así quienes dependen de la versión no recalculan.
+     */
+    @Scheduled(fixedDelayString = "${app.configuracion.intervalo-recarga-ms:60000}",
+               initialDelayString = "${app.configuracion.intervalo-recarga-ms:60000}")
+    public synchronized void recargar() {
+        try {
+            Map<String, Entrada> entradas = leerEntradas();
+            Snapshot actual = snapshot;
+            if (actual != null && mismasConfiguraciones(actual.entradas, entradas)) {
+                logger.debug("Configuración sin cambios - se mantiene la versión {}", actual.version);
+                return;
+            }
+            Snapshot nuevo = new Snapshot(versiones.incrementAndGet(), entradas);
+            snapshot = nuevo;
+            logger.debug("Snapshot de configuración recargado - versión {}", nuevo.version);
+        } catch (Exception e) {
+            logger.error("Error al recargar las configuraciones del sistema: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot obtenerSnapshot() {
+        Snapshot actual = snapshot;
+        if (actual == null) {
+            synchronized (this) {
+                actual = snapshot;
+                if (actual == null) {
+                    actual = cargarSnapshot();
+                    snapshot = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    private Snapshot cargarSnapshot() {
+        return new Snapshot(versiones.incrementAndGet(), leerEntradas());
+    }
+
+    private Map<String, Entrada> leerEntradas() {
+        Map<String, Entrada> entradas = new HashMap<>();
+        for (ConfiguracionSistema config : configuracionRepository.findAll()) {
+            entradas.put(config.getClave(), new Entrada(copiar(config)));
+        }
+        return Collections.unmodifiableMap(entradas);
+    }
+
+    private static boolean mismasConfiguraciones(Map<String, Entrada> actuales, Map<String, Entrada> nuevas) {
+        if (actuales.size() != nuevas.size()) {
+            return false;
+        }
+        for (Map.Entry<String, Entrada> nueva : nuevas.entrySet()) {
+            Entrada actual = actuales.get(nueva.getKey());
+            if (actual == null || !actual.configuracion.equals(nueva.getValue().configuracion)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Recarga el snapshot al confirmar la transacción actual (o de inmediato si no hay una)
+     * y avisa a las demás instancias
+     */
+    private void programarRecarga() {
+        busInvalidaciones.publicar(CACHE_CONFIGURACION, null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    recargar();
+                }
+            });
+        } else {
+            recargar();
+        }
+    }
+
+    private ConfiguracionSistema copiar(ConfiguracionSistema config) {
+        ConfiguracionSistema copia = new ConfiguracionSistema(
+                config.getClave(), config.getValor(), config.getDescripcion(), config.getTipo());
+        copia.setId(config.getId());
+        return copia;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<String, Entrada> entradas;
+
+        private Snapshot(long version, Map<String, Entrada> entradas) {
+            this.version = version;
+            this.entradas = entradas;
+        }
+    }
+
+    /**
+     * Valor ya convertido a sus tipos para que las lecturas no tengan que parsear
+     */
+    private static final class Entrada {
+        private final ConfiguracionSistema configuracion;
+        private final Integer numero;
+        private final boolean booleano;
+
+        private Entrada(ConfiguracionSistema configuracion) {
+            this.configuracion = configuracion;
+            this.numero = parsearEntero(configuracion.getValor());
+            this.booleano = Boolean.parseBoolean(configuracion.getValor());
+        }
+
+        private static Integer parsearEntero(String valor) {
+            try {
+                return valor != null ? Integer.valueOf(valor.trim()) : null;
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Contadores en memoria de tickets por estado × prioridad × categoría.
+ *
+ * Se siembran con un único GROUP BY, se ajustan con cada TicketModificadoEvent después
+ * del commit y se reconcilian periódicamente contra la base de datos (corrige cambios
+ * hechos por otras instancias o fuera de la aplicación). Los eventos que llegan mientras
+ * se reconcilia se guardan y se reaplican sobre el resultado antes de publicarlo, así no
+ * se pierden con el reemplazo. Las estadísticas se leen sin consultar la base de datos.
+ */
+@Service
+public class ContadoresTicketsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContadoresTicketsService.class);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    private volatile Map<Clave, LongAdder> contadores;
+
+    // Los eventos toman el bloqueo de lectura (concurrentes entre sí); la reconciliación el de
+    // escritura, solo para abrir el registro de eventos y para publicar el resultado
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    // Eventos recibidos durante la reconciliación en curso (null si no hay ninguna)
+    private Queue<TicketModificadoEvent> recibidosDuranteReconciliacion;
+
+    public long contarTotal() {
+        return contar(clave -> true);
+    }
+
+    public long contarPorEstado(EstadoTicket estado) {
+        return contar(clave -> clave.estado == estado);
+    }
+
+    public long contarPorPrioridad(PrioridadTicket prioridad) {
+        return contar(clave -> clave.prioridad == prioridad);
+    }
+
+    public long contarPorPrioridades(Collection<PrioridadTicket> prioridades) {
+        return contar(clave -> prioridades.contains(clave.prioridad));
+    }
+
+    public long contarPorCategoria(Long categoriaId) {
+        return contar(clave -> Objects.equals(clave.categoriaId, categoriaId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTicket(TicketModificadoEvent evento) {
+        bloqueo.readLock().lock();
+        try {
+            Queue<TicketModificadoEvent> recibidos = recibidosDuranteReconciliacion;
+            if (recibidos != null) {
+                recibidos.add(evento);
+            }
+            Map<Clave, LongAdder> actuales = contadores;
+            // Sin sembrar aún: la siembra leerá el valor ya confirmado
+            if (actuales != null) {
+                aplicar(actuales, evento);
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recalcula los contadores desde la base de datos con un único GROUP BY y los reemplaza.
+     * Los eventos recibidos desde antes de la lectura se reaplican sobre el resultado; uno
+     * confirmado justo antes de la lectura puede quedar contado dos veces hasta la siguiente.
+     */
+    @Scheduled(initialDelayString = "${app.estadisticas.intervalo-reconciliacion-ms:300000}",
+               fixedDelayString = "${app.estadisticas.intervalo-reconciliacion-ms:300000}")
+    public synchronized void reconciliar() {
+        Queue<TicketModificadoEvent> recibidos = new ConcurrentLinkedQueue<>();
+        conBloqueoExclusivo(() -> recibidosDuranteReconciliacion = recibidos);
+        try {
+            Map<Clave, LongAdder> nuevos = new ConcurrentHashMap<>();
+            for (Object[] fila : ticketRepository.contarPorEstadoPrioridadCategoria()) {
+                Clave clave = new Clave((EstadoTicket) fila[0], (PrioridadTicket) fila[1], (Long) fila[2]);
+                nuevos.computeIfAbsent(clave, k -> new LongAdder()).add(((Number) fila[3]).longValue());
+            }
+
+            conBloqueoExclusivo(() -> {
+                recibidos.forEach(evento -> aplicar(nuevos, evento));
+                Map<Clave, LongAdder> anteriores = contadores;
+                if (anteriores != null) {
+                    long diferencia = total(nuevos) - total(anteriores);
+                    if (diferencia != 0) {
+                        logger.info("Contadores de tickets reconciliados con la base de datos (diferencia en total: {})",
+                                diferencia);
+                    }
+                }
+                contadores = nuevos;
+            });
+        } finally {
+            conBloqueoExclusivo(() -> recibidosDuranteReconciliacion = null);
+        }
+    }
+
+    private static void aplicar(Map<Clave, LongAdder> mapa, TicketModificadoEvent evento) {
+        Clave nueva = Clave.de(evento.getActual());
+        if (!evento.esAlta()) {
+            Clave anterior = Clave.de(evento.getAnterior());
+            if (anterior.equals(nueva)) {
+                return;
+            }
+            mapa.computeIfAbsent(anterior, k -> new LongAdder()).decrement();
+        }
+        mapa.computeIfAbsent(nueva, k -> new LongAdder()).increment();
+    }
+
+    private void conBloqueoExclusivo(Runnable accion) {
+        bloqueo.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private long contar(Predicate<Clave> filtro) {
+        long total = 0;
+        for (Map.Entry<Clave, LongAdder> entrada : obtenerContadores().entrySet()) {
+            if (filtro.test(entrada.getKey())) {
+                total += entrada.getValue().sum();
+            }
+        }
+        return total;
+    }
+
+    private Map<Clave, LongAdder> obtenerContadores() {
+        Map<Clave, LongAdder> actuales = contadores;
+        if (actuales == null) {
+            synchronized (this) {
+                if (contadores == null) {
+                    reconciliar();
+                }
+                actuales = contadores;
+            }
+        }
+        return actuales;
+    }
+
+    private static long total(Map<Clave, LongAdder> mapa) {
+        return mapa.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private static final class Clave {
+        private final EstadoTicket estado;
+        private final PrioridadTicket prioridad;
+        private final Long categoriaId;
+
+        private Clave(EstadoTicket estado, PrioridadTicket prioridad, Long categoriaId) {
+            this.estado = estado;
+            this.prioridad = prioridad;
+            this.categoriaId = categoriaId;
+        }
+
+        static Clave de(InstantaneaTicket ticket) {
+            return new Clave(ticket.getEstado(), ticket.getPrioridad(), ticket.getCategoriaId());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Clave otra)) {
+                return false;
+            }
+            return estado == otra.estado && prioridad == otra.prioridad
+                    && Objects.equals(categoriaId, otra.categoriaId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(estado, prioridad, categoriaId);
+        }
+    }
+}
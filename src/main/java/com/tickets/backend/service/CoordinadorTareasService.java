@@ -0,0 +1,296 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.BloqueoTarea;
+import com.tickets.backend.models.EjecucionTarea;
+import com.tickets.backend.models.ResultadoEjecucionTarea;
+import com.tickets.backend.repository.BloqueoTareaRepository;
+import com.tickets.backend.repository.EjecucionTareaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Ejecución de tareas programadas por una sola instancia a la vez.
+ *
+ * Cada tarea tiene una fila en bloqueos_tareas con una concesión que vence. La instancia
+ * que la toma con un UPDATE condicional (solo si está vencida) ejecuta la tarea y la
+ * renueva periódicamente (heartbeat) mientras corre; las demás omiten la ejecución.
+ * El token sube en cada adquisición: si una instancia pierde la concesión (pausa larga,
+ * corte de red) su heartbeat deja de coincidir y la tarea puede detenerse entre lotes
+ * con {@link Concesion#vigente()}. Los vencimientos se calculan con el reloj de la base de
+ * datos. Las escrituras protegidas llaman a {@link Concesion#verificar()} dentro de su
+ * transacción: si la concesión ya no es de esta ejecución, se revierten.
+ */
+@Service
+public class CoordinadorTareasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoordinadorTareasService.class);
+
+    private static final LocalDateTime SIN_CONCESION = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    @Autowired
+    private BloqueoTareaRepository bloqueoRepository;
+
+    @Autowired
+    private EjecucionTareaRepository ejecucionRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.tareas.duracion-concesion-ms:120000}")
+    private long duracionConcesionMs;
+
+    @Value("${app.tareas.intervalo-heartbeat-ms:30000}")
+    private long intervaloHeartbeatMs;
+
+    private final String instancia = obtenerNombreInstancia();
+
+    /**
+     * Ejecuta la tarea si esta instancia obtiene la concesión de nombreTarea.
+     *
+     * @return true si se ejecutó aquí, false si otra instancia la tiene
+     */
+    public boolean ejecutarComoLider(String nombreTarea, Runnable tarea) {
+        return ejecutarComoLider(nombreTarea, concesion -> tarea.run());
+    }
+
+    /**
+     * Igual que {@link #ejecutarComoLider(String, Runnable)}, pero la tarea recibe la concesión
+     * para comprobar entre lotes que sigue siendo la dueña.
+     */
+    public boolean ejecutarComoLider(String nombreTarea, Consumer<Concesion> tarea) {
+        Optional<Concesion> obtenida = adquirir(nombreTarea);
+        if (obtenida.isEmpty()) {
+            logger.debug("Tarea {} omitida: otra instancia tiene la concesión", nombreTarea);
+            meterRegistry.counter("tickets.tareas.omitidas", "tarea", nombreTarea).increment();
+            return false;
+        }
+
+        Concesion concesion = obtenida.get();
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(
+                () -> renovar(concesion), Duration.ofMillis(intervaloHeartbeatMs));
+
+        EjecucionTarea ejecucion = new EjecucionTarea();
+        ejecucion.setNombre(nombreTarea);
+        ejecucion.setPropietario(instancia);
+        ejecucion.setToken(concesion.getToken());
+        ejecucion.setFechaInicio(LocalDateTime.now());
+        long inicio = System.nanoTime();
+
+        ResultadoEjecucionTarea resultado = ResultadoEjecucionTarea.EXITOSA;
+        try {
+            tarea.accept(concesion);
+        } catch (RuntimeException e) {
+            resultado = ResultadoEjecucionTarea.FALLIDA;
+            ejecucion.setError(truncar(e.getMessage()));
+            logger.error("Error en la tarea {} (token {})", nombreTarea, concesion.getToken(), e);
+        } finally {
+            heartbeat.cancel(false);
+            if (!concesion.vigente() && resultado == ResultadoEjecucionTarea.EXITOSA) {
+                resultado = ResultadoEjecucionTarea.CONCESION_PERDIDA;
+            }
+            liberar(concesion);
+        }
+
+        long nanos = System.nanoTime() - inicio;
+        meterRegistry.timer("tickets.tareas.duracion", "tarea", nombreTarea, "resultado", resultado.name())
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registrarEjecucion(ejecucion, resultado, TimeUnit.NANOSECONDS.toMillis(nanos));
+        return true;
+    }
+
+    /**
+     * Últimas ejecuciones registradas, de una tarea o de todas si nombreTarea es null
+     */
+    public List<EjecucionTarea> obtenerHistorial(String nombreTarea, int limite) {
+        PageRequest pagina = PageRequest.of(0, Math.max(1, Math.min(limite, 500)));
+        return nombreTarea != null
+                ? ejecucionRepository.findByNombreOrderByIdDesc(nombreTarea, pagina)
+                : ejecucionRepository.findAllByOrderByIdDesc(pagina);
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    private Optional<Concesion> adquirir(String nombreTarea) {
+        try {
+            crearSiNoExiste(nombreTarea);
+            long inicio = System.nanoTime();
+            if (bloqueoRepository.adquirir(nombreTarea, instancia, segundosConcesion()) == 0) {
+                return Optional.empty();
+            }
+            // Nadie más puede tomarla hasta que venza: el token leído es el de esta adquisición
+            return bloqueoRepository.findToken(nombreTarea, instancia)
+                    .map(token -> new Concesion(this, nombreTarea, token, inicio));
+        } catch (RuntimeException e) {
+            logger.error("No se pudo obtener la concesión de la tarea {}: {}", nombreTarea, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void crearSiNoExiste(String nombreTarea) {
+        if (bloqueoRepository.existsById(nombreTarea)) {
+            return;
+        }
+        try {
+            bloqueoRepository.saveAndFlush(new BloqueoTarea(nombreTarea, null, 0L, SIN_CONCESION, null, null));
+        } catch (DataIntegrityViolationException e) {
+            // Otra instancia la creó al mismo tiempo
+            logger.debug("La fila de concesión de {} ya existía", nombreTarea);
+        }
+    }
+
+    private void renovar(Concesion concesion) {
+        if (!concesion.vigente()) {
+            return;
+        }
+        try {
+            long inicio = System.nanoTime();
+            int filas = bloqueoRepository.renovar(concesion.getNombreTarea(), instancia, concesion.getToken(),
+                    segundosConcesion());
+            if (filas == 0) {
+                concesion.perder();
+                logger.warn("La tarea {} perdió la concesión (token {})",
+                        concesion.getNombreTarea(), concesion.getToken());
+            } else {
+                concesion.renovada(inicio);
+            }
+        } catch (RuntimeException e) {
+            // Sin renovación confirmada no se puede asegurar que siga siendo la dueña
+            concesion.perder();
+            logger.warn("No se pudo renovar la concesión de {}; la ejecución se detiene: {}",
+                    concesion.getNombreTarea(), e.getMessage());
+        }
+    }
+
+    private void verificar(Concesion concesion) {
+        if (!concesion.vigente()
+                || bloqueoRepository.validar(concesion.getNombreTarea(), concesion.getToken()) == 0) {
+            concesion.perder();
+            throw new ConcesionPerdidaException(concesion.getNombreTarea(), concesion.getToken());
+        }
+    }
+
+    private long segundosConcesion() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(duracionConcesionMs));
+    }
+
+    private void liberar(Concesion concesion) {
+        try {
+            bloqueoRepository.liberar(concesion.getNombreTarea(), instancia, concesion.getToken());
+        } catch (RuntimeException e) {
+            // Vence sola al terminar su duración
+            logger.warn("No se pudo liberar la concesión de {}: {}", concesion.getNombreTarea(), e.getMessage());
+        }
+    }
+
+    private void registrarEjecucion(EjecucionTarea ejecucion, ResultadoEjecucionTarea resultado, long duracionMs) {
+        ejecucion.setFechaFin(LocalDateTime.now());
+        ejecucion.setDuracionMs(duracionMs);
+        ejecucion.setResultado(resultado);
+        try {
+            ejecucionRepository.save(ejecucion);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo registrar la ejecución de {}: {}", ejecucion.getNombre(), e.getMessage());
+        }
+    }
+
+    private static String truncar(String mensaje) {
+        if (mensaje == null) {
+            return null;
+        }
+        return mensaje.length() > 1000 ? mensaje.substring(0, 1000) : mensaje;
+    }
+
+    private static String obtenerNombreInstancia() {
+        String host = System.getenv("HOSTNAME");
+        if (host == null || host.isBlank()) {
+            host = System.getenv("COMPUTERNAME");
+        }
+        return (host != null && !host.isBlank() ? host : "instancia") + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Concesión obtenida por esta instancia para una ejecución
+     */
+    public static final class Concesion {
+        private final CoordinadorTareasService coordinador;
+        private final String nombreTarea;
+        private final long token;
+        private volatile boolean vigente = true;
+        // Momento (System.nanoTime) en que se pidió la última adquisición o renovación confirmada
+        private volatile long renovadaEn;
+
+        private Concesion(CoordinadorTareasService coordinador, String nombreTarea, long token, long renovadaEn) {
+            this.coordinador = coordinador;
+            this.nombreTarea = nombreTarea;
+            this.token = token;
+            this.renovadaEn = renovadaEn;
+        }
+
+        public String getNombreTarea() {
+            return nombreTarea;
+        }
+
+        public long getToken() {
+            return token;
+        }
+
+        /**
+         * false si un heartbeat falló o detectó que otra instancia tomó la concesión, o si
+         * pasó la duración de la concesión sin una renovación confirmada
+         */
+        public boolean vigente() {
+            if (vigente && System.nanoTime() - renovadaEn >= TimeUnit.SECONDS.toNanos(coordinador.segundosConcesion())) {
+                vigente = false;
+            }
+            return vigente;
+        }
+
+        /**
+         * Comprueba en la base de datos, dentro de la transacción actual, que la concesión sigue
+         * siendo de esta ejecución y la retiene hasta el commit.
+         *
+         * @throws ConcesionPerdidaException si ya no lo es (la transacción debe revertirse)
+         */
+        public void verificar() {
+            coordinador.verificar(this);
+        }
+
+        private void renovada(long inicio) {
+            renovadaEn = inicio;
+        }
+
+        private void perder() {
+            vigente = false;
+        }
+    }
+
+    /**
+     * La concesión ya no pertenece a la ejecución que intenta escribir
+     */
+    public static class ConcesionPerdidaException extends IllegalStateException {
+        public ConcesionPerdidaException(String nombreTarea, long token) {
+            super("La concesión de la tarea " + nombreTarea + " (token " + token + ") ya no es vigente");
+        }
+    }
+}
@@ -21,7 +21,6 @@ import com.tickets.backend.models.ConfiguracionCorreo;
 import com.tickets.backend.models.PrioridadTicket;
 import com.tickets.backend.models.Ticket;
 import com.tickets.backend.repository.ConfiguracionCorreoRepository;
-import com.tickets.backend.repository.ConfiguracionSistemaRepository;
 
 @Service
 public class EmailService {
@@ -32,7 +31,7 @@ public class EmailService {
     private JavaMailSender emailSender;
     
     @Autowired
-    private ConfiguracionSistemaRepository configuracionRepository;
+    private ConfiguracionSistemaService configuracionService;
     
     @Autowired
     private ConfiguracionCorreoRepository configuracionCorreoRepository;
@@ -109,9 +108,7 @@ public class EmailService {
             }
             
             // Si no hay configuración de correo activa, buscamos en configuraciones generales
-            return configuracionRepository.findByClave("EMAIL_REMITENTE")
-                .map(config -> config.getValor())
-                .orElse(defaultFromEmail);
+            return configuracionService.obtenerValor("EMAIL_REMITENTE", defaultFromEmail);
         } catch (Exception e) {
             logger.error("Error al obtener el correo remitente de la configuración: {}", e.getMessage());
             return defaultFromEmail;
@@ -123,9 +120,7 @@ public class EmailService {
      */
     private boolean areNotificacionesHabilitadas() {
         try {
-            return configuracionRepository.findByClave("NOTIF_MASTER_ENABLED")
-                .map(config -> Boolean.parseBoolean(config.getValor()))
-                .orElse(true); // Por defecto habilitadas
+            return configuracionService.obtenerValorBooleano("NOTIF_MASTER_ENABLED", true); // Por defecto habilitadas
         } catch (Exception e) {
             logger.error("Error al verificar si las notificaciones están habilitadas: {}", e.getMessage());
             return true; // Por defecto habilitadas
@@ -142,9 +137,7 @@ public class EmailService {
         }
         
         try {
-            return configuracionRepository.findByClave(tipoNotificacion)
-                .map(config -> Boolean.parseBoolean(config.getValor()))
-                .orElse(true); // Por defecto habilitadas
+            return configuracionService.obtenerValorBooleano(tipoNotificacion, true); // Por defecto habilitadas
         } catch (Exception e) {
             logger.error("Error al verificar si la notificación {} está habilitada: {}", tipoNotificacion, e.getMessage());
             return true; // Por defecto habilitadas
@@ -156,9 +149,7 @@ public class EmailService {
      */
     private boolean isIncluirSupervisores() {
         try {
-            return configuracionRepository.findByClave("NOTIF_EMAIL_CC_SUPERVISORS")
-                .map(config -> Boolean.parseBoolean(config.getValor()))
-                .orElse(false); // Por defecto no
+            return configuracionService.obtenerValorBooleano("NOTIF_EMAIL_CC_SUPERVISORS", false); // Por defecto no
         } catch (Exception e) {
             logger.error("Error al verificar si se incluyen supervisores en copia: {}", e.getMessage());
             return false; // Por defecto no
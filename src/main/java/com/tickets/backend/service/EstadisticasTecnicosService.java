@@ -0,0 +1,321 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Carga de trabajo y desempeño por técnico, en memoria.
+ *
+ * Mantiene los tickets asignados a cada técnico por estado y las resoluciones de los
+ * últimos días (tiempo de resolución y valoración) para calcular promedios móviles.
+ * Se siembra con dos consultas agregadas, se ajusta con cada TicketModificadoEvent
+ * después del commit y se reconcilia periódicamente contra la base de datos. Igual que
+ * en ContadoresTicketsService, los eventos recibidos durante la reconciliación se
+ * reaplican sobre el resultado antes de reemplazar el anterior.
+ */
+@Service
+public class EstadisticasTecnicosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EstadisticasTecnicosService.class);
+
+    private static final Set<EstadoTicket> ESTADOS_ABIERTOS =
+            EnumSet.of(EstadoTicket.NUEVO, EstadoTicket.ASIGNADO, EstadoTicket.EN_PROGRESO, EstadoTicket.EN_ESPERA);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${app.tecnicos.dias-ventana:90}")
+    private int diasVentana;
+
+    private volatile Map<Long, EstadisticaTecnico> tecnicos;
+
+    // Eventos: bloqueo de lectura; reconciliación: de escritura al abrir el registro y al publicar
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+
+    // Eventos recibidos durante la reconciliación en curso (null si no hay ninguna)
+    private Queue<TicketModificadoEvent> recibidosDuranteReconciliacion;
+
+    /**
+     * Ranking completo de técnicos: más resoluciones en la ventana primero y, a igualdad,
+     * menor tiempo promedio de resolución
+     */
+    public List<Map<String, Object>> obtenerRanking() {
+        Map<Long, EstadisticaTecnico> actuales = obtenerTecnicos();
+        completarNombres(actuales);
+
+        LocalDateTime limite = LocalDateTime.now().minusDays(diasVentana);
+        List<Map<String, Object>> ranking = new ArrayList<>();
+        for (EstadisticaTecnico tecnico : actuales.values()) {
+            ranking.add(tecnico.resumen(limite));
+        }
+        ranking.sort(Comparator
+                .comparing((Map<String, Object> r) -> (Long) r.get("resueltosVentana")).reversed()
+                .thenComparing(r -> (Double) r.get("horasPromedioResolucion"),
+                        Comparator.nullsLast(Comparator.naturalOrder())));
+        return ranking;
+    }
+
+    /**
+     * Tickets abiertos por técnico: id del técnico -> nombre completo y cantidad de abiertos
+     * (dos técnicos con el mismo nombre no se mezclan)
+     */
+    public Map<Long, Map<String, Object>> contarAbiertosPorTecnico() {
+        Map<Long, EstadisticaTecnico> actuales = obtenerTecnicos();
+        completarNombres(actuales);
+
+        Map<Long, Map<String, Object>> porTecnico = new TreeMap<>();
+        for (EstadisticaTecnico tecnico : actuales.values()) {
+            Map<String, Object> dato = new LinkedHashMap<>();
+            dato.put("nombre", tecnico.nombre);
+            dato.put("abiertos", tecnico.abiertos());
+            porTecnico.put(tecnico.tecnicoId, dato);
+        }
+        return porTecnico;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTicket(TicketModificadoEvent evento) {
+        bloqueo.readLock().lock();
+        try {
+            Queue<TicketModificadoEvent> recibidos = recibidosDuranteReconciliacion;
+            if (recibidos != null) {
+                recibidos.add(evento);
+            }
+            Map<Long, EstadisticaTecnico> actuales = tecnicos;
+            // Sin sembrar aún: la siembra leerá el valor ya confirmado
+            if (actuales != null) {
+                aplicar(actuales, evento);
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recalcula las estadísticas desde la base de datos y las reemplaza. Los eventos recibidos
+     * desde antes de la lectura se reaplican sobre el resultado.
+     */
+    @Scheduled(initialDelayString = "${app.tecnicos.intervalo-reconciliacion-ms:300000}",
+               fixedDelayString = "${app.tecnicos.intervalo-reconciliacion-ms:300000}")
+    public synchronized void reconciliar() {
+        long inicio = System.currentTimeMillis();
+        Queue<TicketModificadoEvent> recibidos = new ConcurrentLinkedQueue<>();
+        conBloqueoExclusivo(() -> recibidosDuranteReconciliacion = recibidos);
+        try {
+            Map<Long, EstadisticaTecnico> nuevos = new ConcurrentHashMap<>();
+
+            for (Object[] fila : ticketRepository.contarPorTecnicoYEstado()) {
+                EstadisticaTecnico tecnico = obtener(nuevos, (Long) fila[0]);
+                tecnico.nombre = nombreCompleto((String) fila[1], (String) fila[2]);
+                tecnico.ajustar((EstadoTicket) fila[3], ((Number) fila[4]).longValue());
+            }
+
+            for (Object[] fila : ticketRepository.findResolucionesDesde(LocalDateTime.now().minusDays(diasVentana))) {
+                obtener(nuevos, (Long) fila[1]).registrarResolucion((Long) fila[0],
+                        (LocalDateTime) fila[2], (LocalDateTime) fila[3], (Integer) fila[4]);
+            }
+
+            conBloqueoExclusivo(() -> {
+                recibidos.forEach(evento -> aplicar(nuevos, evento));
+                tecnicos = nuevos;
+            });
+            logger.debug("Estadísticas por técnico reconciliadas: {} técnicos en {} ms",
+                    nuevos.size(), System.currentTimeMillis() - inicio);
+        } finally {
+            conBloqueoExclusivo(() -> recibidosDuranteReconciliacion = null);
+        }
+    }
+
+    private static void aplicar(Map<Long, EstadisticaTecnico> mapa, TicketModificadoEvent evento) {
+        InstantaneaTicket anterior = evento.getAnterior();
+        InstantaneaTicket actual = evento.getActual();
+
+        Long tecnicoAnterior = anterior != null ? anterior.getTecnicoId() : null;
+        EstadoTicket estadoAnterior = anterior != null ? anterior.getEstado() : null;
+        if (!Objects.equals(tecnicoAnterior, actual.getTecnicoId()) || estadoAnterior != actual.getEstado()) {
+            if (tecnicoAnterior != null && estadoAnterior != null) {
+                obtener(mapa, tecnicoAnterior).ajustar(estadoAnterior, -1);
+            }
+            if (actual.getTecnicoId() != null && actual.getEstado() != null) {
+                obtener(mapa, actual.getTecnicoId()).ajustar(actual.getEstado(), 1);
+            }
+        }
+
+        // Una resolución cuenta para el técnico asignado actual, como en findResolucionesDesde: si el
+        // ticket resuelto se reasigna, pasa del técnico anterior al nuevo
+        if (tecnicoAnterior != null && !Objects.equals(tecnicoAnterior, actual.getTecnicoId())) {
+            obtener(mapa, tecnicoAnterior).quitarResolucion(actual.getTicketId());
+        }
+        if (actual.getTecnicoId() != null) {
+            EstadisticaTecnico tecnico = obtener(mapa, actual.getTecnicoId());
+            if (actual.getFechaResolucion() != null && actual.getFechaCreacion() != null) {
+                tecnico.registrarResolucion(actual.getTicketId(), actual.getFechaCreacion(),
+                        actual.getFechaResolucion(), actual.getValoracion());
+            } else {
+                tecnico.quitarResolucion(actual.getTicketId());
+            }
+        }
+    }
+
+    private void conBloqueoExclusivo(Runnable accion) {
+        bloqueo.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, EstadisticaTecnico> obtenerTecnicos() {
+        Map<Long, EstadisticaTecnico> actuales = tecnicos;
+        if (actuales == null) {
+            synchronized (this) {
+                if (tecnicos == null) {
+                    reconciliar();
+                }
+                actuales = tecnicos;
+            }
+        }
+        return actuales;
+    }
+
+    /**
+     * Técnicos que aparecieron por eventos antes de la última reconciliación: una sola consulta
+     */
+    private void completarNombres(Map<Long, EstadisticaTecnico> actuales) {
+        List<Long> sinNombre = actuales.values().stream()
+                .filter(t -> t.nombre == null)
+                .map(t -> t.tecnicoId)
+                .toList();
+        if (sinNombre.isEmpty()) {
+            return;
+        }
+        for (Object[] fila : usuarioRepository.findNombresPorIds(sinNombre)) {
+            EstadisticaTecnico tecnico = actuales.get((Long) fila[0]);
+            if (tecnico != null) {
+                tecnico.nombre = nombreCompleto((String) fila[1], (String) fila[2]);
+            }
+        }
+    }
+
+    private static EstadisticaTecnico obtener(Map<Long, EstadisticaTecnico> mapa, Long tecnicoId) {
+        return mapa.computeIfAbsent(tecnicoId, EstadisticaTecnico::new);
+    }
+
+    private static String nombreCompleto(String nombre, String apellido) {
+        return (nombre != null ? nombre : "") + (apellido != null ? " " + apellido : "");
+    }
+
+    private static final class EstadisticaTecnico {
+        private final Long tecnicoId;
+        private volatile String nombre;
+        // Todas las claves se crean al inicio: el mapa no cambia de estructura
+        private final Map<EstadoTicket, LongAdder> porEstado = new EnumMap<>(EstadoTicket.class);
+        // ticketId -> resolución dentro de la ventana
+        private final Map<Long, Resolucion> resoluciones = new ConcurrentHashMap<>();
+
+        private EstadisticaTecnico(Long tecnicoId) {
+            this.tecnicoId = tecnicoId;
+            for (EstadoTicket estado : EstadoTicket.values()) {
+                porEstado.put(estado, new LongAdder());
+            }
+        }
+
+        void ajustar(EstadoTicket estado, long delta) {
+            porEstado.get(estado).add(delta);
+        }
+
+        long abiertos() {
+            long total = 0;
+            for (EstadoTicket estado : ESTADOS_ABIERTOS) {
+                total += porEstado.get(estado).sum();
+            }
+            return total;
+        }
+
+        void registrarResolucion(Long ticketId, LocalDateTime fechaCreacion, LocalDateTime fechaResolucion,
+                                 Integer valoracion) {
+            long minutos = Math.max(0, Duration.between(fechaCreacion, fechaResolucion).toMinutes());
+            resoluciones.put(ticketId, new Resolucion(fechaResolucion, minutos, valoracion));
+        }
+
+        void quitarResolucion(Long ticketId) {
+            resoluciones.remove(ticketId);
+        }
+
+        Map<String, Object> resumen(LocalDateTime limite) {
+            // Se descartan las resoluciones que salieron de la ventana
+            resoluciones.values().removeIf(r -> r.fecha.isBefore(limite));
+
+            long resueltos = 0;
+            long minutosTotales = 0;
+            long valorados = 0;
+            long sumaValoraciones = 0;
+            for (Resolucion resolucion : resoluciones.values()) {
+                resueltos++;
+                minutosTotales += resolucion.minutos;
+                if (resolucion.valoracion != null) {
+                    valorados++;
+                    sumaValoraciones += resolucion.valoracion;
+                }
+            }
+
+            Map<String, Long> estados = new LinkedHashMap<>();
+            porEstado.forEach((estado, cantidad) -> estados.put(estado.name(), cantidad.sum()));
+
+            Map<String, Object> resumen = new LinkedHashMap<>();
+            resumen.put("tecnicoId", tecnicoId);
+            resumen.put("nombre", nombre);
+            resumen.put("abiertos", abiertos());
+            resumen.put("porEstado", estados);
+            resumen.put("resueltosVentana", resueltos);
+            resumen.put("horasPromedioResolucion", resueltos > 0 ? minutosTotales / 60.0 / resueltos : null);
+            resumen.put("valoracionPromedio", valorados > 0 ? (double) sumaValoraciones / valorados : null);
+            resumen.put("valoraciones", valorados);
+            return resumen;
+        }
+    }
+
+    private static final class Resolucion {
+        private final LocalDateTime fecha;
+        private final long minutos;
+        private final Integer valoracion;
+
+        private Resolucion(LocalDateTime fecha, long minutos, Integer valoracion) {
+            this.fecha = fecha;
+            this.minutos = minutos;
+            this.valoracion = valoracion;
+        }
+    }
+}
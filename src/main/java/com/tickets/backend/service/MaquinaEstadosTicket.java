@@ -0,0 +1,75 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.EstadoTicket;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reglas de transición de estado de los tickets, precalculadas por estado destino.
+ *
+ * Para cada destino guarda los estados de origen permitidos y el efecto sobre las fechas,
+ * de modo que un cambio masivo se resuelve con un UPDATE ... WHERE estado IN (orígenes).
+ */
+public final class MaquinaEstadosTicket {
+
+    /**
+     * Fechas que se actualizan al llegar a un estado
+     */
+    public enum EfectoFechas {
+        NINGUNO,
+        // fechaResolucion = ahora
+        RESOLUCION,
+        // fechaResolucion = ahora si no tenía; fechaCierre = ahora
+        CIERRE
+    }
+
+    private static final Map<EstadoTicket, Set<EstadoTicket>> ORIGENES_PERMITIDOS = new EnumMap<>(EstadoTicket.class);
+    private static final Map<EstadoTicket, EfectoFechas> EFECTOS = new EnumMap<>(EstadoTicket.class);
+
+    static {
+        for (EstadoTicket destino : EstadoTicket.values()) {
+            Set<EstadoTicket> origenes = EnumSet.noneOf(EstadoTicket.class);
+            for (EstadoTicket origen : EstadoTicket.values()) {
+                if (origen != destino && permitida(origen, destino)) {
+                    origenes.add(origen);
+                }
+            }
+            ORIGENES_PERMITIDOS.put(destino, Collections.unmodifiableSet(origenes));
+            EFECTOS.put(destino, EfectoFechas.NINGUNO);
+        }
+        EFECTOS.put(EstadoTicket.RESUELTO, EfectoFechas.RESOLUCION);
+        EFECTOS.put(EstadoTicket.CERRADO, EfectoFechas.CIERRE);
+    }
+
+    private MaquinaEstadosTicket() {
+    }
+
+    /**
+     * Estados desde los que se puede pasar a destino (sin incluir el mismo destino)
+     */
+    public static Set<EstadoTicket> origenesPermitidos(EstadoTicket destino) {
+        return ORIGENES_PERMITIDOS.get(destino);
+    }
+
+    public static boolean esTransicionValida(EstadoTicket origen, EstadoTicket destino) {
+        return ORIGENES_PERMITIDOS.get(destino).contains(origen);
+    }
+
+    public static EfectoFechas efectoFechas(EstadoTicket destino) {
+        return EFECTOS.get(destino);
+    }
+
+    private static boolean permitida(EstadoTicket origen, EstadoTicket destino) {
+        if (origen == EstadoTicket.CERRADO) {
+            // Un ticket cerrado no se puede reabrir automáticamente
+            return false;
+        }
+        // No permitir saltar directamente de NUEVO a RESUELTO o CERRADO
+        return !(origen == EstadoTicket.NUEVO
+                && (destino == EstadoTicket.RESUELTO || destino == EstadoTicket.CERRADO));
+    }
+}
@@ -0,0 +1,246 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.EstadoNotificacion;
+import com.tickets.backend.models.NotificacionPendiente;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.TipoNotificacion;
+import com.tickets.backend.repository.NotificacionPendienteRepository;
+import com.tickets.backend.repository.TicketRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outbox de notificaciones por correo.
+ *
+ * La notificación se escribe en la transacción del servicio que la registra (propagación
+ * REQUIRED: se une a ella, no abre una propia), así se confirma o se revierte junto con el
+ * cambio del ticket. Después del commit un pool acotado la envía con EmailService. Los fallos se reintentan con backoff
+ * exponencial y, al agotar los intentos, la notificación queda en estado FALLIDA.
+ */
+@Service
+public class NotificacionOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificacionOutboxService.class);
+
+    private static final long BACKOFF_MAXIMO_SEGUNDOS = 3600;
+    private static final int LARGO_MAXIMO_ERROR = 1000;
+
+    @Autowired
+    private NotificacionPendienteRepository notificacionRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    @Qualifier("notificacionesExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.notificaciones.max-intentos:5}")
+    private int maxIntentos;
+
+    @Value("${app.notificaciones.backoff-segundos:30}")
+    private long backoffSegundos;
+
+    @Value("${app.notificaciones.lote-barrido:50}")
+    private int loteBarrido;
+
+    @Value("${app.notificaciones.minutos-bloqueo:5}")
+    private long minutosBloqueo;
+
+    private final Map<EstadoNotificacion, AtomicLong> totalesPorEstado = new EnumMap<>(EstadoNotificacion.class);
+
+    private Counter enviadas;
+    private Counter reintentos;
+    private Counter fallidas;
+
+    @PostConstruct
+    public void registrarMetricas() {
+        enviadas = Counter.builder("tickets.notificaciones.procesadas").tag("resultado", "enviada").register(meterRegistry);
+        reintentos = Counter.builder("tickets.notificaciones.procesadas").tag("resultado", "reintento").register(meterRegistry);
+        fallidas = Counter.builder("tickets.notificaciones.procesadas").tag("resultado", "fallida").register(meterRegistry);
+
+        for (EstadoNotificacion estado : EstadoNotificacion.values()) {
+            AtomicLong total = new AtomicLong();
+            totalesPorEstado.put(estado, total);
+            Gauge.builder("tickets.notificaciones.outbox", total, AtomicLong::get)
+                    .tag("estado", estado.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("tickets.notificaciones.cola", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra una notificación en la transacción del llamador; se envía después del commit.
+     * Si la transacción se revierte, la notificación no queda registrada ni se envía.
+     */
+    @Transactional
+    public void registrar(TipoNotificacion tipo, Ticket ticket) {
+        LocalDateTime ahora = LocalDateTime.now();
+
+        NotificacionPendiente notificacion = new NotificacionPendiente();
+        notificacion.setTipo(tipo);
+        notificacion.setTicketId(ticket.getId());
+        notificacion.setEstado(EstadoNotificacion.PENDIENTE);
+        notificacion.setIntentos(0);
+        notificacion.setFechaCreacion(ahora);
+        notificacion.setProximoIntento(ahora);
+
+        Long id = notificacionRepository.save(notificacion).getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    despachar(id);
+                }
+            });
+        } else {
+            despachar(id);
+        }
+    }
+
+    /**
+     * Retoma notificaciones pendientes: reintentos vencidos, las que no cupieron en la cola
+     * y las que quedaron sin enviar por un reinicio
+     */
+    @Scheduled(fixedDelayString = "${app.notificaciones.intervalo-barrido-ms:30000}")
+    public void barrerPendientes() {
+        LocalDateTime ahora = LocalDateTime.now();
+        try {
+            int liberadas = notificacionRepository.liberarAbandonadas(
+                    EstadoNotificacion.PENDIENTE, EstadoNotificacion.EN_PROCESO, ahora.minusMinutes(minutosBloqueo));
+            if (liberadas > 0) {
+                logger.warn("{} notificaciones abandonadas devueltas a PENDIENTE", liberadas);
+            }
+
+            List<Long> ids = notificacionRepository.findIdsListos(
+                    EstadoNotificacion.PENDIENTE, ahora, PageRequest.of(0, loteBarrido));
+            ids.forEach(this::despachar);
+
+            actualizarTotales();
+        } catch (Exception e) {
+            logger.error("Error en el barrido de notificaciones pendientes: {}", e.getMessage());
+        }
+    }
+
+    private void despachar(Long id) {
+        try {
+            executor.execute(() -> procesar(id));
+        } catch (TaskRejectedException e) {
+            logger.warn("Cola de notificaciones llena; la notificación {} se enviará en el próximo barrido", id);
+        }
+    }
+
+    /**
+     * Envía una notificación. Se ejecuta en el pool, fuera de cualquier transacción de negocio.
+     */
+    void procesar(Long id) {
+        // Otro worker u otra instancia pudo haberla tomado ya
+        if (notificacionRepository.tomar(id, EstadoNotificacion.PENDIENTE, EstadoNotificacion.EN_PROCESO,
+                LocalDateTime.now()) == 0) {
+            return;
+        }
+
+        NotificacionPendiente notificacion = notificacionRepository.findById(id).orElse(null);
+        if (notificacion == null) {
+            return;
+        }
+
+        try {
+            Ticket ticket = ticketRepository.findParaNotificacionById(notificacion.getTicketId())
+                    .orElseThrow(() -> new IllegalStateException("Ticket no encontrado: " + notificacion.getTicketId()));
+
+            enviar(notificacion.getTipo(), ticket);
+
+            notificacion.setEstado(EstadoNotificacion.ENVIADA);
+            notificacion.setFechaEnvio(LocalDateTime.now());
+            notificacion.setUltimoError(null);
+            enviadas.increment();
+        } catch (Exception e) {
+            registrarFallo(notificacion, e);
+        }
+
+        notificacionRepository.save(notificacion);
+    }
+
+    private void enviar(TipoNotificacion tipo, Ticket ticket) {
+        switch (tipo) {
+            case TICKET_CREADO:
+                emailService.enviarNotificacionTicketCreado(ticket);
+                break;
+            case TICKET_ASIGNADO:
+                emailService.enviarNotificacionTicketAsignado(ticket);
+                break;
+            case TICKET_EN_PROGRESO:
+                emailService.enviarNotificacionTicketEnProgreso(ticket);
+                break;
+            case TICKET_RESUELTO:
+                emailService.enviarNotificacionTicketResuelto(ticket);
+                break;
+            case CIERRE_AUTOMATICO:
+                emailService.enviarNotificacionCierreAutomatico(ticket);
+                break;
+            default:
+                throw new IllegalArgumentException("Tipo de notificación no soportado: " + tipo);
+        }
+    }
+
+    private void registrarFallo(NotificacionPendiente notificacion, Exception e) {
+        int intentos = notificacion.getIntentos() + 1;
+        notificacion.setIntentos(intentos);
+
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        notificacion.setUltimoError(error.length() > LARGO_MAXIMO_ERROR ? error.substring(0, LARGO_MAXIMO_ERROR) : error);
+
+        if (intentos >= maxIntentos) {
+            notificacion.setEstado(EstadoNotificacion.FALLIDA);
+            fallidas.increment();
+            logger.error("Notificación {} ({}) descartada tras {} intentos: {}",
+                    notificacion.getId(), notificacion.getTipo(), intentos, error);
+            return;
+        }
+
+        // Backoff exponencial: base, 2*base, 4*base... con tope de una hora
+        long espera = Math.min(BACKOFF_MAXIMO_SEGUNDOS, backoffSegundos * (1L << Math.min(intentos - 1, 20)));
+        notificacion.setEstado(EstadoNotificacion.PENDIENTE);
+        notificacion.setProximoIntento(LocalDateTime.now().plusSeconds(espera));
+        reintentos.increment();
+        logger.warn("Error al enviar notificación {} ({}), intento {} de {}. Reintento en {}s: {}",
+                notificacion.getId(), notificacion.getTipo(), intentos, maxIntentos, espera, error);
+    }
+
+    private void actualizarTotales() {
+        totalesPorEstado.values().forEach(total -> total.set(0));
+        for (Object[] fila : notificacionRepository.contarPorEstado()) {
+            totalesPorEstado.get((EstadoNotificacion) fila[0]).set(((Number) fila[1]).longValue());
+        }
+    }
+}
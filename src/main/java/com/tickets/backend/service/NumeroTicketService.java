@@ -0,0 +1,202 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.ContadorTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.repository.ContadorTicketRepository;
+import com.tickets.backend.repository.TicketRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asigna los números correlativos de los tickets.
+ *
+ * Cada instancia reserva un bloque de números sobre la tabla contador_tickets
+ * (una transacción corta e independiente) y los entrega desde memoria, de modo
+ * que crear un ticket no necesita leer la tabla de tickets ni competir por
+ * el último registro. Cada reseteo abre una nueva generación del correlativo, que
+ * forma parte del número para que no se repitan los de generaciones anteriores.
+ */
+@Service
+public class NumeroTicketService {
+
+    private static final Logger log = LoggerFactory.getLogger(NumeroTicketService.class);
+
+    private static final String CONTADOR_TICKETS = "TICKETS";
+    private static final String PREFIJO_POR_DEFECTO = "TK-";
+    private static final int DIGITOS_POR_DEFECTO = 6;
+    private static final Pattern DIGITOS_FINALES = Pattern.compile("(\\d+)$");
+
+    @Autowired
+    private ContadorTicketRepository contadorRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private ConfiguracionSistemaService configuracionService;
+
+    @Value("${app.tickets.numeracion.tamano-bloque:20}")
+    private int tamanoBloque;
+
+    private final TransactionTemplate transaccionIndependiente;
+
+    private volatile Bloque bloqueActual;
+
+    public NumeroTicketService(PlatformTransactionManager transactionManager) {
+        this.transaccionIndependiente = new TransactionTemplate(transactionManager);
+        this.transaccionIndependiente.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Obtiene el siguiente número de ticket ya formateado con prefijo y dígitos
+     */
+    public String generarNumeroTicket() {
+        // Lectura por clave primaria: si otra instancia reseteó el correlativo, el bloque
+        // en memoria es de la generación anterior y no se usa
+        long generacion = contadorRepository.findGeneracion(CONTADOR_TICKETS).orElse(0L);
+        while (true) {
+            Bloque bloque = bloqueActual;
+            if (bloque != null && bloque.generacion >= generacion) {
+                long numero = bloque.siguiente.getAndIncrement();
+                if (numero <= bloque.fin) {
+                    return formatear(bloque.generacion, numero);
+                }
+            }
+            synchronized (this) {
+                // Otro hilo pudo haber reservado el bloque mientras esperábamos
+                if (bloqueActual == bloque) {
+                    bloqueActual = reservarBloque();
+                }
+                generacion = Math.max(generacion, bloqueActual.generacion);
+            }
+        }
+    }
+
+    /**
+     * Reinicia el correlativo en una nueva generación y descarta el bloque local.
+     * Los números de la nueva generación la incluyen (TK-1-000001), así no repiten los anteriores;
+     * las demás instancias descartan su bloque al ver la generación nueva.
+     */
+    public void resetear() {
+        asegurarContador();
+        long generacion = transaccionIndependiente.execute(status -> {
+            ContadorTicket contador = obtenerContadorBloqueado();
+            log.info("Reseteando correlativo de tickets; último valor reservado: {}", contador.getUltimoValor());
+            contador.setUltimoValor(0L);
+            contador.setGeneracion(contador.getGeneracion() + 1);
+            contadorRepository.save(contador);
+            return contador.getGeneracion();
+        });
+        log.info("Correlativo de tickets reseteado, nueva generación: {}", generacion);
+        synchronized (this) {
+            bloqueActual = null;
+        }
+    }
+
+    private Bloque reservarBloque() {
+        int tamano = Math.max(1, tamanoBloque);
+        asegurarContador();
+        Bloque bloque = transaccionIndependiente.execute(status -> {
+            ContadorTicket contador = obtenerContadorBloqueado();
+            long inicio = contador.getUltimoValor() + 1;
+            long fin = contador.getUltimoValor() + tamano;
+            contador.setUltimoValor(fin);
+            contadorRepository.save(contador);
+            return new Bloque(contador.getGeneracion(), inicio, fin);
+        });
+        log.info("Reservado bloque de números de ticket {}-{} (generación {})", bloque.inicio, bloque.fin, bloque.generacion);
+        return bloque;
+    }
+
+    private ContadorTicket obtenerContadorBloqueado() {
+        return contadorRepository.findByNombreParaActualizar(CONTADOR_TICKETS)
+                .orElseThrow(() -> new IllegalStateException("No se pudo inicializar el contador de tickets"));
+    }
+
+    /**
+     * Crea la fila del contador a partir del último ticket existente.
+     * Solo ocurre una vez; si otra instancia la crea primero se usa la suya.
+     */
+    private void asegurarContador() {
+        if (contadorRepository.existsById(CONTADOR_TICKETS)) {
+            return;
+        }
+        try {
+            transaccionIndependiente.executeWithoutResult(status -> {
+                long ultimoNumero = extraerUltimoNumeroExistente();
+                log.info("Inicializando contador de tickets en {}", ultimoNumero);
+                contadorRepository.saveAndFlush(new ContadorTicket(CONTADOR_TICKETS, ultimoNumero, 0L));
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.info("El contador de tickets ya fue creado por otra instancia");
+        }
+    }
+
+    private long extraerUltimoNumeroExistente() {
+        Ticket ultimoTicket = ticketRepository.findTopByOrderByIdDesc().orElse(null);
+        if (ultimoTicket == null || ultimoTicket.getNumeroTicket() == null) {
+            return 0L;
+        }
+        return extraerCorrelativo(ultimoTicket.getNumeroTicket());
+    }
+
+    /**
+     * Correlativo de un número de ticket: los dígitos finales, sin prefijo ni generación
+     */
+    static long extraerCorrelativo(String numeroTicket) {
+        Matcher matcher = DIGITOS_FINALES.matcher(numeroTicket);
+        if (!matcher.find()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            log.error("Error al extraer el correlativo de {}: {}", numeroTicket, e.getMessage());
+            return 0L;
+        }
+    }
+
+    private String formatear(long generacion, long numero) {
+        String prefijo = configuracionService.obtenerValor("PREFIJO_NUMERO_TICKET", PREFIJO_POR_DEFECTO);
+        if (prefijo == null || prefijo.isEmpty()) {
+            prefijo = PREFIJO_POR_DEFECTO;
+        }
+
+        int digitos = configuracionService.obtenerValorNumerico("DIGITOS_NUMERO_TICKET", DIGITOS_POR_DEFECTO);
+        // Asegurar que esté en rango válido
+        digitos = Math.max(1, Math.min(10, digitos));
+
+        // La generación 0 conserva el formato original
+        String generacionTexto = generacion > 0 ? generacion + "-" : "";
+        return prefijo + generacionTexto + String.format("%0" + digitos + "d", numero);
+    }
+
+    /**
+     * Rango [inicio, fin] de una generación, reservado en la base de datos para esta instancia
+     */
+    private static final class Bloque {
+        private final long generacion;
+        private final long inicio;
+        private final long fin;
+        private final AtomicLong siguiente;
+
+        private Bloque(long generacion, long inicio, long fin) {
+            this.generacion = generacion;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.siguiente = new AtomicLong(inicio);
+        }
+    }
+}
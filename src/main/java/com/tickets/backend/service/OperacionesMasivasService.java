@@ -0,0 +1,247 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.dto.ResultadoMasivoDto;
+import com.tickets.backend.dto.ResultadoMasivoDto.ResultadoItem;
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.HistorialCambio;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.HistorialCambioRepository;
+import com.tickets.backend.repository.TicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Operaciones masivas de administración sobre tickets, por lotes.
+ *
+ * Cada lote se procesa en su propia transacción (o en la del llamador, si la hay): una
+ * consulta para el estado previo, un UPDATE para todos los tickets del lote y el
+ * historial insertado en lotes JDBC. El resultado informa cada ID.
+ */
+@Service
+public class OperacionesMasivasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OperacionesMasivasService.class);
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private HistorialCambioRepository historialCambioRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.masivo.tamano-lote:500}")
+    private int tamanoLote;
+
+    private final TransactionTemplate transaccion;
+
+    public OperacionesMasivasService(PlatformTransactionManager transactionManager) {
+        // Sin transacción del llamador, cada lote confirma por separado; los trabajos masivos
+        // abren una transacción por lote para guardar el avance junto con el lote
+        this.transaccion = new TransactionTemplate(transactionManager);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRED);
+    }
+
+    /**
+     * IDs sin repetir, en lotes del tamaño configurado
+     */
+    public List<List<Long>> dividirEnLotes(List<Long> ticketIds) {
+        List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(ticketIds));
+        int tamano = Math.max(tamanoLote, 1);
+        List<List<Long>> lotes = new ArrayList<>();
+        for (int i = 0; i < unicos.size(); i += tamano) {
+            lotes.add(unicos.subList(i, Math.min(i + tamano, unicos.size())));
+        }
+        return lotes;
+    }
+
+    /**
+     * Asigna un lote en una transacción y devuelve el resultado de cada ID
+     */
+    public List<ResultadoItem> asignarLote(List<Long> lote, Usuario tecnico, Usuario admin) {
+        return transaccion.execute(status -> {
+            Map<Long, EstadoPrevio> previos = cargarEstadoPrevio(lote);
+            String nombreTecnico = tecnico.getNombre() + " " + tecnico.getApellido();
+
+            List<ResultadoItem> resultados = new ArrayList<>();
+            List<Long> aActualizar = new ArrayList<>();
+            for (Long id : lote) {
+                EstadoPrevio previo = previos.get(id);
+                if (previo == null) {
+                    resultados.add(new ResultadoItem(id, ResultadoMasivoDto.NO_ENCONTRADO, "Ticket no encontrado"));
+                } else if (Objects.equals(previo.tecnicoId, tecnico.getId()) && previo.estado != EstadoTicket.NUEVO) {
+                    resultados.add(new ResultadoItem(id, ResultadoMasivoDto.SIN_CAMBIOS, "Ya asignado al técnico"));
+                } else {
+                    aActualizar.add(id);
+                }
+            }
+            if (aActualizar.isEmpty()) {
+                return resultados;
+            }
+
+            LocalDateTime ahora = LocalDateTime.now();
+            ticketRepository.asignarEnBloque(aActualizar, tecnico, ahora);
+
+            List<HistorialCambio> historial = new ArrayList<>();
+            for (Long id : aActualizar) {
+                EstadoPrevio previo = previos.get(id);
+                EstadoTicket estadoNuevo = previo.estado == EstadoTicket.NUEVO ? EstadoTicket.ASIGNADO : previo.estado;
+
+                historial.add(nuevoHistorial(id, admin, ahora, "asignacion_masiva",
+                        previo.nombreTecnico != null ? previo.nombreTecnico : "Sin asignar", nombreTecnico));
+                eventPublisher.publishEvent(new TicketModificadoEvent(previo.instantanea(),
+                        previo.instantanea(estadoNuevo, tecnico.getId(), previo.fechaResolucion)));
+
+                String mensaje = estadoNuevo != previo.estado
+                        ? "Asignado; estado cambiado de " + previo.estado + " a " + estadoNuevo
+                        : "Asignado";
+                resultados.add(new ResultadoItem(id, ResultadoMasivoDto.ACTUALIZADO, mensaje));
+            }
+            historialCambioRepository.insertarLote(historial);
+            return resultados;
+        });
+    }
+
+    /**
+     * Cambia el estado de un lote en una transacción y devuelve el resultado de cada ID.
+     * Un solo UPDATE condicionado a los estados de origen permitidos por MaquinaEstadosTicket.
+     */
+    public List<ResultadoItem> cambiarEstadoLote(List<Long> lote, EstadoTicket nuevoEstado, Usuario admin) {
+        return transaccion.execute(status -> {
+            Map<Long, EstadoPrevio> previos = cargarEstadoPrevio(lote);
+            Set<EstadoTicket> origenes = MaquinaEstadosTicket.origenesPermitidos(nuevoEstado);
+
+            List<ResultadoItem> resultados = new ArrayList<>();
+            List<Long> aActualizar = new ArrayList<>();
+            for (Long id : lote) {
+                EstadoPrevio previo = previos.get(id);
+                if (previo == null) {
+                    resultados.add(new ResultadoItem(id, ResultadoMasivoDto.NO_ENCONTRADO, "Ticket no encontrado"));
+                } else if (previo.estado == nuevoEstado) {
+                    resultados.add(new ResultadoItem(id, ResultadoMasivoDto.SIN_CAMBIOS, "Ya está en " + nuevoEstado));
+                } else if (!origenes.contains(previo.estado)) {
+                    resultados.add(new ResultadoItem(id, ResultadoMasivoDto.RECHAZADO,
+                            "Transición no permitida de " + previo.estado + " a " + nuevoEstado));
+                } else {
+                    aActualizar.add(id);
+                }
+            }
+            if (aActualizar.isEmpty()) {
+                return resultados;
+            }
+
+            LocalDateTime ahora = LocalDateTime.now();
+            MaquinaEstadosTicket.EfectoFechas efecto = MaquinaEstadosTicket.efectoFechas(nuevoEstado);
+            int actualizados;
+            switch (efecto) {
+                case RESOLUCION:
+                    actualizados = ticketRepository.resolverEnBloque(aActualizar, origenes, nuevoEstado, ahora);
+                    break;
+                case CIERRE:
+                    actualizados = ticketRepository.cerrarEnBloque(aActualizar, origenes, nuevoEstado, ahora);
+                    break;
+                default:
+                    actualizados = ticketRepository.cambiarEstadoEnBloque(aActualizar, origenes, nuevoEstado, ahora);
+                    break;
+            }
+            if (actualizados != aActualizar.size()) {
+                // Otro proceso cambió alguno entre la lectura y el UPDATE: se revierte el lote
+                throw new IllegalStateException("Tickets modificados durante el cambio masivo; reintente la operación");
+            }
+
+            List<HistorialCambio> historial = new ArrayList<>();
+            for (Long id : aActualizar) {
+                EstadoPrevio previo = previos.get(id);
+                LocalDateTime fechaResolucion = efecto == MaquinaEstadosTicket.EfectoFechas.RESOLUCION
+                        || (efecto == MaquinaEstadosTicket.EfectoFechas.CIERRE && previo.fechaResolucion == null)
+                        ? ahora : previo.fechaResolucion;
+
+                historial.add(nuevoHistorial(id, admin, ahora, "estado", previo.estado.toString(), nuevoEstado.toString()));
+                eventPublisher.publishEvent(new TicketModificadoEvent(previo.instantanea(),
+                        previo.instantanea(nuevoEstado, previo.tecnicoId, fechaResolucion)));
+                resultados.add(new ResultadoItem(id, ResultadoMasivoDto.ACTUALIZADO, null));
+            }
+            historialCambioRepository.insertarLote(historial);
+            return resultados;
+        });
+    }
+
+    private Map<Long, EstadoPrevio> cargarEstadoPrevio(List<Long> lote) {
+        Map<Long, EstadoPrevio> previos = new HashMap<>();
+        for (Object[] fila : ticketRepository.findEstadoMasivoPorIds(lote)) {
+            EstadoPrevio previo = new EstadoPrevio(fila);
+            previos.put(previo.ticketId, previo);
+        }
+        return previos;
+    }
+
+    private HistorialCambio nuevoHistorial(Long ticketId, Usuario admin, LocalDateTime fecha, String campo,
+                                           String valorAnterior, String valorNuevo) {
+        HistorialCambio historial = new HistorialCambio();
+        historial.setTicket(ticketRepository.getReferenceById(ticketId));
+        historial.setUsuario(admin);
+        historial.setFechaCambio(fecha);
+        historial.setCampoModificado(campo);
+        historial.setValorAnterior(valorAnterior);
+        historial.setValorNuevo(valorNuevo);
+        return historial;
+    }
+
+    /**
+     * Fila de findEstadoMasivoPorIds
+     */
+    private static final class EstadoPrevio {
+        private final Long ticketId;
+        private final EstadoTicket estado;
+        private final PrioridadTicket prioridad;
+        private final Long categoriaId;
+        private final Long tecnicoId;
+        private final String nombreTecnico;
+        private final Long usuarioCreadorId;
+        private final LocalDateTime fechaCreacion;
+        private final LocalDateTime fechaResolucion;
+        private final Integer valoracion;
+
+        private EstadoPrevio(Object[] fila) {
+            this.ticketId = (Long) fila[0];
+            this.estado = (EstadoTicket) fila[1];
+            this.prioridad = (PrioridadTicket) fila[2];
+            this.categoriaId = (Long) fila[3];
+            this.tecnicoId = (Long) fila[4];
+            this.nombreTecnico = fila[4] != null ? fila[5] + " " + fila[6] : null;
+            this.usuarioCreadorId = (Long) fila[7];
+            this.fechaCreacion = (LocalDateTime) fila[8];
+            this.fechaResolucion = (LocalDateTime) fila[9];
+            this.valoracion = (Integer) fila[10];
+        }
+
+        InstantaneaTicket instantanea() {
+            return instantanea(estado, tecnicoId, fechaResolucion);
+        }
+
+        InstantaneaTicket instantanea(EstadoTicket nuevoEstado, Long nuevoTecnicoId, LocalDateTime nuevaFechaResolucion) {
+            return new InstantaneaTicket(ticketId, nuevoEstado, prioridad, categoriaId, nuevoTecnicoId,
+                    usuarioCreadorId, fechaCreacion, nuevaFechaResolucion, valoracion);
+        }
+    }
+}
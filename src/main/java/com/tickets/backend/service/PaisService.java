@@ -15,6 +15,9 @@ public class PaisService {
     
     @Autowired
     private PaisRepository paisRepository;
+
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
     
     // Obtener todos los países
     public List<Pais> obtenerTodosPaises() {
@@ -35,6 +38,7 @@ public class PaisService {
     // Crear un nuevo país
     @Transactional
     public Pais crearPais(PaisDto paisDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Pais.class);
         // Verificar si ya existe un país con el mismo nombre
         if (paisRepository.existsByNombre(paisDto.getNombre())) {
             throw new IllegalArgumentException("Ya existe un país con el nombre: " + paisDto.getNombre());
@@ -56,6 +60,7 @@ public class PaisService {
     // Actualizar un país existente
     @Transactional
     public Pais actualizarPais(Long id, PaisDto paisDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Pais.class);
         Pais pais = obtenerPaisPorId(id);
         
         // Verificar si ya existe otro país con el mismo nombre
@@ -81,6 +86,7 @@ public class PaisService {
     // Eliminar un país (desactivar)
     @Transactional
     public void desactivarPais(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Pais.class);
         Pais pais = obtenerPaisPorId(id);
         pais.setActivo(false);
         paisRepository.save(pais);
@@ -89,6 +95,7 @@ public class PaisService {
     // Activar un país
     @Transactional
     public void activarPais(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Pais.class);
         Pais pais = obtenerPaisPorId(id);
         pais.setActivo(true);
         paisRepository.save(pais);
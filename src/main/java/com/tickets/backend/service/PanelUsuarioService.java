@@ -0,0 +1,219 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Panel del usuario final: estadísticas, datos mensuales y datos por categoría de sus
+ * propios tickets, calculados con una sola consulta agregada.
+ *
+ * El resultado se guarda por usuario durante unos segundos y se descarta cuando cambia
+ * alguno de sus tickets. Cada invalidación marca a los usuarios del ticket (creador y técnico,
+ * antes y después del cambio); un cálculo solo queda en caché si su usuario no fue marcado
+ * mientras corría, así los cambios de otros usuarios no le impiden cachear.
+ */
+@Service
+public class PanelUsuarioService {
+
+    private static final int MESES_PANEL = 6;
+
+    private static final DateTimeFormatter FORMATO_MES =
+            DateTimeFormatter.ofPattern("MMM").withLocale(new Locale("es", "ES"));
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Value("${app.panel-usuario.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${app.panel-usuario.max-usuarios:5000}")
+    private int maxUsuarios;
+
+    // Panel calculado por email del usuario
+    private final ConcurrentHashMap<String, PanelEnCache> paneles = new ConcurrentHashMap<>();
+
+    // Reloj lógico de invalidaciones
+    private final AtomicLong secuencia = new AtomicLong();
+
+    // Última invalidación por id de usuario
+    private final ConcurrentHashMap<Long, Long> invalidadoEn = new ConcurrentHashMap<>();
+
+    // Las invalidaciones hasta este valor ya no están en invalidadoEn (se vació por tamaño)
+    private volatile long piso = 0;
+
+    /**
+     * Las tres vistas del panel: "estadisticas", "datosMensuales" y "datosCategoria"
+     */
+    public Map<String, Object> obtenerPanel(String email) {
+        long ahora = System.currentTimeMillis();
+        PanelEnCache enCache = paneles.get(email);
+        if (enCache != null && enCache.venceEn > ahora) {
+            return enCache.panel;
+        }
+
+        long inicio = secuencia.get();
+        PanelEnCache nuevo = calcular(email, ahora);
+        guardarEnCache(email, nuevo, ahora);
+        // Se guarda y después se verifica: una invalidación concurrente no puede quedar entre ambos pasos
+        if (invalidadoDesde(nuevo.usuarioId, inicio)) {
+            paneles.remove(email, nuevo);
+        }
+        return nuevo.panel;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> obtenerEstadisticas(String email) {
+        return (Map<String, Object>) obtenerPanel(email).get("estadisticas");
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> obtenerDatosMensuales(String email) {
+        return (List<Map<String, Object>>) obtenerPanel(email).get("datosMensuales");
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> obtenerDatosCategoria(String email) {
+        return (List<Map<String, Object>>) obtenerPanel(email).get("datosCategoria");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alModificarTicket(TicketModificadoEvent evento) {
+        Set<Long> usuarios = new HashSet<>();
+        for (InstantaneaTicket instantanea : new InstantaneaTicket[] {evento.getAnterior(), evento.getActual()}) {
+            if (instantanea != null) {
+                usuarios.add(instantanea.getUsuarioCreadorId());
+                usuarios.add(instantanea.getTecnicoId());
+            }
+        }
+        usuarios.remove(null);
+        marcarInvalidados(usuarios);
+        // Sin id en caché: el usuario no tenía tickets, su primer ticket también invalida
+        paneles.values().removeIf(p -> p.usuarioId == null || usuarios.contains(p.usuarioId));
+    }
+
+    private synchronized void marcarInvalidados(Set<Long> usuarios) {
+        long marca = secuencia.incrementAndGet();
+        if (invalidadoEn.size() >= maxUsuarios) {
+            piso = marca - 1;
+            invalidadoEn.clear();
+        }
+        usuarios.forEach(id -> invalidadoEn.put(id, marca));
+    }
+
+    // Si el usuario fue invalidado después de "inicio"; sin id (sin tickets) cuenta cualquier invalidación
+    private boolean invalidadoDesde(Long usuarioId, long inicio) {
+        if (usuarioId == null) {
+            return secuencia.get() != inicio;
+        }
+        // El mapa antes que el piso: si la lectura cae justo después de vaciarlo, el piso ya está subido
+        return invalidadoEn.getOrDefault(usuarioId, 0L) > inicio || piso > inicio;
+    }
+
+    private PanelEnCache calcular(String email, long ahora) {
+        YearMonth mesActual = YearMonth.now();
+        YearMonth primerMes = mesActual.minusMonths(MESES_PANEL - 1);
+
+        Long usuarioId = null;
+        long misTickets = 0;
+        long pendientes = 0;
+        long enProgreso = 0;
+        long resueltos = 0;
+        Map<YearMonth, Long> porMes = new TreeMap<>();
+        for (YearMonth mes = primerMes; !mes.isAfter(mesActual); mes = mes.plusMonths(1)) {
+            porMes.put(mes, 0L);
+        }
+        Map<String, Long> porCategoria = new HashMap<>();
+
+        for (Object[] fila : ticketRepository.agregarPanelUsuario(email)) {
+            usuarioId = (Long) fila[0];
+            EstadoTicket estado = (EstadoTicket) fila[1];
+            String categoria = (String) fila[2];
+            YearMonth mes = YearMonth.of(((Number) fila[3]).intValue(), ((Number) fila[4]).intValue());
+            long cantidad = ((Number) fila[5]).longValue();
+
+            misTickets += cantidad;
+            if (estado == EstadoTicket.NUEVO || estado == EstadoTicket.ASIGNADO) {
+                pendientes += cantidad;
+            } else if (estado == EstadoTicket.EN_PROGRESO) {
+                enProgreso += cantidad;
+            } else if (estado == EstadoTicket.RESUELTO) {
+                resueltos += cantidad;
+            }
+            porMes.computeIfPresent(mes, (k, total) -> total + cantidad);
+            if (categoria != null) {
+                porCategoria.merge(categoria, cantidad, Long::sum);
+            }
+        }
+
+        Map<String, Object> estadisticas = new HashMap<>();
+        estadisticas.put("misTickets", misTickets);
+        estadisticas.put("pendientes", pendientes);
+        estadisticas.put("enProgreso", enProgreso);
+        estadisticas.put("resueltos", resueltos);
+
+        List<Map<String, Object>> datosMensuales = new ArrayList<>();
+        porMes.forEach((mes, cantidad) -> {
+            Map<String, Object> datoMes = new HashMap<>();
+            datoMes.put("mes", mes.atDay(1).format(FORMATO_MES).toLowerCase());
+            datoMes.put("cantidad", cantidad);
+            datosMensuales.add(datoMes);
+        });
+
+        List<Map<String, Object>> datosCategoria = new ArrayList<>();
+        porCategoria.forEach((categoria, cantidad) -> {
+            Map<String, Object> datoCategoria = new HashMap<>();
+            datoCategoria.put("categoria", categoria);
+            datoCategoria.put("cantidad", cantidad);
+            datosCategoria.add(datoCategoria);
+        });
+
+        Map<String, Object> panel = new LinkedHashMap<>();
+        panel.put("estadisticas", estadisticas);
+        panel.put("datosMensuales", datosMensuales);
+        panel.put("datosCategoria", datosCategoria);
+        return new PanelEnCache(usuarioId, panel, ahora + ttlMs);
+    }
+
+    private void guardarEnCache(String email, PanelEnCache panel, long ahora) {
+        if (paneles.size() >= maxUsuarios) {
+            // Primero se descartan los vencidos; si no alcanza, se vacía la caché completa
+            paneles.values().removeIf(p -> p.venceEn <= ahora);
+            if (paneles.size() >= maxUsuarios) {
+                paneles.clear();
+            }
+        }
+        paneles.put(email, panel);
+    }
+
+    private static final class PanelEnCache {
+        private final Long usuarioId;
+        private final Map<String, Object> panel;
+        private final long venceEn;
+
+        private PanelEnCache(Long usuarioId, Map<String, Object> panel, long venceEn) {
+            this.usuarioId = usuarioId;
+            this.panel = panel;
+            this.venceEn = venceEn;
+        }
+    }
+}
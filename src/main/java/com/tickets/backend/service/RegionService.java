@@ -17,6 +17,9 @@ public class RegionService {
     
     @Autowired
     private RegionRepository regionRepository;
+
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
     
     @Autowired
     private PaisRepository paisRepository;
@@ -50,6 +53,7 @@ public class RegionService {
     // Crear una nueva región
     @Transactional
     public Region crearRegion(RegionDto regionDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Region.class);
         // Verificar si el país existe
         Pais pais = paisRepository.findById(regionDto.getPaisId())
                 .orElseThrow(() -> new EntityNotFoundException("País no encontrado con ID: " + regionDto.getPaisId()));
@@ -79,6 +83,7 @@ public class RegionService {
     // Actualizar una región existente
     @Transactional
     public Region actualizarRegion(Long id, RegionDto regionDto) {
+        cacheDatosReferencia.desalojarAlConfirmar(Region.class);
         Region region = obtenerRegionPorId(id);
         
         // Verificar si el país existe (si se está cambiando)
@@ -113,6 +118,7 @@ public class RegionService {
     // Eliminar una región (desactivar)
     @Transactional
     public void desactivarRegion(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Region.class);
         Region region = obtenerRegionPorId(id);
         region.setActivo(false);
         regionRepository.save(region);
@@ -121,6 +127,7 @@ public class RegionService {
     // Activar una región
     @Transactional
     public void activarRegion(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Region.class);
         Region region = obtenerRegionPorId(id);
         region.setActivo(true);
         regionRepository.save(region);
@@ -1,29 +1,44 @@
 package com.tickets.backend.service;
 
+import com.tickets.backend.dto.ResultadoMasivoDto;
+import com.tickets.backend.dto.ResultadoMasivoDto.ResultadoItem;
+import com.tickets.backend.dto.VistaPreviaCierreDto;
+import com.tickets.backend.dto.VistaPreviaCierreDto.CandidatoCierre;
 import com.tickets.backend.models.EstadoTicket;
-import com.tickets.backend.models.HistorialCambio;
-import com.tickets.backend.models.Ticket;
 import com.tickets.backend.models.Usuario;
-import com.tickets.backend.repository.HistorialCambioRepository;
 import com.tickets.backend.repository.TicketRepository;
 import com.tickets.backend.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.SimpleTriggerContext;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.PostConstruct;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TicketCierreAutomaticoService {
     
     private static final Logger logger = LoggerFactory.getLogger(TicketCierreAutomaticoService.class);
+
+    /**
+     * Concesión compartida por todos los procesos que cierran tickets resueltos
+     */
+    public static final String TAREA_CIERRE = "cierre-automatico-tickets";
     
     @Autowired
     private TicketRepository ticketRepository;
@@ -31,16 +46,41 @@ public class TicketCierreAutomaticoService {
     @Autowired
     private ConfiguracionSistemaService configuracionService;
     
-    @Autowired
-    private HistorialCambioRepository historialCambioRepository;
-    
     @Autowired
     private UsuarioRepository usuarioRepository;
     
     @Autowired
     private TaskScheduler taskScheduler;
+
+    @Autowired
+    private OperacionesMasivasService operacionesMasivasService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
+
+    @Value("${app.cierre-automatico.tamano-lote:500}")
+    private int tamanoLote;
+
+    @Value("${app.cierre-automatico.vista-previa-ttl-ms:15000}")
+    private long ttlVistaPreviaMs;
+
+    @Value("${app.cierre-automatico.tamano-muestra:20}")
+    private int tamanoMuestra;
     
+    private final TransactionTemplate transaccion;
+
     private ScheduledFuture<?> tareaActual;
+
+    // Trigger de la tarea programada vigente (null si el cierre está deshabilitado)
+    private volatile CronTrigger triggerActual;
+    private volatile String expresionCronActual;
+
+    private volatile VistaPreviaEnCache vistaPrevia;
+    // Sube con cada invalidación: una vista calculada antes no se guarda
+    private final AtomicLong invalidaciones = new AtomicLong();
     
     /**
      * Inicializa el scheduler con la configuración actual
@@ -62,6 +102,9 @@ public class TicketCierreAutomaticoService {
             tareaActual.cancel(false);
             logger.info("Tarea anterior cancelada");
         }
+        triggerActual = null;
+        expresionCronActual = null;
+        invalidarVistaPrevia();
         
         // Verificar si el cierre automático está habilitado
         boolean habilitado = configuracionService.obtenerValorBooleano(
@@ -78,10 +121,14 @@ public class TicketCierreAutomaticoService {
         
         try {
             // Programar la nueva tarea
+            CronTrigger trigger = new CronTrigger(expresionCron);
             tareaActual = taskScheduler.schedule(
-                this::procesarCierreAutomaticoTickets,
-                new CronTrigger(expresionCron)
+                () -> coordinadorTareas.ejecutarComoLider(TAREA_CIERRE, concesion -> procesarCierreAutomaticoTickets(concesion)),
+                trigger
             );
+            triggerActual = trigger;
+            expresionCronActual = expresionCron;
+            invalidarVistaPrevia();
             
             logger.info("Scheduler actualizado con expresión cron: {}", expresionCron);
             
@@ -122,11 +169,18 @@ public class TicketCierreAutomaticoService {
         return expresion;
     }
     
+    public TicketCierreAutomaticoService(PlatformTransactionManager transactionManager) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
     /**
      * Proceso principal de cierre automático
      */
-    @Transactional
     public void procesarCierreAutomaticoTickets() {
+        procesarCierreAutomaticoTickets(null);
+    }
+
+    private void procesarCierreAutomaticoTickets(CoordinadorTareasService.Concesion concesion) {
         logger.info("Iniciando proceso de cierre automático de tickets");
         
         try {
@@ -150,30 +204,8 @@ public class TicketCierreAutomaticoService {
             // Calcular fecha límite
             LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasParaCierre);
             
-            // Buscar tickets resueltos que cumplan el criterio
-            List<Ticket> ticketsParaCerrar = ticketRepository.findByEstadoAndFechaResolucionLessThan(
-                EstadoTicket.RESUELTO, fechaLimite
-            );
-            
-            logger.info("Encontrados {} tickets para cerrar automáticamente", ticketsParaCerrar.size());
-            
-            // Procesar cada ticket
-            int ticketsCerrados = 0;
-            int errores = 0;
-            
-            for (Ticket ticket : ticketsParaCerrar) {
-                try {
-                    cerrarTicketAutomaticamente(ticket, diasParaCierre);
-                    ticketsCerrados++;
-                    logger.debug("Ticket {} cerrado automáticamente", ticket.getNumeroTicket());
-                } catch (Exception e) {
-                    errores++;
-                    logger.error("Error al cerrar automáticamente el ticket {}: {}", 
-                        ticket.getNumeroTicket(), e.getMessage(), e);
-                }
-            }
-            
-            logger.info("Proceso completado. Tickets cerrados: {}, Errores: {}", ticketsCerrados, errores);
+            // Cerrar por lotes; el usuario del sistema se resuelve una sola vez
+            int ticketsCerrados = cerrarPorLotes(fechaLimite, obtenerUsuarioSistema(), concesion);
             
             // Actualizar estadísticas
             actualizarEstadisticasCierreAutomatico(ticketsCerrados);
@@ -184,52 +216,77 @@ public class TicketCierreAutomaticoService {
     }
     
     /**
-     * Cierra un ticket específico automáticamente
+     * Cierra por lotes los tickets RESUELTO con fecha de resolución anterior a fechaLimite
+     * (todos los RESUELTO si es null). Los IDs se leen de a un lote, en orden de id, y cada
+     * lote se cierra en su propia transacción con un UPDATE y el historial en lote JDBC;
+     * la memoria y la duración de los bloqueos no dependen de cuántos tickets haya.
+     *
+     * @return cantidad de tickets cerrados
      */
-   private void cerrarTicketAutomaticamente(Ticket ticket, int diasEspera) {
-    EstadoTicket estadoAnterior = ticket.getEstado();
-    
-    // Cambiar estado a CERRADO
-    ticket.setEstado(EstadoTicket.CERRADO);
-    ticket.setFechaActualizacion(LocalDateTime.now());
-    ticket.setFechaCierre(LocalDateTime.now());
-    
-    // Guardar el ticket
-    ticketRepository.save(ticket);
-    
-    // Registrar el cambio en el historial
-    registrarCambioAutomatico(ticket, estadoAnterior, EstadoTicket.CERRADO, diasEspera);
-    
-    if (diasEspera == 0) {
-        logger.info("Ticket {} cerrado manualmente", ticket.getNumeroTicket());
-    } else {
-        logger.info("Ticket {} cerrado automáticamente después de {} días", 
-            ticket.getNumeroTicket(), diasEspera);
+    public int cerrarPorLotes(LocalDateTime fechaLimite, Usuario usuario) {
+        return cerrarPorLotes(fechaLimite, usuario, null);
     }
-}
-    
+
     /**
-     * Registra el cambio automático en el historial
+     * Igual que {@link #cerrarPorLotes(LocalDateTime, Usuario)}, bajo la concesión de la tarea:
+     * cada lote la verifica en su transacción, así una instancia que la perdió no cierra más.
      */
-    private void registrarCambioAutomatico(Ticket ticket, EstadoTicket estadoAnterior, 
-                                         EstadoTicket estadoNuevo, int diasEspera) {
-        try {
-            Usuario usuarioSistema = obtenerUsuarioSistema();
-            
-            HistorialCambio cambio = new HistorialCambio();
-            cambio.setTicket(ticket);
-            cambio.setUsuario(usuarioSistema);
-            cambio.setCampoModificado("estado");
-            cambio.setValorAnterior(estadoAnterior.toString());
-            cambio.setValorNuevo(estadoNuevo.toString());
-            cambio.setFechaCambio(LocalDateTime.now());
-            
-            historialCambioRepository.save(cambio);
+    public int cerrarPorLotes(LocalDateTime fechaLimite, Usuario usuario, CoordinadorTareasService.Concesion concesion) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        long inicio = System.currentTimeMillis();
+        
+        int cerrados = 0;
+        int omitidos = 0;
+        int lotes = 0;
+        long ultimoId = 0L;
+        List<Long> lote;
+        do {
+            if (concesion != null && !concesion.vigente()) {
+                logger.warn("Cierre por lotes detenido tras {} lotes: la ejecución ya no es vigente", lotes);
+                break;
+            }
+            PageRequest limite = PageRequest.of(0, tamanoLote);
+            lote = fechaLimite != null
+                ? ticketRepository.findIdsResueltosParaCierreDesde(EstadoTicket.RESUELTO, fechaLimite, ultimoId, limite)
+                : ticketRepository.findIdsPorEstadoDesde(EstadoTicket.RESUELTO, ultimoId, limite);
+            if (lote.isEmpty()) {
+                break;
+            }
+            ultimoId = lote.get(lote.size() - 1);
+            lotes++;
             
-        } catch (Exception e) {
-            logger.error("Error al registrar el cambio automático para el ticket {}: {}", 
-                ticket.getNumeroTicket(), e.getMessage());
+            try {
+                List<Long> ids = lote;
+                List<ResultadoItem> resultados = transaccion.execute(status -> {
+                    if (concesion != null) {
+                        concesion.verificar();
+                    }
+                    return operacionesMasivasService.cambiarEstadoLote(ids, EstadoTicket.CERRADO, usuario);
+                });
+                for (ResultadoItem item : resultados) {
+                    if (ResultadoMasivoDto.ACTUALIZADO.equals(item.getResultado())) {
+                        cerrados++;
+                    } else {
+                        omitidos++;
+                    }
+                }
+            } catch (RuntimeException e) {
+                // El lote se revirtió completo; sus tickets se retoman en la próxima ejecución
+                omitidos += lote.size();
+                logger.error("Error al cerrar un lote de {} tickets: {}", lote.size(), e.getMessage());
+            }
+        } while (lote.size() == tamanoLote);
+        
+        if (cerrados > 0) {
+            invalidarVistaPrevia();
         }
+        muestra.stop(meterRegistry.timer("tickets.cierre_automatico.duracion"));
+        meterRegistry.counter("tickets.cierre_automatico.cerrados").increment(cerrados);
+        
+        long milis = System.currentTimeMillis() - inicio;
+        logger.info("Cierre por lotes completado. Tickets cerrados: {}, omitidos: {}, lotes: {}, {} ms ({} tickets/s)",
+            cerrados, omitidos, lotes, milis, milis > 0 ? Math.round(cerrados * 1000.0 / milis) : cerrados);
+        return cerrados;
     }
     
     /**
@@ -237,14 +294,9 @@ public class TicketCierreAutomaticoService {
      */
     private Usuario obtenerUsuarioSistema() {
         return usuarioRepository.findByEmail("sistema@helpdesk.com")
-            .orElseGet(() -> {
-                return usuarioRepository.findAll().stream()
-                    .filter(u -> u.getRoles().stream()
-                        .anyMatch(r -> r.getNombre().equals("ROLE_ADMIN")))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException(
-                        "No se encontró un usuario del sistema para registrar cambios automáticos"));
-            });
+            .or(() -> usuarioRepository.findFirstByRolesNombreOrderByIdAsc("ROLE_ADMIN"))
+            .orElseThrow(() -> new RuntimeException(
+                "No se encontró un usuario del sistema para registrar cambios automáticos"));
     }
     
     /**
@@ -278,10 +330,12 @@ public class TicketCierreAutomaticoService {
     /**
      * Método manual para ejecutar el cierre automático
      */
-    @Transactional
     public void ejecutarCierreAutomaticoManual() {
         logger.info("Ejecutando cierre automático manualmente");
-        procesarCierreAutomaticoTickets();
+        if (!coordinadorTareas.ejecutarComoLider(TAREA_CIERRE,
+                concesion -> procesarCierreAutomaticoTickets(concesion))) {
+            logger.info("Otra instancia está ejecutando el cierre automático; se omite");
+        }
     }
     
     /**
@@ -289,32 +343,17 @@ public class TicketCierreAutomaticoService {
      */
     public String obtenerInformacionProximoCierre() {
         try {
-            boolean habilitado = configuracionService.obtenerValorBooleano(
-                "CIERRE_AUTOMATICO_HABILITADO", true
-            );
-            
-            if (!habilitado) {
+            VistaPreviaCierreDto vista = obtenerVistaPrevia();
+            if (!vista.isHabilitado()) {
                 return "El cierre automático está deshabilitado";
             }
             
-            int diasParaCierre = configuracionService.obtenerValorNumerico(
-                "DIAS_PARA_CIERRE_AUTOMATICO", 1
-            );
-            
-            String frecuencia = configuracionService.obtenerValor("FRECUENCIA_CIERRE_AUTOMATICO", "DIARIO");
-            int hora = configuracionService.obtenerValorNumerico("HORARIO_CIERRE_AUTOMATICO", 9);
-            int minutos = configuracionService.obtenerValorNumerico("MINUTOS_CIERRE_AUTOMATICO", 0);
-            
-            LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasParaCierre);
-            List<Ticket> ticketsParaCerrar = ticketRepository.findByEstadoAndFechaResolucionLessThan(
-                EstadoTicket.RESUELTO, fechaLimite
-            );
-            
-            String descripcionFrecuencia = obtenerDescripcionFrecuencia(frecuencia, hora, minutos);
-            
+            String proxima = vista.getProximaEjecucion() != null
+                ? ". Próxima ejecución: " + vista.getProximaEjecucion().withNano(0)
+                : "";
             return String.format("Hay %d tickets pendientes de cierre automático. " +
-                    "Configuración: %d días después de resolución, ejecutándose %s", 
-                    ticketsParaCerrar.size(), diasParaCierre, descripcionFrecuencia);
+                    "Configuración: %d días después de resolución, ejecutándose %s%s", 
+                    vista.getPendientes(), vista.getDiasParaCierre(), vista.getDescripcionFrecuencia(), proxima);
                     
         } catch (Exception e) {
             logger.error("Error al obtener información de próximo cierre", e);
@@ -322,6 +361,71 @@ public class TicketCierreAutomaticoService {
         }
     }
     
+    /**
+     * Vista previa del cierre automático: pendientes (COUNT por índice), próxima ejecución del
+     * trigger vigente y los candidatos más antiguos. Se guarda unos segundos y se descarta al
+     * reprogramar el scheduler, al cambiar la configuración o al cerrar tickets.
+     */
+    public VistaPreviaCierreDto obtenerVistaPrevia() {
+        long version = configuracionService.obtenerVersion();
+        VistaPreviaEnCache actual = vistaPrevia;
+        if (actual != null && actual.versionConfiguracion == version
+                && System.currentTimeMillis() < actual.expiraEn) {
+            return actual.vista;
+        }
+        
+        long generacion = invalidaciones.get();
+        VistaPreviaCierreDto vista = calcularVistaPrevia();
+        if (invalidaciones.get() == generacion) {
+            vistaPrevia = new VistaPreviaEnCache(vista, version, System.currentTimeMillis() + ttlVistaPreviaMs);
+        }
+        return vista;
+    }
+    
+    private VistaPreviaCierreDto calcularVistaPrevia() {
+        VistaPreviaCierreDto vista = new VistaPreviaCierreDto();
+        vista.setGeneradoEn(LocalDateTime.now());
+        vista.setHabilitado(configuracionService.obtenerValorBooleano("CIERRE_AUTOMATICO_HABILITADO", true));
+        if (!vista.isHabilitado()) {
+            return vista;
+        }
+        
+        int diasParaCierre = configuracionService.obtenerValorNumerico("DIAS_PARA_CIERRE_AUTOMATICO", 1);
+        String frecuencia = configuracionService.obtenerValor("FRECUENCIA_CIERRE_AUTOMATICO", "DIARIO");
+        int hora = configuracionService.obtenerValorNumerico("HORARIO_CIERRE_AUTOMATICO", 9);
+        int minutos = configuracionService.obtenerValorNumerico("MINUTOS_CIERRE_AUTOMATICO", 0);
+        LocalDateTime fechaLimite = LocalDateTime.now().minusDays(diasParaCierre);
+        
+        vista.setDiasParaCierre(diasParaCierre);
+        vista.setFrecuencia(frecuencia);
+        vista.setDescripcionFrecuencia(obtenerDescripcionFrecuencia(frecuencia, hora, minutos));
+        vista.setFechaLimite(fechaLimite);
+        
+        CronTrigger trigger = triggerActual;
+        if (trigger != null) {
+            vista.setExpresionCron(expresionCronActual);
+            Instant proxima = trigger.nextExecution(new SimpleTriggerContext());
+            if (proxima != null) {
+                vista.setProximaEjecucion(LocalDateTime.ofInstant(proxima, ZoneId.systemDefault()));
+            }
+        }
+        
+        vista.setPendientes(ticketRepository.countResueltosParaCierre(EstadoTicket.RESUELTO, fechaLimite));
+        if (vista.getPendientes() > 0) {
+            for (Object[] fila : ticketRepository.findCandidatosCierre(
+                    EstadoTicket.RESUELTO, fechaLimite, PageRequest.of(0, tamanoMuestra))) {
+                vista.getMuestra().add(new CandidatoCierre(
+                    (Long) fila[0], (String) fila[1], (String) fila[2], (LocalDateTime) fila[3]));
+            }
+        }
+        return vista;
+    }
+    
+    private void invalidarVistaPrevia() {
+        invalidaciones.incrementAndGet();
+        vistaPrevia = null;
+    }
+    
     private String obtenerDescripcionFrecuencia(String frecuencia, int hora, int minutos) {
         switch (frecuencia.toUpperCase()) {
             case "CADA_HORA":
@@ -335,7 +439,6 @@ public class TicketCierreAutomaticoService {
     }
 
 
-@Transactional
 public void ejecutarCierreAutomaticoManualCompleto() {
     logger.info("Ejecutando cierre automático manual - TODOS los tickets resueltos");
     
@@ -350,34 +453,31 @@ public void ejecutarCierreAutomaticoManualCompleto() {
             return;
         }
         
-        // Buscar TODOS los tickets resueltos (sin filtro de fecha)
-        List<Ticket> ticketsParaCerrar = ticketRepository.findByEstado(EstadoTicket.RESUELTO, org.springframework.data.domain.Pageable.unpaged()).getContent();
-        
-        logger.info("Encontrados {} tickets resueltos para cerrar manualmente", ticketsParaCerrar.size());
-        
-        // Procesar cada ticket
-        int ticketsCerrados = 0;
-        int errores = 0;
-        
-        for (Ticket ticket : ticketsParaCerrar) {
-            try {
-                cerrarTicketAutomaticamente(ticket, 0); // 0 días indica cierre manual
-                ticketsCerrados++;
-                logger.info("Ticket {} cerrado manualmente", ticket.getNumeroTicket());
-            } catch (Exception e) {
-                errores++;
-                logger.error("Error al cerrar manualmente el ticket {}: {}", 
-                    ticket.getNumeroTicket(), e.getMessage(), e);
-            }
+        // Cerrar TODOS los tickets resueltos (sin filtro de fecha), por lotes
+        boolean ejecutado = coordinadorTareas.ejecutarComoLider(TAREA_CIERRE, concesion -> {
+            int ticketsCerrados = cerrarPorLotes(null, obtenerUsuarioSistema(), concesion);
+            
+            // Actualizar estadísticas
+            actualizarEstadisticasCierreAutomatico(ticketsCerrados);
+        });
+        if (!ejecutado) {
+            logger.info("Otra instancia está ejecutando el cierre automático; se omite");
         }
         
-        logger.info("Proceso manual completado. Tickets cerrados: {}, Errores: {}", ticketsCerrados, errores);
-        
-        // Actualizar estadísticas
-        actualizarEstadisticasCierreAutomatico(ticketsCerrados);
-        
     } catch (Exception e) {
         logger.error("Error en el proceso manual de cierre automático de tickets", e);
     }
 }
-}
\ No newline at end of file
+
+private static final class VistaPreviaEnCache {
+    private final VistaPreviaCierreDto vista;
+    private final long versionConfiguracion;
+    private final long expiraEn;
+
+    private VistaPreviaEnCache(VistaPreviaCierreDto vista, long versionConfiguracion, long expiraEn) {
+        this.vista = vista;
+        this.versionConfiguracion = versionConfiguracion;
+        this.expiraEn = expiraEn;
+    }
+}
+}
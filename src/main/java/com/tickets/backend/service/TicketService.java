@@ -1,7 +1,11 @@
 package com.tickets.backend.service;
 
 import com.tickets.backend.dto.ComentarioDto;
+import com.tickets.backend.dto.PaginaCursorDto;
 import com.tickets.backend.dto.TicketDto;
+import com.tickets.backend.dto.TicketResponseDto;
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
 import com.tickets.backend.exceptions.ResourceNotFoundException;
 import com.tickets.backend.models.*;
 import com.tickets.backend.repository.*;
@@ -15,22 +19,28 @@ import java.util.Arrays;
 
 import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.ws.rs.BadRequestException;
 
@@ -39,6 +49,18 @@ public class TicketService {
 
     private static final Logger log = LoggerFactory.getLogger(TicketService.class);
 
+    private static final int TAMANO_MAXIMO_PAGINA_CURSOR = 100;
+
+    // SQL Server admite hasta 2100 parámetros por sentencia
+    private static final int MAXIMO_IDS_BUSQUEDA_EN_FILTRO = 1000;
+
+    private static final Sort ORDEN_CURSOR = Sort.by(Sort.Order.desc("fechaCreacion"), Sort.Order.desc("id"));
+
+    // Columnas por las que el listado de administración acepta ordenar
+    private static final Set<String> COLUMNAS_ORDENABLES = Set.of(
+            "id", "numeroTicket", "titulo", "estado", "prioridad",
+            "fechaCreacion", "fechaActualizacion", "fechaResolucion", "fechaCierre");
+
     @Autowired
     private TicketRepository ticketRepository;
 
@@ -60,7 +82,7 @@ public class TicketService {
     @Autowired
     private SLARepository slaRepository;
     @Autowired
-    private EmailService emailService;
+    private NotificacionOutboxService notificacionOutboxService;
 
     @Autowired
     private SupervisorTecnicoService supervisorTecnicoService;
@@ -68,6 +90,24 @@ public class TicketService {
     @Autowired
     private ConfiguracionSistemaService configuracionService;
 
+    @Autowired
+    private NumeroTicketService numeroTicketService;
+
+    @Autowired
+    private BusquedaTicketsService busquedaTicketsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContadoresTicketsService contadoresTicketsService;
+
+    @Autowired
+    private AnaliticaTicketsService analiticaTicketsService;
+
+    @Autowired
+    private OperacionesMasivasService operacionesMasivasService;
+
 
   @Transactional
 public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
@@ -108,8 +148,8 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
     ticket.setFechaActualizacion(LocalDateTime.now());
     ticket.setSla(sla);
     
-    // Generar y asignar el número correlativo
-    ticket.setNumeroTicket(generarNumeroTicket());
+    // Generar y asignar el número correlativo (bloque reservado en memoria, sin leer la tabla de tickets)
+    ticket.setNumeroTicket(numeroTicketService.generarNumeroTicket());
     
     // Guardar el ticket
     Ticket ticketGuardado = ticketRepository.save(ticket);
@@ -117,98 +157,23 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
     // Registrar en el historial
     registrarCambio(ticketGuardado, usuario, "estado", null, EstadoTicket.NUEVO.toString());
     
-    // Enviar notificaciones por correo
-    emailService.enviarNotificacionTicketCreado(ticketGuardado);
+    // Registrar la notificación por correo (se envía de forma asíncrona tras el commit)
+    notificacionOutboxService.registrar(TipoNotificacion.TICKET_CREADO, ticketGuardado);
+    
+    busquedaTicketsService.programarIndexacion(ticketGuardado);
+    publicarCambio(null, ticketGuardado);
     
     return ticketGuardado;
 }
 
-// Método para generar el número correlativo
-    private String generarNumeroTicket() {
-        log.info("Iniciando generación de número de ticket");
-        
-        // Obtener configuración del prefijo (por defecto "TK-")
-        String prefijo = "TK-";
-        
-        Optional<ConfiguracionSistema> configPrefijo = configuracionService.obtenerPorClave("PREFIJO_NUMERO_TICKET");
-        if (configPrefijo.isPresent() && configPrefijo.get().getValor() != null && !configPrefijo.get().getValor().isEmpty()) {
-            prefijo = configPrefijo.get().getValor();
-            log.info("Prefijo configurado encontrado: {}", prefijo);
-        } else {
-            log.warn("No se encontró configuración para PREFIJO_NUMERO_TICKET, usando valor por defecto: {}", prefijo);
-        }
-        
-        // Obtener configuración de dígitos (por defecto 6)
-        int digitos = 6;
-        Optional<ConfiguracionSistema> configDigitos = configuracionService.obtenerPorClave("DIGITOS_NUMERO_TICKET");
-        if (configDigitos.isPresent() && configDigitos.get().getValor() != null && !configDigitos.get().getValor().isEmpty()) {
-            try {
-                digitos = Integer.parseInt(configDigitos.get().getValor());
-                // Asegurar que esté en rango válido
-                if (digitos < 1) {
-                    log.warn("Valor de dígitos configurado es menor que 1, ajustando a 1");
-                    digitos = 1;
-                }
-                if (digitos > 10) {
-                    log.warn("Valor de dígitos configurado es mayor que 10, ajustando a 10");
-                    digitos = 10;
-                }
-                log.info("Cantidad de dígitos configurada: {}", digitos);
-            } catch (NumberFormatException e) {
-                log.error("Error al parsear el número de dígitos configurado: {}", e.getMessage());
-                log.info("Usando cantidad de dígitos por defecto: {}", digitos);
-            }
-        } else {
-            log.warn("No se encontró configuración para DIGITOS_NUMERO_TICKET, usando valor por defecto: {}", digitos);
-        }
-        
-        // Obtener el último ticket
-        Ticket ultimoTicket = ticketRepository.findTopByOrderByIdDesc().orElse(null);
-        
-        int ultimoNumero = 0;
-        if (ultimoTicket != null && ultimoTicket.getNumeroTicket() != null) {
-            try {
-                // Extraer número desde la posición del prefijo anterior
-                String numeroTicketAnterior = ultimoTicket.getNumeroTicket();
-                log.info("Último número de ticket encontrado: {}", numeroTicketAnterior);
-                
-                // Intentar encontrar la parte numérica independientemente del prefijo
-                String numeroStr = numeroTicketAnterior.replaceAll("[^0-9]", "");
-                
-                if (!numeroStr.isEmpty()) {
-                    ultimoNumero = Integer.parseInt(numeroStr);
-                    log.info("Número extraído del último ticket: {}", ultimoNumero);
-                } else {
-                    log.warn("No se pudo extraer un número del último ticket, usando 0");
-                }
-            } catch (Exception e) {
-                log.error("Error al extraer número del último ticket: {}", e.getMessage());
-                log.info("Usando número inicial 0");
-                ultimoNumero = 0;
-            }
-        } else {
-            log.info("No se encontraron tickets previos, iniciando desde 0");
-        }
-        
-        // Incrementar para el nuevo ticket
-        ultimoNumero++;
-        
-        // Formatear el número con la cantidad de dígitos configurada
-        String numeroFormateado = String.format("%0" + digitos + "d", ultimoNumero);
-        String numeroTicketCompleto = prefijo + numeroFormateado;
-        
-        log.info("Número de ticket generado: {}", numeroTicketCompleto);
-        return numeroTicketCompleto;
-    }
-    
-
     @Transactional
     public Ticket actualizarTicket(Long id, TicketDto ticketDto, String emailUsuario) {
         Usuario usuario = usuarioRepository.findByEmail(emailUsuario)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
-        Ticket ticket = ticketRepository.findById(id)
+        Ticket ticket = ticketRepository.findDetalleById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
+        InstantaneaTicket anterior = InstantaneaTicket.de(ticket);
 
         if (ticketDto.getTitulo() != null && !ticketDto.getTitulo().equals(ticket.getTitulo())) {
             String valorAnterior = ticket.getTitulo();
@@ -224,16 +189,8 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
 
         if (ticketDto.getEstado() != null && ticket.getEstado() != ticketDto.getEstado()) {
             EstadoTicket valorAnterior = ticket.getEstado();
-            ticket.setEstado(ticketDto.getEstado());
-            
-            // Si el estado cambia a resuelto o cerrado, registrar la fecha
-            if (ticketDto.getEstado() == EstadoTicket.RESUELTO) {
-                ticket.setFechaResolucion(LocalDateTime.now());
-            } else if (ticketDto.getEstado() == EstadoTicket.CERRADO) {
-                ticket.setFechaCierre(LocalDateTime.now());
-            }
-            
-            registrarCambio(ticket, usuario, "estado", valorAnterior.toString(), ticketDto.getEstado().toString());
+            aplicarEstado(ticket, ticketDto.getEstado());
+            registrarCambio(ticket, usuario, "estado", String.valueOf(valorAnterior), ticketDto.getEstado().toString());
         }
 
         if (ticketDto.getPrioridad() != null && ticket.getPrioridad() != ticketDto.getPrioridad()) {
@@ -294,7 +251,10 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         }
 
         ticket.setFechaActualizacion(LocalDateTime.now());
-        return ticketRepository.save(ticket);
+        Ticket ticketGuardado = ticketRepository.save(ticket);
+        busquedaTicketsService.programarIndexacion(ticketGuardado);
+        publicarCambio(anterior, ticketGuardado);
+        return ticketGuardado;
     }
 
 @   Transactional
@@ -302,8 +262,9 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
     Usuario usuario = usuarioRepository.findByEmail(emailUsuario)
             .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
     
-    Ticket ticket = ticketRepository.findById(ticketId)
+    Ticket ticket = ticketRepository.findDetalleById(ticketId)
             .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
+    InstantaneaTicket anterior = InstantaneaTicket.de(ticket);
     
     Usuario tecnico = usuarioRepository.findById(tecnicoId)
             .orElseThrow(() -> new RuntimeException("Técnico no encontrado"));
@@ -338,9 +299,10 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
             tecnico.getNombre() + " " + tecnico.getApellido());
     
     Ticket ticketActualizado = ticketRepository.save(ticket);
+    publicarCambio(anterior, ticketActualizado);
     
-    // Enviar correo de notificación de asignación
-    emailService.enviarNotificacionTicketAsignado(ticketActualizado);
+    // Registrar correo de notificación de asignación
+    notificacionOutboxService.registrar(TipoNotificacion.TICKET_ASIGNADO, ticketActualizado);
     
     return ticketActualizado;
 
@@ -366,8 +328,9 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         Usuario tecnico = usuarioRepository.findByEmail(emailUsuario)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findDetalleById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
+        InstantaneaTicket anterior = InstantaneaTicket.de(ticket);
         
         String valorAnterior = ticket.getTecnicoAsignado() != null ? 
                 ticket.getTecnicoAsignado().getNombre() + " " + ticket.getTecnicoAsignado().getApellido() : null;
@@ -384,7 +347,9 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         registrarCambio(ticket, tecnico, "tecnico", valorAnterior, 
                 tecnico.getNombre() + " " + tecnico.getApellido());
         
-        return ticketRepository.save(ticket);
+        Ticket ticketActualizado = ticketRepository.save(ticket);
+        publicarCambio(anterior, ticketActualizado);
+        return ticketActualizado;
     }
 
     @Transactional
@@ -392,31 +357,57 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         Usuario usuario = usuarioRepository.findByEmail(emailUsuario)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
         
-        Ticket ticket = ticketRepository.findById(ticketId)
+        Ticket ticket = ticketRepository.findDetalleById(ticketId)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
         
         EstadoTicket estadoAnterior = ticket.getEstado();
-        ticket.setEstado(nuevoEstado);
-        
-        // Registrar fechas especiales según el estado
-        if (nuevoEstado == EstadoTicket.RESUELTO) {
-            ticket.setFechaResolucion(LocalDateTime.now());
-        } else if (nuevoEstado == EstadoTicket.CERRADO) {
-            ticket.setFechaCierre(LocalDateTime.now());
+        if (estadoAnterior == nuevoEstado) {
+            return ticket;
         }
+        InstantaneaTicket anterior = InstantaneaTicket.de(ticket);
+        aplicarEstado(ticket, nuevoEstado);
         
         ticket.setFechaActualizacion(LocalDateTime.now());
-        registrarCambio(ticket, usuario, "estado", estadoAnterior.toString(), nuevoEstado.toString());
+        registrarCambio(ticket, usuario, "estado", String.valueOf(estadoAnterior), nuevoEstado.toString());
         
         Ticket ticketActualizado = ticketRepository.save(ticket);
+        publicarCambio(anterior, ticketActualizado);
         
         // Si el nuevo estado es EN_PROGRESO, enviar notificación
         if (nuevoEstado == EstadoTicket.EN_PROGRESO) {
-            emailService.enviarNotificacionTicketEnProgreso(ticketActualizado);
+            notificacionOutboxService.registrar(TipoNotificacion.TICKET_EN_PROGRESO, ticketActualizado);
         }
         
         return ticketActualizado;
     }
+
+    /**
+     * Cambia el estado de un ticket con las reglas y fechas de MaquinaEstadosTicket, las mismas
+     * que aplica el cambio masivo
+     */
+    private void aplicarEstado(Ticket ticket, EstadoTicket nuevoEstado) {
+        EstadoTicket estadoAnterior = ticket.getEstado();
+        if (estadoAnterior != null && !MaquinaEstadosTicket.esTransicionValida(estadoAnterior, nuevoEstado)) {
+            throw new IllegalStateException("No se puede pasar un ticket de " + estadoAnterior + " a " + nuevoEstado);
+        }
+        ticket.setEstado(nuevoEstado);
+
+        LocalDateTime ahora = LocalDateTime.now();
+        switch (MaquinaEstadosTicket.efectoFechas(nuevoEstado)) {
+            case RESOLUCION:
+                ticket.setFechaResolucion(ahora);
+                break;
+            case CIERRE:
+                if (ticket.getFechaResolucion() == null) {
+                    ticket.setFechaResolucion(ahora);
+                }
+                ticket.setFechaCierre(ahora);
+                break;
+            default:
+                break;
+        }
+    }
+
     @Transactional
     public Comentario agregarComentario(Long ticketId, ComentarioDto comentarioDto, String emailUsuario) {
         Usuario usuario = usuarioRepository.findByEmail(emailUsuario)
@@ -439,34 +430,61 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
     }
 
     public Ticket obtenerTicket(Long id) {
-        return ticketRepository.findById(id)
+        return ticketRepository.findDetalleById(id)
                 .orElseThrow(() -> new RuntimeException("Ticket no encontrado"));
     }
 
-    public Page<Ticket> obtenerTicketsPorUsuario(String email, Pageable pageable) {
-        Usuario usuario = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        return ticketRepository.findByUsuarioCreador(usuario, pageable);
+    // Los listados se proyectan directo a TicketResponseDto (una consulta con joins por página)
+    public Page<TicketResponseDto> obtenerTicketsPorUsuario(String email, Pageable pageable) {
+        return ticketRepository.findResumenPorUsuarioCreadorEmail(email, pageable);
     }
 
-    public Page<Ticket> obtenerTicketsPorTecnico(String email, Pageable pageable) {
-        Usuario tecnico = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("Técnico no encontrado"));
-        
-        return ticketRepository.findByTecnicoAsignado(tecnico, pageable);
+    public Page<TicketResponseDto> obtenerTicketsPorTecnico(String email, Pageable pageable) {
+        return ticketRepository.findResumenPorTecnicoAsignadoEmail(email, pageable);
     }
 
-    public Page<Ticket> obtenerTicketsSinAsignar(Pageable pageable) {
-        return ticketRepository.findByTecnicoAsignadoIsNull(pageable);
+    public Page<TicketResponseDto> obtenerTicketsSinAsignar(Pageable pageable) {
+        return ticketRepository.findResumenSinAsignar(pageable);
     }
 
-    public Page<Ticket> obtenerTicketsPorEstado(EstadoTicket estado, Pageable pageable) {
-        return ticketRepository.findByEstado(estado, pageable);
+    public Page<TicketResponseDto> obtenerTicketsPorEstado(EstadoTicket estado, Pageable pageable) {
+        return ticketRepository.findResumenPorEstado(estado, pageable);
     }
 
-    public Page<Ticket> buscarTickets(String keyword, Pageable pageable) {
-        return ticketRepository.searchByKeyword(keyword, pageable);
+    public Page<TicketResponseDto> buscarTickets(String keyword, Pageable pageable) {
+        // Con el índice en memoria los resultados vienen ordenados por relevancia
+        Optional<List<Long>> ids = busquedaTicketsService.buscar(keyword);
+        if (ids.isEmpty()) {
+            return ticketRepository.buscarResumen(TicketSpecifications.conTerminos(terminosBusqueda(keyword)), pageable);
+        }
+        return paginarPorIds(ids.get(), pageable);
+    }
+
+    /**
+     * Página de DTOs a partir de una lista ordenada de IDs, respetando ese orden
+     */
+    private Page<TicketResponseDto> paginarPorIds(List<Long> ids, Pageable pageable) {
+        int desde = (int) Math.min(pageable.getOffset(), ids.size());
+        int hasta = pageable.isPaged() ? Math.min(desde + pageable.getPageSize(), ids.size()) : ids.size();
+        List<Long> idsPagina = ids.subList(desde, hasta);
+        if (idsPagina.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
+        }
+
+        Map<Long, TicketResponseDto> porId = new HashMap<>();
+        for (TicketResponseDto dto : ticketRepository.buscarResumen(
+                TicketSpecifications.conIds(idsPagina), Sort.unsorted(), idsPagina.size())) {
+            porId.put(dto.getId(), dto);
+        }
+
+        List<TicketResponseDto> contenido = new ArrayList<>(idsPagina.size());
+        for (Long id : idsPagina) {
+            TicketResponseDto dto = porId.get(id);
+            if (dto != null) {
+                contenido.add(dto);
+            }
+        }
+        return new PageImpl<>(contenido, pageable, ids.size());
     }
 
     public List<Comentario> obtenerComentarios(Long ticketId, boolean incluirPrivados) {
@@ -493,17 +511,24 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         historialCambioRepository.save(cambio);
     }
 
+    /**
+     * Publica el cambio del ticket; los contadores y cachés lo aplican después del commit
+     */
+    private void publicarCambio(InstantaneaTicket anterior, Ticket ticket) {
+        eventPublisher.publishEvent(new TicketModificadoEvent(anterior, InstantaneaTicket.de(ticket)));
+    }
+
     public Long contarTicketsPorEstado(EstadoTicket estado) {
-    return ticketRepository.countByEstado(estado);
+    return contadoresTicketsService.contarPorEstado(estado);
 }
 
     public Long contarTicketsPorPrioridad(PrioridadTicket... prioridades) {
-        return ticketRepository.countByPrioridadIn(Arrays.asList(prioridades));
+        return contadoresTicketsService.contarPorPrioridades(Arrays.asList(prioridades));
     }
 
-    public List<Ticket> obtenerTicketsRecientes(int cantidad) {
+    public List<TicketResponseDto> obtenerTicketsRecientes(int cantidad) {
         PageRequest pageRequest = PageRequest.of(0, cantidad, Sort.by("fechaCreacion").descending());
-        return ticketRepository.findAll(pageRequest).getContent();
+        return ticketRepository.findResumen(pageRequest).getContent();
     }
 
     public List<Map<String, Object>> obtenerTicketsPorMes() {
@@ -514,23 +539,15 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         LocalDate fechaActual = LocalDate.now();
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("MMM");
         
-        for (int i = 5; i >= 0; i--) {
-            LocalDate fechaMes = fechaActual.minusMonths(i);
-            String nombreMes = fechaMes.format(formatter);
-            
-            // Obtener la cantidad de tickets para ese mes
-            YearMonth yearMonth = YearMonth.from(fechaMes);
-            LocalDateTime inicio = yearMonth.atDay(1).atStartOfDay();
-            LocalDateTime fin = yearMonth.atEndOfMonth().atTime(23, 59, 59);
-            
-            long cantidad = ticketRepository.countByFechaCreacionBetween(inicio, fin);
-            
+        // Cantidades por mes desde el resumen diario (una sola consulta)
+        YearMonth mesActual = YearMonth.from(fechaActual);
+        analiticaTicketsService.contarPorMes(mesActual.minusMonths(5), mesActual).forEach((yearMonth, cantidad) -> {
             Map<String, Object> datoMes = new HashMap<>();
-            datoMes.put("mes", nombreMes);
+            datoMes.put("mes", yearMonth.atDay(1).format(formatter));
             datoMes.put("cantidad", cantidad);
             
             resultado.add(datoMes);
-        }
+        });
         
         return resultado;
     }
@@ -541,7 +558,7 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         List<Map<String, Object>> resultado = new ArrayList<>();
         
         for (Categoria categoria : categorias) {
-            long cantidad = ticketRepository.countByCategoria(categoria);
+            long cantidad = contadoresTicketsService.contarPorCategoria(categoria.getId());
             
             // Solo incluir categorías con tickets
             if (cantidad > 0) {
@@ -556,7 +573,7 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
     }
 
 
-    public Page<Ticket> obtenerTodosTicketsConFiltros(
+    public Page<TicketResponseDto> obtenerTodosTicketsConFiltros(
         String estado,
         String prioridad,
         Long categoriaId,
@@ -567,14 +584,191 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         String busqueda,
         Pageable pageable
     ) {
+        Specification<Ticket> filtro = construirFiltroAdmin(
+            estado, prioridad, categoriaId, tecnicoId, usuarioId, fechaDesde, fechaHasta, busqueda);
+        if (filtro == null) {
+            // Un estado o prioridad desconocido no coincide con ningún ticket
+            return Page.empty(pageable);
+        }
+
+        Pageable paginaSegura = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+            ordenPermitido(pageable.getSort()));
+        return ticketRepository.buscarResumen(filtro, paginaSegura);
+    }
+
+    // ===== MODO CURSOR (KEYSET) =====
+
+    public PaginaCursorDto<TicketResponseDto> obtenerTicketsPorUsuarioCursor(
+            String email, String cursor, int tamano, boolean incluirTotal) {
+        CursorTicket desde = CursorTicket.decodificar(cursor);
+        int limite = limitarTamano(tamano);
+        List<TicketResponseDto> filas = ticketRepository.buscarResumen(
+                TicketSpecifications.creadoPorEmail(email).and(TicketSpecifications.anteriorA(desde.fecha, desde.id)),
+                ORDEN_CURSOR, limite + 1);
+        return armarPaginaCursor(filas, limite,
+                incluirTotal ? ticketRepository.countByUsuarioCreadorEmail(email) : null);
+    }
+
+    public PaginaCursorDto<TicketResponseDto> obtenerTicketsPorTecnicoCursor(
+            String email, String cursor, int tamano, boolean incluirTotal) {
+        CursorTicket desde = CursorTicket.decodificar(cursor);
+        int limite = limitarTamano(tamano);
+        List<TicketResponseDto> filas = ticketRepository.buscarResumen(
+                TicketSpecifications.asignadoAEmail(email).and(TicketSpecifications.anteriorA(desde.fecha, desde.id)),
+                ORDEN_CURSOR, limite + 1);
+        return armarPaginaCursor(filas, limite,
+                incluirTotal ? ticketRepository.countByTecnicoAsignadoEmail(email) : null);
+    }
+
+    public PaginaCursorDto<TicketResponseDto> obtenerTodosTicketsConFiltrosCursor(
+        String estado,
+        String prioridad,
+        Long categoriaId,
+        Long tecnicoId,
+        Long usuarioId,
+        String fechaDesde,
+        String fechaHasta,
+        String busqueda,
+        String cursor,
+        int tamano,
+        boolean incluirTotal
+    ) {
+        CursorTicket desde = CursorTicket.decodificar(cursor);
+        int limite = limitarTamano(tamano);
+
+        Specification<Ticket> filtro = construirFiltroAdmin(
+            estado, prioridad, categoriaId, tecnicoId, usuarioId, fechaDesde, fechaHasta, busqueda);
+        if (filtro == null) {
+            return new PaginaCursorDto<>(List.of(), null, false, incluirTotal ? 0L : null);
+        }
+
+        List<TicketResponseDto> filas = ticketRepository.buscarResumen(
+            filtro.and(TicketSpecifications.anteriorA(desde.fecha, desde.id)), ORDEN_CURSOR, limite + 1);
+
+        Long total = incluirTotal ? ticketRepository.count(filtro) : null;
+        return armarPaginaCursor(filas, limite, total);
+    }
+
+    /**
+     * Arma el filtro del listado de administración con solo los criterios informados.
+     * Devuelve null si el estado o la prioridad no existen.
+     */
+    private Specification<Ticket> construirFiltroAdmin(String estado, String prioridad, Long categoriaId,
+                                                       Long tecnicoId, Long usuarioId, String fechaDesde,
+                                                       String fechaHasta, String busqueda) {
+        EstadoTicket estadoFiltro;
+        PrioridadTicket prioridadFiltro;
+        try {
+            estadoFiltro = estado != null && !estado.isEmpty() ? EstadoTicket.valueOf(estado) : null;
+            prioridadFiltro = prioridad != null && !prioridad.isEmpty() ? PrioridadTicket.valueOf(prioridad) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
         // Convertir fechas usando método robusto de parseado
         LocalDateTime fechaDesdeParsed = parseFecha(fechaDesde, true);  // true = inicio del día
         LocalDateTime fechaHastaParsed = parseFecha(fechaHasta, false); // false = fin del día
-        
-        return ticketRepository.buscarConFiltros(
-            estado, prioridad, categoriaId, tecnicoId, usuarioId, 
-            fechaDesdeParsed, fechaHastaParsed, busqueda, pageable
-        );
+
+        // La búsqueda por texto se resuelve con el índice en memoria si está disponible y el
+        // resultado cabe en un IN; si no, queda el LIKE en base de datos
+        Optional<List<Long>> idsTexto = busqueda == null || busqueda.isBlank()
+            ? Optional.empty() : busquedaTicketsService.buscar(busqueda);
+        if (idsTexto.isPresent() && idsTexto.get().size() <= MAXIMO_IDS_BUSQUEDA_EN_FILTRO) {
+            return TicketSpecifications.conFiltros(estadoFiltro, prioridadFiltro, categoriaId, tecnicoId,
+                usuarioId, fechaDesdeParsed, fechaHastaParsed, null)
+                .and(TicketSpecifications.conIds(idsTexto.get()));
+        }
+
+        return TicketSpecifications.conFiltros(estadoFiltro, prioridadFiltro, categoriaId, tecnicoId,
+            usuarioId, fechaDesdeParsed, fechaHastaParsed, terminosBusqueda(busqueda));
+    }
+
+    /**
+     * Términos para el LIKE en base de datos, los mismos que usa el índice. Una consulta sin
+     * términos útiles (solo palabras vacías o letras sueltas) se busca tal cual.
+     */
+    private static List<String> terminosBusqueda(String busqueda) {
+        if (busqueda == null || busqueda.isBlank()) {
+            return List.of();
+        }
+        List<String> terminos = BusquedaTicketsService.terminosConsulta(busqueda);
+        return terminos.isEmpty() ? List.of(busqueda.trim().toLowerCase()) : terminos;
+    }
+
+    /**
+     * Solo se permite ordenar por columnas conocidas; cualquier otra cae al orden por defecto.
+     * Se agrega el id como desempate para que el orden sea estable entre páginas.
+     */
+    private Sort ordenPermitido(Sort solicitado) {
+        List<Sort.Order> ordenes = new ArrayList<>();
+        for (Sort.Order orden : solicitado) {
+            if (COLUMNAS_ORDENABLES.contains(orden.getProperty())) {
+                ordenes.add(orden);
+            } else {
+                log.warn("Orden por '{}' no permitido; se usa el orden por defecto", orden.getProperty());
+            }
+        }
+        if (ordenes.isEmpty()) {
+            ordenes.add(Sort.Order.desc("fechaCreacion"));
+        }
+        if (ordenes.stream().noneMatch(orden -> orden.getProperty().equals("id"))) {
+            ordenes.add(Sort.Order.desc("id"));
+        }
+        return Sort.by(ordenes);
+    }
+
+    private int limitarTamano(int tamano) {
+        return Math.max(1, Math.min(TAMANO_MAXIMO_PAGINA_CURSOR, tamano));
+    }
+
+    /**
+     * Se pide una fila de más para saber si hay página siguiente sin hacer COUNT
+     */
+    private PaginaCursorDto<TicketResponseDto> armarPaginaCursor(List<TicketResponseDto> filas, int limite, Long total) {
+        boolean hayMas = filas.size() > limite;
+        List<TicketResponseDto> contenido = hayMas ? filas.subList(0, limite) : filas;
+
+        String siguienteCursor = null;
+        if (hayMas) {
+            TicketResponseDto ultimo = contenido.get(contenido.size() - 1);
+            siguienteCursor = CursorTicket.codificar(ultimo.getFechaCreacion(), ultimo.getId());
+        }
+        return new PaginaCursorDto<>(new ArrayList<>(contenido), siguienteCursor, hayMas, total);
+    }
+
+    /**
+     * Posición (fechaCreacion, id) del último ticket entregado, codificada en Base64 URL-safe
+     */
+    private static final class CursorTicket {
+        private static final CursorTicket INICIO = new CursorTicket(null, null);
+
+        private final LocalDateTime fecha;
+        private final Long id;
+
+        private CursorTicket(LocalDateTime fecha, Long id) {
+            this.fecha = fecha;
+            this.id = id;
+        }
+
+        static String codificar(LocalDateTime fecha, Long id) {
+            String valor = fecha + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static CursorTicket decodificar(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return INICIO;
+            }
+            try {
+                String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separador = valor.indexOf('|');
+                return new CursorTicket(
+                        LocalDateTime.parse(valor.substring(0, separador)),
+                        Long.parseLong(valor.substring(separador + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+        }
     }
 
     /**
@@ -620,11 +814,10 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
             return null;
         }
     }
-    public void asignarTicketsMasivo(List<Long> ticketIds, Long tecnicoId, String email) throws AccessDeniedException {
-        // Verificar que el usuario tenga permisos de administrador
-    
-    
-    
+    /**
+     * Usuario que ejecuta una operación masiva; debe tener rol de administrador
+     */
+    public Usuario obtenerAdministradorMasivo(String email) throws AccessDeniedException {
         Usuario admin = usuarioRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
 
@@ -638,10 +831,15 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         }
 
         if (!esAdmin) {
-            throw new AccessDeniedException("Solo los administradores pueden realizar asignaciones masivas");
+            throw new AccessDeniedException("Solo los administradores pueden realizar operaciones masivas");
         }
+        return admin;
+    }
 
-        // Obtener el técnico al que se asignarán los tickets
+    /**
+     * Técnico destino de una asignación masiva; debe tener rol de técnico o soporte
+     */
+    public Usuario obtenerTecnicoMasivo(Long tecnicoId) {
         Usuario tecnico = usuarioRepository.findById(tecnicoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Técnico no encontrado con ID: " + tecnicoId));
 
@@ -657,178 +855,7 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         if (!esTecnico) {
             throw new BadRequestException("El usuario seleccionado no tiene rol de técnico");
         }
-
-        // Asignar cada ticket
-        for (Long ticketId : ticketIds) {
-            try {
-                // Obtener el ticket
-                Ticket ticket = ticketRepository.findById(ticketId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Ticket no encontrado con ID: " + ticketId));
-
-                // Guardar el estado anterior para el historial
-                EstadoTicket estadoAnterior = ticket.getEstado();
-                Usuario tecnicoAnterior = ticket.getTecnicoAsignado();
-
-                // Actualizar el ticket
-                ticket.setTecnicoAsignado(tecnico);
-
-                // Si el ticket estaba en estado NUEVO, cambiarlo a ASIGNADO
-                if (ticket.getEstado() == EstadoTicket.NUEVO) {
-                    ticket.setEstado(EstadoTicket.ASIGNADO);
-                }
-
-                // Actualizar la fecha de modificación
-                ticket.setFechaActualizacion(LocalDateTime.now());
-
-                // Guardar el ticket actualizado
-                ticketRepository.save(ticket);
-
-                // Registrar el cambio en el historial
-                HistorialCambio historial = new HistorialCambio();
-                historial.setTicket(ticket);
-                historial.setUsuario(admin);
-                historial.setFechaCambio(LocalDateTime.now());
-                historial.setCampoModificado("asignacion_masiva");
-                historial.setValorAnterior(tecnicoAnterior == null ? "Sin asignar" : 
-                            tecnicoAnterior.getNombre() + " " + tecnicoAnterior.getApellido());
-                historial.setValorNuevo(tecnico.getNombre() + " " + tecnico.getApellido());
-                
-                // Crear la descripción del cambio
-                String descripcion = "Asignación masiva: ";
-                if (tecnicoAnterior == null) {
-                    descripcion += "Ticket asignado a " + tecnico.getNombre() + " " + tecnico.getApellido();
-                } else {
-                    descripcion += "Técnico cambiado de " + tecnicoAnterior.getNombre() + " " + tecnicoAnterior.getApellido() 
-                            + " a " + tecnico.getNombre() + " " + tecnico.getApellido();
-                }
-                
-                if (estadoAnterior != ticket.getEstado()) {
-                    descripcion += ". Estado cambiado de " + estadoAnterior + " a " + ticket.getEstado();
-                }
-                
-            
-                historialCambioRepository.save(historial);
-
-                // Opcional: Enviar notificación al técnico
-            // notificarAsignacionTicket(ticket, tecnico);
-
-            } catch (ResourceNotFoundException e) {
-                // Registrar el error pero continuar con los demás tickets
-                log.error("Error al asignar ticket con ID {}: {}", ticketId, e.getMessage());
-            }
-        }
-    }
-    public void cambiarEstadoMasivo(List<Long> ticketIds, EstadoTicket nuevoEstado, String email) {
-        // Verificar que el usuario tenga permisos de administrador
-        Usuario admin = usuarioRepository.findByEmail(email)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con email: " + email));
-
-        // Verificar si el usuario tiene rol de administrador
-        boolean esAdmin = false;
-        for (Rol rol : admin.getRoles()) {
-            if (rol.getNombre().equals("ROLE_ADMIN")) {
-                esAdmin = true;
-                break;
-            }
-        }
-
-        if (!esAdmin) {
-            throw new RuntimeException("Solo los administradores pueden realizar cambios masivos de estado");
-        }
-
-        // Cambiar el estado de cada ticket
-        for (Long ticketId : ticketIds) {
-            try {
-                // Obtener el ticket
-                Ticket ticket = ticketRepository.findById(ticketId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Ticket no encontrado con ID: " + ticketId));
-
-                // Guardar el estado anterior para el historial
-                EstadoTicket estadoAnterior = ticket.getEstado();
-
-                // Si ya está en el mismo estado, no hacer nada
-                if (estadoAnterior == nuevoEstado) {
-                    continue;
-                }
-
-                // Validar la transición de estado
-                boolean transicionValida = validarTransicionEstado(estadoAnterior, nuevoEstado);
-                if (!transicionValida) {
-                    log.warn("Transición de estado inválida para ticket {}: de {} a {}", 
-                            ticketId, estadoAnterior, nuevoEstado);
-                    continue;
-                }
-
-                // Actualizar el estado del ticket
-                ticket.setEstado(nuevoEstado);
-
-                // Actualizar fechas según el nuevo estado
-                actualizarFechasSegunEstado(ticket, nuevoEstado);
-
-                // Actualizar la fecha de modificación
-                ticket.setFechaActualizacion(LocalDateTime.now());
-
-                // Guardar el ticket actualizado
-                ticketRepository.save(ticket);
-
-                // Registrar el cambio en el historial
-                HistorialCambio historial = new HistorialCambio();
-                historial.setTicket(ticket);
-                historial.setUsuario(admin);
-                historial.setFechaCambio(LocalDateTime.now());
-                historial.setCampoModificado("estado");
-                historial.setValorAnterior(estadoAnterior.toString());
-                historial.setValorNuevo(nuevoEstado.toString());
-                historialCambioRepository.save(historial);
-
-                // Opcional: Enviar notificación al usuario y/o técnico
-                // notificarCambioEstado(ticket, estadoAnterior, nuevoEstado);
-
-            } catch (ResourceNotFoundException e) {
-                // Registrar el error pero continuar con los demás tickets
-                log.error("Error al cambiar estado del ticket con ID {}: {}", ticketId, e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Valida si una transición de estado es válida
-     */
-    private boolean validarTransicionEstado(EstadoTicket estadoActual, EstadoTicket nuevoEstado) {
-        // Implementar lógica de validación de estados
-        // Por ejemplo, no permitir cambiar directamente de NUEVO a RESUELTO
-        
-        // Ejemplo simple: permitir todas las transiciones excepto algunas específicas
-        if (estadoActual == EstadoTicket.CERRADO) {
-            // Un ticket cerrado no se puede reabrir automáticamente
-            return nuevoEstado == EstadoTicket.CERRADO;
-        }
-        
-        if (estadoActual == EstadoTicket.NUEVO && 
-            (nuevoEstado == EstadoTicket.RESUELTO || nuevoEstado == EstadoTicket.CERRADO)) {
-            // No permitir saltar directamente de NUEVO a RESUELTO o CERRADO
-            return false;
-        }
-        
-        return true;
-    }
-
-    /**
-     * Actualiza las fechas del ticket según el nuevo estado
-     */
-    private void actualizarFechasSegunEstado(Ticket ticket, EstadoTicket nuevoEstado) {
-        LocalDateTime ahora = LocalDateTime.now();
-        
-        if (nuevoEstado == EstadoTicket.RESUELTO) {
-            ticket.setFechaResolucion(ahora);
-        }
-        
-        if (nuevoEstado == EstadoTicket.CERRADO) {
-            if (ticket.getFechaResolucion() == null) {
-                ticket.setFechaResolucion(ahora);
-            }
-            ticket.setFechaCierre(ahora);
-        }
+        return tecnico;
     }
 
     public Integer obtenerUltimoNumeroCorrelativo() {
@@ -846,50 +873,12 @@ public Ticket crearTicket(TicketDto ticketDto, String emailUsuario) {
         String numeroTicket = ultimoTicket.getNumeroTicket();
         log.info("Último número de ticket: {}", numeroTicket);
         
-        try {
-            // Extraer solo los dígitos (independiente del prefijo)
-            String numeroStr = numeroTicket.replaceAll("[^0-9]", "");
-            
-            if (!numeroStr.isEmpty()) {
-                Integer ultimoNumero = Integer.parseInt(numeroStr);
-                log.info("Último número correlativo: {}", ultimoNumero);
-                return ultimoNumero;
-            } else {
-                log.warn("No se pudo extraer número del ticket: {}", numeroTicket);
-                return 0;
-            }
-        } catch (Exception e) {
-            log.error("Error al extraer el número correlativo: {}", e.getMessage());
-            return 0;
-        }
-    }
-    @Transactional
-    public void resetearCorrelativo() {
-        log.info("Reseteando correlativo de tickets");
-        
-        try {
-            // Guardamos una configuración especial para indicar que el correlativo se ha reseteado
-            // Esta configuración se usará en el método generarNumeroTicket
-            ConfiguracionSistema configReset = new ConfiguracionSistema();
-            configReset.setClave("TICKET_CORRELATIVO_RESETEADO");
-            configReset.setValor("true");
-            configReset.setDescripcion("Indica que el correlativo de tickets ha sido reseteado");
-            configReset.setTipo("TICKETS");
-            
-            configuracionService.actualizarConfiguracion("TICKET_CORRELATIVO_RESETEADO", "true");
-            log.info("Configuración de reseteo guardada correctamente");
-            
-            // También guardamos el último correlativo antes del reseteo
-            int ultimoCorrelativo = obtenerUltimoNumeroCorrelativo();
-            configuracionService.actualizarConfiguracion("ULTIMO_CORRELATIVO_ANTES_RESET", 
-                    String.valueOf(ultimoCorrelativo));
-            log.info("Último correlativo guardado: {}", ultimoCorrelativo);
-            
-        } catch (Exception e) {
-            log.error("Error al resetear correlativo: {}", e.getMessage());
-            throw e;
-        }
+        // Dígitos finales: independiente del prefijo y de la generación del correlativo
+        int ultimoNumero = (int) NumeroTicketService.extraerCorrelativo(numeroTicket);
+        log.info("Último número correlativo: {}", ultimoNumero);
+        return ultimoNumero;
     }
+
     public Page<Ticket> obtenerTicketsAsignadosPorSupervisor(String emailTecnico, Pageable pageable) {
     Usuario tecnico = usuarioRepository.findByEmail(emailTecnico)
             .orElseThrow(() -> new RuntimeException("Técnico no encontrado"));
@@ -0,0 +1,422 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.dto.ResultadoMasivoDto;
+import com.tickets.backend.dto.ResultadoMasivoDto.ResultadoItem;
+import com.tickets.backend.dto.TrabajoMasivoDto;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.EstadoTrabajoMasivo;
+import com.tickets.backend.models.FalloTrabajoMasivo;
+import com.tickets.backend.models.TipoTrabajoMasivo;
+import com.tickets.backend.models.TrabajoMasivo;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.FalloTrabajoMasivoRepository;
+import com.tickets.backend.repository.TrabajoMasivoRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.AccessDeniedException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Trabajos masivos en segundo plano (asignación y cambio de estado).
+ *
+ * El envío valida los permisos, registra el trabajo y devuelve su ID de inmediato.
+ * Un pool acotado lo procesa lote por lote; cada lote y su punto de control se confirman
+ * en la misma transacción, por lo que tras un reinicio el trabajo sigue desde el primer
+ * ticket sin confirmar. El avance se consulta con obtener().
+ *
+ * El worker renueva el trabajo con un heartbeat mientras corre; si deja de hacerlo, el
+ * barrido lo devuelve a PENDIENTE y sube su token. El punto de control de cada lote es un
+ * UPDATE condicionado al token: si el trabajo pasó a otro worker, el lote se revierte y el
+ * worker anterior se detiene. Un error que detiene el trabajo lo devuelve a PENDIENTE hasta
+ * agotar max-intentos; recién entonces queda FALLIDO.
+ */
+@Service
+public class TrabajosMasivosService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrabajosMasivosService.class);
+
+    private static final int LARGO_MAXIMO_ERROR = 1000;
+    private static final int LARGO_MAXIMO_MENSAJE = 500;
+
+    @Autowired
+    private TrabajoMasivoRepository trabajoRepository;
+
+    @Autowired
+    private FalloTrabajoMasivoRepository falloRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private OperacionesMasivasService operacionesMasivasService;
+
+    @Autowired
+    private CoordinadorTareasService coordinadorTareas;
+
+    @Autowired
+    @Qualifier("trabajosMasivosExecutor")
+    private ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${app.trabajos.minutos-bloqueo:5}")
+    private long minutosBloqueo;
+
+    @Value("${app.trabajos.intervalo-heartbeat-ms:30000}")
+    private long intervaloHeartbeatMs;
+
+    @Value("${app.trabajos.max-intentos:3}")
+    private int maxIntentos;
+
+    @Value("${app.trabajos.max-fallos-informados:500}")
+    private int maxFallosInformados;
+
+    private final TransactionTemplate transaccion;
+
+    public TrabajosMasivosService(PlatformTransactionManager transactionManager) {
+        this.transaccion = new TransactionTemplate(transactionManager);
+    }
+
+    public TrabajoMasivo crearAsignacion(List<Long> ticketIds, Long tecnicoId, String email) throws AccessDeniedException {
+        ticketService.obtenerAdministradorMasivo(email);
+        ticketService.obtenerTecnicoMasivo(tecnicoId);
+
+        TrabajoMasivo trabajo = nuevoTrabajo(TipoTrabajoMasivo.ASIGNACION, ticketIds, email);
+        trabajo.setTecnicoId(tecnicoId);
+        return registrar(trabajo);
+    }
+
+    public TrabajoMasivo crearCambioEstado(List<Long> ticketIds, EstadoTicket nuevoEstado, String email) throws AccessDeniedException {
+        ticketService.obtenerAdministradorMasivo(email);
+
+        TrabajoMasivo trabajo = nuevoTrabajo(TipoTrabajoMasivo.CAMBIO_ESTADO, ticketIds, email);
+        trabajo.setNuevoEstado(nuevoEstado);
+        return registrar(trabajo);
+    }
+
+    public Optional<TrabajoMasivoDto> obtener(Long id) {
+        return trabajoRepository.findById(id).map(this::convertirADto);
+    }
+
+    /**
+     * Retoma trabajos pendientes: los que no cupieron en la cola, los que quedaron a
+     * medias por un reinicio y los de workers que dejaron de avanzar
+     */
+    @Scheduled(fixedDelayString = "${app.trabajos.intervalo-barrido-ms:30000}")
+    public void barrerPendientes() {
+        try {
+            int liberados = trabajoRepository.liberarAbandonados(EstadoTrabajoMasivo.PENDIENTE,
+                    EstadoTrabajoMasivo.EN_PROCESO, minutosBloqueo * 60);
+            if (liberados > 0) {
+                logger.warn("{} trabajos masivos sin avance devueltos a PENDIENTE", liberados);
+            }
+            trabajoRepository.findIdsPorEstado(EstadoTrabajoMasivo.PENDIENTE).forEach(this::despachar);
+        } catch (Exception e) {
+            logger.error("Error en el barrido de trabajos masivos: {}", e.getMessage());
+        }
+    }
+
+    private TrabajoMasivo nuevoTrabajo(TipoTrabajoMasivo tipo, List<Long> ticketIds, String email) {
+        List<List<Long>> lotes = operacionesMasivasService.dividirEnLotes(ticketIds);
+        LocalDateTime ahora = LocalDateTime.now();
+
+        TrabajoMasivo trabajo = new TrabajoMasivo();
+        trabajo.setTipo(tipo);
+        trabajo.setEstado(EstadoTrabajoMasivo.PENDIENTE);
+        trabajo.setUsuarioEmail(email);
+        trabajo.setTicketIds(ticketIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        trabajo.setTotal(lotes.stream().mapToInt(List::size).sum());
+        trabajo.setTotalLotes(lotes.size());
+        trabajo.setFechaCreacion(ahora);
+        trabajo.setFechaActualizacion(ahora);
+        return trabajo;
+    }
+
+    private TrabajoMasivo registrar(TrabajoMasivo trabajo) {
+        TrabajoMasivo guardado = trabajoRepository.save(trabajo);
+        despachar(guardado.getId());
+        return guardado;
+    }
+
+    private void despachar(Long id) {
+        try {
+            executor.execute(() -> procesar(id));
+        } catch (TaskRejectedException e) {
+            logger.warn("Cola de trabajos masivos llena; el trabajo {} se procesará en el próximo barrido", id);
+        }
+    }
+
+    /**
+     * Procesa el trabajo desde el último lote confirmado. Se ejecuta en el pool.
+     */
+    void procesar(Long id) {
+        // Otro worker u otra instancia pudo haberlo tomado ya
+        String propietario = coordinadorTareas.getInstancia();
+        if (trabajoRepository.tomar(id, propietario, EstadoTrabajoMasivo.PENDIENTE, EstadoTrabajoMasivo.EN_PROCESO) == 0) {
+            return;
+        }
+
+        Optional<Long> token = trabajoRepository.findToken(id, propietario, EstadoTrabajoMasivo.EN_PROCESO);
+        TrabajoMasivo trabajo = trabajoRepository.findById(id).orElse(null);
+        if (token.isEmpty() || trabajo == null) {
+            return;
+        }
+
+        Posesion posesion = new Posesion(id, token.get());
+        ScheduledFuture<?> heartbeat = taskScheduler.scheduleAtFixedRate(
+                () -> renovar(posesion), Duration.ofMillis(intervaloHeartbeatMs));
+        try {
+            Usuario admin = usuarioRepository.findByEmail(trabajo.getUsuarioEmail())
+                    .orElseThrow(() -> new IllegalStateException("Usuario no encontrado: " + trabajo.getUsuarioEmail()));
+            Usuario tecnico = trabajo.getTipo() == TipoTrabajoMasivo.ASIGNACION
+                    ? usuarioRepository.findById(trabajo.getTecnicoId())
+                        .orElseThrow(() -> new IllegalStateException("Técnico no encontrado: " + trabajo.getTecnicoId()))
+                    : null;
+
+            if (trabajo.getFechaInicio() == null) {
+                trabajo.setFechaInicio(LocalDateTime.now());
+            }
+
+            // procesados es la posición en la lista sin repetidos: se confirma con cada lote, así
+            // se retoma en el ticket exacto aunque el tamaño de lote haya cambiado desde el envío
+            List<Long> unicos = new ArrayList<>(new LinkedHashSet<>(leerIds(trabajo.getTicketIds())));
+            int desde = Math.min(trabajo.getProcesados(), unicos.size());
+            List<List<Long>> lotes = operacionesMasivasService.dividirEnLotes(unicos.subList(desde, unicos.size()));
+            trabajo.setTotalLotes(trabajo.getLotesCompletados() + lotes.size());
+            for (List<Long> lote : lotes) {
+                if (!posesion.vigente) {
+                    throw new TrabajoReasignadoException(id);
+                }
+                procesarLote(trabajo, posesion, lote, admin, tecnico);
+            }
+
+            terminar(posesion, EstadoTrabajoMasivo.COMPLETADO, trabajo.getIntentos(), null);
+            logger.info("Trabajo masivo {} ({}) completado: {} actualizados, {} sin cambios, {} fallidos",
+                    id, trabajo.getTipo(), trabajo.getActualizados(), trabajo.getSinCambios(), trabajo.getFallidos());
+        } catch (TrabajoReasignadoException e) {
+            // Otro worker lo retomó desde el último punto de control confirmado
+            logger.warn("Trabajo masivo {} detenido: pasó a otro worker", id);
+        } catch (Exception e) {
+            int intentos = trabajo.getIntentos() + 1;
+            boolean reintentar = intentos < maxIntentos;
+            logger.error("Trabajo masivo {} detenido (intento {} de {}): {}", id, intentos, maxIntentos, e.getMessage());
+            // PENDIENTE: el próximo barrido lo retoma desde el último lote confirmado
+            terminar(posesion, reintentar ? EstadoTrabajoMasivo.PENDIENTE : EstadoTrabajoMasivo.FALLIDO,
+                    intentos, e.getMessage());
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    /**
+     * Ejecuta un lote y guarda el avance en la misma transacción. Si el lote falla se
+     * revierte completo y sus tickets se registran como ERROR. Los contadores en memoria
+     * solo se actualizan cuando el punto de control quedó confirmado.
+     */
+    private void procesarLote(TrabajoMasivo trabajo, Posesion posesion, List<Long> lote, Usuario admin, Usuario tecnico) {
+        Avance avance;
+        try {
+            avance = transaccion.execute(status ->
+                    registrarAvance(trabajo, posesion, ejecutarLote(trabajo, lote, admin, tecnico)));
+        } catch (TrabajoReasignadoException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            logger.error("Error en un lote del trabajo masivo {}: {}", trabajo.getId(), e.getMessage());
+            List<ResultadoItem> errores = new ArrayList<>();
+            for (Long ticketId : lote) {
+                errores.add(new ResultadoItem(ticketId, ResultadoMasivoDto.ERROR, e.getMessage()));
+            }
+            avance = transaccion.execute(status -> registrarAvance(trabajo, posesion, errores));
+        }
+        avance.aplicar(trabajo);
+    }
+
+    private List<ResultadoItem> ejecutarLote(TrabajoMasivo trabajo, List<Long> lote, Usuario admin, Usuario tecnico) {
+        switch (trabajo.getTipo()) {
+            case ASIGNACION:
+                return operacionesMasivasService.asignarLote(lote, tecnico, admin);
+            case CAMBIO_ESTADO:
+                return operacionesMasivasService.cambiarEstadoLote(lote, trabajo.getNuevoEstado(), admin);
+            default:
+                throw new IllegalStateException("Tipo de trabajo no soportado: " + trabajo.getTipo());
+        }
+    }
+
+    private Avance registrarAvance(TrabajoMasivo trabajo, Posesion posesion, List<ResultadoItem> resultados) {
+        Avance avance = new Avance(trabajo);
+        List<FalloTrabajoMasivo> fallos = new ArrayList<>();
+        for (ResultadoItem item : resultados) {
+            if (ResultadoMasivoDto.ACTUALIZADO.equals(item.getResultado())) {
+                avance.actualizados++;
+            } else if (ResultadoMasivoDto.SIN_CAMBIOS.equals(item.getResultado())) {
+                avance.sinCambios++;
+            } else {
+                avance.fallidos++;
+                fallos.add(new FalloTrabajoMasivo(null, trabajo.getId(), item.getTicketId(), item.getResultado(),
+                        recortar(item.getMensaje(), LARGO_MAXIMO_MENSAJE)));
+            }
+        }
+        avance.procesados += resultados.size();
+        avance.lotesCompletados++;
+
+        if (trabajoRepository.registrarAvance(trabajo.getId(), posesion.token, EstadoTrabajoMasivo.EN_PROCESO,
+                avance.procesados, avance.actualizados, avance.sinCambios, avance.fallidos,
+                avance.lotesCompletados, trabajo.getTotalLotes(), trabajo.getFechaInicio()) == 0) {
+            // Revierte el lote: el trabajo ya es de otro worker
+            throw new TrabajoReasignadoException(trabajo.getId());
+        }
+        falloRepository.saveAll(fallos);
+        return avance;
+    }
+
+    private void renovar(Posesion posesion) {
+        if (!posesion.vigente) {
+            return;
+        }
+        try {
+            if (trabajoRepository.renovar(posesion.trabajoId, posesion.token, EstadoTrabajoMasivo.EN_PROCESO) == 0) {
+                posesion.vigente = false;
+                logger.warn("El trabajo masivo {} ya no pertenece a este worker (token {})",
+                        posesion.trabajoId, posesion.token);
+            }
+        } catch (RuntimeException e) {
+            // El punto de control del lote sigue condicionado al token
+            logger.warn("No se pudo renovar el trabajo masivo {}: {}", posesion.trabajoId, e.getMessage());
+        }
+    }
+
+    private void terminar(Posesion posesion, EstadoTrabajoMasivo estado, int intentos, String error) {
+        LocalDateTime fechaFin = estado == EstadoTrabajoMasivo.PENDIENTE ? null : LocalDateTime.now();
+        try {
+            if (trabajoRepository.terminar(posesion.trabajoId, posesion.token, EstadoTrabajoMasivo.EN_PROCESO,
+                    estado, intentos, recortar(error, LARGO_MAXIMO_ERROR), fechaFin) == 0) {
+                logger.warn("Trabajo masivo {} no marcado {}: pasó a otro worker", posesion.trabajoId, estado);
+            }
+        } catch (RuntimeException e) {
+            // Sin heartbeat, el barrido lo devuelve a PENDIENTE
+            logger.error("No se pudo cerrar el trabajo masivo {}: {}", posesion.trabajoId, e.getMessage());
+        }
+    }
+
+    private TrabajoMasivoDto convertirADto(TrabajoMasivo trabajo) {
+        TrabajoMasivoDto dto = new TrabajoMasivoDto();
+        dto.setId(trabajo.getId());
+        dto.setTipo(trabajo.getTipo().name());
+        dto.setEstado(trabajo.getEstado().name());
+        dto.setTotal(trabajo.getTotal());
+        dto.setProcesados(trabajo.getProcesados());
+        dto.setActualizados(trabajo.getActualizados());
+        dto.setSinCambios(trabajo.getSinCambios());
+        dto.setFallidos(trabajo.getFallidos());
+        dto.setLotesCompletados(trabajo.getLotesCompletados());
+        dto.setTotalLotes(trabajo.getTotalLotes());
+        dto.setPorcentaje(trabajo.getTotal() > 0 ? trabajo.getProcesados() * 100.0 / trabajo.getTotal() : 100.0);
+        dto.setIntentos(trabajo.getIntentos());
+        dto.setError(trabajo.getError());
+        dto.setFechaCreacion(trabajo.getFechaCreacion());
+        dto.setFechaInicio(trabajo.getFechaInicio());
+        dto.setFechaFin(trabajo.getFechaFin());
+
+        if (trabajo.getFechaInicio() != null) {
+            LocalDateTime hasta = trabajo.getFechaFin() != null ? trabajo.getFechaFin() : LocalDateTime.now();
+            long milis = Duration.between(trabajo.getFechaInicio(), hasta).toMillis();
+            dto.setTicketsPorSegundo(milis > 0 ? trabajo.getProcesados() * 1000.0 / milis : null);
+        }
+
+        if (trabajo.getFallidos() > 0) {
+            for (FalloTrabajoMasivo fallo : falloRepository.findByTrabajoIdOrderByIdAsc(
+                    trabajo.getId(), PageRequest.of(0, maxFallosInformados))) {
+                dto.getFallos().add(new ResultadoItem(fallo.getTicketId(), fallo.getResultado(), fallo.getMensaje()));
+            }
+        }
+        return dto;
+    }
+
+    private static List<Long> leerIds(String ticketIds) {
+        if (ticketIds == null || ticketIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(ticketIds.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private static String recortar(String texto, int largo) {
+        if (texto == null || texto.length() <= largo) {
+            return texto;
+        }
+        return texto.substring(0, largo);
+    }
+
+    /**
+     * Token con el que este worker tomó el trabajo
+     */
+    private static final class Posesion {
+        private final Long trabajoId;
+        private final long token;
+        private volatile boolean vigente = true;
+
+        private Posesion(Long trabajoId, long token) {
+            this.trabajoId = trabajoId;
+            this.token = token;
+        }
+    }
+
+    /**
+     * Contadores del trabajo tras un lote, antes de confirmarlo
+     */
+    private static final class Avance {
+        private int procesados;
+        private int actualizados;
+        private int sinCambios;
+        private int fallidos;
+        private int lotesCompletados;
+
+        private Avance(TrabajoMasivo trabajo) {
+            this.procesados = trabajo.getProcesados();
+            this.actualizados = trabajo.getActualizados();
+            this.sinCambios = trabajo.getSinCambios();
+            this.fallidos = trabajo.getFallidos();
+            this.lotesCompletados = trabajo.getLotesCompletados();
+        }
+
+        private void aplicar(TrabajoMasivo trabajo) {
+            trabajo.setProcesados(procesados);
+            trabajo.setActualizados(actualizados);
+            trabajo.setSinCambios(sinCambios);
+            trabajo.setFallidos(fallidos);
+            trabajo.setLotesCompletados(lotesCompletados);
+        }
+    }
+
+    private static final class TrabajoReasignadoException extends RuntimeException {
+        private TrabajoReasignadoException(Long trabajoId) {
+            super("El trabajo masivo " + trabajoId + " pasó a otro worker");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.InvalidacionCache;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Medio por el que las instancias se envían invalidaciones de caché.
+ * La implementación por defecto es la tabla invalidaciones_cache; otra implementación
+ * (por ejemplo un broker de mensajes) puede reemplazarla declarándose como @Primary.
+ */
+public interface TransporteInvalidacionesCache {
+
+    void publicar(InvalidacionCache invalidacion);
+
+    /**
+     * Invalidaciones con id mayor a desdeId, en orden de id
+     */
+    List<InvalidacionCache> leerDesde(long desdeId, int limite);
+
+    /**
+     * Invalidaciones con los ids indicados (huecos que aún no estaban confirmados)
+     */
+    List<InvalidacionCache> leerIds(Collection<Long> ids);
+
+    /**
+     * Id más alto publicado hasta ahora; una instancia nueva empieza desde aquí
+     */
+    long marcaActual();
+
+    int borrarAnteriores(LocalDateTime limite);
+}
@@ -3,6 +3,7 @@ package com.tickets.backend.service.impl;
 import com.tickets.backend.exceptions.ResourceNotFoundException;
 import com.tickets.backend.models.Permiso;
 import com.tickets.backend.repository.PermisoRepository;
+import com.tickets.backend.service.CacheDatosReferenciaService;
 import com.tickets.backend.service.PermisoService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -16,6 +17,9 @@ public class PermisoServiceImpl implements PermisoService {
     @Autowired
     private PermisoRepository permisoRepository;
 
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
+
     @Override
     public List<Permiso> obtenerTodosPermisos() {
         return permisoRepository.findAll();
@@ -35,6 +39,7 @@ public class PermisoServiceImpl implements PermisoService {
     @Override
     @Transactional
     public Permiso crearPermiso(Permiso permiso) {
+        cacheDatosReferencia.desalojarAlConfirmar(Permiso.class);
         // Verificar si ya existe un permiso con ese nombre
         if(permisoRepository.findByNombre(permiso.getNombre()).isPresent()) {
             throw new IllegalArgumentException("Ya existe un permiso con el nombre: " + permiso.getNombre());
@@ -45,6 +50,7 @@ public class PermisoServiceImpl implements PermisoService {
     @Override
     @Transactional
     public Permiso actualizarPermiso(Long id, Permiso permisoRequest) {
+        cacheDatosReferencia.desalojarAlConfirmar(Permiso.class);
         Permiso permiso = obtenerPermisoPorId(id);
         
         // Verificar si el nombre existe pero pertenece a otro permiso
@@ -64,6 +70,7 @@ public class PermisoServiceImpl implements PermisoService {
     @Override
     @Transactional
     public void eliminarPermiso(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Permiso.class);
         if(!permisoRepository.existsById(id)) {
             throw new ResourceNotFoundException("Permiso no encontrado con ID: " + id);
         }
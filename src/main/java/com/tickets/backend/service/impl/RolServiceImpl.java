@@ -5,6 +5,8 @@ import com.tickets.backend.models.Permiso;
 import com.tickets.backend.models.Rol;
 import com.tickets.backend.repository.PermisoRepository;
 import com.tickets.backend.repository.RolRepository;
+import com.tickets.backend.security.VersionSeguridadRegistry;
+import com.tickets.backend.service.CacheDatosReferenciaService;
 import com.tickets.backend.service.RolService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -20,10 +22,12 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional
     public Rol agregarPermisoARol(Long rolId, Long permisoId) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         Rol rol = obtenerRolPorId(rolId);
         Permiso permiso = permisoRepository.findById(permisoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Permiso no encontrado con ID: " + permisoId));
         rol.getPermisos().add(permiso);
+        versionSeguridadRegistry.incrementarVersionPorRol(rolId);
         return rolRepository.save(rol);
     }
 
@@ -36,10 +40,12 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional
     public Rol eliminarPermisoDeRol(Long rolId, Long permisoId) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         Rol rol = obtenerRolPorId(rolId);
         Permiso permiso = permisoRepository.findById(permisoId)
                 .orElseThrow(() -> new ResourceNotFoundException("Permiso no encontrado con ID: " + permisoId));
         rol.getPermisos().remove(permiso);
+        versionSeguridadRegistry.incrementarVersionPorRol(rolId);
         return rolRepository.save(rol);
     }
 
@@ -52,9 +58,16 @@ public class RolServiceImpl implements RolService {
 
     @Autowired
     private RolRepository rolRepository;
+
+    @Autowired
+    private CacheDatosReferenciaService cacheDatosReferencia;
     
     @Autowired
     private PermisoRepository permisoRepository;
+    
+    // Cambiar un rol invalida los JWT de sus usuarios (llevan los permisos como claims)
+    @Autowired
+    private VersionSeguridadRegistry versionSeguridadRegistry;
 
     @Override
     public List<Rol> obtenerTodosRoles() {
@@ -70,6 +83,7 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional
     public Rol crearRol(Rol rol) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         // Verificar si ya existe un rol con ese nombre
         if(rolRepository.findByNombre(rol.getNombre()).isPresent()) {
             throw new IllegalArgumentException("Ya existe un rol con el nombre: " + rol.getNombre());
@@ -80,6 +94,7 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional
     public Rol actualizarRol(Long id, Rol rolRequest) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         Rol rol = obtenerRolPorId(id);
         
         // Verificar si el nombre existe pero pertenece a otro rol
@@ -90,6 +105,7 @@ public class RolServiceImpl implements RolService {
         
         rol.setNombre(rolRequest.getNombre());
         rol.setDescripcion(rolRequest.getDescripcion());
+        versionSeguridadRegistry.incrementarVersionPorRol(id);
         
         return rolRepository.save(rol);
     }
@@ -97,15 +113,18 @@ public class RolServiceImpl implements RolService {
     @Override
     @Transactional
     public void eliminarRol(Long id) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         if(!rolRepository.existsById(id)) {
             throw new ResourceNotFoundException("Rol no encontrado con ID: " + id);
         }
+        versionSeguridadRegistry.incrementarVersionPorRol(id);
         rolRepository.deleteById(id);
     }
 
     @Override
     @Transactional
     public Rol asignarPermisosARol(Long rolId, Set<Long> permisosIds) {
+        cacheDatosReferencia.desalojarAlConfirmar(Rol.class);
         Rol rol = obtenerRolPorId(rolId);
         
         Set<Permiso> permisos = new HashSet<>();
@@ -116,6 +135,7 @@ public class RolServiceImpl implements RolService {
         }
         
         rol.setPermisos(permisos);
+        versionSeguridadRegistry.incrementarVersionPorRol(rolId);
         return rolRepository.save(rol);
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.tickets.backend.service.impl;
+
+import com.tickets.backend.models.InvalidacionCache;
+import com.tickets.backend.repository.InvalidacionCacheRepository;
+import com.tickets.backend.service.TransporteInvalidacionesCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Transporte por base de datos: una fila por invalidación en invalidaciones_cache.
+ * El bus publica después de confirmar el cambio, en una transacción propia.
+ */
+@Component
+public class TransporteInvalidacionesCacheBd implements TransporteInvalidacionesCache {
+
+    @Autowired
+    private InvalidacionCacheRepository invalidacionRepository;
+
+    @Override
+    public void publicar(InvalidacionCache invalidacion) {
+        invalidacionRepository.save(invalidacion);
+    }
+
+    @Override
+    public List<InvalidacionCache> leerDesde(long desdeId, int limite) {
+        return invalidacionRepository.findByIdGreaterThanOrderByIdAsc(desdeId, PageRequest.of(0, limite));
+    }
+
+    @Override
+    public List<InvalidacionCache> leerIds(Collection<Long> ids) {
+        return invalidacionRepository.findByIdIn(ids);
+    }
+
+    @Override
+    public long marcaActual() {
+        return invalidacionRepository.findMaxId();
+    }
+
+    @Override
+    public int borrarAnteriores(LocalDateTime limite) {
+        return invalidacionRepository.borrarAnteriores(limite);
+    }
+}
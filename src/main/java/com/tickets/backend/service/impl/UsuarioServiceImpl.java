@@ -13,6 +13,7 @@ import com.tickets.backend.repository.EmpresaRepository;
 import com.tickets.backend.repository.RolRepository;
 import com.tickets.backend.repository.SucursalRepository;
 import com.tickets.backend.repository.UsuarioRepository;
+import com.tickets.backend.security.VersionSeguridadRegistry;
 import com.tickets.backend.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
@@ -48,6 +49,9 @@ public class UsuarioServiceImpl implements UsuarioService {
     
     @Autowired
     private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private VersionSeguridadRegistry versionSeguridadRegistry;
 
     // OPTIMIZADO: Usar consulta optimizada con fetch joins
     @Override
@@ -57,13 +61,13 @@ public class UsuarioServiceImpl implements UsuarioService {
 
     // OPTIMIZADO: Usar consultas optimizadas
     @Override
-    @Cacheable(value = "usuariosActivos", unless = "#result.size() > 100")
+    @Cacheable(value = "usuariosActivos", sync = true)
     public List<Usuario> obtenerUsuariosActivos() {
         return usuarioRepository.findByRolesNombreAndActivoTrueOptimized("ROLE_USER"); // Usar método optimizado
     }
 
     @Override
-    @Cacheable(value = "usuariosInactivos", unless = "#result.size() > 100")
+    @Cacheable(value = "usuariosInactivos", sync = true)
     public List<Usuario> obtenerUsuariosInactivos() {
         return usuarioRepository.findByActivoFalse();
     }
@@ -116,12 +120,17 @@ public class UsuarioServiceImpl implements UsuarioService {
             throw new IllegalArgumentException("Ya existe un usuario con el email: " + usuarioDto.getEmail());
         }
         
+        String emailAnterior = usuario.getEmail();
+        boolean activoAnterior = usuario.isActivo();
+        Set<Long> rolesAnteriores = idsRoles(usuario);
+        
         usuario.setNombre(usuarioDto.getNombre());
         usuario.setApellido(usuarioDto.getApellido());
         usuario.setEmail(usuarioDto.getEmail());
         
         // Actualizar contraseña solo si se proporciona
-        if(usuarioDto.getPassword() != null && !usuarioDto.getPassword().isEmpty()) {
+        boolean cambioPassword = usuarioDto.getPassword() != null && !usuarioDto.getPassword().isEmpty();
+        if(cambioPassword) {
             usuario.setPassword(passwordEncoder.encode(usuarioDto.getPassword()));
         }
         
@@ -131,9 +140,23 @@ public class UsuarioServiceImpl implements UsuarioService {
         // OPTIMIZADO: Usar método helper para entidades relacionadas
         setRelatedEntities(usuario, usuarioDto);
         
+        // Solo un cambio de roles, estado, contraseña o email (el sujeto del token) invalida los JWT ya emitidos
+        if(cambioPassword || activoAnterior != usuario.isActivo() || !emailAnterior.equals(usuario.getEmail())
+                || !rolesAnteriores.equals(idsRoles(usuario))) {
+            versionSeguridadRegistry.incrementarVersion(emailAnterior);
+        }
+        
         return usuarioRepository.save(usuario);
     }
 
+    private static Set<Long> idsRoles(Usuario usuario) {
+        Set<Long> ids = new HashSet<>();
+        if(usuario.getRoles() != null) {
+            usuario.getRoles().forEach(rol -> ids.add(rol.getId()));
+        }
+        return ids;
+    }
+
     // NUEVO: Método helper para optimizar la asignación de entidades relacionadas
     private void setRelatedEntities(Usuario usuario, UsuarioDto usuarioDto) {
         // Asignar empresa si se proporciona ID
@@ -180,16 +203,17 @@ public class UsuarioServiceImpl implements UsuarioService {
         Usuario usuario = obtenerUsuarioPorId(id);
         usuario.setActivo(false);
         usuarioRepository.save(usuario);
+        versionSeguridadRegistry.incrementarVersion(usuario.getEmail());
     }
 
     @Override
     @Transactional
     @CacheEvict(value = {"usuariosActivos", "usuariosInactivos"}, allEntries = true)
     public void eliminarUsuario(Long id) {
-        if(!usuarioRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + id);
-        }
+        Usuario usuario = usuarioRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         usuarioRepository.deleteById(id);
+        versionSeguridadRegistry.incrementarVersion(usuario.getEmail());
     }
     
     @Override
@@ -202,7 +226,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     
     // OPTIMIZADO: Usar consulta optimizada
     @Override
-    @Cacheable(value = "tecnicosActivos")
+    @Cacheable(value = "tecnicosActivos", sync = true)
     public List<Usuario> obtenerTecnicosActivos() {
         return usuarioRepository.findByRolesNombreAndActivoTrueOptimized("ROLE_TECNICO");
     }
@@ -214,13 +238,13 @@ public class UsuarioServiceImpl implements UsuarioService {
     
     // OPTIMIZADO: Usar consulta optimizada
     @Override
-    @Cacheable(value = "tecnicosPorCategoria", key = "#categoriaId")
+    @Cacheable(value = "tecnicosPorCategoria", key = "#categoriaId", sync = true)
     public List<Usuario> obtenerTecnicosPorCategoria(Long categoriaId) {
         return usuarioRepository.findByRolesNombreAndCategoriaIdAndActivoTrueOptimized("ROLE_TECNICO", categoriaId);
     }
     
     @Override
-    @Cacheable(value = "supervisoresPorCategoria", key = "#categoriaId")
+    @Cacheable(value = "supervisoresPorCategoria", key = "#categoriaId", sync = true)
     public List<Usuario> obtenerSupervisoresPorCategoria(Long categoriaId) {
         return usuarioRepository.findByRolesNombreAndCategoriaIdAndActivoTrueOptimized("ROLE_SUPERVISOR", categoriaId);
     }
@@ -238,7 +262,9 @@ public class UsuarioServiceImpl implements UsuarioService {
         }
         
         usuario.setRoles(new HashSet<>(rolesList));
-        return usuarioRepository.save(usuario);
+        Usuario actualizado = usuarioRepository.save(usuario);
+        versionSeguridadRegistry.incrementarVersion(usuario.getEmail());
+        return actualizado;
     }
 
     // OPTIMIZADO: Método principal con consultas optimizadas
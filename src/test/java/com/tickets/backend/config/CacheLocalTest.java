@@ -0,0 +1,92 @@
+package com.tickets.backend.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Refresco anticipado: corre fuera del hilo lector, espera tras un fallo y no pisa un desalojo
+ */
+class CacheLocalTest {
+
+    // Refresco inmediato: toda lectura encuentra la entrada vencida, incluso la que la carga
+    private static final long REFRESCO_NANOS = 1;
+    private static final long REINTENTO_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final List<Runnable> pendientes = new ArrayList<>();
+    private final AtomicInteger version = new AtomicInteger();
+    private CacheLocal cache;
+
+    @BeforeEach
+    void preparar() {
+        cache = new CacheLocal("prueba", Caffeine.newBuilder().<Object, CacheLocal.Entrada>build(),
+                REFRESCO_NANOS, REINTENTO_NANOS, pendientes::add, mock(BusInvalidacionesCache.class));
+    }
+
+    @Test
+    void elRefrescoNoCorreEnElHiloLector() {
+        // La lectura vencida devuelve el valor vigente y solo programa el recálculo
+        assertThat(leer()).isEqualTo("v1");
+        assertThat(pendientes).hasSize(1);
+        assertThat(version).hasValue(1);
+        // Mientras corre, ninguna otra lectura programa otro
+        assertThat(leer()).isEqualTo("v1");
+        assertThat(pendientes).hasSize(1);
+
+        ejecutarPendientes();
+        assertThat(cache.get("clave").get()).isEqualTo("v2");
+        assertThat(cache.getRefrescos()).isEqualTo(1);
+    }
+
+    @Test
+    void unDesalojoDuranteElRefrescoNoSePisa() {
+        leer();
+        assertThat(pendientes).hasSize(1);
+
+        cache.evict("clave");
+        ejecutarPendientes();
+
+        assertThat(cache.get("clave")).isNull();
+        assertThat(cache.getRefrescos()).isZero();
+    }
+
+    @Test
+    void unRefrescoFallidoEsperaAntesDeReintentar() throws InterruptedException {
+        leer();
+        ejecutarPendientes();
+        String vigente = cache.get("clave", () -> {
+            throw new IllegalStateException("sin conexión");
+        });
+        assertThat(vigente).isEqualTo("v2");
+        assertThat(pendientes).hasSize(1);
+        ejecutarPendientes();
+        assertThat(cache.get("clave").get()).isEqualTo("v2");
+
+        // Dentro del intervalo de reintento no se programa otro
+        leer();
+        assertThat(pendientes).isEmpty();
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(REINTENTO_NANOS) + 50);
+        leer();
+        assertThat(pendientes).hasSize(1);
+    }
+
+    private String leer() {
+        return cache.get("clave", () -> "v" + version.incrementAndGet());
+    }
+
+    private void ejecutarPendientes() {
+        List<Runnable> tareas = new ArrayList<>(pendientes);
+        pendientes.clear();
+        tareas.forEach(Runnable::run);
+    }
+}
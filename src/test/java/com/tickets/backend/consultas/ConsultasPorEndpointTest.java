@@ -0,0 +1,123 @@
+package com.tickets.backend.consultas;
+
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.CategoriaRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import com.tickets.backend.service.OperacionesMasivasService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Sentencias SQL por endpoint y por caso de uso con las relaciones LAZY y los grafos de
+ * Ticket. Si un cambio agrega consultas (una relación que vuelve a ser EAGER, un N+1),
+ * estas cifras lo delatan.
+ */
+@WithMockUser(username = PruebaConsultas.CREADOR, roles = "ADMIN")
+class ConsultasPorEndpointTest extends PruebaConsultas {
+
+    @Autowired
+    private OperacionesMasivasService operacionesMasivasService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void detalleDelTicket() throws Exception {
+        // Grafo Ticket.detalle: ticket, categoría, subcategoría, creador, técnico y SLA en un JOIN
+        assertThat(sentencias(get("/api/tickets/" + ticketId))).isEqualTo(1);
+    }
+
+    @Test
+    void comentariosEHistorial() throws Exception {
+        // Filas con su autor, más los roles y permisos de los autores en lote
+        assertThat(sentencias(get("/api/tickets/" + ticketId + "/comentarios"))).isEqualTo(3);
+        assertThat(sentencias(get("/api/tickets/" + ticketId + "/historial"))).isEqualTo(3);
+    }
+
+    @Test
+    void panelesDeEstadisticas() throws Exception {
+        assertThat(sentencias(get("/api/tickets/estadisticas"))).isEqualTo(1);
+        assertThat(sentencias(get("/api/tickets/datos-categoria"))).isEqualTo(1);
+        assertThat(sentencias(get("/api/tickets/datos-mensuales"))).isEqualTo(1);
+        assertThat(sentencias(get("/api/tickets/administracion/estadisticas"))).isEqualTo(2);
+    }
+
+    @Test
+    void renderizadoDeNotificacion() {
+        // Grafo Ticket.notificacion: lo que leen las plantillas de correo, en una consulta
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        ContadorSentencias.reiniciar();
+        transaccion.executeWithoutResult(status -> {
+            Ticket ticket = ticketRepository.findParaNotificacionById(ticketId).orElseThrow();
+            assertThat(ticket.getCategoria().getNombre()).isNotNull();
+            assertThat(ticket.getUsuarioCreador().getEmail()).isEqualTo(CREADOR);
+        });
+        assertThat(ContadorSentencias.cantidad()).isEqualTo(1);
+    }
+
+    @Test
+    void procesamientoMasivoNoCreceConElLote() {
+        List<Long> ids = ticketRepository.findAll(Sort.by("id")).stream().map(Ticket::getId).toList();
+        Usuario admin = usuarioRepository.findByEmail(ADMIN).orElseThrow();
+
+        // Estado previo del lote y un UPDATE; tras el commit, la lectura de las filas del resumen
+        // diario y un GROUP BY. El historial y las escrituras del resumen van por lotes JDBC
+        assertThat(sentenciasCambioEstado(ids.subList(0, 2), admin)).isEqualTo(4);
+        assertThat(sentenciasCambioEstado(ids.subList(2, 8), admin)).isEqualTo(4);
+    }
+
+    @Test
+    void laCacheDeSegundoNivelRegistraSusAciertos() {
+        // Las estadísticas de Hibernate están activas por defecto: sin ellas la métrica queda en 0
+        Long categoriaId = categoriaRepository.findAll().get(0).getId();
+        double antes = aciertosCacheSegundoNivel();
+
+        ContadorSentencias.reiniciar();
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> categoriaRepository.findById(categoriaId).orElseThrow());
+
+        assertThat(ContadorSentencias.cantidad()).isZero();
+        assertThat(aciertosCacheSegundoNivel()).isGreaterThan(antes);
+    }
+
+    private double aciertosCacheSegundoNivel() {
+        return meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit")
+                .functionCounters().stream().mapToDouble(FunctionCounter::count).sum();
+    }
+
+    private int sentenciasCambioEstado(List<Long> lote, Usuario admin) {
+        ContadorSentencias.reiniciar();
+        operacionesMasivasService.cambiarEstadoLote(lote, EstadoTicket.EN_ESPERA, admin);
+        int cantidad = ContadorSentencias.cantidad();
+        // Se devuelven al estado original para no alterar las demás pruebas
+        for (Long id : lote) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Ticket ticket = ticketRepository.findById(id).orElseThrow();
+                ticket.setEstado(ticket.getTecnicoAsignado() == null ? EstadoTicket.NUEVO : EstadoTicket.ASIGNADO);
+            });
+        }
+        return cantidad;
+    }
+}
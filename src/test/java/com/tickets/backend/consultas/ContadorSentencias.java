@@ -0,0 +1,36 @@
+package com.tickets.backend.consultas;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra las sentencias SQL que Hibernate prepara en el hilo actual.
+ *
+ * A diferencia de las Statistics de Hibernate (globales a la SessionFactory), no suma las
+ * consultas de las tareas programadas que corren en paralelo, así los conteos son estables.
+ * MockMvc atiende la solicitud en el hilo de la prueba.
+ */
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> SENTENCIAS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        SENTENCIAS.get().add(sql);
+        return sql;
+    }
+
+    public static void reiniciar() {
+        SENTENCIAS.get().clear();
+    }
+
+    public static int cantidad() {
+        return SENTENCIAS.get().size();
+    }
+
+    public static List<String> registradas() {
+        return List.copyOf(SENTENCIAS.get());
+    }
+}
@@ -0,0 +1,56 @@
+package com.tickets.backend.consultas;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Los listados proyectan directo a TicketResponseDto: una consulta por página más el conteo,
+ * sin importar cuántas filas tenga la página
+ */
+class ListadosTicketsConsultasTest extends PruebaConsultas {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/api/tickets/mis-tickets",
+        "/api/tickets/sin-asignar",
+        "/api/tickets/estado/NUEVO",
+        "/api/tickets/buscar?keyword=red",
+        "/api/tickets/administracion/todos",
+        "/api/tickets/administracion/todos?estado=NUEVO&busqueda=red"
+    })
+    @WithMockUser(username = CREADOR, roles = "ADMIN")
+    void paginaYConteoEnDosConsultas(String url) throws Exception {
+        // Páginas llenas de 2 y de 4 filas: el conteo no se puede deducir en ninguna
+        assertThat(sentencias(get(url + separador(url) + "size=2"))).isEqualTo(2);
+        assertThat(sentencias(get(url + separador(url) + "size=4"))).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = TECNICO)
+    void misAsignacionesEnDosConsultas() throws Exception {
+        assertThat(sentencias(get("/api/tickets/mis-asignaciones?size=2"))).isEqualTo(2);
+        assertThat(sentencias(get("/api/tickets/mis-asignaciones?size=4"))).isEqualTo(2);
+    }
+
+    @Test
+    @WithMockUser(username = CREADOR)
+    void ultimaPaginaSinConteo() throws Exception {
+        // La página no llena permite deducir el total: solo la consulta de la página
+        assertThat(sentencias(get("/api/tickets/mis-tickets?size=" + (TICKETS + 1)))).isEqualTo(1);
+    }
+
+    @Test
+    @WithMockUser(username = CREADOR)
+    void recientes() throws Exception {
+        assertThat(sentencias(get("/api/tickets/recientes"))).isEqualTo(2);
+    }
+
+    private static String separador(String url) {
+        return url.contains("?") ? "&" : "?";
+    }
+}
@@ -0,0 +1,88 @@
+package com.tickets.backend.consultas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * El modo cursor recorre todo el listado con la misma cantidad de sentencias en cada página,
+ * sin importar la profundidad, y sin conteo salvo que se pida
+ */
+class PaginacionCursorConsultasTest extends PruebaConsultas {
+
+    private static final int TAMANO = 3;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @WithMockUser(username = CREADOR, roles = "ADMIN")
+    void administracionRecorreTodasLasPaginasConCostoConstante() throws Exception {
+        List<Long> ids = recorrer("/api/tickets/administracion/todos/cursor");
+
+        // Mismo orden que el listado por offset
+        JsonNode offset = json(ejecutar(get("/api/tickets/administracion/todos?size=" + TICKETS
+                + "&sort=fechaCreacion,desc&sort=id,desc")).getResponse().getContentAsString());
+        List<Long> idsOffset = new ArrayList<>();
+        offset.get("content").forEach(fila -> idsOffset.add(fila.get("id").asLong()));
+        assertThat(ids).hasSize(TICKETS).containsExactlyElementsOf(idsOffset);
+    }
+
+    @Test
+    @WithMockUser(username = CREADOR)
+    void misTicketsRecorreTodasLasPaginasConCostoConstante() throws Exception {
+        assertThat(recorrer("/api/tickets/mis-tickets/cursor")).hasSize(TICKETS);
+    }
+
+    @Test
+    @WithMockUser(username = TECNICO)
+    void misAsignacionesRecorreTodasLasPaginasConCostoConstante() throws Exception {
+        assertThat(recorrer("/api/tickets/mis-asignaciones/cursor")).hasSize(TICKETS / 2);
+    }
+
+    @Test
+    @WithMockUser(username = CREADOR, roles = "ADMIN")
+    void elTotalSoloSeCalculaSiSePide() throws Exception {
+        String url = "/api/tickets/administracion/todos/cursor?size=" + TAMANO;
+        JsonNode sinTotal = json(ejecutar(get(url)).getResponse().getContentAsString());
+        int sinConteo = ContadorSentencias.cantidad();
+        JsonNode conTotal = json(ejecutar(get(url + "&incluirTotal=true")).getResponse().getContentAsString());
+
+        assertThat(sinTotal.get("total").isNull()).isTrue();
+        assertThat(conTotal.get("total").asLong()).isEqualTo(TICKETS);
+        assertThat(ContadorSentencias.cantidad()).isEqualTo(sinConteo + 1);
+    }
+
+    /**
+     * Sigue el cursor hasta el final; cada página es una sola consulta (size + 1 filas, sin conteo)
+     * y solo las siguientes a la primera filtran por (fecha, id)
+     */
+    private List<Long> recorrer(String url) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            String pagina = url + "?size=" + TAMANO + (cursor != null ? "&cursor=" + cursor : "");
+            JsonNode respuesta = json(ejecutar(get(pagina)).getResponse().getContentAsString());
+            assertThat(ContadorSentencias.cantidad()).as(pagina).isEqualTo(1);
+            // La primera página no lleva condición de cursor; ninguna el comodín "IS NULL OR"
+            String sql = ContadorSentencias.registradas().get(0);
+            assertThat(sql).as(pagina).doesNotContain(" is null");
+            assertThat(sql.contains("fecha_creacion<")).as(pagina).isEqualTo(cursor != null);
+            respuesta.get("contenido").forEach(fila -> ids.add(fila.get("id").asLong()));
+            cursor = respuesta.get("hayMas").asBoolean() ? respuesta.get("siguienteCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+
+    private JsonNode json(String contenido) throws Exception {
+        return objectMapper.readTree(contenido);
+    }
+}
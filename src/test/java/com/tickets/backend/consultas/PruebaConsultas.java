@@ -0,0 +1,182 @@
+package com.tickets.backend.consultas;
+
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.Comentario;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.HistorialCambio;
+import com.tickets.backend.models.Permiso;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Rol;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.CategoriaRepository;
+import com.tickets.backend.repository.ComentarioRepository;
+import com.tickets.backend.repository.HistorialCambioRepository;
+import com.tickets.backend.repository.PermisoRepository;
+import com.tickets.backend.repository.RolRepository;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Base de las pruebas que fijan la cantidad de sentencias SQL por endpoint.
+ *
+ * Siembra una vez un conjunto chico de datos (12 tickets de un usuario, la mitad asignados a
+ * un técnico, con comentarios e historial) y mide cada solicitud con las cachés vacías, así el
+ * conteo es el de una primera lectura.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:consultas;MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.tickets.backend.consultas.ContadorSentencias",
+    // Sin coalescencia ni índice de búsqueda: cada solicitud hace su propio trabajo en base de datos
+    "app.coalescencia.ttl-ms=0",
+    "app.busqueda.retraso-inicial-ms=3600000"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+abstract class PruebaConsultas {
+
+    static final String ADMIN = "admin@consultas.cl";
+    static final String CREADOR = "creador@consultas.cl";
+    static final String TECNICO = "tecnico@consultas.cl";
+    static final int TICKETS = 12;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TicketRepository ticketRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private RolRepository rolRepository;
+
+    @Autowired
+    private PermisoRepository permisoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ComentarioRepository comentarioRepository;
+
+    @Autowired
+    private HistorialCambioRepository historialCambioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    Long ticketId;
+
+    @BeforeEach
+    void sembrar() {
+        ticketId = new TransactionTemplate(transactionManager).execute(status -> {
+            if (usuarioRepository.findByEmail(CREADOR).isPresent()) {
+                return ticketRepository.findAll(Sort.by("id")).get(0).getId();
+            }
+            Permiso permiso = new Permiso();
+            permiso.setNombre("VER_TICKETS");
+            permiso = permisoRepository.save(permiso);
+            Rol rol = new Rol();
+            rol.setNombre("USUARIO_CONSULTAS");
+            rol.setPermisos(Set.of(permiso));
+            rol = rolRepository.save(rol);
+
+            usuario(ADMIN, rol);
+            Usuario creador = usuario(CREADOR, rol);
+            Usuario tecnico = usuario(TECNICO, rol);
+            Categoria categoria = new Categoria();
+            categoria.setNombre("Consultas");
+            categoria = categoriaRepository.save(categoria);
+
+            Ticket primero = null;
+            for (int i = 0; i < TICKETS; i++) {
+                Ticket ticket = new Ticket();
+                ticket.setNumeroTicket(String.format("TK-C%05d", i));
+                ticket.setTitulo("Equipo sin red " + i);
+                ticket.setDescripcion("Detalle " + i);
+                ticket.setEstado(i % 2 == 0 ? EstadoTicket.NUEVO : EstadoTicket.ASIGNADO);
+                ticket.setPrioridad(PrioridadTicket.values()[i % PrioridadTicket.values().length]);
+                ticket.setCategoria(categoria);
+                ticket.setUsuarioCreador(creador);
+                ticket.setTecnicoAsignado(i % 2 == 0 ? null : tecnico);
+                ticket.setFechaCreacion(LocalDateTime.now().minusHours(i));
+                ticket = ticketRepository.save(ticket);
+                if (primero == null) {
+                    primero = ticket;
+                }
+            }
+            for (Usuario autor : new Usuario[] {creador, tecnico, creador}) {
+                Comentario comentario = new Comentario();
+                comentario.setTicket(primero);
+                comentario.setUsuario(autor);
+                comentario.setContenido("Comentario de " + autor.getEmail());
+                comentario.setFechaCreacion(LocalDateTime.now());
+                comentarioRepository.save(comentario);
+
+                HistorialCambio cambio = new HistorialCambio();
+                cambio.setTicket(primero);
+                cambio.setUsuario(autor);
+                cambio.setCampoModificado("estado");
+                cambio.setFechaCambio(LocalDateTime.now());
+                historialCambioRepository.save(cambio);
+            }
+            return primero.getId();
+        });
+    }
+
+    /**
+     * Sentencias SQL que ejecuta la solicitud, partiendo de cachés vacías
+     */
+    int sentencias(RequestBuilder solicitud) throws Exception {
+        ejecutar(solicitud);
+        return ContadorSentencias.cantidad();
+    }
+
+    /**
+     * Ejecuta la solicitud con cachés vacías; sus sentencias quedan en ContadorSentencias
+     */
+    MvcResult ejecutar(RequestBuilder solicitud) throws Exception {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        ContadorSentencias.reiniciar();
+        return mockMvc.perform(solicitud).andExpect(status().isOk()).andReturn();
+    }
+
+    private Usuario usuario(String email, Rol rol) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre");
+        usuario.setApellido("Apellido");
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setActivo(true);
+        usuario.setRoles(Set.of(rol));
+        return usuarioRepository.save(usuario);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tickets.backend.consultas;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tickets.backend.models.Rol;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Los listados paginados de usuarios traen primero la página de IDs y luego sus relaciones:
+ * la misma cantidad de sentencias para cualquier tamaño o profundidad de página, y la página
+ * trae exactamente las filas pedidas (sin paginar en memoria)
+ */
+@WithMockUser(username = PruebaConsultas.ADMIN, authorities = "LEER_USUARIOS")
+class UsuariosConsultasTest extends PruebaConsultas {
+
+    private static final int USUARIOS_EXTRA = 20;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private long totalUsuarios;
+    private Long rolId;
+
+    @BeforeEach
+    void sembrarUsuarios() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Rol rol = usuarioRepository.findByEmail(CREADOR).orElseThrow().getRoles().iterator().next();
+            rolId = rol.getId();
+            if (usuarioRepository.findByEmail("usuario0@consultas.cl").isPresent()) {
+                return;
+            }
+            for (int i = 0; i < USUARIOS_EXTRA; i++) {
+                Usuario usuario = new Usuario();
+                usuario.setNombre("Usuario" + i);
+                usuario.setApellido("Consultas");
+                usuario.setEmail("usuario" + i + "@consultas.cl");
+                usuario.setPassword("x");
+                usuario.setActivo(true);
+                usuario.setRoles(Set.of(rol));
+                usuarioRepository.save(usuario);
+            }
+        });
+        totalUsuarios = usuarioRepository.count();
+    }
+
+    @Test
+    void listadoConCostoConstante() throws Exception {
+        recorrer("/api/usuarios");
+    }
+
+    @Test
+    void busquedaPorRolConCostoConstante() throws Exception {
+        recorrer("/api/usuarios/search?activo=true&rolId=" + rolId + "&search=consultas");
+    }
+
+    /**
+     * Recorre el listado con páginas de 2 y de 8: cada página llena cuesta lo mismo (IDs, conteo,
+     * usuarios con sus relaciones y permisos de los roles), la última se ahorra el conteo, y entre
+     * todas cubren cada usuario una vez
+     */
+    private void recorrer(String url) throws Exception {
+        for (int tamano : new int[] {2, 8}) {
+            List<Long> ids = new ArrayList<>();
+            long total = Long.MAX_VALUE;
+            for (int pagina = 0; (long) pagina * tamano < total; pagina++) {
+                String solicitud = url + (url.contains("?") ? "&" : "?") + "size=" + tamano + "&page=" + pagina;
+                JsonNode respuesta = objectMapper.readTree(ejecutar(get(solicitud)).getResponse().getContentAsString());
+                total = respuesta.get("totalItems").asLong();
+                boolean llena = (long) (pagina + 1) * tamano <= total;
+                assertThat(ContadorSentencias.cantidad()).as(solicitud).isEqualTo(llena ? 4 : 3);
+                assertThat(respuesta.get("data").size()).as(solicitud)
+                        .isEqualTo((int) Math.min(tamano, total - (long) pagina * tamano));
+                respuesta.get("data").forEach(fila -> ids.add(fila.get("id").asLong()));
+            }
+            assertThat(total).isEqualTo(totalUsuarios);
+            assertThat(new HashSet<>(ids)).hasSize(ids.size());
+            assertThat(ids).hasSize((int) totalUsuarios);
+        }
+    }
+}
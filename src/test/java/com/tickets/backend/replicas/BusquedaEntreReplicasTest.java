@@ -0,0 +1,90 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.TicketSpecifications;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import com.tickets.backend.service.BusquedaTicketsService;
+import com.tickets.backend.service.CoordinadorTareasService;
+import com.tickets.backend.service.impl.TransporteInvalidacionesCacheBd;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El índice en memoria de una réplica recibe las ediciones de la otra, y responde lo mismo
+ * que el LIKE en base de datos
+ */
+class BusquedaEntreReplicasTest {
+
+    private static final List<Class<?>> COMPONENTES = List.of(BusquedaTicketsService.class,
+            BusInvalidacionesCache.class, TransporteInvalidacionesCacheBd.class, CoordinadorTareasService.class);
+
+    // Reconstrucción y sondeo a mano
+    private static final String[] PROPIEDADES = {
+        "app.busqueda.retraso-inicial-ms=600000",
+        "app.invalidaciones.intervalo-ms=600000"
+    };
+
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+
+    @BeforeAll
+    static void iniciar() {
+        replicaA = Replicas.iniciar("busqueda", COMPONENTES, PROPIEDADES);
+        replicaB = Replicas.iniciar("busqueda", COMPONENTES, PROPIEDADES);
+    }
+
+    @AfterAll
+    static void detener() {
+        replicaB.close();
+        replicaA.close();
+    }
+
+    @Test
+    void laOtraReplicaVeLaEdicionYAmbasRutasCoinciden() {
+        crear(replicaA, "TK-000101", "Impresora atascada", "La impresora del segundo piso no imprime");
+        crear(replicaA, "TK-000102", "Sin conexión a la red", "El cable de red del escritorio está suelto");
+        BusquedaTicketsService indiceA = replicaA.getBean(BusquedaTicketsService.class);
+        BusquedaTicketsService indiceB = replicaB.getBean(BusquedaTicketsService.class);
+        BusInvalidacionesCache busB = replicaB.getBean(BusInvalidacionesCache.class);
+        indiceA.reconstruir();
+        indiceB.reconstruir();
+        busB.sondear();
+
+        Ticket editado = crear(replicaA, "TK-000103", "Pantalla parpadea", "El monitor parpadea al encender");
+        assertThat(indiceB.buscar("monitor")).contains(List.of());
+
+        busB.sondear();
+        assertThat(indiceB.buscar("monitor")).contains(List.of(editado.getId()));
+
+        TicketRepository repositorio = replicaA.getBean(TicketRepository.class);
+        for (String consulta : List.of("impre", "presora piso", "red", "000103", "tk-0001", "parpadea monitor",
+                "escritorio impresora")) {
+            List<Long> enBaseDatos = repositorio.findAll(TicketSpecifications.conTerminos(
+                    BusquedaTicketsService.terminosConsulta(consulta))).stream().map(Ticket::getId).toList();
+            assertThat(indiceB.buscar(consulta)).as(consulta)
+                    .hasValueSatisfying(ids -> assertThat(ids).containsExactlyInAnyOrderElementsOf(enBaseDatos));
+        }
+    }
+
+    private static Ticket crear(ConfigurableApplicationContext replica, String numero, String titulo, String descripcion) {
+        TransactionTemplate transaccion = new TransactionTemplate(replica.getBean(PlatformTransactionManager.class));
+        return transaccion.execute(status -> {
+            Ticket ticket = new Ticket();
+            ticket.setNumeroTicket(numero);
+            ticket.setTitulo(titulo);
+            ticket.setDescripcion(descripcion);
+            Ticket guardado = replica.getBean(TicketRepository.class).save(ticket);
+            replica.getBean(BusquedaTicketsService.class).programarIndexacion(guardado);
+            return guardado;
+        });
+    }
+}
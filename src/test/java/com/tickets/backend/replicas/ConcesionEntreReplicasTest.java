@@ -0,0 +1,93 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.service.CoordinadorTareasService;
+import com.tickets.backend.service.CoordinadorTareasService.ConcesionPerdidaException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Dos réplicas compiten por la misma concesión en una base compartida
+ */
+class ConcesionEntreReplicasTest {
+
+    private static final String[] PROPIEDADES = {
+        "app.tareas.duracion-concesion-ms=2000",
+        // Sin heartbeats durante la prueba: la concesión vence a los 2 segundos
+        "app.tareas.intervalo-heartbeat-ms=600000"
+    };
+
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+
+    @BeforeAll
+    static void iniciar() {
+        replicaA = Replicas.iniciar("concesiones", List.of(CoordinadorTareasService.class), PROPIEDADES);
+        replicaB = Replicas.iniciar("concesiones", List.of(CoordinadorTareasService.class), PROPIEDADES);
+    }
+
+    @AfterAll
+    static void detener() {
+        replicaB.close();
+        replicaA.close();
+    }
+
+    @Test
+    void soloUnaReplicaEjecutaLaTarea() {
+        CoordinadorTareasService a = replicaA.getBean(CoordinadorTareasService.class);
+        CoordinadorTareasService b = replicaB.getBean(CoordinadorTareasService.class);
+        AtomicBoolean ejecutoB = new AtomicBoolean();
+        AtomicBoolean tomoB = new AtomicBoolean();
+
+        boolean ejecutoA = a.ejecutarComoLider("tarea-unica",
+                () -> tomoB.set(b.ejecutarComoLider("tarea-unica", () -> ejecutoB.set(true))));
+
+        assertThat(ejecutoA).isTrue();
+        assertThat(tomoB).isFalse();
+        assertThat(ejecutoB).isFalse();
+
+        // Liberada al terminar: la otra réplica la toma sin esperar el vencimiento
+        assertThat(b.ejecutarComoLider("tarea-unica", () -> ejecutoB.set(true))).isTrue();
+        assertThat(ejecutoB).isTrue();
+    }
+
+    @Test
+    void laReplicaQuePerdioLaConcesionNoEscribe() {
+        CoordinadorTareasService a = replicaA.getBean(CoordinadorTareasService.class);
+        CoordinadorTareasService b = replicaB.getBean(CoordinadorTareasService.class);
+        TransactionTemplate transaccionA = new TransactionTemplate(replicaA.getBean(PlatformTransactionManager.class));
+        AtomicBoolean verificadaAntes = new AtomicBoolean();
+
+        a.ejecutarComoLider("tarea-pausada", concesion -> {
+            transaccionA.executeWithoutResult(status -> concesion.verificar());
+            verificadaAntes.set(true);
+
+            // Pausa más larga que la concesión, sin heartbeat
+            dormir(2500);
+            assertThat(concesion.vigente()).isFalse();
+            assertThat(b.ejecutarComoLider("tarea-pausada", otra -> { })).isTrue();
+
+            assertThatThrownBy(() -> transaccionA.executeWithoutResult(status -> concesion.verificar()))
+                    .isInstanceOf(ConcesionPerdidaException.class);
+        });
+
+        assertThat(verificadaAntes).isTrue();
+    }
+
+    private static void dormir(long milis) {
+        try {
+            Thread.sleep(milis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.config.CacheConfig;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import com.tickets.backend.service.CoordinadorTareasService;
+import com.tickets.backend.service.impl.TransporteInvalidacionesCacheBd;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un desalojo en una réplica llega a la otra por la tabla de invalidaciones, solo tras el commit
+ */
+class InvalidacionesEntreReplicasTest {
+
+    private static final List<Class<?>> COMPONENTES = List.of(CacheConfig.class, BusInvalidacionesCache.class,
+            TransporteInvalidacionesCacheBd.class, CoordinadorTareasService.class);
+
+    // El sondeo se ejecuta a mano para que la prueba sea determinista
+    private static final String SIN_SONDEO = "app.invalidaciones.intervalo-ms=600000";
+
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+
+    private Cache cacheA;
+    private Cache cacheB;
+    private BusInvalidacionesCache busB;
+    private TransactionTemplate transaccionA;
+
+    @BeforeAll
+    static void iniciar() {
+        replicaA = Replicas.iniciar("invalidaciones", COMPONENTES, SIN_SONDEO);
+        replicaB = Replicas.iniciar("invalidaciones", COMPONENTES, SIN_SONDEO);
+    }
+
+    @AfterAll
+    static void detener() {
+        replicaB.close();
+        replicaA.close();
+    }
+
+    @BeforeEach
+    void preparar() {
+        cacheA = replicaA.getBean(CacheManager.class).getCache("tecnicosActivos");
+        cacheB = replicaB.getBean(CacheManager.class).getCache("tecnicosActivos");
+        busB = replicaB.getBean(BusInvalidacionesCache.class);
+        transaccionA = new TransactionTemplate(replicaA.getBean(PlatformTransactionManager.class));
+        // Marca de agua de B: solo le interesan las invalidaciones desde aquí
+        busB.sondear();
+        cacheA.put("lista", "v1");
+        cacheB.put("lista", "v1");
+    }
+
+    @Test
+    void elDesalojoConfirmadoConvergeEnLaOtraReplica() {
+        transaccionA.executeWithoutResult(status -> {
+            cacheA.evict("lista");
+            // Antes del commit no se publicó nada
+            busB.sondear();
+            assertThat(cacheB.get("lista")).isNotNull();
+        });
+
+        busB.sondear();
+        assertThat(cacheA.get("lista")).isNull();
+        assertThat(cacheB.get("lista")).isNull();
+    }
+
+    @Test
+    void elDesalojoRevertidoNoSePublica() {
+        transaccionA.executeWithoutResult(status -> {
+            cacheA.clear();
+            status.setRollbackOnly();
+        });
+
+        busB.sondear();
+        assertThat(cacheB.get("lista")).isNotNull();
+    }
+
+    @Test
+    void unaLecturaAnteriorAlCommitNoQuedaEnCache() {
+        transaccionA.executeWithoutResult(status -> {
+            cacheA.evict("lista");
+            // Una lectura concurrente vuelve a cachear el valor anterior al cambio
+            cacheA.put("lista", "v1");
+        });
+
+        assertThat(cacheA.get("lista")).isNull();
+    }
+}
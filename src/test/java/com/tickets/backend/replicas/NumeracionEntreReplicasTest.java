@@ -0,0 +1,61 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.service.BusInvalidacionesCache;
+import com.tickets.backend.service.ConfiguracionSistemaService;
+import com.tickets.backend.service.CoordinadorTareasService;
+import com.tickets.backend.service.NumeroTicketService;
+import com.tickets.backend.service.impl.TransporteInvalidacionesCacheBd;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos réplicas numeran tickets con bloques propios y una de ellas resetea el correlativo
+ */
+class NumeracionEntreReplicasTest {
+
+    private static final List<Class<?>> COMPONENTES = List.of(NumeroTicketService.class,
+            ConfiguracionSistemaService.class, BusInvalidacionesCache.class,
+            TransporteInvalidacionesCacheBd.class, CoordinadorTareasService.class);
+
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+
+    @BeforeAll
+    static void iniciar() {
+        replicaA = Replicas.iniciar("numeracion", COMPONENTES, "app.tickets.numeracion.tamano-bloque=20");
+        replicaB = Replicas.iniciar("numeracion", COMPONENTES, "app.tickets.numeracion.tamano-bloque=20");
+    }
+
+    @AfterAll
+    static void detener() {
+        replicaB.close();
+        replicaA.close();
+    }
+
+    @Test
+    void elReseteoNoRepiteNumerosEnNingunaReplica() {
+        NumeroTicketService a = replicaA.getBean(NumeroTicketService.class);
+        NumeroTicketService b = replicaB.getBean(NumeroTicketService.class);
+        List<String> numeros = new ArrayList<>();
+
+        numeros.add(a.generarNumeroTicket());
+        numeros.add(b.generarNumeroTicket());
+        assertThat(numeros).containsExactly("TK-000001", "TK-000021");
+
+        a.resetear();
+
+        // B tenía un bloque de la generación anterior: lo descarta
+        numeros.add(b.generarNumeroTicket());
+        numeros.add(a.generarNumeroTicket());
+        numeros.add(b.generarNumeroTicket());
+        assertThat(numeros.subList(2, 5)).containsExactly("TK-1-000001", "TK-1-000021", "TK-1-000002");
+        assertThat(numeros).doesNotHaveDuplicates();
+    }
+}
@@ -0,0 +1,60 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.repository.TicketRepository;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Levanta varias "réplicas" de la aplicación en la misma JVM, cada una con su propio contexto
+ * de Spring, contra una misma base H2 en memoria. Cada réplica tiene solo JPA, los repositorios
+ * y los componentes indicados, así arranca rápido y no depende del resto de la aplicación.
+ */
+final class Replicas {
+
+    private static final Set<String> creadas = ConcurrentHashMap.newKeySet();
+
+    private Replicas() {
+    }
+
+    static ConfigurableApplicationContext iniciar(String baseDatos, List<Class<?>> componentes, String... propiedades) {
+        // Como argumentos de línea de comandos: tienen prioridad sobre application*.properties
+        List<String> todas = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:" + baseDatos + ";MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1",
+                // La primera réplica de cada base crea las tablas; las demás las encuentran
+                "spring.jpa.hibernate.ddl-auto=" + (creadas.add(baseDatos) ? "create" : "none"),
+                // La caché de segundo nivel (JCache) es un singleton por JVM: se compartiría entre réplicas
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false"));
+        todas.addAll(List.of(propiedades));
+
+        Class<?>[] fuentes = new Class<?>[componentes.size() + 1];
+        fuentes[0] = Configuracion.class;
+        for (int i = 0; i < componentes.size(); i++) {
+            fuentes[i + 1] = componentes.get(i);
+        }
+        return new SpringApplicationBuilder(fuentes)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run(todas.stream().map(propiedad -> "--" + propiedad).toArray(String[]::new));
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EnableScheduling
+    @EntityScan(basePackageClasses = Ticket.class)
+    @EnableJpaRepositories(basePackageClasses = TicketRepository.class)
+    static class Configuracion {
+    }
+}
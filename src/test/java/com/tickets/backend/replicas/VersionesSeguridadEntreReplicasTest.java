@@ -0,0 +1,65 @@
+package com.tickets.backend.replicas;
+
+import com.tickets.backend.security.VersionSeguridadRegistry;
+import com.tickets.backend.service.BusInvalidacionesCache;
+import com.tickets.backend.service.CoordinadorTareasService;
+import com.tickets.backend.service.impl.TransporteInvalidacionesCacheBd;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Una revocación en una réplica llega a la otra por el bus de invalidaciones, sin esperar
+ * la recarga completa de versiones
+ */
+class VersionesSeguridadEntreReplicasTest {
+
+    private static final List<Class<?>> COMPONENTES = List.of(VersionSeguridadRegistry.class,
+            BusInvalidacionesCache.class, TransporteInvalidacionesCacheBd.class, CoordinadorTareasService.class);
+
+    // Sondeo del bus a mano; la recarga completa no corre durante la prueba
+    private static final String[] PROPIEDADES = {
+        "app.invalidaciones.intervalo-ms=600000",
+        "app.jwt.intervalo-recarga-versiones-ms=600000"
+    };
+
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+
+    @BeforeAll
+    static void iniciar() {
+        replicaA = Replicas.iniciar("versiones", COMPONENTES, PROPIEDADES);
+        replicaB = Replicas.iniciar("versiones", COMPONENTES, PROPIEDADES);
+    }
+
+    @AfterAll
+    static void detener() {
+        replicaB.close();
+        replicaA.close();
+    }
+
+    @Test
+    void laRevocacionConfirmadaLlegaALaOtraReplica() {
+        VersionSeguridadRegistry registroA = replicaA.getBean(VersionSeguridadRegistry.class);
+        VersionSeguridadRegistry registroB = replicaB.getBean(VersionSeguridadRegistry.class);
+        BusInvalidacionesCache busB = replicaB.getBean(BusInvalidacionesCache.class);
+        busB.sondear();
+        assertThat(registroB.esVigente("ana@replicas.cl", 0)).isTrue();
+
+        new TransactionTemplate(replicaA.getBean(PlatformTransactionManager.class))
+                .executeWithoutResult(status -> registroA.incrementarVersion("ana@replicas.cl"));
+        // B ya cargó las versiones: solo el bus le trae el cambio
+        assertThat(registroB.esVigente("ana@replicas.cl", 0)).isTrue();
+
+        busB.sondear();
+        assertThat(registroB.esVigente("ana@replicas.cl", 0)).isFalse();
+        assertThat(registroB.obtenerVersion("ana@replicas.cl")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,160 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.dto.TicketResponseDto;
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.service.BusquedaTicketsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matriz de combinaciones de filtros del listado de administración (H2 en modo SQL Server):
+ * cada combinación debe devolver lo mismo que el mismo filtro aplicado en memoria
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TicketSpecificationsTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 3, 1, 10, 0);
+    private static final Sort ORDEN = Sort.by(Sort.Order.desc("fechaCreacion"), Sort.Order.desc("id"));
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private final List<Ticket> tickets = new ArrayList<>();
+    private Categoria redes;
+    private Usuario tecnico;
+    private Usuario creador;
+
+    @BeforeEach
+    void sembrar() {
+        redes = categoriaRepository.save(categoria("Redes"));
+        Categoria hardware = categoriaRepository.save(categoria("Hardware"));
+        tecnico = usuarioRepository.save(usuario("tecnico@prueba.cl"));
+        Usuario otroTecnico = usuarioRepository.save(usuario("tecnico2@prueba.cl"));
+        creador = usuarioRepository.save(usuario("creador@prueba.cl"));
+        Usuario otroCreador = usuarioRepository.save(usuario("creador2@prueba.cl"));
+
+        String[] titulos = {"Impresora atascada", "Sin conexión a la red", "Pantalla azul", "Red lenta en bodega"};
+        EstadoTicket[] estados = EstadoTicket.values();
+        PrioridadTicket[] prioridades = PrioridadTicket.values();
+        for (int i = 0; i < 24; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setNumeroTicket(String.format("TK-%06d", i + 1));
+            ticket.setTitulo(titulos[i % titulos.length]);
+            ticket.setDescripcion(i % 3 == 0 ? "Revisar el cable del piso " + i : "Sin detalle");
+            ticket.setEstado(estados[i % estados.length]);
+            ticket.setPrioridad(prioridades[i % prioridades.length]);
+            ticket.setCategoria(i % 2 == 0 ? redes : hardware);
+            ticket.setTecnicoAsignado(i % 3 == 0 ? null : i % 3 == 1 ? tecnico : otroTecnico);
+            ticket.setUsuarioCreador(i % 4 < 2 ? creador : otroCreador);
+            ticket.setFechaCreacion(BASE.plusDays(i));
+            tickets.add(ticketRepository.save(ticket));
+        }
+        ticketRepository.flush();
+    }
+
+    @Test
+    void cadaCombinacionDeFiltrosCoincideConElFiltroEnMemoria() {
+        EstadoTicket estado = tickets.get(1).getEstado();
+        PrioridadTicket prioridad = tickets.get(1).getPrioridad();
+        LocalDateTime desde = BASE.plusDays(4);
+        LocalDateTime hasta = BASE.plusDays(18);
+        List<String> terminos = BusquedaTicketsService.terminosConsulta("red");
+
+        // Un bit por filtro opcional: 2^8 combinaciones
+        for (int combinacion = 0; combinacion < (1 << 8); combinacion++) {
+            EstadoTicket e = activo(combinacion, 0) ? estado : null;
+            PrioridadTicket p = activo(combinacion, 1) ? prioridad : null;
+            Long categoriaId = activo(combinacion, 2) ? redes.getId() : null;
+            Long tecnicoId = activo(combinacion, 3) ? tecnico.getId() : null;
+            Long usuarioId = activo(combinacion, 4) ? creador.getId() : null;
+            LocalDateTime d = activo(combinacion, 5) ? desde : null;
+            LocalDateTime h = activo(combinacion, 6) ? hasta : null;
+            List<String> t = activo(combinacion, 7) ? terminos : null;
+
+            Predicate<Ticket> esperado = ticket -> (e == null || ticket.getEstado() == e)
+                    && (p == null || ticket.getPrioridad() == p)
+                    && (categoriaId == null || ticket.getCategoria().getId().equals(categoriaId))
+                    && (tecnicoId == null || (ticket.getTecnicoAsignado() != null
+                            && ticket.getTecnicoAsignado().getId().equals(tecnicoId)))
+                    && (usuarioId == null || ticket.getUsuarioCreador().getId().equals(usuarioId))
+                    && (d == null || !ticket.getFechaCreacion().isBefore(d))
+                    && (h == null || !ticket.getFechaCreacion().isAfter(h))
+                    && (t == null || contieneTexto(ticket, "red"));
+
+            List<Long> idsEsperados = tickets.stream().filter(esperado)
+                    .sorted(Comparator.comparing(Ticket::getFechaCreacion).thenComparing(Ticket::getId).reversed())
+                    .map(Ticket::getId).toList();
+
+            Page<TicketResponseDto> pagina = ticketRepository.buscarResumen(
+                    TicketSpecifications.conFiltros(e, p, categoriaId, tecnicoId, usuarioId, d, h, t),
+                    PageRequest.of(0, 50, ORDEN));
+
+            assertThat(pagina.getContent()).as("combinación %s", Integer.toBinaryString(combinacion))
+                    .extracting(TicketResponseDto::getId).containsExactlyElementsOf(idsEsperados);
+            assertThat(pagina.getTotalElements()).isEqualTo(idsEsperados.size());
+        }
+    }
+
+    @Test
+    void elConteoSeCalculaCuandoLaPaginaNoLoPermiteDeducir() {
+        Page<TicketResponseDto> pagina = ticketRepository.buscarResumen(
+                TicketSpecifications.conFiltros(null, null, redes.getId(), null, null, null, null, null),
+                PageRequest.of(1, 5, ORDEN));
+
+        assertThat(pagina.getContent()).hasSize(5);
+        assertThat(pagina.getTotalElements()).isEqualTo(12);
+    }
+
+    private static boolean activo(int combinacion, int filtro) {
+        return (combinacion & (1 << filtro)) != 0;
+    }
+
+    private static boolean contieneTexto(Ticket ticket, String termino) {
+        return ticket.getTitulo().toLowerCase().contains(termino)
+                || ticket.getDescripcion().toLowerCase().contains(termino)
+                || ticket.getNumeroTicket().toLowerCase().contains(termino);
+    }
+
+    private static Categoria categoria(String nombre) {
+        Categoria categoria = new Categoria();
+        categoria.setNombre(nombre);
+        return categoria;
+    }
+
+    private static Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre");
+        usuario.setApellido("Apellido");
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setActivo(true);
+        return usuario;
+    }
+}
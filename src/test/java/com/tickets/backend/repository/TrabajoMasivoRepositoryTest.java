@@ -0,0 +1,98 @@
+package com.tickets.backend.repository;
+
+import com.tickets.backend.models.EstadoTrabajoMasivo;
+import com.tickets.backend.models.TipoTrabajoMasivo;
+import com.tickets.backend.models.TrabajoMasivo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Cada UPDATE en su propia transacción, como en el servicio (el reloj de la BD avanza entre ellas)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TrabajoMasivoRepositoryTest {
+
+    private static final EstadoTrabajoMasivo PENDIENTE = EstadoTrabajoMasivo.PENDIENTE;
+    private static final EstadoTrabajoMasivo EN_PROCESO = EstadoTrabajoMasivo.EN_PROCESO;
+
+    @Autowired
+    private TrabajoMasivoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void limpiar() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void soloUnWorkerTomaElTrabajo() {
+        Long id = crearTrabajo();
+
+        assertThat(repository.tomar(id, "a", PENDIENTE, EN_PROCESO)).isEqualTo(1);
+        assertThat(repository.tomar(id, "b", PENDIENTE, EN_PROCESO)).isZero();
+        assertThat(repository.findToken(id, "a", EN_PROCESO)).contains(1L);
+        assertThat(repository.findToken(id, "b", EN_PROCESO)).isEmpty();
+    }
+
+    @Test
+    void elWorkerAnteriorNoEscribeTrasPerderElTrabajo() throws InterruptedException {
+        Long id = crearTrabajo();
+        repository.tomar(id, "a", PENDIENTE, EN_PROCESO);
+        long tokenA = repository.findToken(id, "a", EN_PROCESO).orElseThrow();
+
+        // Sin heartbeat de "a": el barrido lo libera y "b" lo toma
+        Thread.sleep(20);
+        assertThat(repository.liberarAbandonados(PENDIENTE, EN_PROCESO, 0)).isEqualTo(1);
+        repository.tomar(id, "b", PENDIENTE, EN_PROCESO);
+        long tokenB = repository.findToken(id, "b", EN_PROCESO).orElseThrow();
+        assertThat(tokenB).isGreaterThan(tokenA);
+
+        assertThat(repository.renovar(id, tokenA, EN_PROCESO)).isZero();
+        // registrarAvance corre en la transacción del lote
+        TransactionTemplate lote = new TransactionTemplate(transactionManager);
+        Integer avanceA = lote.execute(status -> repository.registrarAvance(id, tokenA, EN_PROCESO, 10, 10, 0, 0, 1, 2, null));
+        assertThat(avanceA).isZero();
+        assertThat(repository.terminar(id, tokenA, EN_PROCESO, EstadoTrabajoMasivo.FALLIDO, 1, "x", null)).isZero();
+
+        assertThat(repository.renovar(id, tokenB, EN_PROCESO)).isEqualTo(1);
+        Integer avanceB = lote.execute(status -> repository.registrarAvance(id, tokenB, EN_PROCESO, 5, 5, 0, 0, 1, 2, null));
+        assertThat(avanceB).isEqualTo(1);
+    }
+
+    @Test
+    void unTrabajoConHeartbeatRecienteNoSeLibera() {
+        Long id = crearTrabajo();
+        repository.tomar(id, "a", PENDIENTE, EN_PROCESO);
+
+        assertThat(repository.liberarAbandonados(PENDIENTE, EN_PROCESO, 300)).isZero();
+    }
+
+    private Long crearTrabajo() {
+        LocalDateTime ahora = LocalDateTime.now();
+        TrabajoMasivo trabajo = new TrabajoMasivo();
+        trabajo.setTipo(TipoTrabajoMasivo.CAMBIO_ESTADO);
+        trabajo.setEstado(PENDIENTE);
+        trabajo.setUsuarioEmail("admin@tickets.cl");
+        trabajo.setTicketIds("1,2,3");
+        trabajo.setTotal(3);
+        trabajo.setTotalLotes(1);
+        trabajo.setFechaCreacion(ahora);
+        trabajo.setFechaActualizacion(ahora);
+        return repository.saveAndFlush(trabajo).getId();
+    }
+}
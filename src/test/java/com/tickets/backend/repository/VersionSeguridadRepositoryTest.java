@@ -0,0 +1,80 @@
+package com.tickets.backend.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// Cada incremento en su propia transacción, como en el servicio
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class VersionSeguridadRepositoryTest {
+
+    private static final String EMAIL = "version@prueba.cl";
+
+    @Autowired
+    private VersionSeguridadRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void limpiar() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void laPrimeraVersionCreaLaFila() {
+        assertThat(incrementar()).isEqualTo(1);
+        assertThat(incrementar()).isEqualTo(2);
+        assertThat(repository.findById(EMAIL)).hasValueSatisfying(v -> assertThat(v.getVersion()).isEqualTo(2));
+    }
+
+    @Test
+    void losIncrementosConcurrentesNoSePierden() throws Exception {
+        int hilos = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Long>> versiones = new ArrayList<>();
+        try {
+            for (int i = 0; i < hilos; i++) {
+                versiones.add(pool.submit(() -> {
+                    largada.await();
+                    return incrementar();
+                }));
+            }
+            largada.countDown();
+            List<Long> obtenidas = new ArrayList<>();
+            for (Future<Long> version : versiones) {
+                obtenidas.add(version.get());
+            }
+
+            // Cada transacción vio su propio incremento, incluida la carrera por crear la fila
+            assertThat(obtenidas).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L);
+            assertThat(repository.findById(EMAIL).orElseThrow().getVersion()).isEqualTo(hilos);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long incrementar() {
+        return new TransactionTemplate(transactionManager).execute(status -> repository.incrementar(EMAIL));
+    }
+}
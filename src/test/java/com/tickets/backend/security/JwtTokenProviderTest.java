@@ -0,0 +1,117 @@
+package com.tickets.backend.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verificación de JWT en una sola pasada: el token válido se parsea una vez y luego se sirve
+ * desde la caché hasta su expiración; los inválidos no entran a la caché
+ */
+class JwtTokenProviderTest {
+
+    private static final String SECRETO = "ClaveDePruebaSuficientementeLargaParaHS512ConAlMenosSesentaYCuatroBytes!!";
+
+    private JwtTokenProvider provider;
+    private VersionSeguridadRegistry versiones;
+
+    @BeforeEach
+    void preparar() {
+        versiones = mock(VersionSeguridadRegistry.class);
+        when(versiones.obtenerVersion("ana@tickets.cl")).thenReturn(3L);
+        provider = proveedor(60_000, 10);
+    }
+
+    @Test
+    void elTokenSeVerificaUnaVezYLuegoSaleDeLaCache() {
+        String token = provider.generateToken(autenticacion("ana@tickets.cl"));
+
+        Optional<JwtPrincipal> primera = provider.verificarToken(token);
+        Optional<JwtPrincipal> segunda = provider.verificarToken(token);
+
+        assertThat(primera).isPresent();
+        assertThat(primera.get().getEmail()).isEqualTo("ana@tickets.cl");
+        assertThat(primera.get().getVersionSeguridad()).isEqualTo(3L);
+        assertThat(primera.get().getAutoridades()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN");
+        // La segunda verificación no vuelve a parsear: es la misma instancia
+        assertThat(segunda.get()).isSameAs(primera.get());
+        assertThat(provider.getUserEmailFromJWT(token)).isEqualTo("ana@tickets.cl");
+        assertThat(cache(provider)).hasSize(1);
+    }
+
+    @Test
+    void losTokensInvalidosNoEntranALaCache() {
+        String token = provider.generateToken(autenticacion("ana@tickets.cl"));
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        String deOtraClave = proveedorConSecreto(SECRETO.replace('C', 'K')).generateToken(autenticacion("ana@tickets.cl"));
+
+        assertThat(provider.verificarToken(alterado)).isEmpty();
+        assertThat(provider.verificarToken(deOtraClave)).isEmpty();
+        assertThat(provider.verificarToken("no.es.jwt")).isEmpty();
+        assertThat(provider.verificarToken("")).isEmpty();
+        assertThat(provider.verificarToken(null)).isEmpty();
+        assertThat(cache(provider)).isEmpty();
+    }
+
+    @Test
+    void unTokenEnCacheDejaDeValerAlExpirar() throws InterruptedException {
+        // exp se guarda en segundos: con 1,5 s el token vence a más tardar en 2 s
+        JwtTokenProvider corto = proveedor(1_500, 10);
+        String token = corto.generateToken(autenticacion("ana@tickets.cl"));
+        assertThat(corto.verificarToken(token)).isPresent();
+
+        Thread.sleep(2_100);
+
+        assertThat(corto.verificarToken(token)).isEmpty();
+        assertThat(cache(corto)).isEmpty();
+    }
+
+    @Test
+    void laCacheQuedaAcotada() {
+        JwtTokenProvider acotado = proveedor(60_000, 2);
+        for (String email : new String[] {"a@tickets.cl", "b@tickets.cl", "c@tickets.cl"}) {
+            assertThat(acotado.verificarToken(acotado.generateToken(autenticacion(email)))).isPresent();
+        }
+
+        assertThat(cache(acotado)).hasSizeLessThanOrEqualTo(2);
+    }
+
+    private static Map<?, ?> cache(JwtTokenProvider proveedor) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(proveedor, "tokensVerificados");
+    }
+
+    private JwtTokenProvider proveedor(int expiracionMs, int maxTokens) {
+        JwtTokenProvider nuevo = new JwtTokenProvider();
+        ReflectionTestUtils.setField(nuevo, "versionSeguridadRegistry", versiones);
+        ReflectionTestUtils.setField(nuevo, "jwtSecret", SECRETO);
+        ReflectionTestUtils.setField(nuevo, "jwtExpirationInMs", expiracionMs);
+        ReflectionTestUtils.setField(nuevo, "maxTokensEnCache", maxTokens);
+        nuevo.init();
+        return nuevo;
+    }
+
+    private JwtTokenProvider proveedorConSecreto(String secreto) {
+        JwtTokenProvider nuevo = proveedor(60_000, 10);
+        ReflectionTestUtils.setField(nuevo, "jwtSecret", secreto);
+        nuevo.init();
+        return nuevo;
+    }
+
+    private static Authentication autenticacion(String email) {
+        UserDetails usuario = User.withUsername(email).password("x").authorities("ROLE_ADMIN").build();
+        return new UsernamePasswordAuthenticationToken(usuario, null, usuario.getAuthorities());
+    }
+}
@@ -0,0 +1,164 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.ResumenDiarioTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.repository.CategoriaRepository;
+import com.tickets.backend.repository.ResumenDiarioTicketRepository;
+import com.tickets.backend.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El resumen diario se recuenta desde los tickets: repetir o reordenar eventos, o recibirlos
+ * después del recálculo que ya los incluye, no cuenta dos veces
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:analitica;MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1",
+    "app.analitica.dias-recalculo=3650"
+})
+@ActiveProfiles("test")
+class AnaliticaTicketsServiceTest {
+
+    private static final LocalDateTime DIA = LocalDateTime.of(2025, 6, 2, 9, 0);
+
+    @Autowired
+    private AnaliticaTicketsService analitica;
+
+    @Autowired
+    private ResumenDiarioTicketRepository resumenRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private Categoria categoria;
+
+    @BeforeEach
+    void preparar() {
+        transaccion = new TransactionTemplate(transactionManager);
+        categoria = categoriaRepository.findAll().stream().findFirst().orElseGet(() -> {
+            Categoria nueva = new Categoria();
+            nueva.setNombre("Analítica");
+            return categoriaRepository.save(nueva);
+        });
+    }
+
+    @Test
+    void losCambiosDeUnaTransaccionDejanElResumenIgualALosTickets() {
+        transaccion.executeWithoutResult(status -> {
+            for (int i = 0; i < 4; i++) {
+                Ticket ticket = ticketRepository.save(ticket("TK-A1" + i, EstadoTicket.NUEVO));
+                publicar(null, ticket);
+            }
+        });
+        Ticket cambiado = ticketRepository.findAll().stream()
+                .filter(t -> t.getNumeroTicket().equals("TK-A10")).findFirst().orElseThrow();
+        cambiarEstado(cambiado.getId(), EstadoTicket.EN_ESPERA);
+
+        assertThat(resumen()).isEqualTo(agregado());
+        assertThat(cantidad(EstadoTicket.NUEVO)).isEqualTo(3);
+        assertThat(cantidad(EstadoTicket.EN_ESPERA)).isEqualTo(1);
+    }
+
+    @Test
+    void unEventoRepetidoOTardioNoCuentaDosVeces() {
+        Ticket ticket = transaccion.execute(status -> {
+            Ticket nuevo = ticketRepository.save(ticket("TK-A20", EstadoTicket.NUEVO));
+            publicar(null, nuevo);
+            return nuevo;
+        });
+
+        // El recálculo ya incluye el ticket; el evento llega después (o se repite)
+        analitica.recalcularDiasRecientes();
+        transaccion.executeWithoutResult(status -> publicar(null, ticket));
+        transaccion.executeWithoutResult(status -> publicar(null, ticket));
+
+        assertThat(resumen()).isEqualTo(agregado());
+    }
+
+    private void cambiarEstado(Long id, EstadoTicket estado) {
+        transaccion.executeWithoutResult(status -> {
+            Ticket ticket = ticketRepository.findById(id).orElseThrow();
+            InstantaneaTicket anterior = InstantaneaTicket.de(ticket);
+            ticket.setEstado(estado);
+            eventPublisher.publishEvent(new TicketModificadoEvent(anterior, InstantaneaTicket.de(ticket)));
+        });
+    }
+
+    private void publicar(InstantaneaTicket anterior, Ticket ticket) {
+        eventPublisher.publishEvent(new TicketModificadoEvent(anterior, InstantaneaTicket.de(ticket)));
+    }
+
+    private long cantidad(EstadoTicket estado) {
+        return resumenRepository.findByFechaBetween(DIA.toLocalDate(), DIA.toLocalDate()).stream()
+                .filter(fila -> fila.getEstado() == estado)
+                .mapToLong(ResumenDiarioTicket::getCantidad).sum();
+    }
+
+    // Filas con cantidad distinta de 0, por clave
+    private Map<List<Object>, Long> resumen() {
+        Map<List<Object>, Long> filas = new HashMap<>();
+        for (ResumenDiarioTicket fila : resumenRepository.findAll()) {
+            if (fila.getCantidad() != 0) {
+                filas.put(clave(fila.getFecha(), fila.getCategoriaId(), fila.getPrioridad(), fila.getEstado(),
+                        fila.getTecnicoId()), fila.getCantidad());
+            }
+        }
+        return filas;
+    }
+
+    private Map<List<Object>, Long> agregado() {
+        Map<List<Object>, Long> filas = new HashMap<>();
+        for (Object[] fila : ticketRepository.agregarPorDiaDesde(LocalDateTime.of(1900, 1, 1, 0, 0))) {
+            filas.put(clave((LocalDate) fila[0], (Long) fila[1], (PrioridadTicket) fila[2], (EstadoTicket) fila[3],
+                    (Long) fila[4]), ((Number) fila[5]).longValue());
+        }
+        return filas;
+    }
+
+    private static List<Object> clave(LocalDate fecha, Long categoriaId, PrioridadTicket prioridad,
+                                      EstadoTicket estado, Long tecnicoId) {
+        return Arrays.asList(fecha, categoriaId, prioridad, estado, tecnicoId);
+    }
+
+    private Ticket ticket(String numero, EstadoTicket estado) {
+        Ticket ticket = new Ticket();
+        ticket.setNumeroTicket(numero);
+        ticket.setTitulo("Resumen " + numero);
+        ticket.setDescripcion("Detalle");
+        ticket.setEstado(estado);
+        ticket.setPrioridad(PrioridadTicket.values()[0]);
+        ticket.setCategoria(categoria);
+        ticket.setFechaCreacion(DIA);
+        return ticket;
+    }
+}
@@ -0,0 +1,95 @@
+package com.tickets.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prefijos por rango del vocabulario y subcadenas por n-gramas encuentran lo mismo que recorrer
+ * todas las palabras con contains, también después de editar tickets
+ */
+class BusquedaTicketsServiceTest {
+
+    private static final String LETRAS = "abcdeimnorst0123";
+
+    private final Random aleatorio = new Random(42);
+    private final Map<Long, String> textos = new HashMap<>();
+    private BusquedaTicketsService busqueda;
+
+    @BeforeEach
+    void preparar() {
+        busqueda = new BusquedaTicketsService();
+        ReflectionTestUtils.setField(busqueda, "listo", true);
+    }
+
+    @Test
+    void encuentraLasPalabrasQueContienenElTermino() {
+        busqueda.indexar(1L, "TK-000123", "Impresora sin tóner", "No imprime");
+        busqueda.indexar(2L, "TK-000456", "Red caída", "Sin internet en el piso 3");
+        busqueda.indexar(3L, "TK-001230", "Reimpresión", "Reimprimir la factura");
+
+        // Exacta, prefijo y en medio de la palabra
+        assertThat(busqueda.buscar("impresora")).contains(List.of(1L));
+        assertThat(busqueda.buscar("impr")).contains(List.of(1L, 3L));
+        assertThat(busqueda.buscar("123")).contains(List.of(3L, 1L));
+        assertThat(busqueda.buscar("ternet")).contains(List.of(2L));
+        assertThat(busqueda.buscar("rn")).contains(List.of(2L));
+        assertThat(busqueda.buscar("imprimir factura")).contains(List.of(3L));
+        assertThat(busqueda.buscar("tenre")).contains(List.of());
+    }
+
+    @Test
+    void coincideConRecorrerElVocabulario() {
+        for (long id = 1; id <= 300; id++) {
+            indexarAleatorio(id);
+        }
+        // Ediciones: cambian y desaparecen términos del vocabulario
+        for (long id = 1; id <= 300; id += 3) {
+            indexarAleatorio(id);
+        }
+
+        for (int i = 0; i < 300; i++) {
+            String termino = palabra(2 + aleatorio.nextInt(3));
+            if (BusquedaTicketsService.terminosConsulta(termino).isEmpty()) {
+                // Palabra vacía ("de", "se"...): la búsqueda pasa a la base de datos
+                continue;
+            }
+            assertThat(busqueda.buscar(termino).orElseThrow())
+                    .as(termino).containsExactlyInAnyOrderElementsOf(recorriendo(termino));
+        }
+    }
+
+    private void indexarAleatorio(long id) {
+        String texto = palabra(4 + aleatorio.nextInt(5)) + " " + palabra(4 + aleatorio.nextInt(5));
+        textos.put(id, texto);
+        busqueda.indexar(id, "TK-" + id, texto, null);
+    }
+
+    private List<Long> recorriendo(String termino) {
+        List<Long> ids = new ArrayList<>();
+        textos.forEach((id, texto) -> {
+            List<String> palabras = new ArrayList<>(BusquedaTicketsService.tokenizar(texto));
+            palabras.addAll(BusquedaTicketsService.tokenizar("TK-" + id));
+            if (palabras.stream().anyMatch(palabra -> palabra.contains(termino))) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private String palabra(int largo) {
+        StringBuilder palabra = new StringBuilder();
+        for (int i = 0; i < largo; i++) {
+            palabra.append(LETRAS.charAt(aleatorio.nextInt(LETRAS.length())));
+        }
+        return palabra.toString();
+    }
+}
@@ -0,0 +1,188 @@
+package com.tickets.backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Single-flight: un solo cálculo para llamadas concurrentes, el error llega a todos los que
+ * esperaban y el resultado vence tras ttl-ms
+ */
+class CoalescenciaSolicitudesServiceTest {
+
+    private static final int ESPERANDO = 4;
+
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    private final AtomicInteger calculos = new AtomicInteger();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private ExecutorService pool;
+    private CoalescenciaSolicitudesService coalescencia;
+
+    @BeforeEach
+    void preparar() {
+        pool = Executors.newCachedThreadPool();
+        coalescencia = servicio(2000, 10_000);
+    }
+
+    @AfterEach
+    void detener() {
+        liberar.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void lasLlamadasConcurrentesCompartenUnSoloCalculo() throws Exception {
+        Future<String> primera = pool.submit(() -> obtener(this::calculoBloqueado));
+        esperarHasta(() -> calculos.get() == 1);
+        List<Future<String>> demas = lanzar(ESPERANDO, () -> obtener(this::calculoBloqueado));
+        esperarHasta(() -> enEspera() >= ESPERANDO);
+
+        liberar.countDown();
+
+        assertThat(primera.get(5, TimeUnit.SECONDS)).isEqualTo("resultado-1");
+        for (Future<String> otra : demas) {
+            assertThat(otra.get(5, TimeUnit.SECONDS)).isEqualTo("resultado-1");
+        }
+        assertThat(calculos).hasValue(1);
+        assertThat(contador("calculada")).isEqualTo(1);
+        assertThat(contador("coalescida")).isEqualTo(ESPERANDO);
+    }
+
+    @Test
+    void elErrorLlegaATodosYLaSiguienteSolicitudReintenta() throws Exception {
+        Future<String> primera = pool.submit(() -> obtener(() -> {
+            calculoBloqueado();
+            throw new IllegalStateException("base de datos caída");
+        }));
+        esperarHasta(() -> calculos.get() == 1);
+        List<Future<String>> demas = lanzar(ESPERANDO, () -> obtener(this::calculoBloqueado));
+        esperarHasta(() -> enEspera() >= ESPERANDO);
+
+        liberar.countDown();
+
+        assertThatThrownBy(() -> primera.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        for (Future<String> otra : demas) {
+            assertThatThrownBy(() -> otra.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("base de datos caída");
+        }
+        assertThat(calculos).hasValue(1);
+        // El error no queda en caché
+        assertThat(obtener(this::calculoBloqueado)).isEqualTo("resultado-2");
+    }
+
+    @Test
+    void unErrorQueNoEsRuntimeExceptionTambienLiberaALosQueEsperan() throws Exception {
+        Future<String> primera = pool.submit(() -> obtener(() -> {
+            calculoBloqueado();
+            throw new AssertionError("fallo grave");
+        }));
+        esperarHasta(() -> calculos.get() == 1);
+        List<Future<String>> demas = lanzar(ESPERANDO, () -> obtener(this::calculoBloqueado));
+        esperarHasta(() -> enEspera() >= ESPERANDO);
+
+        liberar.countDown();
+
+        assertThatThrownBy(() -> primera.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        for (Future<String> otra : demas) {
+            assertThatThrownBy(() -> otra.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(AssertionError.class);
+        }
+    }
+
+    @Test
+    void elResultadoVenceTrasElTtl() throws InterruptedException {
+        coalescencia = servicio(100, 10_000);
+        liberar.countDown();
+
+        assertThat(obtener(this::calculoBloqueado)).isEqualTo("resultado-1");
+        assertThat(obtener(this::calculoBloqueado)).isEqualTo("resultado-1");
+        assertThat(calculos).hasValue(1);
+
+        Thread.sleep(150);
+        assertThat(obtener(this::calculoBloqueado)).isEqualTo("resultado-2");
+        assertThat(calculos).hasValue(2);
+    }
+
+    @Test
+    void laEsperaVencidaCalculaAparte() throws Exception {
+        coalescencia = servicio(2000, 100);
+        Future<String> primera = pool.submit(() -> obtener(this::calculoBloqueado));
+        esperarHasta(() -> calculos.get() == 1);
+
+        // No espera indefinidamente al cálculo bloqueado: hace el suyo
+        assertThat(obtener(() -> "propio")).isEqualTo("propio");
+        assertThat(contador("espera-vencida")).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(primera.get(5, TimeUnit.SECONDS)).isEqualTo("resultado-1");
+    }
+
+    private String obtener(Supplier<String> calculo) {
+        return coalescencia.obtener("panel", "global", calculo, "parametro");
+    }
+
+    private String calculoBloqueado() {
+        int numero = calculos.incrementAndGet();
+        try {
+            liberar.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "resultado-" + numero;
+    }
+
+    private List<Future<String>> lanzar(int cantidad, Callable<String> tarea) {
+        List<Future<String>> futuros = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            futuros.add(pool.submit(tarea));
+        }
+        return futuros;
+    }
+
+    // Hilos del pool detenidos en la espera del futuro compartido
+    private long enEspera() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(hilo -> hilo.getState() == Thread.State.TIMED_WAITING)
+                .filter(hilo -> List.of(hilo.getStackTrace()).stream()
+                        .anyMatch(marco -> marco.getMethodName().equals("esperar")
+                                && marco.getClassName().equals(CoalescenciaSolicitudesService.class.getName())))
+                .count();
+    }
+
+    private double contador(String resultado) {
+        var contador = metricas.find("tickets.coalescencia.solicitudes").tag("resultado", resultado).counter();
+        return contador != null ? contador.count() : 0;
+    }
+
+    private CoalescenciaSolicitudesService servicio(long ttlMs, long esperaMaxMs) {
+        CoalescenciaSolicitudesService servicio = new CoalescenciaSolicitudesService();
+        ReflectionTestUtils.setField(servicio, "meterRegistry", metricas);
+        ReflectionTestUtils.setField(servicio, "ttlMs", ttlMs);
+        ReflectionTestUtils.setField(servicio, "esperaMaxMs", esperaMaxMs);
+        return servicio;
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 5000;
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condición no alcanzada a tiempo").isLessThan(limite);
+            Thread.sleep(5);
+        }
+    }
+}
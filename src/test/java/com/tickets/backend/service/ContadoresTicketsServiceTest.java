@@ -0,0 +1,72 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.repository.TicketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * La reconciliación no pierde los eventos que llegan mientras lee la base de datos
+ */
+class ContadoresTicketsServiceTest {
+
+    private ContadoresTicketsService contadores;
+    private TicketRepository ticketRepository;
+
+    @BeforeEach
+    void preparar() {
+        contadores = new ContadoresTicketsService();
+        ticketRepository = mock(TicketRepository.class);
+        ReflectionTestUtils.setField(contadores, "ticketRepository", ticketRepository);
+    }
+
+    @Test
+    void unEventoDuranteLaLecturaSobreviveAlReemplazo() {
+        when(ticketRepository.contarPorEstadoPrioridadCategoria()).thenReturn(filas(EstadoTicket.NUEVO, 5));
+        contadores.reconciliar();
+
+        // La lectura no ve el cambio (se confirma después) y el evento llega mientras tanto
+        when(ticketRepository.contarPorEstadoPrioridadCategoria()).thenAnswer(invocacion -> {
+            contadores.alModificarTicket(new TicketModificadoEvent(
+                    instantanea(EstadoTicket.NUEVO), instantanea(EstadoTicket.ASIGNADO)));
+            return filas(EstadoTicket.NUEVO, 5);
+        });
+        contadores.reconciliar();
+
+        assertThat(contadores.contarPorEstado(EstadoTicket.NUEVO)).isEqualTo(4);
+        assertThat(contadores.contarPorEstado(EstadoTicket.ASIGNADO)).isEqualTo(1);
+        assertThat(contadores.contarTotal()).isEqualTo(5);
+    }
+
+    @Test
+    void losEventosPosterioresSeAplicanSobreElResultado() {
+        when(ticketRepository.contarPorEstadoPrioridadCategoria()).thenReturn(filas(EstadoTicket.NUEVO, 2));
+        contadores.reconciliar();
+
+        contadores.alModificarTicket(new TicketModificadoEvent(null, instantanea(EstadoTicket.NUEVO)));
+
+        assertThat(contadores.contarPorEstado(EstadoTicket.NUEVO)).isEqualTo(3);
+        assertThat(contadores.contarPorPrioridad(PrioridadTicket.values()[0])).isEqualTo(3);
+    }
+
+    private static List<Object[]> filas(EstadoTicket estado, long cantidad) {
+        List<Object[]> filas = new ArrayList<>();
+        filas.add(new Object[] {estado, PrioridadTicket.values()[0], 1L, cantidad});
+        return filas;
+    }
+
+    private static InstantaneaTicket instantanea(EstadoTicket estado) {
+        return new InstantaneaTicket(10L, estado, PrioridadTicket.values()[0], 1L, null, 2L, null, null, null);
+    }
+}
@@ -0,0 +1,80 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.events.InstantaneaTicket;
+import com.tickets.backend.events.TicketModificadoEvent;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Carga por técnico: la reconciliación no pierde eventos concurrentes y los técnicos
+ * homónimos no se mezclan
+ */
+class EstadisticasTecnicosServiceTest {
+
+    private EstadisticasTecnicosService estadisticas;
+    private TicketRepository ticketRepository;
+
+    @BeforeEach
+    void preparar() {
+        estadisticas = new EstadisticasTecnicosService();
+        ticketRepository = mock(TicketRepository.class);
+        ReflectionTestUtils.setField(estadisticas, "ticketRepository", ticketRepository);
+        ReflectionTestUtils.setField(estadisticas, "usuarioRepository", mock(UsuarioRepository.class));
+        ReflectionTestUtils.setField(estadisticas, "diasVentana", 90);
+        when(ticketRepository.findResolucionesDesde(any())).thenReturn(List.of());
+    }
+
+    @Test
+    void losTecnicosHomonimosSeCuentanPorSeparado() {
+        when(ticketRepository.contarPorTecnicoYEstado()).thenReturn(filas(
+                new Object[] {1L, "Ana", "Pérez", EstadoTicket.ASIGNADO, 2L},
+                new Object[] {2L, "Ana", "Pérez", EstadoTicket.EN_PROGRESO, 3L}));
+
+        Map<Long, Map<String, Object>> porTecnico = estadisticas.contarAbiertosPorTecnico();
+
+        assertThat(porTecnico).containsOnlyKeys(1L, 2L);
+        assertThat(porTecnico.get(1L)).containsEntry("nombre", "Ana Pérez").containsEntry("abiertos", 2L);
+        assertThat(porTecnico.get(2L)).containsEntry("nombre", "Ana Pérez").containsEntry("abiertos", 3L);
+    }
+
+    @Test
+    void unEventoDuranteLaLecturaSobreviveAlReemplazo() {
+        when(ticketRepository.contarPorTecnicoYEstado()).thenReturn(filas(
+                new Object[] {1L, "Ana", "Pérez", EstadoTicket.ASIGNADO, 2L}));
+        estadisticas.reconciliar();
+
+        // La lectura no ve la reasignación (se confirma después) y el evento llega mientras tanto
+        when(ticketRepository.contarPorTecnicoYEstado()).thenAnswer(invocacion -> {
+            estadisticas.alModificarTicket(new TicketModificadoEvent(
+                    instantanea(1L, EstadoTicket.ASIGNADO), instantanea(2L, EstadoTicket.ASIGNADO)));
+            return filas(new Object[] {1L, "Ana", "Pérez", EstadoTicket.ASIGNADO, 2L});
+        });
+        estadisticas.reconciliar();
+
+        Map<Long, Map<String, Object>> porTecnico = estadisticas.contarAbiertosPorTecnico();
+        assertThat(porTecnico.get(1L)).containsEntry("abiertos", 1L);
+        assertThat(porTecnico.get(2L)).containsEntry("abiertos", 1L);
+    }
+
+    private static List<Object[]> filas(Object[]... filas) {
+        return new ArrayList<>(List.of(filas));
+    }
+
+    private static InstantaneaTicket instantanea(Long tecnicoId, EstadoTicket estado) {
+        return new InstantaneaTicket(10L, estado, PrioridadTicket.values()[0], 1L, tecnicoId, 3L, null, null, null);
+    }
+}
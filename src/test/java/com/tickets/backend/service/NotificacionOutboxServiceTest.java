@@ -0,0 +1,193 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.Categoria;
+import com.tickets.backend.models.EstadoNotificacion;
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.NotificacionPendiente;
+import com.tickets.backend.models.PrioridadTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.TipoNotificacion;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.CategoriaRepository;
+import com.tickets.backend.repository.NotificacionPendienteRepository;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox de notificaciones con un JavaMailSender simulado: la fila sigue a la transacción
+ * del llamador y el envío ocurre solo después del commit, con reintentos ante fallos
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1",
+    // Barrido a mano y reintentos inmediatos
+    "app.notificaciones.intervalo-barrido-ms=3600000",
+    "app.notificaciones.backoff-segundos=0",
+    "app.notificaciones.max-intentos=2"
+})
+@ActiveProfiles("test")
+class NotificacionOutboxServiceTest {
+
+    private static final long ESPERA_MS = 5000;
+
+    @MockitoBean
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private NotificacionOutboxService outbox;
+
+    @Autowired
+    private NotificacionPendienteRepository notificacionRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaccion;
+    private Ticket ticket;
+
+    @BeforeEach
+    void preparar() {
+        reset(mailSender);
+        when(mailSender.createMimeMessage()).thenAnswer(invocacion -> new MimeMessage((Session) null));
+        transaccion = new TransactionTemplate(transactionManager);
+        ticket = transaccion.execute(status -> {
+            Usuario creador = new Usuario();
+            creador.setNombre("Nombre");
+            creador.setApellido("Apellido");
+            creador.setEmail(UUID.randomUUID() + "@outbox.cl");
+            creador.setPassword("x");
+            creador.setActivo(true);
+            creador = usuarioRepository.save(creador);
+            Categoria categoria = new Categoria();
+            categoria.setNombre("Impresoras " + creador.getId());
+            categoria = categoriaRepository.save(categoria);
+
+            Ticket nuevo = new Ticket();
+            nuevo.setNumeroTicket("TK-O" + UUID.randomUUID().toString().substring(0, 8));
+            nuevo.setTitulo("Impresora atascada");
+            nuevo.setDescripcion("No imprime");
+            nuevo.setEstado(EstadoTicket.NUEVO);
+            nuevo.setPrioridad(PrioridadTicket.values()[0]);
+            nuevo.setCategoria(categoria);
+            nuevo.setUsuarioCreador(creador);
+            nuevo.setFechaCreacion(LocalDateTime.now());
+            return ticketRepository.save(nuevo);
+        });
+    }
+
+    @Test
+    void laNotificacionRevertidaConElLlamadorNoQuedaNiSeEnvia() {
+        long antes = notificacionRepository.count();
+
+        transaccion.executeWithoutResult(status -> {
+            outbox.registrar(TipoNotificacion.TICKET_CREADO, ticket);
+            status.setRollbackOnly();
+        });
+
+        assertThat(notificacionRepository.count()).isEqualTo(antes);
+        verify(mailSender, timeout(500).times(0)).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void seEnviaUnaVezDespuesDelCommit() throws InterruptedException {
+        Long id = transaccion.execute(status -> {
+            outbox.registrar(TipoNotificacion.TICKET_CREADO, ticket);
+            // Antes del commit no se habla con el servidor de correo
+            verify(mailSender, never()).send(any(MimeMessage.class));
+            return ultimaNotificacion();
+        });
+
+        verify(mailSender, timeout(ESPERA_MS)).send(any(MimeMessage.class));
+        NotificacionPendiente notificacion = esperarEstado(id, EstadoNotificacion.ENVIADA);
+        assertThat(notificacion.getIntentos()).isZero();
+        assertThat(notificacion.getFechaEnvio()).isNotNull();
+
+        // Un barrido posterior no la vuelve a enviar
+        outbox.barrerPendientes();
+        verify(mailSender, timeout(500).times(1)).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void unFalloSeReintentaHastaQuedarFallida() throws InterruptedException {
+        doThrow(new MailSendException("SMTP no disponible")).when(mailSender).send(any(MimeMessage.class));
+
+        Long id = transaccion.execute(status -> {
+            outbox.registrar(TipoNotificacion.TICKET_CREADO, ticket);
+            return ultimaNotificacion();
+        });
+
+        verify(mailSender, timeout(ESPERA_MS)).send(any(MimeMessage.class));
+        NotificacionPendiente primerIntento = esperarIntentos(id, 1);
+        assertThat(primerIntento.getEstado()).isEqualTo(EstadoNotificacion.PENDIENTE);
+        assertThat(primerIntento.getUltimoError()).contains("SMTP no disponible");
+
+        outbox.barrerPendientes();
+
+        verify(mailSender, timeout(ESPERA_MS).times(2)).send(any(MimeMessage.class));
+        NotificacionPendiente descartada = esperarEstado(id, EstadoNotificacion.FALLIDA);
+        assertThat(descartada.getIntentos()).isEqualTo(2);
+    }
+
+    private Long ultimaNotificacion() {
+        return notificacionRepository.findAll().stream()
+                .filter(n -> n.getTicketId().equals(ticket.getId()))
+                .map(NotificacionPendiente::getId)
+                .reduce((primera, segunda) -> segunda)
+                .orElseThrow();
+    }
+
+    private NotificacionPendiente esperarEstado(Long id, EstadoNotificacion estado) throws InterruptedException {
+        return esperar(id, n -> n.getEstado() == estado);
+    }
+
+    private NotificacionPendiente esperarIntentos(Long id, int intentos) throws InterruptedException {
+        return esperar(id, n -> n.getIntentos() == intentos && n.getEstado() != EstadoNotificacion.EN_PROCESO);
+    }
+
+    // El envío corre en el pool de notificaciones: se consulta la fila hasta que llega al estado
+    private NotificacionPendiente esperar(Long id, Predicate<NotificacionPendiente> condicion)
+            throws InterruptedException {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        NotificacionPendiente notificacion = notificacionRepository.findById(id).orElseThrow();
+        while (!condicion.test(notificacion) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            notificacion = notificacionRepository.findById(id).orElseThrow();
+        }
+        assertThat(condicion.test(notificacion)).as("notificación %s: %s", id, notificacion).isTrue();
+        return notificacion;
+    }
+}
@@ -0,0 +1,86 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * El cambio de estado de un ticket sigue las reglas y fechas de MaquinaEstadosTicket, igual que
+ * el cambio masivo
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:ticketservice;MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1"
+})
+@ActiveProfiles("test")
+class TicketServiceTest {
+
+    private static final String EMAIL = "soporte@ticketservice.cl";
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @BeforeEach
+    void sembrar() {
+        if (usuarioRepository.findByEmail(EMAIL).isEmpty()) {
+            Usuario usuario = new Usuario();
+            usuario.setNombre("Soporte");
+            usuario.setApellido("Técnico");
+            usuario.setEmail(EMAIL);
+            usuario.setPassword("x");
+            usuario.setActivo(true);
+            usuarioRepository.save(usuario);
+        }
+    }
+
+    @Test
+    void rechazaLasTransicionesQueLaMaquinaNoPermite() {
+        Long nuevo = ticket(EstadoTicket.NUEVO);
+        Long cerrado = ticket(EstadoTicket.CERRADO);
+
+        assertThatThrownBy(() -> ticketService.cambiarEstado(nuevo, EstadoTicket.RESUELTO, EMAIL))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ticketService.cambiarEstado(cerrado, EstadoTicket.EN_PROGRESO, EMAIL))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(ticketRepository.findById(nuevo).orElseThrow().getEstado()).isEqualTo(EstadoTicket.NUEVO);
+        assertThat(ticketRepository.findById(cerrado).orElseThrow().getEstado()).isEqualTo(EstadoTicket.CERRADO);
+    }
+
+    @Test
+    void cerrarSinResolverFijaAmbasFechas() {
+        Long id = ticket(EstadoTicket.EN_PROGRESO);
+
+        Ticket cerrado = ticketService.cambiarEstado(id, EstadoTicket.CERRADO, EMAIL);
+
+        assertThat(cerrado.getEstado()).isEqualTo(EstadoTicket.CERRADO);
+        assertThat(cerrado.getFechaResolucion()).isNotNull();
+        assertThat(cerrado.getFechaCierre()).isNotNull();
+    }
+
+    private Long ticket(EstadoTicket estado) {
+        Ticket ticket = new Ticket();
+        ticket.setNumeroTicket("TK-S" + System.nanoTime());
+        ticket.setTitulo("Equipo sin red");
+        ticket.setDescripcion("Detalle");
+        ticket.setEstado(estado);
+        ticket.setFechaCreacion(LocalDateTime.now());
+        return ticketRepository.save(ticket).getId();
+    }
+}
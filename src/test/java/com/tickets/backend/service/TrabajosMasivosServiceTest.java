@@ -0,0 +1,140 @@
+package com.tickets.backend.service;
+
+import com.tickets.backend.models.EstadoTicket;
+import com.tickets.backend.models.EstadoTrabajoMasivo;
+import com.tickets.backend.models.TipoTrabajoMasivo;
+import com.tickets.backend.models.Ticket;
+import com.tickets.backend.models.TrabajoMasivo;
+import com.tickets.backend.models.Usuario;
+import com.tickets.backend.repository.TicketRepository;
+import com.tickets.backend.repository.TrabajoMasivoRepository;
+import com.tickets.backend.repository.UsuarioRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Un trabajo retomado tras un reinicio sigue desde el primer ticket sin confirmar, aunque el
+ * tamaño de lote haya cambiado desde el envío
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:trabajos;MODE=MSSQLServer;DATABASE_TO_UPPER=false;DB_CLOSE_DELAY=-1",
+    // El trabajo se procesa a mano
+    "app.trabajos.intervalo-barrido-ms=3600000",
+    "app.masivo.tamano-lote=2"
+})
+@ActiveProfiles("test")
+class TrabajosMasivosServiceTest {
+
+    private static final String ADMIN = "admin@trabajos.cl";
+    private static final int TAMANO_LOTE_ENVIO = 2;
+
+    @Autowired
+    private TrabajosMasivosService trabajosMasivosService;
+
+    @Autowired
+    private OperacionesMasivasService operacionesMasivasService;
+
+    @Autowired
+    private TrabajoMasivoRepository trabajoRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private Usuario tecnico;
+    private final List<Long> ticketIds = new ArrayList<>();
+
+    @BeforeEach
+    void sembrar() {
+        if (usuarioRepository.findByEmail(ADMIN).isEmpty()) {
+            usuarioRepository.save(usuario(ADMIN));
+        }
+        tecnico = usuarioRepository.save(usuario("tecnico" + System.nanoTime() + "@trabajos.cl"));
+        for (int i = 0; i < 7; i++) {
+            Ticket ticket = new Ticket();
+            ticket.setNumeroTicket("TK-T" + System.nanoTime());
+            ticket.setTitulo("Ticket " + i);
+            ticket.setDescripcion("Detalle");
+            ticket.setEstado(EstadoTicket.NUEVO);
+            ticket.setFechaCreacion(LocalDateTime.now());
+            ticketIds.add(ticketRepository.save(ticket).getId());
+        }
+    }
+
+    @AfterEach
+    void restaurar() {
+        ReflectionTestUtils.setField(operacionesMasivasService, "tamanoLote", TAMANO_LOTE_ENVIO);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3, 1000})
+    void alRetomarConOtroTamanoDeLoteNoSeSaltaNiRepiteTickets(int tamanoLoteNuevo) {
+        // Enviado con lotes de 2 (con un ID repetido) y cortado tras el primer lote confirmado
+        List<Long> enviados = new ArrayList<>(ticketIds);
+        enviados.add(1, ticketIds.get(0));
+        TrabajoMasivo trabajo = trabajoInterrumpido(enviados, TAMANO_LOTE_ENVIO, 1);
+        ReflectionTestUtils.setField(operacionesMasivasService, "tamanoLote", tamanoLoteNuevo);
+
+        TrabajosMasivosService servicio = AopTestUtils.getTargetObject(trabajosMasivosService);
+        servicio.procesar(trabajo.getId());
+
+        TrabajoMasivo terminado = trabajoRepository.findById(trabajo.getId()).orElseThrow();
+        int restantes = ticketIds.size() - TAMANO_LOTE_ENVIO;
+        assertThat(terminado.getEstado()).isEqualTo(EstadoTrabajoMasivo.COMPLETADO);
+        assertThat(terminado.getProcesados()).isEqualTo(ticketIds.size());
+        assertThat(terminado.getActualizados()).isEqualTo(restantes);
+        assertThat(terminado.getLotesCompletados()).isEqualTo(terminado.getTotalLotes())
+                .isEqualTo(1 + (restantes + tamanoLoteNuevo - 1) / tamanoLoteNuevo);
+
+        // Los del lote ya confirmado no se vuelven a tocar; todos los demás quedan asignados
+        List<Long> asignados = ticketRepository.findAllById(ticketIds).stream()
+                .filter(ticket -> ticket.getTecnicoAsignado() != null)
+                .map(Ticket::getId).sorted().collect(Collectors.toList());
+        assertThat(asignados).containsExactlyElementsOf(ticketIds.subList(TAMANO_LOTE_ENVIO, ticketIds.size()));
+    }
+
+    private TrabajoMasivo trabajoInterrumpido(List<Long> enviados, int tamanoLote, int lotesConfirmados) {
+        LocalDateTime ahora = LocalDateTime.now();
+        TrabajoMasivo trabajo = new TrabajoMasivo();
+        trabajo.setTipo(TipoTrabajoMasivo.ASIGNACION);
+        trabajo.setEstado(EstadoTrabajoMasivo.PENDIENTE);
+        trabajo.setUsuarioEmail(ADMIN);
+        trabajo.setTecnicoId(tecnico.getId());
+        trabajo.setTicketIds(enviados.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        trabajo.setTotal(ticketIds.size());
+        trabajo.setTotalLotes((ticketIds.size() + tamanoLote - 1) / tamanoLote);
+        trabajo.setLotesCompletados(lotesConfirmados);
+        trabajo.setProcesados(lotesConfirmados * tamanoLote);
+        trabajo.setSinCambios(lotesConfirmados * tamanoLote);
+        trabajo.setFechaCreacion(ahora);
+        trabajo.setFechaInicio(ahora);
+        trabajo.setFechaActualizacion(ahora);
+        return trabajoRepository.save(trabajo);
+    }
+
+    private static Usuario usuario(String email) {
+        Usuario usuario = new Usuario();
+        usuario.setNombre("Nombre");
+        usuario.setApellido("Apellido");
+        usuario.setEmail(email);
+        usuario.setPassword("x");
+        usuario.setActivo(true);
+        return usuario;
+    }
+}